@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# 기동 ~ 첫 이체 성공 시간 비교 (각 구성을 N번 실행해서 중앙값)
+#
+#   scripts/startup/measure-first-transfer.sh [실행 횟수, 기본 5]
+#
+# 구성
+#   baseline : dev 프로필 (DDL 생성, 즉시 초기화, SQL 로그)
+#   fast     : fast-startup 프로필 (지연 초기화, 미리 만든 스키마)
+#   fast+cds : + 학습 실행으로 만든 CDS 아카이브
+#   fast+cds+aot : + Spring AOT (빌드 시 processAot로 생성한 빈 정의)
+#                  빈 등록 조건(learning-tx.*.enabled, l2cache 프로필)은 빌드 때 fast-startup 값으로 고정됨
+#                  -> 이 구성에는 그런 스위치를 실행 인자로 넘기지 말 것 (application-fast-startup.yml 참고)
+#
+# CDS 아카이브: 추출한 jar로 컨텍스트 refresh까지만 실행(-Dspring.context.exit=onRefresh)하면서
+#               로드된 클래스를 -XX:ArchiveClassesAtExit 으로 저장
+set -euo pipefail
+
+RUNS="${1:-5}"
+ROOT="$(cd "$(dirname "$0")/../.." && pwd)"
+WORK="$ROOT/build/startup"
+
+cd "$ROOT"
+./gradlew -q bootJar
+JAR="$(ls build/libs/*.jar | grep -v -- '-plain' | head -n 1)"
+
+rm -rf "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK" > /dev/null
+APP="$WORK/$(basename "$JAR")"
+
+PROBE_ARGS=(--server.port=0 --learning-tx.startup-probe.enabled=true --learning-tx.startup-probe.exit-after-probe=true)
+
+echo "CDS 학습 실행..."
+java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.context.exit=onRefresh \
+    -jar "$APP" --spring.profiles.active=fast-startup > /dev/null 2>&1
+
+# $1: 구성 이름, 나머지: JVM 옵션 + 프로필
+measure() {
+    local label="$1" profile="$2"
+    shift 2
+    local ready=() transfer=()
+    for ((i = 1; i <= RUNS; i++)); do
+        local line
+        line="$(java "$@" -jar "$APP" --spring.profiles.active="$profile" "${PROBE_ARGS[@]}" 2>&1 | grep -m 1 'STARTUP_PROBE' || true)"
+        if [[ -z "$line" ]]; then
+            echo "$label: 측정 실패 (STARTUP_PROBE 로그 없음)" >&2
+            return 1
+        fi
+        ready+=("$(sed -E 's/.*ready=([0-9]+)ms.*/\1/' <<< "$line")")
+        transfer+=("$(sed -E 's/.*firstTransfer=([0-9]+)ms.*/\1/' <<< "$line")")
+    done
+    printf '%-14s ready(median)=%6sms  firstTransfer(median)=%6sms\n' "$label" \
+        "$(printf '%s\n' "${ready[@]}" | sort -n | sed -n "$(((RUNS + 1) / 2))p")" \
+        "$(printf '%s\n' "${transfer[@]}" | sort -n | sed -n "$(((RUNS + 1) / 2))p")"
+}
+
+measure "baseline" "dev"
+measure "fast" "fast-startup"
+measure "fast+cds" "fast-startup" -XX:SharedArchiveFile="$WORK/app.jsa"
+measure "fast+cds+aot" "fast-startup" -XX:SharedArchiveFile="$WORK/app.jsa" -Dspring.aot.enabled=true
@@ -2,10 +2,15 @@ package com.test.learningtx;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
-@SpringBootApplication
+// R2DBC 자동 설정 제외: ConnectionFactory 빈이 생기면 JDBC DataSource 자동 설정이 빠짐 (ReactiveConfig 참고)
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 @EnableTransactionManagement
+@EnableScheduling
 public class LearningTxApplication {
 
     public static void main(String[] args) {
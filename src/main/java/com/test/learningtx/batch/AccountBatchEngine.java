@@ -0,0 +1,338 @@
+package com.test.learningtx.batch;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.lock.AccountLockManager;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import com.test.learningtx.support.TxTimestamp;
+import com.test.learningtx.txlog.TxLogStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 계좌 전체 배치 엔진 (월말 이자, 수수료 등)
+ *
+ * findAll 한 번 + 큰 트랜잭션 하나의 문제
+ *  - 모든 계좌가 메모리(영속성 컨텍스트)에 올라가고, 끝날 때까지 전 계좌의 락을 쥠
+ *  - 중간에 죽으면 처음부터 다시 (이미 지급한 이자를 구분할 수 없음)
+ *
+ * 여기서는
+ *  1. 시작 시 accounts의 id 구간 [MIN, MAX]를 chunkSize 단위 청크로 나누고 실행 정보를 batch_runs에 저장
+ *  2. concurrency개의 워커가 공유 커서에서 다음 청크 번호를 가져가 처리 (id가 듬성한 구간이 있어도 워커가 놀지 않음)
+ *  3. 청크 하나 = 짧은 트랜잭션 하나: 계좌 id 락(이체와 같은 순서) -> 행 락 조회 -> apply -> 체크포인트 INSERT
+ *     > 계좌 변경과 체크포인트가 함께 커밋되므로 청크는 정확히 한 번 반영됨
+ *     > apply로 잔액이 바뀐 계좌는 증감에 따라 DEPOSIT / FEE 감사 로그도 같은 트랜잭션에서 기록
+ *       (차감을 WITHDRAW로 남기면 재시작 시 출금 한도 카운터에 고객 출금으로 다시 잡힘)
+ *  4. 일시적 실패(TransientDataAccessException: 락 타임아웃, version 충돌)로 롤백된 청크는 지터 백오프 후 재시도
+ *     > 그 밖의 예외, 재시도 소진, 제한 시간(runTimeout) 초과는 배치 중단 -> 예외
+ *     > 중단되면 진행 중인 청크는 체크포인트 직전에 실패 여부를 보고 롤백, run()은 워커가 모두 끝난 뒤에 반환
+ *  5. 같은 (작업 이름, runKey)로 다시 실행하면 체크포인트가 없는 청크만 처리
+ *
+ * 주의
+ *  - 실행 시작 후 생성된 계좌(MAX id 이후)는 그 실행에 포함되지 않음
+ *  - 자바 17 기준이라 가상 스레드 대신 고정 크기 워커 풀 (어차피 동시 청크 수는 커넥션 수로 제한해야 함)
+ */
+@Slf4j
+public class AccountBatchEngine {
+
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+
+    private static final String SELECT_RUN_SQL = """
+            SELECT id, status, min_id, max_id, chunk_size, chunk_count FROM batch_runs
+            WHERE job_name = ? AND run_key = ?
+            """;
+    private static final String INSERT_RUN_SQL = """
+            INSERT INTO batch_runs (job_name, run_key, status, min_id, max_id, chunk_size, chunk_count, started_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String COMPLETE_RUN_SQL = "UPDATE batch_runs SET status = ?, finished_at = ? WHERE id = ?";
+    private static final String SELECT_DONE_CHUNKS_SQL = "SELECT chunk_index FROM batch_chunks WHERE run_id = ?";
+    private static final String COUNT_DONE_CHUNKS_SQL = "SELECT COUNT(*) FROM batch_chunks WHERE run_id = ?";
+    private static final String INSERT_CHUNK_SQL = """
+            INSERT INTO batch_chunks (run_id, chunk_index, processed, finished_at) VALUES (?, ?, ?, ?)
+            """;
+    private static final String SELECT_IDS_SQL = "SELECT id FROM accounts WHERE id BETWEEN ? AND ? ORDER BY id";
+
+    private static final RowMapper<RunState> RUN_MAPPER = (rs, rowNum) -> new RunState(
+            rs.getLong("id"),
+            rs.getString("status"),
+            rs.getLong("min_id"),
+            rs.getLong("max_id"),
+            rs.getInt("chunk_size"),
+            rs.getLong("chunk_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountRepository accountRepository;
+    private final AccountLockManager accountLockManager;
+    private final TxLogStore txLogStore;
+    private final BatchProperties properties;
+
+    public AccountBatchEngine(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              AccountRepository accountRepository, AccountLockManager accountLockManager,
+                              TxLogStore txLogStore, BatchProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.accountRepository = accountRepository;
+        this.accountLockManager = accountLockManager;
+        this.txLogStore = txLogStore;
+        this.properties = properties;
+    }
+
+    /**
+     * 배치 실행 (이미 끝난 실행이면 아무것도 하지 않음, 중단된 실행이면 남은 청크만)
+     *
+     * @param runKey 실행 구분 키 (예: 월말 이자면 "2026-10") -> 같은 키로 두 번 지급되지 않음
+     * @throws RuntimeException 청크 처리 실패 시 첫 번째 예외 (제한 시간 초과면 IllegalStateException).
+     *                          그 전까지 커밋된 청크는 다음 실행에서 건너뜀
+     */
+    public BatchRunResult run(AccountBatchJob job, String runKey) {
+        if (properties.getConcurrency() <= 0 || properties.getChunkSize() <= 0) {
+            throw new IllegalArgumentException("concurrency, chunkSize는 0보다 커야 합니다.");
+        }
+
+        long startNanos = System.nanoTime();
+        RunState run = startOrResume(job.name(), runKey);
+        if (run.completed()) {
+            log.info("이미 완료된 배치: job={}, key={}", job.name(), runKey);
+            return new BatchRunResult(run.id(), job.name(), runKey, run.chunkCount(), run.chunkCount(), 0, 0,
+                    Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+
+        Set<Long> done = new HashSet<>(jdbcTemplate.queryForList(SELECT_DONE_CHUNKS_SQL, Long.class, run.id()));
+        long remaining = run.chunkCount() - done.size();
+        int workers = (int) Math.max(1, Math.min(properties.getConcurrency(), remaining));
+        log.info("=== 배치 시작: job={}, key={}, id {} ~ {}, 청크 {}개 (완료 {}개), 워커 {}개 ===",
+                job.name(), runKey, run.minId(), run.maxId(), run.chunkCount(), done.size(), workers);
+
+        AtomicLong cursor = new AtomicLong();
+        AtomicLong processedChunks = new AtomicLong();
+        AtomicLong processedAccounts = new AtomicLong();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers, threadFactory(job.name()));
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> {
+                long index;
+                while (failure.get() == null && (index = cursor.getAndIncrement()) < run.chunkCount()) {
+                    if (done.contains(index)) {
+                        continue;
+                    }
+                    try {
+                        Integer processed = processChunkWithRetry(job, run, index, failure);
+                        if (processed != null) {
+                            processedChunks.incrementAndGet();
+                            processedAccounts.addAndGet(processed);
+                        }
+                        pause();
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+        }
+        if (!awaitTermination(executor, properties.getRunTimeout())) {
+            // 남은 워커가 다음 청크를 집거나 진행 중인 청크를 커밋하지 않도록 실패를 먼저 기록하고 인터럽트
+            failure.compareAndSet(null, new IllegalStateException(
+                    "배치가 제한 시간(" + properties.getRunTimeout() + ") 안에 끝나지 않음: job=" + job.name()));
+            executor.shutdownNow();
+            // 반환 뒤에 워커가 청크를 커밋하지 않도록 롤백까지 기다림 (JDBC 락 대기는 인터럽트로 풀리지 않음)
+            if (!awaitStopped(executor, properties.getShutdownGrace())) {
+                log.warn("⚠️ 제한 시간 초과 후 {} 안에 워커가 끝나지 않음: job={}", properties.getShutdownGrace(), job.name());
+            }
+        }
+
+        BatchRunResult result = new BatchRunResult(run.id(), job.name(), runKey, run.chunkCount(), done.size(),
+                processedChunks.get(), processedAccounts.get(), Duration.ofNanos(System.nanoTime() - startNanos));
+        if (failure.get() != null) {
+            log.error("❌ 배치 중단 (다시 실행하면 남은 청크부터): {}", result);
+            throw failure.get();
+        }
+
+        completeIfAllChunksDone(run);
+        log.info("=== 배치 완료: {} ===", result);
+        return result;
+    }
+
+    /**
+     * 일시적 실패로 롤백된 청크는 지터 백오프 후 같은 청크를 새 트랜잭션으로 다시 처리
+     * (롤백됐으므로 apply가 두 번 반영되지 않음)
+     */
+    private Integer processChunkWithRetry(AccountBatchJob job, RunState run, long index,
+                                          AtomicReference<RuntimeException> failure) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return processChunk(job, run, index, failure);
+            } catch (TransientDataAccessException e) {
+                if (attempt > properties.getMaxChunkRetries() || failure.get() != null) {
+                    throw e;
+                }
+                long backoff = backoffMillis(attempt);
+                log.warn("청크 일시적 실패, {}ms 후 재시도 ({}/{}): run={}, chunk={}, {}",
+                        backoff, attempt, properties.getMaxChunkRetries(), run.id(), index, e.getMessage());
+                sleep(backoff);
+            }
+        }
+    }
+
+    /**
+     * 청크 하나를 한 트랜잭션으로 처리
+     * 체크포인트를 쓰기 직전에 배치가 이미 중단됐으면(다른 워커 실패, 제한 시간 초과) 롤백
+     *
+     * @return 처리한 계좌 수, 다른 실행이 먼저 커밋한 청크면 null
+     */
+    private Integer processChunk(AccountBatchJob job, RunState run, long index,
+                                 AtomicReference<RuntimeException> failure) {
+        long fromId = run.minId() + index * run.chunkSize();
+        long toId = Math.min(fromId + run.chunkSize() - 1, run.maxId());
+        try {
+            return transactionTemplate.execute(status -> {
+                List<Long> ids = jdbcTemplate.queryForList(SELECT_IDS_SQL, Long.class, fromId, toId);
+                if (!ids.isEmpty()) {
+                    // 이체와 같은 규칙(계좌 id 락 -> 행 락, id 오름차순)으로 잠가서 온라인 이체와 교착/갱신 유실이 없음
+                    accountLockManager.lockAccounts(ids);
+                    LocalDateTime now = TxTimestamp.now();
+                    for (Account account : accountRepository.findAllByIdInWithLock(ids)) {
+                        BigDecimal before = account.getBalance();
+                        job.apply(account);
+                        audit(job, account.getId(), account.getBalance().subtract(before), now);
+                    }
+                }
+                if (failure.get() != null) {
+                    throw new IllegalStateException("배치 중단, 청크 롤백: run=" + run.id() + ", chunk=" + index);
+                }
+                jdbcTemplate.update(INSERT_CHUNK_SQL, run.id(), index, ids.size(), Timestamp.valueOf(LocalDateTime.now()));
+                return ids.size();
+            });
+        } catch (DuplicateKeyException e) {
+            log.debug("다른 실행이 먼저 처리한 청크: run={}, chunk={}", run.id(), index);
+            return null;
+        }
+    }
+
+    private void audit(AccountBatchJob job, Long accountId, BigDecimal delta, LocalDateTime now) {
+        int sign = delta.signum();
+        if (sign > 0) {
+            txLogStore.append(AccountService.DEPOSIT, accountId, "배치 " + job.name(), delta, now);
+        } else if (sign < 0) {
+            txLogStore.append(AccountService.FEE, accountId, "배치 " + job.name(), delta.negate(), now);
+        }
+    }
+
+    private RunState startOrResume(String jobName, String runKey) {
+        RunState existing = findRun(jobName, runKey);
+        if (existing != null) {
+            return existing;
+        }
+
+        long[] range = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM accounts", (rs, rowNum) -> {
+            long min = rs.getLong(1);
+            return rs.wasNull() ? new long[]{1, 0} : new long[]{min, rs.getLong(2)};
+        });
+        Objects.requireNonNull(range);
+        int chunkSize = properties.getChunkSize();
+        long chunkCount = range[1] < range[0] ? 0 : (range[1] - range[0]) / chunkSize + 1;
+
+        try {
+            jdbcTemplate.update(INSERT_RUN_SQL, jobName, runKey, RUNNING, range[0], range[1], chunkSize, chunkCount,
+                    Timestamp.valueOf(LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            log.info("다른 노드가 먼저 시작한 배치에 합류: job={}, key={}", jobName, runKey);
+        }
+        return Objects.requireNonNull(findRun(jobName, runKey));
+    }
+
+    private RunState findRun(String jobName, String runKey) {
+        return jdbcTemplate.query(SELECT_RUN_SQL, RUN_MAPPER, jobName, runKey).stream().findFirst().orElse(null);
+    }
+
+    private void completeIfAllChunksDone(RunState run) {
+        Long doneChunks = jdbcTemplate.queryForObject(COUNT_DONE_CHUNKS_SQL, Long.class, run.id());
+        if (doneChunks != null && doneChunks >= run.chunkCount()) {
+            jdbcTemplate.update(COMPLETE_RUN_SQL, COMPLETED, Timestamp.valueOf(LocalDateTime.now()), run.id());
+        }
+    }
+
+    private void pause() {
+        if (properties.getChunkPauseMillis() > 0) {
+            sleep(properties.getChunkPauseMillis());
+        }
+    }
+
+    // 지터 있는 지수 백오프: [base x 2^(attempt-2), base x 2^(attempt-1)] 구간에서 무작위
+    private long backoffMillis(int attempt) {
+        long ceiling = properties.getRetryBackoffMillis() << Math.min(Math.max(attempt - 1, 0), 10);
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("배치 중 인터럽트", e);
+        }
+    }
+
+    private static ThreadFactory threadFactory(String jobName) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> new Thread(runnable, "batch-" + jobName + "-" + sequence.incrementAndGet());
+    }
+
+    /**
+     * @return 제한 시간 안에 모든 워커가 끝났으면 true (시간 초과, 인터럽트면 false -> 호출자가 실패 처리)
+     */
+    private static boolean awaitTermination(ExecutorService executor, Duration timeout) {
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * shutdownNow 이후 워커가 끝나기를 기다림
+     *
+     * @return 기다리는 동안 모두 끝났으면 true
+     */
+    private static boolean awaitStopped(ExecutorService executor, Duration grace) {
+        try {
+            return executor.awaitTermination(grace.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private record RunState(long id, String status, long minId, long maxId, int chunkSize, long chunkCount) {
+
+        boolean completed() {
+            return COMPLETED.equals(status);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.test.learningtx.batch;
+
+import com.test.learningtx.entity.Account;
+
+/**
+ * 계좌 전체 배치 작업 (이자, 수수료 등)
+ *
+ * AccountBatchEngine이 청크 트랜잭션 안에서 계좌 id 락 + 행 락을 잡은 계좌마다 apply()를 호출
+ * -> 엔티티 변경은 커밋 시 Dirty Checking으로 UPDATE (아웃박스/잔액 이력도 평소처럼 기록됨)
+ */
+public interface AccountBatchJob {
+
+    /**
+     * 체크포인트 키의 일부 (같은 이름 + runKey면 같은 실행으로 보고 이어서 처리)
+     */
+    String name();
+
+    void apply(Account account);
+}
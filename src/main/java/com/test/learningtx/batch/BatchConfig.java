@@ -0,0 +1,24 @@
+package com.test.learningtx.batch;
+
+import com.test.learningtx.lock.AccountLockManager;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.txlog.TxLogStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EnableConfigurationProperties(BatchProperties.class)
+public class BatchConfig {
+
+    @Bean
+    public AccountBatchEngine accountBatchEngine(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                                 AccountRepository accountRepository,
+                                                 AccountLockManager accountLockManager, TxLogStore txLogStore,
+                                                 BatchProperties properties) {
+        return new AccountBatchEngine(jdbcTemplate, transactionTemplate, accountRepository, accountLockManager,
+                txLogStore, properties);
+    }
+}
@@ -0,0 +1,40 @@
+package com.test.learningtx.batch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 계좌 전체 배치 설정 (learning-tx.batch.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.batch")
+public class BatchProperties {
+
+    // 동시에 처리하는 청크 수 = 워커 스레드 수
+    //  > 워커마다 커넥션을 1~2개 씀 (H2 advisory 키 행 생성 시 REQUIRES_NEW) -> 풀 크기의 절반 이하로 두어 온라인 요청 몫을 남김
+    private int concurrency = 2;
+
+    // 청크 하나의 id 구간 크기 (= 트랜잭션 하나가 잠그는 계좌 수 상한)
+    private int chunkSize = 200;
+
+    // 워커가 청크 하나를 끝낸 뒤 쉬는 시간 (온라인 트래픽이 많을 때 배치 속도 조절)
+    private long chunkPauseMillis = 0;
+
+    // 청크 트랜잭션이 일시적 실패(락 타임아웃, version 충돌)로 롤백됐을 때 같은 청크 재시도 횟수
+    //  > 온라인 이체와 같은 계좌를 두고 부딪힌 것이므로 잠시 뒤 다시 하면 대부분 성공, 소진하면 배치 중단
+    private int maxChunkRetries = 3;
+
+    // 재시도 간격 기준값: attempt마다 2배, 절반은 무작위 (워커들이 같은 순간에 다시 부딪히지 않도록)
+    private long retryBackoffMillis = 100;
+
+    // 실행 하나의 제한 시간: 넘기면 워커를 중단하고 실패로 끝냄 (커밋된 청크는 다음 실행에서 건너뜀)
+    private Duration runTimeout = Duration.ofHours(1);
+
+    // 제한 시간 초과 후 워커가 진행 중인 청크를 롤백하고 끝나기를 기다리는 시간
+    //  > 인터럽트로 JDBC 락 대기는 풀리지 않으므로 LOCK_TIMEOUT(10초)보다 길게
+    private Duration shutdownGrace = Duration.ofSeconds(30);
+}
@@ -0,0 +1,27 @@
+package com.test.learningtx.batch;
+
+import java.time.Duration;
+
+/**
+ * 배치 실행 결과
+ *
+ * @param resumedChunks   이전 실행(또는 다른 노드)에서 이미 끝나 있던 청크 수
+ * @param processedChunks 이번 실행에서 커밋한 청크 수
+ * @param accounts        이번 실행에서 처리한 계좌 수
+ */
+public record BatchRunResult(long runId, String jobName, String runKey, long chunks, long resumedChunks,
+                             long processedChunks, long accounts, Duration elapsed) {
+
+    public double accountsPerSecond() {
+        long millis = Math.max(1, elapsed.toMillis());
+        return accounts * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchRunResult{run=%d, job=%s, key=%s, chunks=%,d, resumed=%,d, processed=%,d, "
+                        + "accounts=%,d, elapsed=%,dms, accounts/sec=%,.0f}",
+                runId, jobName, runKey, chunks, resumedChunks, processedChunks, accounts, elapsed.toMillis(),
+                accountsPerSecond());
+    }
+}
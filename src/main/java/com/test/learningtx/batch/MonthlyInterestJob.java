@@ -0,0 +1,34 @@
+package com.test.learningtx.batch;
+
+import com.test.learningtx.entity.Account;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 월 이자 지급: 잔액 x 월 이율 (원 단위 미만 버림)
+ */
+public class MonthlyInterestJob implements AccountBatchJob {
+
+    private final BigDecimal monthlyRate;
+
+    public MonthlyInterestJob(BigDecimal monthlyRate) {
+        if (monthlyRate == null || monthlyRate.signum() < 0) {
+            throw new IllegalArgumentException("이율은 0 이상이어야 합니다.");
+        }
+        this.monthlyRate = monthlyRate;
+    }
+
+    @Override
+    public String name() {
+        return "monthly-interest";
+    }
+
+    @Override
+    public void apply(Account account) {
+        BigDecimal interest = account.getBalance().multiply(monthlyRate).setScale(0, RoundingMode.DOWN);
+        if (interest.signum() > 0) {
+            account.deposit(interest);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.test.learningtx.bulk;
+
+import com.test.learningtx.cache.SecondLevelCacheInvalidator;
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.support.DatabasePlatform;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 계좌 대량 적재/추출 (CSV 스트리밍)
+ *
+ * save() 반복 방식의 문제
+ *  - IDENTITY 키: 한 건 INSERT 마다 생성된 id를 받아와야 해서 JDBC 배치 불가
+ *  - 엔티티 생명주기: 영속성 컨텍스트 등록, 콜백, 스냅샷 -> 건수만큼 메모리 증가
+ *
+ * 여기서는
+ *  1. CSV를 한 줄씩 읽어 고정 크기 청크로 자름 (메모리 = 청크 크기 x 동시 청크 수로 고정)
+ *  2. 시작 시점의 MAX(id) 이후로 청크마다 겹치지 않는 id 구간을 미리 할당 -> id를 직접 넣어서 JDBC 배치 INSERT
+ *  3. 청크 단위로 짧은 트랜잭션 + 병렬 실행
+ *  4. 끝나면(실패해도) IDENTITY 시퀀스를 할당한 마지막 id 다음으로 이동
+ *
+ * CSV 형식 (헤더 포함): account_number,name,balance
+ *
+ * 주의
+ *  - 적재 중에는 온라인 계좌 생성이 없어야 함 (IDENTITY로 생성되는 id와 미리 할당한 구간이 겹칠 수 있음)
+ *  - 청크마다 커밋하고 병렬로 실행하므로 중간 실패 시 반영된 청크가 앞에서부터 연속이라는 보장 없음
+ *    -> 실패 로그에 커밋된 id 구간을 남김 (다시 적재할 때는 그 구간의 행을 빼고)
+ *  - JDBC로 직접 넣으므로 끝나면 계좌 2차 캐시 영역과 accounts를 읽은 쿼리 캐시를 무효화 (l2cache 프로필)
+ *  - PostgreSQL은 JDBC URL에 reWriteBatchedInserts=true 를 주면 배치가 multi-row INSERT로 바뀌어 훨씬 빠름
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountBulkLoader {
+
+    public static final int DEFAULT_CHUNK_SIZE = 5_000;
+    public static final int DEFAULT_PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    private static final String HEADER = "account_number,name,balance";
+    private static final String INSERT_SQL = """
+            INSERT INTO accounts (id, account_number, name, balance, version, created_at, updated_at)
+            VALUES (?, ?, ?, ?, 0, ?, ?)
+            """;
+    private static final String SELECT_RANGE_SQL = """
+            SELECT account_number, name, balance FROM accounts
+            WHERE id >= ? AND id < ? ORDER BY id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SecondLevelCacheInvalidator cacheInvalidator;
+
+    public BulkResult importCsv(Reader reader) {
+        return importCsv(reader, DEFAULT_CHUNK_SIZE, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * CSV 적재
+     *
+     * @param chunkSize   청크 하나의 행 수 (= JDBC 배치 크기 = 트랜잭션 크기)
+     * @param parallelism 동시에 적재하는 청크 수 (커넥션 풀 크기보다 작게)
+     */
+    public BulkResult importCsv(Reader reader, int chunkSize, int parallelism) {
+        if (chunkSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("chunkSize, parallelism은 0보다 커야 합니다.");
+        }
+
+        long startNanos = System.nanoTime();
+        long baseId = currentMaxId() + 1;
+        log.info("=== 대량 적재 시작: 시작 id={}, 청크={}, 병렬={} ===", baseId, chunkSize, parallelism);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        // 동시에 메모리에 올라가는 청크 수 제한 -> 입력 크기와 상관없이 메모리 일정
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicLong loadedRows = new AtomicLong();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        List<long[]> loadedRanges = Collections.synchronizedList(new ArrayList<>());
+
+        long chunkIndex = 0;
+        long totalRows = 0;
+        try (BufferedReader in = new BufferedReader(reader)) {
+            String header = in.readLine();
+            if (header == null) {
+                return new BulkResult(0, 0, Duration.ofNanos(System.nanoTime() - startNanos));
+            }
+            if (!HEADER.equalsIgnoreCase(header.trim())) {
+                throw new IllegalArgumentException("CSV 헤더가 올바르지 않습니다. 기대값: " + HEADER);
+            }
+
+            List<String[]> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = in.readLine()) != null && failure.get() == null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(parseLine(line));
+                if (chunk.size() == chunkSize) {
+                    submitChunk(executor, inFlight, failure, loadedRows, loadedRanges, chunk, baseId + chunkIndex * chunkSize);
+                    totalRows += chunk.size();
+                    chunkIndex++;
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty() && failure.get() == null) {
+                submitChunk(executor, inFlight, failure, loadedRows, loadedRanges, chunk, baseId + chunkIndex * chunkSize);
+                totalRows += chunk.size();
+                chunkIndex++;
+            }
+        } catch (IOException e) {
+            failure.compareAndSet(null, new UncheckedIOException("CSV 읽기 실패", e));
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            awaitTermination(executor);
+            // 읽기/파싱 실패여도 이미 넘긴 청크는 커밋됐을 수 있음
+            // -> 제출한 청크가 차지한 [baseId, baseId + totalRows) 다음으로 이동 (실패한 청크의 id는 비워 둠)
+            if (totalRows > 0) {
+                restartIdentity(baseId + totalRows);
+            }
+            if (loadedRows.get() > 0) {
+                cacheInvalidator.evictAll(Account.class);
+            }
+        }
+
+        BulkResult result = new BulkResult(loadedRows.get(), chunkIndex, Duration.ofNanos(System.nanoTime() - startNanos));
+        if (failure.get() != null) {
+            log.error("❌ 대량 적재 실패 (커밋된 행: {}, 커밋된 id 구간: {}, 할당한 id 구간: [{}, {}))",
+                    loadedRows.get(), formatRanges(loadedRanges), baseId, baseId + totalRows);
+            throw failure.get();
+        }
+        log.info("=== 대량 적재 완료: {} ===", result);
+        return result;
+    }
+
+    public BulkResult exportCsv(Writer writer) {
+        return exportCsv(writer, DEFAULT_CHUNK_SIZE, DEFAULT_PARALLELISM);
+    }
+
+    public BulkResult exportCsv(Writer writer, int chunkSize) {
+        return exportCsv(writer, chunkSize, DEFAULT_PARALLELISM);
+    }
+
+    /**
+     * CSV 추출
+     *  - [MIN(id), MAX(id)]를 chunkSize 크기의 겹치지 않는 id 구간으로 나눠 병렬 조회 (구간마다 인덱스 범위 스캔)
+     *  - 호출 스레드가 구간 순서대로 기록 -> 출력은 id 순, 메모리 = 구간 하나의 행 x 동시 구간 수
+     *  - 구간마다 따로 읽으므로 추출 중 바뀐 행은 구간에 따라 전/후 값이 섞일 수 있음 (적재와 마찬가지로 조용한 시간에)
+     *
+     * @param chunkSize   구간 하나의 id 폭 (id에 빈틈이 있으면 실제 행 수는 더 적음)
+     * @param parallelism 동시에 조회하는 구간 수 (커넥션 풀 크기보다 작게)
+     */
+    public BulkResult exportCsv(Writer writer, int chunkSize, int parallelism) {
+        if (chunkSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("chunkSize, parallelism은 0보다 커야 합니다.");
+        }
+
+        long startNanos = System.nanoTime();
+        long rows = 0;
+        long chunks = 0;
+        long[] bounds = idBounds();
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        // 조회가 끝났지만 아직 쓰지 않은 구간 포함, 최대 parallelism개만 메모리에 올라감
+        Deque<Future<ExportChunk>> pending = new ArrayDeque<>(parallelism);
+        try {
+            writer.write(HEADER);
+            writer.write('\n');
+
+            long nextFrom = bounds[0];
+            while (nextFrom <= bounds[1] || !pending.isEmpty()) {
+                while (pending.size() < parallelism && nextFrom <= bounds[1]) {
+                    long from = nextFrom;
+                    long to = from + chunkSize;
+                    pending.add(executor.submit(() -> readChunk(from, to)));
+                    nextFrom = to;
+                }
+                ExportChunk chunk = pending.poll().get();
+                if (chunk.rows() > 0) {
+                    writer.write(chunk.csv());
+                    rows += chunk.rows();
+                    chunks++;
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("CSV 쓰기 실패", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause
+                    ? cause : new IllegalStateException("대량 추출 실패", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("대량 추출 중 인터럽트", e);
+        } finally {
+            pending.forEach(future -> future.cancel(true));
+            executor.shutdownNow();
+        }
+
+        BulkResult result = new BulkResult(rows, chunks, Duration.ofNanos(System.nanoTime() - startNanos));
+        log.info("=== 대량 추출 완료: {} ===", result);
+        return result;
+    }
+
+    private ExportChunk readChunk(long fromId, long toId) {
+        StringBuilder csv = new StringBuilder();
+        int[] rows = new int[1];
+        jdbcTemplate.query(SELECT_RANGE_SQL, rs -> {
+            csv.append(formatField(rs.getString(1))).append(',')
+                    .append(formatField(rs.getString(2))).append(',')
+                    .append(rs.getBigDecimal(3).toPlainString()).append('\n');
+            rows[0]++;
+        }, fromId, toId);
+        return new ExportChunk(csv.toString(), rows[0]);
+    }
+
+    /**
+     * [MIN(id), MAX(id)], 비어 있으면 from > to
+     */
+    private long[] idBounds() {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MIN(id), 1), COALESCE(MAX(id), 0) FROM accounts",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+    }
+
+    private void submitChunk(ExecutorService executor, Semaphore inFlight, AtomicReference<RuntimeException> failure,
+                             AtomicLong loadedRows, List<long[]> loadedRanges, List<String[]> chunk, long firstId) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("대량 적재 중 인터럽트", e);
+        }
+
+        executor.execute(() -> {
+            try {
+                insertChunk(chunk, firstId);
+                loadedRows.addAndGet(chunk.size());
+                loadedRanges.add(new long[]{firstId, firstId + chunk.size()});
+            } catch (RuntimeException e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void insertChunk(List<String[]> chunk, long firstId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batchArgs = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            String[] fields = chunk.get(i);
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("CSV 필드 수가 올바르지 않습니다: " + String.join(",", fields));
+            }
+            String accountNumber = fields[0].isEmpty() ? null : fields[0];
+            batchArgs.add(new Object[]{firstId + i, accountNumber, fields[1], new BigDecimal(fields[2]), now, now});
+        }
+
+        // 청크 하나 = 트랜잭션 하나 = JDBC 배치 하나
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs));
+    }
+
+    private long currentMaxId() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM accounts", Long.class);
+        return Objects.requireNonNullElse(maxId, 0L);
+    }
+
+    private void restartIdentity(long nextId) {
+        if (DatabasePlatform.detect(jdbcTemplate) == DatabasePlatform.POSTGRESQL) {
+            // setval(seq, n): 다음 nextval()은 n + 1
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('accounts', 'id'), ?)", Long.class, nextId - 1);
+        } else {
+            // H2: DDL이라 바인드 파라미터 사용 불가
+            jdbcTemplate.execute("ALTER TABLE accounts ALTER COLUMN id RESTART WITH " + nextId);
+        }
+    }
+
+    /**
+     * 커밋된 청크의 id 구간을 이어지는 것끼리 합쳐서 "[from, to)" 목록으로
+     */
+    static String formatRanges(List<long[]> ranges) {
+        List<long[]> sorted;
+        synchronized (ranges) {
+            sorted = new ArrayList<>(ranges);
+        }
+        sorted.sort(Comparator.comparingLong(range -> range[0]));
+
+        StringJoiner joined = new StringJoiner(", ");
+        long from = -1;
+        long to = -1;
+        for (long[] range : sorted) {
+            if (range[0] == to) {
+                to = range[1];
+                continue;
+            }
+            if (from >= 0) {
+                joined.add("[" + from + ", " + to + ")");
+            }
+            from = range[0];
+            to = range[1];
+        }
+        if (from >= 0) {
+            joined.add("[" + from + ", " + to + ")");
+        }
+        return joined.length() == 0 ? "없음" : joined.toString();
+    }
+
+    private void awaitTermination(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 최소한의 CSV 파싱: 큰따옴표로 감싼 필드와 "" 이스케이프 지원
+     */
+    static String[] parseLine(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields.toArray(String[]::new);
+    }
+
+    static String formatField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private record ExportChunk(String csv, int rows) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.test.learningtx.bulk;
+
+import java.time.Duration;
+
+/**
+ * 대량 적재/추출 결과
+ */
+public record BulkResult(long rows, long chunks, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long millis = Math.max(1, elapsed.toMillis());
+        return rows * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BulkResult{rows=%,d, chunks=%,d, elapsed=%,dms, rows/sec=%,.0f}",
+                rows, chunks, elapsed.toMillis(), rowsPerSecond());
+    }
+}
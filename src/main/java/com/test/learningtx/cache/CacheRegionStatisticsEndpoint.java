@@ -0,0 +1,73 @@
+package com.test.learningtx.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 2차 캐시 영역별 통계 (GET /actuator/cacheregions)
+ *
+ * 캐시 크기 산정용:
+ *  - hitRatio가 낮으면 캐시 효과가 없는 영역 -> 캐시 대상에서 제외 고려
+ *  - elementCountInMemory가 계속 늘면 만료/최대 크기 설정 필요
+ */
+@Component
+@Profile("l2cache")
+@Endpoint(id = "cacheregions")
+@RequiredArgsConstructor
+public class CacheRegionStatisticsEndpoint {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public CacheStatistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<RegionStatistics> regions = new ArrayList<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            regions.add(new RegionStatistics(
+                    regionName,
+                    region.getHitCount(),
+                    region.getMissCount(),
+                    region.getPutCount(),
+                    ratio(region.getHitCount(), region.getMissCount()),
+                    region.getElementCountInMemory()));
+        }
+
+        return new CacheStatistics(
+                statistics.isStatisticsEnabled(),
+                regions,
+                new QueryCacheStatistics(
+                        statistics.getQueryCacheHitCount(),
+                        statistics.getQueryCacheMissCount(),
+                        statistics.getQueryCachePutCount(),
+                        ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount())));
+    }
+
+    private double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    public record CacheStatistics(boolean statisticsEnabled, List<RegionStatistics> regions, QueryCacheStatistics queryCache) {
+    }
+
+    public record RegionStatistics(String region, long hits, long misses, long puts, double hitRatio, long elementCountInMemory) {
+    }
+
+    public record QueryCacheStatistics(long hits, long misses, long puts, double hitRatio) {
+    }
+}
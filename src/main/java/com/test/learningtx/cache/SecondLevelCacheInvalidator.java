@@ -0,0 +1,50 @@
+package com.test.learningtx.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * Hibernate를 거치지 않은 쓰기(R2DBC, JDBC 대량 적재) 후 2차 캐시 정리
+ *
+ * - 엔티티 영역: 바뀐 엔티티만 제거
+ * - 쿼리 캐시: 엔티티 테이블(query space)의 갱신 시각을 올려서 그 테이블을 읽은 캐시 결과를 무효화
+ *   > JPA 경로에서 Hibernate가 커밋 시 하는 것과 같은 처리 (다른 테이블의 쿼리 캐시는 유지)
+ *
+ * 2차 캐시/쿼리 캐시가 꺼져 있으면(l2cache 프로필 아님) 아무것도 하지 않음
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheInvalidator {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evict(Class<?> entityClass, Long id) {
+        entityManagerFactory.getCache().evict(entityClass, id);
+        invalidateQueries(entityClass);
+    }
+
+    public void evictAll(Class<?> entityClass) {
+        entityManagerFactory.getCache().evict(entityClass);
+        invalidateQueries(entityClass);
+    }
+
+    private void invalidateQueries(Class<?> entityClass) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        if (!sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            return;
+        }
+        String[] spaces = Arrays.stream(sessionFactory.getMappingMetamodel()
+                        .getEntityDescriptor(entityClass)
+                        .getQuerySpaces())
+                .map(String::valueOf)
+                .toArray(String[]::new);
+        try (var session = (SharedSessionContractImplementor) sessionFactory.openSession()) {
+            sessionFactory.getCache().getTimestampsCache().invalidate(spaces, session);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.test.learningtx.dto;
+
+import com.test.learningtx.entity.Account;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 조회 전용 계좌 스냅샷 (불변 record)
+ *
+ * 특징:
+ * 1. 엔티티가 아니므로 영속성 컨텍스트에 등록되지 않음
+ * 2. Dirty Checking 용 스냅샷(loaded state 복사본)이 만들어지지 않음
+ * 3. 커밋 시 flush 대상이 아님 -> 읽기 요청에서 불필요한 CPU/메모리 사용 제거
+ */
+public record AccountView(
+        Long id,
+        String accountNumber,
+        String name,
+        BigDecimal balance,
+        Long version,
+        LocalDateTime updatedAt
+) {
+
+    public static AccountView from(Account account) {
+        return new AccountView(account.getId(), account.getAccountNumber(), account.getName(),
+                account.getBalance(), account.getVersion(), account.getUpdatedAt());
+    }
+}
@@ -0,0 +1,19 @@
+package com.test.learningtx.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 멱등성 키로 실행한 요청의 결과
+ *
+ * @param replayed      true면 이미 처리된 키 -> 업무 로직을 다시 실행하지 않고 처음 결과를 돌려줌
+ * @param resultBalance 처음 처리 직후의 잔액 (이체는 출금 계좌 기준)
+ */
+public record IdempotentResult(
+        String idempotencyKey,
+        String operation,
+        BigDecimal resultBalance,
+        LocalDateTime processedAt,
+        boolean replayed
+) {
+}
@@ -0,0 +1,19 @@
+package com.test.learningtx.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * 다중 계좌 이체의 한 구간
+ *  - amount > 0: 입금, amount < 0: 출금
+ *  - 한 이체에 포함된 모든 구간의 합은 0이어야 함
+ */
+public record TransferLeg(Long accountId, BigDecimal amount) {
+
+    public static TransferLeg debit(Long accountId, BigDecimal amount) {
+        return new TransferLeg(accountId, amount.negate());
+    }
+
+    public static TransferLeg credit(Long accountId, BigDecimal amount) {
+        return new TransferLeg(accountId, amount);
+    }
+}
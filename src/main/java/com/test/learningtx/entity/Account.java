@@ -4,12 +4,18 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = @Index(name = "idx_accounts_name", columnList = "name"))  // account_number는 unique 제약이 인덱스 역할
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)    // 2차 캐시 (l2cache 프로필에서만 동작)
+@DynamicUpdate  // 변경된 컬럼만 UPDATE (잔액 변경 시 balance, version, updated_at만 전송)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,7 +37,7 @@ public class Account {
     @Version
     private Long version;
 
-    @Column(name = "created_at")
+    @Column(name = "created_at", updatable = false)
     private LocalDateTime createAt;
 
     @Column(name = "updated_at")
@@ -0,0 +1,53 @@
+package com.test.learningtx.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 계좌 잔액 버전 이력 (account_balance_history)
+ *
+ * - 행 하나 = Account의 @Version 하나 (valid_from부터 다음 버전 전까지의 잔액)
+ * - previous_balance: 직전 잔액 (계좌 생성이면 null) -> 대사 시 버전 사슬을 다시 계산해서 끊김 확인
+ * - (account_id, valid_from, version) 인덱스 -> "시각 T의 잔액"은 인덱스 한 번 탐색 + 첫 행
+ * - 아웃박스 relay가 전달한 이벤트를 배치로 추가만 함 (BalanceHistoryRecorder), 수정/삭제 없음
+ *
+ * 스키마 정의용 매핑: 쓰기/읽기는 JDBC로 처리
+ */
+@Entity
+@Table(name = "account_balance_history",
+        indexes = @Index(name = "idx_balance_history_as_of", columnList = "account_id, valid_from, version"))
+@IdClass(AccountBalanceHistory.Key.class)
+@Getter
+@NoArgsConstructor
+public class AccountBalanceHistory {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Id
+    private Long version;
+
+    @Column(name = "previous_balance", precision = 15, scale = 0)
+    private BigDecimal previousBalance;
+
+    @Column(nullable = false, precision = 15, scale = 0)
+    private BigDecimal balance;
+
+    @Column(name = "valid_from", nullable = false)
+    private LocalDateTime validFrom;
+
+    @Getter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long accountId;
+        private Long version;
+    }
+}
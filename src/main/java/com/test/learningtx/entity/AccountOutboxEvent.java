@@ -0,0 +1,55 @@
+package com.test.learningtx.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 변경 아웃박스 (account_outbox)
+ *
+ * - Account 변경과 같은 트랜잭션에서 INSERT (AccountChangeCapture) -> 롤백되면 이벤트도 없음
+ * - OutboxRelay가 id 순으로 읽어 트랜잭션 구독자에게 전달한 뒤 relay_seq를 매김 (전달 순서)
+ * - 인스턴스마다 OutboxFeed가 relay_seq 순으로 읽어 메모리 구독자에게 전달, retention이 지나면 relay가 삭제
+ *
+ * 스키마 정의용 매핑: 쓰기/읽기는 JDBC 배치로 처리
+ */
+@Entity
+@Table(name = "account_outbox", indexes = {
+        @Index(name = "idx_account_outbox_account_id", columnList = "account_id"),
+        @Index(name = "idx_account_outbox_relay_seq", columnList = "relay_seq"),
+        @Index(name = "idx_account_outbox_relayed_at", columnList = "relayed_at")
+})
+@Getter
+@NoArgsConstructor
+public class AccountOutboxEvent {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "event_type", nullable = false, length = 30)
+    private String eventType;
+
+    @Column(name = "previous_balance", precision = 15, scale = 0)
+    private BigDecimal previousBalance;
+
+    @Column(nullable = false, precision = 15, scale = 0)
+    private BigDecimal balance;
+
+    private Long version;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    // relay 전이면 null
+    @Column(name = "relay_seq")
+    private Long relaySeq;
+
+    @Column(name = "relayed_at")
+    private LocalDateTime relayedAt;
+}
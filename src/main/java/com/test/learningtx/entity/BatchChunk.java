@@ -0,0 +1,47 @@
+package com.test.learningtx.entity;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 배치 청크 체크포인트 (batch_chunks)
+ *
+ * 청크의 계좌 변경과 같은 트랜잭션에서 INSERT -> 행이 있으면 그 청크는 정확히 한 번 반영됨
+ * 두 노드가 같은 청크를 처리하면 PK 충돌로 늦은 쪽이 롤백
+ *
+ * 스키마 정의용 매핑: 쓰기/읽기는 JDBC로 처리 (AccountBatchEngine)
+ */
+@Entity
+@Table(name = "batch_chunks")
+@IdClass(BatchChunk.Key.class)
+@Getter
+@NoArgsConstructor
+public class BatchChunk {
+
+    @Id
+    @Column(name = "run_id")
+    private Long runId;
+
+    @Id
+    @Column(name = "chunk_index")
+    private Long chunkIndex;
+
+    @Column(nullable = false)
+    private Integer processed;
+
+    @Column(name = "finished_at", nullable = false)
+    private LocalDateTime finishedAt;
+
+    @Getter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long runId;
+        private Long chunkIndex;
+    }
+}
@@ -0,0 +1,53 @@
+package com.test.learningtx.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 계좌 전체 배치 실행 (batch_runs)
+ *
+ * - (job_name, run_key) 당 한 행: 같은 월말 이자 작업을 다시 시작하면 새로 만들지 않고 이어서 실행
+ * - 시작 시 정한 id 구간(min_id ~ max_id)과 청크 크기를 저장 -> 재시작해도 청크 경계가 같음
+ *
+ * 스키마 정의용 매핑: 쓰기/읽기는 JDBC로 처리 (AccountBatchEngine)
+ */
+@Entity
+@Table(name = "batch_runs",
+        uniqueConstraints = @UniqueConstraint(name = "uk_batch_runs_job_run_key", columnNames = {"job_name", "run_key"}))
+@Getter
+@NoArgsConstructor
+public class BatchRun {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "run_key", nullable = false, length = 100)
+    private String runKey;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "min_id", nullable = false)
+    private Long minId;
+
+    @Column(name = "max_id", nullable = false)
+    private Long maxId;
+
+    @Column(name = "chunk_size", nullable = false)
+    private Integer chunkSize;
+
+    @Column(name = "chunk_count", nullable = false)
+    private Long chunkCount;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
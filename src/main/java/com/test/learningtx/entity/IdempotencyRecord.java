@@ -0,0 +1,48 @@
+package com.test.learningtx.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 처리 완료된 멱등성 키
+ *
+ * - 키가 PK -> 같은 키로 두 번 커밋하면 유니크 제약 위반
+ * - 업무 처리와 같은 트랜잭션에서 INSERT -> 업무가 롤백되면 키도 남지 않음
+ * - 재요청(replay) 시 처음 결과를 그대로 돌려주기 위해 결과 잔액을 함께 저장
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+@Getter
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    // 직접 할당하는 id -> persist() 시 SELECT 없이 INSERT만 (커밋 시 다른 UPDATE와 함께 flush)
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 30)
+    private String operation;
+
+    // 같은 키로 다른 요청이 들어왔는지 확인하기 위한 요청 지문 (예: "1:2:1000")
+    @Column(name = "request_fingerprint", nullable = false)
+    private String requestFingerprint;
+
+    @Column(name = "result_balance", precision = 15, scale = 0)
+    private BigDecimal resultBalance;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public IdempotencyRecord(String idempotencyKey, String operation, String requestFingerprint, BigDecimal resultBalance) {
+        this.idempotencyKey = idempotencyKey;
+        this.operation = operation;
+        this.requestFingerprint = requestFingerprint;
+        this.resultBalance = resultBalance;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -2,11 +2,15 @@ package com.test.learningtx.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "optimistic_accounts")
+@Table(name = "optimistic_accounts", indexes = @Index(name = "idx_optimistic_accounts_name", columnList = "name"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)    // 2차 캐시 (l2cache 프로필에서만 동작)
 @Getter @Setter
 @Builder
 @RequiredArgsConstructor
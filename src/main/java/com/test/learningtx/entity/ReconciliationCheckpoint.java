@@ -0,0 +1,36 @@
+package com.test.learningtx.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 계좌별 잔액 대사 체크포인트 (reconciliation_checkpoints)
+ *
+ * - 행 하나 = 계좌 하나: 버전 사슬을 검증하고 흐름 대사에 넣은 마지막 이력 (version, balance)
+ * - 다음 대사는 이 버전 이후 이력만 읽고, 첫 이력의 previous_balance가 balance와 이어지는지 확인
+ *
+ * 스키마 정의용 매핑: 쓰기/읽기는 JDBC로 처리 (ReconciliationEngine)
+ */
+@Entity
+@Table(name = "reconciliation_checkpoints")
+@Getter
+@NoArgsConstructor
+public class ReconciliationCheckpoint {
+
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false, precision = 15, scale = 0)
+    private BigDecimal balance;
+
+    @Column(name = "reconciled_at", nullable = false)
+    private LocalDateTime reconciledAt;
+}
@@ -0,0 +1,41 @@
+package com.test.learningtx.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 대사 실행 (reconciliation_runs)
+ *
+ * - flow_from ~ flow_to: 이 실행이 TxLog와 맞춰 본 이력 구간 [from, to) (첫 실행이면 flow_from은 null)
+ * - 다음 실행은 마지막 COMPLETED 실행의 flow_to부터 이어서 대사
+ *   > 직전 실행이 RUNNING으로 남아 있으면(중간 실패) 체크포인트 일부만 전진했으므로 흐름 대사를 한 번 건너뜀
+ *
+ * 스키마 정의용 매핑: 쓰기/읽기는 JDBC로 처리 (ReconciliationEngine)
+ */
+@Entity
+@Table(name = "reconciliation_runs")
+@Getter
+@NoArgsConstructor
+public class ReconciliationRun {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "flow_from")
+    private LocalDateTime flowFrom;
+
+    @Column(name = "flow_to", nullable = false)
+    private LocalDateTime flowTo;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,23 @@
+package com.test.learningtx.entity;
+
+/**
+ * 이체 사가 상태
+ *
+ * PENDING ─출금 성공→ DEBITED ─입금 성공→ COMPLETED
+ *    │                   │
+ *  출금 실패            입금 실패
+ *    ↓                   ↓
+ *  FAILED          COMPENSATING ─출금 계좌 환불→ COMPENSATED
+ */
+public enum SagaState {
+    PENDING,
+    DEBITED,
+    COMPLETED,
+    FAILED,
+    COMPENSATING,
+    COMPENSATED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED || this == COMPENSATED;
+    }
+}
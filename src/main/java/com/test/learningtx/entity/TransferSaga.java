@@ -0,0 +1,87 @@
+package com.test.learningtx.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 이체 사가 (출금 단계 / 입금 단계로 나눈 이체)
+ *
+ * 상태 전이는 해당 단계의 잔액 변경과 같은 트랜잭션에서 커밋된다.
+ *  -> 재시작 후 같은 단계를 다시 실행해도 상태를 보고 건너뛰므로 잔액이 두 번 바뀌지 않음
+ */
+@Entity
+@Table(name = "transfer_sagas", indexes = @Index(name = "idx_transfer_sagas_state", columnList = "state"))
+@Getter
+@NoArgsConstructor
+public class TransferSaga {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "from_id", nullable = false)
+    private Long fromId;
+
+    @Column(name = "to_id", nullable = false)
+    private Long toId;
+
+    @Column(nullable = false, precision = 15, scale = 0)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SagaState state;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Version
+    private Long version;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public TransferSaga(Long fromId, Long toId, BigDecimal amount) {
+        this.fromId = fromId;
+        this.toId = toId;
+        this.amount = amount;
+        this.state = SagaState.PENDING;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    public void markDebited() {
+        transition(SagaState.PENDING, SagaState.DEBITED, null);
+    }
+
+    public void markCompleted() {
+        transition(SagaState.DEBITED, SagaState.COMPLETED, null);
+    }
+
+    public void markFailed(String reason) {
+        transition(SagaState.PENDING, SagaState.FAILED, reason);
+    }
+
+    public void markCompensating(String reason) {
+        transition(SagaState.DEBITED, SagaState.COMPENSATING, reason);
+    }
+
+    public void markCompensated() {
+        transition(SagaState.COMPENSATING, SagaState.COMPENSATED, failureReason);
+    }
+
+    private void transition(SagaState expected, SagaState next, String reason) {
+        if (state != expected) {
+            throw new IllegalStateException("사가 상태 전이 불가: " + state + " -> " + next + " (id=" + id + ")");
+        }
+        this.state = next;
+        this.failureReason = reason;
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -7,8 +7,12 @@ import lombok.Setter;
 
 import java.time.LocalDateTime;
 
+/**
+ * 트랜잭션 로그 (단일 테이블)
+ * 기간 조회/보관 기간 관리가 필요한 로그는 일 단위 테이블에 저장하는 TxLogStore 사용
+ */
 @Entity
-@Table(name = "tx_logs")
+@Table(name = "tx_logs", indexes = @Index(name = "idx_tx_logs_timestamp_operation", columnList = "timestamp, operation"))
 @Getter @Setter
 @NoArgsConstructor
 public class TxLog {
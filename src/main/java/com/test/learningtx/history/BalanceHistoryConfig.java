@@ -0,0 +1,25 @@
+package com.test.learningtx.history;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 잔액 이력은 아웃박스 relay가 전달하는 이벤트로 쌓임
+ * (learning-tx.outbox.enabled=false면 이력도 쌓이지 않음)
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "learning-tx.balance-history", name = "enabled", matchIfMissing = true)
+public class BalanceHistoryConfig {
+
+    @Bean
+    public BalanceHistoryStore balanceHistoryStore(JdbcTemplate jdbcTemplate) {
+        return new BalanceHistoryStore(jdbcTemplate);
+    }
+
+    @Bean
+    public BalanceHistoryRecorder balanceHistoryRecorder(BalanceHistoryStore balanceHistoryStore) {
+        return new BalanceHistoryRecorder(balanceHistoryStore);
+    }
+}
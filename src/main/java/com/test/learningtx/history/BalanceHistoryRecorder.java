@@ -0,0 +1,69 @@
+package com.test.learningtx.history;
+
+import com.test.learningtx.outbox.BalanceChangeSubscriber;
+import com.test.learningtx.outbox.BalanceChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 아웃박스 잔액 변경 이벤트 -> 잔액 이력
+ *
+ * 이체 트랜잭션에서는 이미 쓰고 있는 아웃박스 행 외에 아무것도 하지 않는다. (락 구간이 늘지 않음)
+ * 이력은 OutboxRelay 트랜잭션에서 기록:
+ * 1. 전달받은 이벤트를 relay 트랜잭션에 묶인 목록에 모음
+ * 2. 커밋 직전 한 번에 배치 INSERT -> 아웃박스 relay 표시(relay_seq)와 같은 트랜잭션으로 커밋/롤백
+ *
+ * relay가 중간 이벤트에서 멈추면 그 이벤트는 다음 폴링에 다시 오므로 저장소가 (계좌, 버전) 중복을 건너뜀
+ */
+@RequiredArgsConstructor
+public class BalanceHistoryRecorder implements BalanceChangeSubscriber {
+
+    private final BalanceHistoryStore store;
+
+    // 아웃박스 relay 표시와 같은 트랜잭션에서 기록해야 이벤트를 잃지 않음
+    @Override
+    public boolean transactional() {
+        return true;
+    }
+
+    @Override
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        if (event.version() == null) {
+            return;
+        }
+        BalanceVersion version = new BalanceVersion(event.accountId(), event.version(), event.previousBalance(),
+                event.balance(), event.occurredAt());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            store.appendAll(List.of(version));     // 트랜잭션 밖에서 호출되면 바로 기록
+            return;
+        }
+        pending().add(version);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BalanceVersion> pending() {
+        List<BalanceVersion> pending = (List<BalanceVersion>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        List<BalanceVersion> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                store.appendAll(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(BalanceHistoryRecorder.this);
+            }
+        });
+        return created;
+    }
+}
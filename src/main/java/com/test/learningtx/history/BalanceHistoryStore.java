@@ -0,0 +1,81 @@
+package com.test.learningtx.history;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 잔액 이력 테이블 읽기/쓰기 (account_balance_history)
+ *
+ * - appendAll(): 버전 목록을 JDBC 배치 한 번으로 추가, 이미 있는 (계좌, 버전)은 건너뜀 (relay 재전달 대비)
+ * - asOf(): (account_id, valid_from, version) 인덱스를 T 이하에서 역순으로 한 번 탐색
+ */
+@RequiredArgsConstructor
+public class BalanceHistoryStore {
+
+    // ON CONFLICT / MERGE 문법 차이를 피하려고 NOT EXISTS로 중복 제외 (H2, PostgreSQL 공통)
+    //  > FROM 없는 SELECT 목록의 파라미터는 타입 추론이 안 되므로 CAST
+    private static final String INSERT_SQL = """
+            INSERT INTO account_balance_history (account_id, version, previous_balance, balance, valid_from)
+            SELECT CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS NUMERIC(15, 0)), CAST(? AS NUMERIC(15, 0)),
+                   CAST(? AS TIMESTAMP)
+            WHERE NOT EXISTS (
+                SELECT 1 FROM account_balance_history WHERE account_id = ? AND version = ?)
+            """;
+    private static final String AS_OF_SQL = """
+            SELECT account_id, version, previous_balance, balance, valid_from FROM account_balance_history
+            WHERE account_id = ? AND valid_from <= ?
+            ORDER BY valid_from DESC, version DESC
+            LIMIT 1
+            """;
+    private static final String RANGE_SQL = """
+            SELECT account_id, version, previous_balance, balance, valid_from FROM account_balance_history
+            WHERE account_id = ? AND valid_from >= ? AND valid_from < ?
+            ORDER BY valid_from, version
+            """;
+
+    private static final RowMapper<BalanceVersion> VERSION_MAPPER = (rs, rowNum) -> new BalanceVersion(
+            rs.getLong("account_id"),
+            rs.getLong("version"),
+            rs.getBigDecimal("previous_balance"),
+            rs.getBigDecimal("balance"),
+            rs.getTimestamp("valid_from").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void appendAll(List<BalanceVersion> versions) {
+        if (versions.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, versions, versions.size(), (ps, version) -> {
+            ps.setLong(1, version.accountId());
+            ps.setLong(2, version.version());
+            ps.setBigDecimal(3, version.previousBalance());
+            ps.setBigDecimal(4, version.balance());
+            ps.setTimestamp(5, Timestamp.valueOf(version.validFrom()));
+            ps.setLong(6, version.accountId());
+            ps.setLong(7, version.version());
+        });
+    }
+
+    /**
+     * @return 시각 at에 유효했던 잔액 버전, at 이전 이력이 없으면 empty
+     */
+    public Optional<BalanceVersion> asOf(Long accountId, LocalDateTime at) {
+        return jdbcTemplate.query(AS_OF_SQL, VERSION_MAPPER, accountId, Timestamp.valueOf(at))
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * [from, to) 사이에 생긴 버전들 (시간순)
+     */
+    public List<BalanceVersion> versions(Long accountId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(RANGE_SQL, VERSION_MAPPER, accountId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+}
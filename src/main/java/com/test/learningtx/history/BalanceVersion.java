@@ -0,0 +1,14 @@
+package com.test.learningtx.history;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 이력 한 버전
+ *
+ * @param previousBalance 직전 잔액, 계좌 생성 버전이면 null
+ * @param validFrom       이 잔액이 된 시각 (아웃박스 기록 시각 = 커밋 직전)
+ */
+public record BalanceVersion(Long accountId, long version, BigDecimal previousBalance, BigDecimal balance,
+                             LocalDateTime validFrom) {
+}
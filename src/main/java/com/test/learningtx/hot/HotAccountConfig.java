@@ -0,0 +1,24 @@
+package com.test.learningtx.hot;
+
+import com.test.learningtx.lock.AdaptiveLockProperties;
+import com.test.learningtx.lock.ConflictRateTracker;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(HotAccountProperties.class)
+public class HotAccountConfig {
+
+    @Bean
+    public HotAccountSampler hotAccountSampler(HotAccountProperties properties, AdaptiveLockProperties lockProperties) {
+        return new HotAccountSampler(properties, lockProperties);
+    }
+
+    @Bean
+    public HotAccountsEndpoint hotAccountsEndpoint(HotAccountSampler hotAccountSampler,
+                                                   ConflictRateTracker conflictRateTracker,
+                                                   HotAccountProperties properties) {
+        return new HotAccountsEndpoint(hotAccountSampler, conflictRateTracker, properties);
+    }
+}
@@ -0,0 +1,29 @@
+package com.test.learningtx.hot;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 핫 계좌 샘플링 설정 (learning-tx.hot-accounts.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.hot-accounts")
+public class HotAccountProperties {
+
+    // N건 중 1건만 기록 (2의 거듭제곱)
+    private int sampleRate = 8;
+
+    // 스트라이프 수 (2의 거듭제곱): 기록하는 스레드끼리 같은 락을 덜 다투도록
+    private int stripes = 8;
+
+    // 스트라이프별로 추적하는 계좌 수
+    private int capacity = 64;
+
+    // actuator에 보여줄 상위 계좌 수
+    private int top = 20;
+
+    // 이 주기마다 모든 값을 절반으로 (최근 관측 위주)
+    private long decayIntervalMillis = 10_000;
+}
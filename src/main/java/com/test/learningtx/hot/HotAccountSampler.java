@@ -0,0 +1,133 @@
+package com.test.learningtx.hot;
+
+import com.test.learningtx.lock.AdaptiveLockProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 이체/출금 진입점에서 계좌 관측을 샘플링해 핫 계좌 top-K 유지
+ *
+ * - 샘플링: ThreadLocalRandom으로 sampleRate건 중 1건만 기록
+ * - 스트라이프: 계좌 id 해시로 스케치를 골라 그 스케치만 잠금 (스트라이프 수만큼 경합 분산)
+ *   > 한 계좌는 항상 같은 스케치에만 기록 -> 스케치마다 따로 밀려나거나 오차가 겹치지 않음
+ * - 기록 경로는 배열 갱신뿐 (객체 생성/박싱 없음) -> 항상 켜 둘 수 있음
+ * - 조회 시 스트라이프들을 계좌별로 합쳐 상위 계좌 계산 (조회 쪽에서만 객체 생성)
+ *
+ * 관측 종류
+ *  - recordAttempt: 낙관적 락 시도 (버전 충돌 여부)
+ *  - recordLockWait: 락 획득 대기 (임계값 이상이면 충돌로도 집계, ConflictRateTracker와 같은 기준)
+ */
+public class HotAccountSampler {
+
+    private final SpaceSavingSketch[] stripes;
+    private final int stripeMask;
+    private final int sampleMask;
+    private final int sampleRate;
+    private final long lockWaitThresholdNanos;
+
+    public HotAccountSampler(HotAccountProperties properties, AdaptiveLockProperties lockProperties) {
+        if (Integer.bitCount(properties.getSampleRate()) != 1 || Integer.bitCount(properties.getStripes()) != 1) {
+            throw new IllegalArgumentException("sampleRate, stripes는 2의 거듭제곱이어야 합니다.");
+        }
+        this.stripes = new SpaceSavingSketch[properties.getStripes()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new SpaceSavingSketch(properties.getCapacity());
+        }
+        this.stripeMask = properties.getStripes() - 1;
+        this.sampleRate = properties.getSampleRate();
+        this.sampleMask = sampleRate - 1;
+        this.lockWaitThresholdNanos = lockProperties.getLockWaitThresholdMillis() * 1_000_000L;
+    }
+
+    public void recordAttempt(long accountId, boolean conflict) {
+        record(accountId, conflict, -1);
+    }
+
+    public void recordLockWait(long accountId, long waitNanos) {
+        record(accountId, waitNanos >= lockWaitThresholdNanos, waitNanos);
+    }
+
+    /**
+     * 락 대기 시간을 계좌별로 나눌 수 없는 접근 (여러 계좌를 한 문장으로 잠근 다중 이체 등): 횟수만 집계
+     */
+    public void recordAccess(long accountId) {
+        record(accountId, false, -1);
+    }
+
+    private void record(long accountId, boolean conflict, long waitNanos) {
+        if ((ThreadLocalRandom.current().nextInt() & sampleMask) != 0) {
+            return;
+        }
+        SpaceSavingSketch sketch = stripes[stripeOf(accountId)];
+        synchronized (sketch) {
+            sketch.offer(accountId, conflict, waitNanos);
+        }
+    }
+
+    // 연속된 id도 스트라이프에 고르게 퍼지도록 곱셈 해시의 상위 비트 사용
+    private int stripeOf(long accountId) {
+        return (int) ((accountId * 0x9E3779B97F4A7C15L) >>> 32) & stripeMask;
+    }
+
+    /**
+     * 샘플 수 기준 상위 limit개 계좌 (추정 횟수 = 샘플 수 x sampleRate)
+     */
+    public List<HotAccount> top(int limit) {
+        Map<Long, long[]> merged = new HashMap<>();
+        for (SpaceSavingSketch sketch : stripes) {
+            synchronized (sketch) {
+                sketch.forEach(entry -> {
+                    long[] sum = merged.computeIfAbsent(entry.accountId(), id -> new long[5]);
+                    sum[0] += entry.count();
+                    sum[1] += entry.error();
+                    sum[2] += entry.conflicts();
+                    sum[3] += entry.lockWaitNanos();
+                    sum[4] += entry.lockWaits();
+                });
+            }
+        }
+
+        List<HotAccount> result = new ArrayList<>(merged.size());
+        merged.forEach((accountId, sum) -> {
+            long observed = sum[0] - sum[1];     // 이 계좌로 실제 기록된 샘플 수 (교체 전 몫 제외)
+            result.add(new HotAccount(
+                    accountId,
+                    sum[0] * sampleRate,
+                    sum[1] * sampleRate,
+                    observed > 0 ? (double) sum[2] / observed : 0.0,
+                    sum[4] > 0 ? sum[3] / 1_000_000.0 / sum[4] : 0.0));
+        });
+        result.sort(Comparator.comparingLong(HotAccount::estimatedCount).reversed()
+                .thenComparingLong(HotAccount::accountId));
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    @Scheduled(fixedDelayString = "${learning-tx.hot-accounts.decay-interval-millis:10000}")
+    public void decay() {
+        for (SpaceSavingSketch sketch : stripes) {
+            synchronized (sketch) {
+                sketch.decay();
+            }
+        }
+    }
+
+    public int sampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @param estimatedCount 추정 관측 수 (샘플 수 x sampleRate, 실제보다 클 수 있음)
+     * @param errorBound estimatedCount의 최대 과대 추정치
+     * @param conflictRate 충돌 비율 (낙관적 충돌 + 임계값 이상 락 대기)
+     * @param avgLockWaitMillis 평균 락 대기 시간
+     */
+    public record HotAccount(long accountId, long estimatedCount, long errorBound,
+                             double conflictRate, double avgLockWaitMillis) {
+    }
+}
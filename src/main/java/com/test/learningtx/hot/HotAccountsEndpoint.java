@@ -0,0 +1,37 @@
+package com.test.learningtx.hot;
+
+import com.test.learningtx.lock.ConflictRateTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * 현재 핫 계좌 (GET /actuator/hotaccounts)
+ *
+ * - accounts: 최근 관측이 많은 계좌 순 (추정 횟수, 오차 범위, 충돌률, 평균 락 대기)
+ * - lockMode: 적응형 락이 그 계좌에 현재 쓰는 모드 (ConflictRateTracker)
+ */
+@Endpoint(id = "hotaccounts")
+@RequiredArgsConstructor
+public class HotAccountsEndpoint {
+
+    private final HotAccountSampler sampler;
+    private final ConflictRateTracker conflictRateTracker;
+    private final HotAccountProperties properties;
+
+    @ReadOperation
+    public HotAccounts hotAccounts() {
+        List<HotAccountView> accounts = sampler.top(properties.getTop()).stream()
+                .map(account -> new HotAccountView(account, conflictRateTracker.modeFor(account.accountId())))
+                .toList();
+        return new HotAccounts(sampler.sampleRate(), accounts);
+    }
+
+    public record HotAccounts(int sampleRate, List<HotAccountView> accounts) {
+    }
+
+    public record HotAccountView(HotAccountSampler.HotAccount account, ConflictRateTracker.Mode lockMode) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.test.learningtx.hot;
+
+import java.util.function.Consumer;
+
+/**
+ * Space-Saving top-K (고정 크기 배열, 기록 시 객체 생성 없음)
+ *
+ * - 추적 중인 계좌면 count + 1
+ * - 빈 칸이 있으면 새로 추가
+ * - 꽉 찼으면 count가 가장 작은 칸을 새 계좌로 교체: count = min + 1, error = min
+ *   -> 실제 횟수는 [count - error, count] 사이, 자주 나오는 계좌는 항상 남음
+ *
+ * 칸마다 충돌 횟수 / 락 대기 합계도 함께 보관 (교체된 뒤부터의 관측)
+ * 동기화는 호출하는 쪽 책임 (HotAccountSampler가 스트라이프별로 잠금)
+ */
+final class SpaceSavingSketch {
+
+    private final long[] ids;
+    private final long[] counts;
+    private final long[] errors;
+    private final long[] conflicts;
+    private final long[] lockWaitNanos;
+    private final long[] lockWaits;
+    private int size;
+
+    SpaceSavingSketch(int capacity) {
+        this.ids = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.conflicts = new long[capacity];
+        this.lockWaitNanos = new long[capacity];
+        this.lockWaits = new long[capacity];
+    }
+
+    /**
+     * @param waitNanos 락 대기 시간, 락 대기 관측이 아니면 -1
+     */
+    void offer(long accountId, boolean conflict, long waitNanos) {
+        int index = indexOf(accountId);
+        if (index < 0) {
+            long min = 0;
+            if (size < ids.length) {
+                index = size++;
+            } else {
+                index = minIndex();
+                min = counts[index];
+            }
+            ids[index] = accountId;
+            errors[index] = min;
+            counts[index] = min;
+            conflicts[index] = 0;
+            lockWaitNanos[index] = 0;
+            lockWaits[index] = 0;
+        }
+        counts[index]++;
+        if (conflict) {
+            conflicts[index]++;
+        }
+        if (waitNanos >= 0) {
+            lockWaitNanos[index] += waitNanos;
+            lockWaits[index]++;
+        }
+    }
+
+    /**
+     * 모든 값을 절반으로 (오래된 관측을 잊고 "현재" 핫 계좌를 보기 위해), 0이 된 칸은 제거
+     */
+    void decay() {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            long count = counts[i] >>> 1;
+            if (count == 0) {
+                continue;
+            }
+            ids[kept] = ids[i];
+            counts[kept] = count;
+            errors[kept] = errors[i] >>> 1;
+            conflicts[kept] = conflicts[i] >>> 1;
+            lockWaitNanos[kept] = lockWaitNanos[i] >>> 1;
+            lockWaits[kept] = lockWaits[i] >>> 1;
+            kept++;
+        }
+        size = kept;
+    }
+
+    void forEach(Consumer<Entry> consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(new Entry(ids[i], counts[i], errors[i], conflicts[i], lockWaitNanos[i], lockWaits[i]));
+        }
+    }
+
+    private int indexOf(long accountId) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == accountId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int minIndex() {
+        int min = 0;
+        for (int i = 1; i < size; i++) {
+            if (counts[i] < counts[min]) {
+                min = i;
+            }
+        }
+        return min;
+    }
+
+    record Entry(long accountId, long count, long error, long conflicts, long lockWaitNanos, long lockWaits) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.test.learningtx.idempotency;
+
+import com.test.learningtx.support.Hashing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 만료가 있는 Bloom filter (2세대 회전 방식)
+ *
+ * Bloom filter는 "확실히 없음" 또는 "있을 수도 있음"만 알려준다.
+ *  - 확실히 없음: 처음 보는 키 -> DB 조회 없이 바로 처리 (대부분의 요청)
+ *  - 있을 수도 있음: DB에서 실제로 확인 (재시도 요청 + 낮은 확률의 오탐)
+ *
+ * 비트는 지울 수 없으므로 current/previous 두 세대를 두고 window마다 previous를 버린다.
+ *  - 조회: 두 세대 중 하나라도 있으면 "있을 수도 있음"
+ *  - 키는 최소 window, 최대 2 x window 동안 기억됨
+ */
+public class ExpiringBloomFilter {
+
+    private final int bitCount;
+    private final int hashCount;
+    private final long windowNanos;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    public ExpiringBloomFilter(long expectedInsertionsPerWindow, double falsePositiveRate, long windowNanos) {
+        if (expectedInsertionsPerWindow <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedInsertions > 0, 0 < falsePositiveRate < 1 이어야 합니다.");
+        }
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        long bits = (long) Math.ceil(-expectedInsertionsPerWindow * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, bits));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertionsPerWindow * Math.log(2)));
+        this.windowNanos = windowNanos;
+
+        long now = System.nanoTime();
+        this.current = new Generation(bitCount, now);
+        this.previous = new Generation(bitCount, now);
+    }
+
+    public boolean mightContain(String key) {
+        rotateIfExpired();
+        long hash = Hashing.hash64(key);
+        return current.mightContain(hash, hashCount, bitCount) || previous.mightContain(hash, hashCount, bitCount);
+    }
+
+    public void put(String key) {
+        rotateIfExpired();
+        current.put(Hashing.hash64(key), hashCount, bitCount);
+    }
+
+    public int bitCount() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    private void rotateIfExpired() {
+        Generation generation = current;
+        if (System.nanoTime() - generation.startedAt < windowNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (current == generation) {
+                previous = generation;
+                current = new Generation(bitCount, System.nanoTime());
+            }
+        }
+    }
+
+    private static final class Generation {
+
+        private final AtomicLongArray words;
+        private final long startedAt;
+
+        private Generation(int bitCount, long startedAt) {
+            this.words = new AtomicLongArray((bitCount + 63) >>> 6);
+            this.startedAt = startedAt;
+        }
+
+        private boolean mightContain(long hash, int hashCount, int bitCount) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void put(long hash, int hashCount, int bitCount) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+                long mask = 1L << bit;
+                int index = bit >>> 6;
+                long word = words.get(index);
+                while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                    word = words.get(index);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.test.learningtx.idempotency;
+
+import com.test.learningtx.repository.IdempotencyRecordRepository;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    public ExpiringBloomFilter idempotencyKeyFilter(IdempotencyProperties properties) {
+        return new ExpiringBloomFilter(properties.getFilterExpectedKeys(), properties.getFilterFalsePositiveRate(),
+                properties.getFilterWindow().toNanos());
+    }
+
+    @Bean
+    public IdempotencyExecutor idempotencyExecutor(IdempotencyRecordRepository repository, ExpiringBloomFilter filter,
+                                                   IdempotencyProperties properties,
+                                                   PlatformTransactionManager transactionManager) {
+        return new IdempotencyExecutor(repository, filter, properties, transactionManager);
+    }
+}
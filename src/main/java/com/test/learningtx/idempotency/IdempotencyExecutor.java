@@ -0,0 +1,117 @@
+package com.test.learningtx.idempotency;
+
+import com.test.learningtx.dto.IdempotentResult;
+import com.test.learningtx.entity.IdempotencyRecord;
+import com.test.learningtx.repository.IdempotencyRecordRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 멱등성 키로 업무 로직을 한 번만 실행
+ *
+ * 1. Bloom filter가 "확실히 없음" -> 바로 실행 (새 키: 추가 DB 왕복 없음)
+ *    "있을 수도 있음" -> 키 조회, 있으면 처음 결과 반환 (replay)
+ * 2. 업무 로직과 같은 트랜잭션에서 키 INSERT (persist -> 커밋 시 flush, 별도 왕복 없음)
+ * 3. 동시에 같은 키가 들어와 둘 다 1을 통과한 경우
+ *    -> 늦게 커밋하는 쪽이 PK 위반으로 롤백 -> 저장된 키를 읽어서 replay로 응답
+ *
+ * Bloom filter에서 만료된 키는 "없음"으로 보이지만 3번에서 DB 유니크 제약이 막아주므로 중복 실행은 없다.
+ * 업무 로직이 실패(잔액 부족 등)하면 키도 롤백되므로 같은 키로 다시 시도할 수 있다.
+ */
+@Slf4j
+public class IdempotencyExecutor {
+
+    private final IdempotencyRecordRepository repository;
+    private final ExpiringBloomFilter filter;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate requiresNew;
+    private final TransactionTemplate readOnly;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public IdempotencyExecutor(IdempotencyRecordRepository repository, ExpiringBloomFilter filter,
+                               IdempotencyProperties properties, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.filter = filter;
+        this.properties = properties;
+
+        // 키 INSERT와 업무 로직은 항상 독립된 트랜잭션 (PK 위반 시 이 트랜잭션만 롤백하고 replay)
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnly.setReadOnly(true);
+    }
+
+    /**
+     * @param action 업무 로직 (반환값은 결과 잔액)
+     */
+    public IdempotentResult execute(String key, String operation, String fingerprint, Supplier<BigDecimal> action) {
+        validateKey(key);
+
+        if (filter.mightContain(key)) {
+            Optional<IdempotencyRecord> existing = find(key);
+            if (existing.isPresent()) {
+                return replay(existing.get(), operation, fingerprint);
+            }
+            log.debug("Bloom filter 오탐 또는 처리 중인 키: {}", key);
+        }
+
+        try {
+            IdempotentResult result = requiresNew.execute(status -> {
+                BigDecimal resultBalance = action.get();
+                IdempotencyRecord record = new IdempotencyRecord(key, operation, fingerprint, resultBalance);
+                entityManager.persist(record);
+                return new IdempotentResult(key, operation, resultBalance, record.getCreatedAt(), false);
+            });
+            filter.put(key);
+            return result;
+        } catch (DataIntegrityViolationException e) {
+            // 같은 키가 먼저 커밋됨 -> 이번 실행은 롤백됐으므로 처음 결과로 응답
+            IdempotencyRecord existing = find(key).orElseThrow(() -> e);
+            filter.put(key);
+            log.info("동시 중복 요청 감지, 처음 결과 반환: {}", key);
+            return replay(existing, operation, fingerprint);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${learning-tx.idempotency.cleanup-interval-millis:600000}")
+    public void deleteExpired() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getRetention());
+        Integer deleted = requiresNew.execute(status -> repository.deleteCreatedBefore(before));
+        if (deleted != null && deleted > 0) {
+            log.info("만료된 멱등성 키 삭제: {}건", deleted);
+        }
+    }
+
+    private Optional<IdempotencyRecord> find(String key) {
+        return readOnly.execute(status -> repository.findById(key));
+    }
+
+    private IdempotentResult replay(IdempotencyRecord record, String operation, String fingerprint) {
+        if (!record.getOperation().equals(operation) || !record.getRequestFingerprint().equals(fingerprint)) {
+            throw new IllegalStateException("이미 다른 요청에 사용된 멱등성 키입니다: " + record.getIdempotencyKey());
+        }
+        return new IdempotentResult(record.getIdempotencyKey(), record.getOperation(), record.getResultBalance(),
+                record.getCreatedAt(), true);
+    }
+
+    private static void validateKey(String key) {
+        if (key == null || key.isBlank() || key.length() > 100) {
+            throw new IllegalArgumentException("멱등성 키는 1~100자여야 합니다.");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.test.learningtx.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 멱등성 키 설정 (learning-tx.idempotency.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.idempotency")
+public class IdempotencyProperties {
+
+    // 처리된 키를 DB에 보관하는 기간 (클라이언트 재시도 기간보다 충분히 길게)
+    private Duration retention = Duration.ofHours(24);
+
+    // Bloom filter 세대 교체 주기 (키는 window ~ 2 x window 동안 필터에 남음)
+    private Duration filterWindow = Duration.ofHours(1);
+
+    // window 동안 들어올 것으로 예상하는 키 수
+    private long filterExpectedKeys = 1_000_000;
+
+    // 오탐률: "있을 수도 있음"인데 실제로는 처음 보는 키일 확률 (오탐이면 DB 조회 1번 추가)
+    private double filterFalsePositiveRate = 0.01;
+
+    // 만료된 키 삭제 주기
+    private long cleanupIntervalMillis = 600_000;
+}
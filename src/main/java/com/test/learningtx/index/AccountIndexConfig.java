@@ -0,0 +1,36 @@
+package com.test.learningtx.index;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(AccountIndexProperties.class)
+@ConditionalOnProperty(prefix = "learning-tx.account-index", name = "enabled", havingValue = "true")
+public class AccountIndexConfig {
+
+    @Bean
+    public AccountKeyIndex accountKeyIndex(AccountIndexProperties properties, JdbcTemplate jdbcTemplate) {
+        // 초기 적재용 fetchSize 설정이 공용 JdbcTemplate에 퍼지지 않도록 별도 인스턴스 사용
+        return new AccountKeyIndex(properties.getExpectedSize(), new JdbcTemplate(jdbcTemplate.getDataSource()));
+    }
+
+    @Bean
+    public AccountKeyIndexListener accountKeyIndexListener(AccountKeyIndex accountKeyIndex,
+                                                           EntityManagerFactory entityManagerFactory) {
+        AccountKeyIndexListener listener = new AccountKeyIndexListener(accountKeyIndex);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        return listener;
+    }
+}
@@ -0,0 +1,20 @@
+package com.test.learningtx.index;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 계좌 인메모리 인덱스 설정 (learning-tx.account-index.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.account-index")
+public class AccountIndexProperties {
+
+    // 인덱스 사용 여부 (1,000만 건 기준 인덱스당 약 256MB)
+    private boolean enabled = false;
+
+    // 예상 계좌 수 (처음부터 이 크기로 잡아서 재해시 방지)
+    private int expectedSize = 100_000;
+}
@@ -0,0 +1,90 @@
+package com.test.learningtx.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.OptionalLong;
+
+/**
+ * 계좌번호 -> id 인메모리 인덱스
+ *
+ * - 애플리케이션 시작 시 accounts 테이블에서 한 번 적재
+ * - 이후 커밋된 INSERT/UPDATE/DELETE만 반영 (AccountKeyIndexListener, 롤백된 변경은 반영 안 됨)
+ * - JDBC로 직접 넣은 행(대량 적재 등)은 이벤트가 없으므로 조회 시 SQL 결과로 채움 (read-through)
+ *   > 비어 있는 자리에만 채움: 조회와 동시에 커밋된 계좌번호 변경/삭제를 오래된 SQL 결과로 덮어쓰지 않도록
+ *   > 기존 값을 바꾸는 것은 커밋 리스너뿐
+ * - 이름은 unique가 아니므로 인덱스하지 않음 (같은 이름이면 마지막 계좌만 남아 다른 계좌로 응답하게 됨)
+ */
+@Slf4j
+public class AccountKeyIndex {
+
+    private static final String LOAD_SQL = "SELECT id, account_number FROM accounts WHERE account_number IS NOT NULL";
+
+    private final OpenAddressingKeyIndex byAccountNumber;
+    private final JdbcTemplate jdbcTemplate;
+
+    public AccountKeyIndex(int expectedSize, JdbcTemplate jdbcTemplate) {
+        this.byAccountNumber = new OpenAddressingKeyIndex(expectedSize);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        int[] rows = {0};
+        jdbcTemplate.setFetchSize(10_000);
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            long id = rs.getLong(1);
+            // 적재 중에 커밋된 변경이 이미 반영돼 있을 수 있으므로 덮어쓰지 않음
+            putIfAbsent(byAccountNumber, rs.getString(2), id);
+            rows[0]++;
+        });
+        log.info("계좌 인덱스 적재 완료: {}건, {}ms", rows[0], (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public OptionalLong idByAccountNumber(String accountNumber) {
+        return lookup(byAccountNumber, accountNumber);
+    }
+
+    /**
+     * 커밋된 변경 반영 (AccountKeyIndexListener 전용)
+     */
+    public void put(Long id, String accountNumber) {
+        if (accountNumber != null) {
+            byAccountNumber.put(accountNumber, id);
+        }
+    }
+
+    public void remove(Long id, String accountNumber) {
+        if (accountNumber != null) {
+            byAccountNumber.remove(accountNumber, id);
+        }
+    }
+
+    /**
+     * read-through: 비어 있을 때만 채움
+     */
+    public void putAccountNumberIfAbsent(String accountNumber, long id) {
+        putIfAbsent(byAccountNumber, accountNumber, id);
+    }
+
+    public int size() {
+        return byAccountNumber.size();
+    }
+
+    private static OptionalLong lookup(OpenAddressingKeyIndex index, String key) {
+        if (key == null) {
+            return OptionalLong.empty();
+        }
+        long id = index.get(key);
+        return id == OpenAddressingKeyIndex.NOT_FOUND ? OptionalLong.empty() : OptionalLong.of(id);
+    }
+
+    private static void putIfAbsent(OpenAddressingKeyIndex index, String key, long id) {
+        if (key != null) {
+            index.putIfAbsent(key, id);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.test.learningtx.index;
+
+import com.test.learningtx.entity.Account;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.Objects;
+
+/**
+ * Account 변경을 커밋 후에 인덱스에 반영 (Hibernate POST_COMMIT 이벤트)
+ *
+ * 커밋 전에 반영하면 롤백된 계좌가 인덱스에 남고, 커밋 후에만 반영하면 인덱스는 항상 커밋된 상태만 가리킨다.
+ * 잔액 변경 UPDATE는 계좌번호가 그대로이므로 비교만 하고 넘어간다.
+ */
+@RequiredArgsConstructor
+public class AccountKeyIndexListener
+        implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final String ACCOUNT_NUMBER = "accountNumber";
+
+    private final AccountKeyIndex index;
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.getMappedClass() == Account.class;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Account account) {
+            index.put(account.getId(), account.getAccountNumber());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Account account)) {
+            return;
+        }
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            // 이전 상태를 모르면(분리 상태 병합 등) 새 값만 반영
+            index.put(account.getId(), account.getAccountNumber());
+            return;
+        }
+
+        EntityPersister persister = event.getPersister();
+        String oldAccountNumber = (String) oldState[persister.findAttributeMapping(ACCOUNT_NUMBER).getStateArrayPosition()];
+        Long id = account.getId();
+
+        if (!Objects.equals(oldAccountNumber, account.getAccountNumber())) {
+            index.remove(id, oldAccountNumber);
+            index.put(id, account.getAccountNumber());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Account account) {
+            index.remove(account.getId(), account.getAccountNumber());
+        }
+    }
+
+    // 커밋 실패 시에는 인덱스를 건드리지 않음
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+}
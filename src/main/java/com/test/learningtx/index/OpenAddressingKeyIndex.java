@@ -0,0 +1,197 @@
+package com.test.learningtx.index;
+
+import com.test.learningtx.support.Hashing;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 문자열 키 -> id 인메모리 해시 인덱스 (오픈 어드레싱, 선형 탐사)
+ *
+ * 메모리 구조:
+ *  - 키 문자열은 저장하지 않고 64bit 지문(fingerprint)만 저장 -> 슬롯당 16byte (지문 8 + id 8)
+ *  - 1,000만 건 기준 용량 2^24 슬롯 = 약 256MB, 엔트리/노드 객체 없음 (GC 부담 없음)
+ *  - 지문 충돌 확률은 1,000만 건에서도 백만 분의 수 수준이지만 0은 아니므로
+ *    엔티티를 읽는 쪽에서 실제 키 값을 한 번 더 비교해야 한다.
+ *
+ * 동시성:
+ *  - 조회: 락 없음 (id를 먼저 쓰고 지문을 나중에 쓰므로 지문이 보이면 id도 보임)
+ *  - 변경: synchronized (쓰기는 커밋 이벤트에서만 발생)
+ *  - 확장/정리: 새 테이블을 만들어 통째로 교체 -> 조회 중인 스레드는 이전 테이블을 끝까지 읽음
+ *
+ * 삭제는 툼스톤으로 표시하고, 툼스톤이 쌓이면 재해시할 때 정리된다.
+ */
+public class OpenAddressingKeyIndex {
+
+    public static final long NOT_FOUND = -1L;
+
+    private static final long EMPTY = 0L;
+    private static final long TOMBSTONE = 1L;
+    private static final double MAX_LOAD = 0.7;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private volatile Table table;
+    private int size;       // 살아있는 엔트리 수
+    private int occupied;   // 살아있는 엔트리 + 툼스톤
+
+    public OpenAddressingKeyIndex(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    public long get(String key) {
+        long fingerprint = fingerprint(key);
+        Table t = table;
+        int mask = t.mask;
+        int index = slot(fingerprint, mask);
+        for (int probe = 0; probe <= mask; probe++) {
+            long current = t.fingerprints.get(index);
+            if (current == EMPTY) {
+                return NOT_FOUND;
+            }
+            if (current == fingerprint) {
+                return t.ids.get(index);
+            }
+            index = (index + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    public synchronized void put(String key, long id) {
+        put(fingerprint(key), id, true);
+    }
+
+    /**
+     * 이미 있는 키는 덮어쓰지 않음 (초기 적재용: 적재 중에 커밋된 최신 값 보호)
+     */
+    public synchronized void putIfAbsent(String key, long id) {
+        put(fingerprint(key), id, false);
+    }
+
+    /**
+     * 키가 해당 id를 가리킬 때만 삭제 (다른 계좌가 같은 키를 새로 가져간 경우 보호)
+     */
+    public synchronized void remove(String key, long id) {
+        long fingerprint = fingerprint(key);
+        Table t = table;
+        int mask = t.mask;
+        int index = slot(fingerprint, mask);
+        for (int probe = 0; probe <= mask; probe++) {
+            long current = t.fingerprints.get(index);
+            if (current == EMPTY) {
+                return;
+            }
+            if (current == fingerprint) {
+                if (t.ids.get(index) == id) {
+                    t.fingerprints.set(index, TOMBSTONE);
+                    size--;
+                }
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    public synchronized void clear() {
+        table = new Table(table.fingerprints.length());
+        size = 0;
+        occupied = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return table.fingerprints.length();
+    }
+
+    private void put(long fingerprint, long id, boolean overwrite) {
+        ensureCapacity();
+        Table t = table;
+        int mask = t.mask;
+        int index = slot(fingerprint, mask);
+        int firstTombstone = -1;
+        for (int probe = 0; probe <= mask; probe++) {
+            long current = t.fingerprints.get(index);
+            if (current == fingerprint) {
+                if (overwrite) {
+                    t.ids.set(index, id);
+                }
+                return;
+            }
+            if (current == TOMBSTONE && firstTombstone < 0) {
+                firstTombstone = index;
+            } else if (current == EMPTY) {
+                int target = firstTombstone >= 0 ? firstTombstone : index;
+                if (target == index) {
+                    occupied++;
+                }
+                // id 먼저, 지문 나중에 -> 락 없는 조회가 반쯤 쓰인 슬롯을 보지 않음
+                t.ids.set(target, id);
+                t.fingerprints.set(target, fingerprint);
+                size++;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        throw new IllegalStateException("인덱스 슬롯이 가득 찼습니다.");
+    }
+
+    private void ensureCapacity() {
+        Table t = table;
+        int capacity = t.fingerprints.length();
+        if (occupied + 1 <= capacity * MAX_LOAD) {
+            return;
+        }
+        // 살아있는 엔트리가 많으면 2배로, 툼스톤이 대부분이면 같은 크기로 재해시
+        int newCapacity = (size + 1) > capacity * MAX_LOAD / 2 ? capacity << 1 : capacity;
+        if (newCapacity > MAX_CAPACITY) {
+            throw new IllegalStateException("인덱스 최대 용량 초과: " + size);
+        }
+
+        Table resized = new Table(newCapacity);
+        int newMask = resized.mask;
+        for (int i = 0; i < capacity; i++) {
+            long fingerprint = t.fingerprints.get(i);
+            if (fingerprint == EMPTY || fingerprint == TOMBSTONE) {
+                continue;
+            }
+            int index = slot(fingerprint, newMask);
+            while (resized.fingerprints.get(index) != EMPTY) {
+                index = (index + 1) & newMask;
+            }
+            resized.ids.set(index, t.ids.get(i));
+            resized.fingerprints.set(index, fingerprint);
+        }
+        occupied = size;
+        table = resized;
+    }
+
+    private static long fingerprint(String key) {
+        long hash = Hashing.hash64(key);
+        // 0, 1은 빈 슬롯/툼스톤 표시용
+        return (hash == EMPTY || hash == TOMBSTONE) ? hash + 2 : hash;
+    }
+
+    private static int slot(long fingerprint, int mask) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(16, expectedSize) / MAX_LOAD);
+        long capacity = Long.highestOneBit(needed - 1) << 1;
+        return (int) Math.min(MAX_CAPACITY, capacity);
+    }
+
+    private static final class Table {
+
+        private final AtomicLongArray fingerprints;
+        private final AtomicLongArray ids;
+        private final int mask;
+
+        private Table(int capacity) {
+            this.fingerprints = new AtomicLongArray(capacity);
+            this.ids = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+        }
+    }
+}
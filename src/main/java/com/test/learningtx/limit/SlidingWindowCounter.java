@@ -0,0 +1,105 @@
+package com.test.learningtx.limit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 시간 버킷 기반 슬라이딩 윈도우 합계 (락 없음)
+ *
+ * 버킷 n개를 링으로 사용: 시각 t의 버킷 번호(epoch) = t / bucketMillis, 위치 = epoch % n
+ * 각 칸은 long 하나에 (epoch 하위 20비트, 값 44비트)를 함께 저장
+ *  -> 오래된 칸을 새 epoch으로 재사용하는 것과 값 더하기가 CAS 한 번 (초기화와 더하기 사이 경합 없음)
+ *
+ * 합계 = 현재 epoch 기준 n개 안쪽 칸의 값 합 (버킷 하나 크기만큼 오차)
+ * epoch은 2^20 주기로 돌므로 그보다 오래 방치된 카운터는 쓰지 않는다 (WithdrawalLimiter가 하루 넘게 유휴면 제거)
+ */
+final class SlidingWindowCounter {
+
+    private static final int EPOCH_BITS = 20;
+    private static final int VALUE_BITS = 64 - EPOCH_BITS;
+    private static final long EPOCH_MASK = (1L << EPOCH_BITS) - 1;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+    private static final long HALF_EPOCH_RANGE = 1L << (EPOCH_BITS - 1);
+
+    private final long bucketMillis;
+    private final AtomicLongArray slots;
+
+    SlidingWindowCounter(int buckets, long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+        this.slots = new AtomicLongArray(buckets);
+    }
+
+    /**
+     * atMillis 시각의 버킷에 delta를 더하고 더한 뒤의 윈도우 합계 반환 (nowMillis 기준)
+     * 이미 윈도우 밖으로 밀려난 시각이면 더하지 않음
+     */
+    long add(long atMillis, long nowMillis, long delta) {
+        long epoch = atMillis / bucketMillis;
+        int index = (int) (epoch % slots.length());
+        while (true) {
+            long current = slots.get(index);
+            long slotEpoch = epochOf(current);
+            long next;
+            if (slotEpoch == (epoch & EPOCH_MASK)) {
+                next = pack(epoch, valueOf(current) + delta);
+            } else if (isNewer(epoch, slotEpoch)) {
+                next = pack(epoch, delta);      // 지난 주기의 칸 재사용
+            } else {
+                return sum(nowMillis);          // 칸이 이미 더 최근 epoch -> 만료된 기록
+            }
+            if (slots.compareAndSet(index, current, next)) {
+                return sum(nowMillis);
+            }
+        }
+    }
+
+    /**
+     * add로 더한 값을 되돌림 (그 버킷이 아직 남아 있을 때만)
+     */
+    void subtract(long atMillis, long delta) {
+        long epoch = atMillis / bucketMillis;
+        int index = (int) (epoch % slots.length());
+        while (true) {
+            long current = slots.get(index);
+            if (epochOf(current) != (epoch & EPOCH_MASK)) {
+                return;
+            }
+            long next = pack(epoch, Math.max(0, valueOf(current) - delta));
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    long sum(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        long total = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            long slot = slots.get(i);
+            long age = (epoch - epochOf(slot)) & EPOCH_MASK;
+            if (age < slots.length()) {
+                total += valueOf(slot);
+            }
+        }
+        return total;
+    }
+
+    private static boolean isNewer(long epoch, long slotEpoch) {
+        long diff = (epoch - slotEpoch) & EPOCH_MASK;
+        return diff != 0 && diff < HALF_EPOCH_RANGE;
+    }
+
+    private static long pack(long epoch, long value) {
+        if (value > VALUE_MASK) {
+            throw new IllegalArgumentException("버킷 값 범위 초과: " + value);
+        }
+        return ((epoch & EPOCH_MASK) << VALUE_BITS) | value;
+    }
+
+    private static long epochOf(long slot) {
+        return slot >>> VALUE_BITS;
+    }
+
+    private static long valueOf(long slot) {
+        return slot & VALUE_MASK;
+    }
+}
@@ -0,0 +1,20 @@
+package com.test.learningtx.limit;
+
+import com.test.learningtx.txlog.TxLogStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(WithdrawalLimitProperties.class)
+public class WithdrawalLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "learning-tx.withdrawal-limit", name = "enabled", havingValue = "true")
+    public WithdrawalLimiter withdrawalLimiter(TxLogStore txLogStore, WithdrawalLimitProperties properties) {
+        return new WithdrawalLimiter(txLogStore, properties, Clock.systemDefaultZone());
+    }
+}
@@ -0,0 +1,33 @@
+package com.test.learningtx.limit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+
+/**
+ * 계좌별 출금 한도 설정 (learning-tx.withdrawal-limit.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.withdrawal-limit")
+public class WithdrawalLimitProperties {
+
+    private boolean enabled = false;
+
+    // 최근 1분 / 최근 24시간 출금 합계 한도 (null이면 제한 없음)
+    private BigDecimal perMinute;
+    private BigDecimal daily;
+
+    /**
+     * 여러 노드 배포 시: 각 노드는 자기 노드의 출금만 세므로 한도를 노드 수로 나눠 적용
+     *  - 노드별 한도 = 한도 x (1 + tolerance) / nodes
+     *  - tolerance: 노드 간 트래픽 쏠림을 허용하는 여유, 클러스터 전체로는 최대 한도 x (1 + tolerance)까지 허용
+     */
+    private int nodes = 1;
+    private double tolerance = 0.0;
+
+    // 하루 넘게 출금이 없는 계좌의 카운터 제거 주기
+    private long evictIntervalMillis = 600_000;
+}
@@ -0,0 +1,191 @@
+package com.test.learningtx.limit;
+
+import com.test.learningtx.service.AccountService;
+import com.test.learningtx.txlog.TxLogStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 계좌별 출금 한도 (최근 1분 / 최근 24시간 슬라이딩 윈도우, 메모리)
+ *
+ * 출금 = 계좌에서 돈이 나가는 모든 경로
+ *  - 출금: WithdrawalService(트랜잭션 전), ReactiveAccountService.withdraw, AdaptiveLockService.withdraw
+ *  - 이체의 출금 쪽: AccountService.transfer, 다중 계좌 이체, 사가 출금 단계, 적응형/리액티브 이체
+ *  - 예외: 배치 작업(AccountBatchEngine)의 잔액 변경은 고객 출금이 아니므로 한도 밖 (감사 로그도 FEE로 따로 남김)
+ *
+ * 출금 트랜잭션 안에서 SELECT SUM으로 한도를 확인하면 출금마다 조회가 하나 더 붙음
+ *  -> DB 작업 전에 메모리 카운터로 확인
+ *
+ * - 계좌별 카운터 2개: 1분 = 1초 버킷 60개, 24시간 = 15분 버킷 96개 (SlidingWindowCounter)
+ * - 더한 뒤 확인: 먼저 더하고 합계가 한도를 넘으면 되돌리고 거절
+ *   -> 락 없이도 동시 출금이 한도를 넘겨 통과하는 일은 없음 (경합 시 보수적으로 거절될 수는 있음)
+ * - 출금이 DB에서 실패하면 release로 되돌림 (트랜잭션 안에서 받은 permit은 롤백 시 자동으로)
+ * - 시작 시 최근 24시간 감사 로그(WITHDRAW, 음수 TRANSFER / SAGA_TRANSFER 행)로 카운터 재구성
+ *
+ * 여러 노드: 노드마다 자기 출금만 세므로 한도를 노드 수로 나눠 적용 (WithdrawalLimitProperties 참고)
+ */
+@Slf4j
+public class WithdrawalLimiter {
+
+    private static final int MINUTE_BUCKETS = 60;
+    private static final long MINUTE_BUCKET_MILLIS = 1_000;
+    private static final int DAY_BUCKETS = 96;
+    private static final long DAY_BUCKET_MILLIS = 15 * 60 * 1_000;
+
+    private final ConcurrentMap<Long, AccountWindow> windows = new ConcurrentHashMap<>();
+    private final TxLogStore txLogStore;
+    private final WithdrawalLimitProperties properties;
+    private final Clock clock;
+
+    private final long perMinuteCents;
+    private final long dailyCents;
+
+    public WithdrawalLimiter(TxLogStore txLogStore, WithdrawalLimitProperties properties, Clock clock) {
+        this.txLogStore = txLogStore;
+        this.properties = properties;
+        this.clock = clock;
+        this.perMinuteCents = nodeBudget(properties.getPerMinute());
+        this.dailyCents = nodeBudget(properties.getDaily());
+    }
+
+    /**
+     * 한도 안이면 차감하고 permit 반환, 넘으면 IllegalStateException (DB 접근 없음)
+     */
+    public WithdrawalPermit acquire(Long accountId, BigDecimal amount) {
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("출금 금액은 0보다 커야 합니다.");
+        }
+        long cents = toCents(amount);
+        long now = clock.millis();
+        AccountWindow window = windows.computeIfAbsent(accountId, id -> new AccountWindow());
+
+        if (window.minute.add(now, now, cents) > perMinuteCents) {
+            window.minute.subtract(now, cents);
+            throw new IllegalStateException("1분 출금 한도 초과: accountId=" + accountId + ", 금액=" + amount);
+        }
+        if (window.day.add(now, now, cents) > dailyCents) {
+            window.minute.subtract(now, cents);
+            window.day.subtract(now, cents);
+            throw new IllegalStateException("일 출금 한도 초과: accountId=" + accountId + ", 금액=" + amount);
+        }
+        return new WithdrawalPermit(accountId, cents, now);
+    }
+
+    /**
+     * 진행 중인 트랜잭션 안에서 차감: 트랜잭션이 커밋되지 않으면 자동으로 되돌림
+     * 한도 초과 예외는 호출자 트랜잭션을 롤백시킴 (잔액 변경 전에 호출)
+     */
+    public WithdrawalPermit acquireInTransaction(Long accountId, BigDecimal amount) {
+        WithdrawalPermit permit = acquire(accountId, amount);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(permit);
+                    }
+                }
+            });
+        }
+        return permit;
+    }
+
+    public void release(WithdrawalPermit permit) {
+        AccountWindow window = windows.get(permit.accountId());
+        if (window != null) {
+            window.minute.subtract(permit.acquiredAtMillis(), permit.amountCents());
+            window.day.subtract(permit.acquiredAtMillis(), permit.amountCents());
+        }
+    }
+
+    public BigDecimal usedLastMinute(Long accountId) {
+        AccountWindow window = windows.get(accountId);
+        return window == null ? BigDecimal.ZERO : fromCents(window.minute.sum(clock.millis()));
+    }
+
+    public BigDecimal usedToday(Long accountId) {
+        AccountWindow window = windows.get(accountId);
+        return window == null ? BigDecimal.ZERO : fromCents(window.day.sum(clock.millis()));
+    }
+
+    /**
+     * 최근 24시간 감사 로그로 카운터 재구성 (시작 시 한 번, TxLogStore.init 이후)
+     *  - WITHDRAW: 금액 그대로, TRANSFER / SAGA_TRANSFER: 출금 행(음수)만 절댓값으로 (배치 차감 FEE는 읽지 않음)
+     * 여러 노드면 로그의 금액을 노드 수로 나눠 반영 (트래픽이 고르게 나뉜다고 가정)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void rebuild() {
+        windows.clear();
+        long now = clock.millis();
+        LocalDateTime to = LocalDateTime.now(clock);
+        int nodes = Math.max(1, properties.getNodes());
+        long[] rows = {0};
+        for (String operation : List.of(AccountService.WITHDRAW, AccountService.TRANSFER, AccountService.SAGA_TRANSFER)) {
+            txLogStore.scan(to.minusDays(1), to.plusSeconds(1), operation, rs -> {
+                Long accountId = rs.getObject("account_id", Long.class);
+                BigDecimal amount = rs.getBigDecimal("amount");
+                if (accountId == null || (!AccountService.WITHDRAW.equals(operation) && amount.signum() >= 0)) {
+                    return;     // 이체 입금 구간, 사가 입금/보상은 한도와 무관
+                }
+                long cents = toCents(amount.abs()) / nodes;
+                long at = rs.getTimestamp("timestamp").getTime();
+                AccountWindow window = windows.computeIfAbsent(accountId, id -> new AccountWindow());
+                window.minute.add(at, now, cents);
+                window.day.add(at, now, cents);
+                rows[0]++;
+            });
+        }
+        log.info("출금 한도 카운터 재구성: 출금 로그 {}건, 계좌 {}개", rows[0], windows.size());
+    }
+
+    /**
+     * 24시간 동안 출금이 없는 계좌 카운터 제거
+     * 제거 직전에 카운터를 받아 간 출금 한 건은 세지 않을 수 있음 (하루 넘게 유휴였던 계좌에서만)
+     */
+    @Scheduled(fixedDelayString = "${learning-tx.withdrawal-limit.evict-interval-millis:600000}")
+    public void evictIdle() {
+        long now = clock.millis();
+        windows.entrySet().removeIf(entry -> entry.getValue().day.sum(now) == 0);
+    }
+
+    public int trackedAccounts() {
+        return windows.size();
+    }
+
+    private long nodeBudget(BigDecimal limit) {
+        if (limit == null) {
+            return Long.MAX_VALUE;
+        }
+        BigDecimal perNode = limit.multiply(BigDecimal.valueOf(1 + properties.getTolerance()))
+                .divide(BigDecimal.valueOf(Math.max(1, properties.getNodes())), 2, RoundingMode.FLOOR);
+        return perNode.movePointRight(2).longValueExact();
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.UP).longValueExact();
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static final class AccountWindow {
+        final SlidingWindowCounter minute = new SlidingWindowCounter(MINUTE_BUCKETS, MINUTE_BUCKET_MILLIS);
+        final SlidingWindowCounter day = new SlidingWindowCounter(DAY_BUCKETS, DAY_BUCKET_MILLIS);
+    }
+}
@@ -0,0 +1,7 @@
+package com.test.learningtx.limit;
+
+/**
+ * 한도에서 차감한 출금 한 건 (출금이 실패하면 WithdrawalLimiter.release로 되돌림)
+ */
+public record WithdrawalPermit(Long accountId, long amountCents, long acquiredAtMillis) {
+}
@@ -0,0 +1,26 @@
+package com.test.learningtx.lock;
+
+/**
+ * 계좌 단위 분산 락 백엔드
+ *
+ * 규칙:
+ * 1. 반드시 트랜잭션 안에서 호출
+ * 2. 락은 현재 트랜잭션이 커밋/롤백될 때 자동으로 해제 (별도 unlock 없음)
+ * 3. 같은 트랜잭션에서 같은 key를 다시 잡아도 데드락 없이 통과해야 함
+ */
+public interface AccountLockBackend {
+
+    void lockForTransaction(long key);
+
+    /**
+     * 여러 키를 한 번에 잠금 (keys는 오름차순, 중복 없음)
+     * 기본 구현은 키마다 lockForTransaction 호출 -> 백엔드가 한 문장으로 잠글 수 있으면 재정의
+     */
+    default void lockAllForTransaction(long[] keys) {
+        for (long key : keys) {
+            lockForTransaction(key);
+        }
+    }
+
+    String name();
+}
@@ -0,0 +1,44 @@
+package com.test.learningtx.lock;
+
+import com.test.learningtx.support.DatabasePlatform;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 계좌 락 백엔드 선택
+ *
+ * learning-tx.lock.backend
+ *  - auto(기본): 연결된 DB를 보고 선택 (PostgreSQL -> postgres, H2 -> h2, 그 외 -> none)
+ *  - postgres / h2 / none: 직접 지정
+ */
+@Slf4j
+@Configuration
+public class AccountLockConfig {
+
+    @Bean
+    public AccountLockBackend accountLockBackend(@Value("${learning-tx.lock.backend:auto}") String backend,
+                                                 JdbcTemplate jdbcTemplate) {
+        String selected = "auto".equalsIgnoreCase(backend) ? detect(jdbcTemplate) : backend.toLowerCase();
+
+        AccountLockBackend lockBackend = switch (selected) {
+            case "postgres" -> new PostgresAdvisoryLockBackend(jdbcTemplate);
+            case "h2" -> new H2AdvisoryLockBackend(jdbcTemplate);
+            case "none" -> new NoOpAccountLockBackend();
+            default -> throw new IllegalArgumentException("알 수 없는 락 백엔드: " + backend);
+        };
+
+        log.info("계좌 락 백엔드: {}", lockBackend.name());
+        return lockBackend;
+    }
+
+    private String detect(JdbcTemplate jdbcTemplate) {
+        return switch (DatabasePlatform.detect(jdbcTemplate)) {
+            case POSTGRESQL -> "postgres";
+            case H2 -> "h2";
+            case OTHER -> "none";
+        };
+    }
+}
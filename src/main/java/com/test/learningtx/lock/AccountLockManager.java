@@ -0,0 +1,65 @@
+package com.test.learningtx.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * 계좌 id 단위 락
+ *
+ * 여러 인스턴스가 같은 계좌를 동시에 이체할 때
+ *  - accounts 행 락(FOR UPDATE) 대기: 모든 노드의 커넥션이 행 락 대기열에 묶임
+ *  - advisory lock 대기: 가벼운 키 락에서 먼저 줄을 세우고, 통과한 트랜잭션만 계좌 행을 읽고 씀
+ *
+ * 데드락 방지를 위해 여러 계좌는 항상 id 오름차순으로 잠근다.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountLockManager {
+
+    private final AccountLockBackend backend;
+
+    public void lockAccounts(Long... accountIds) {
+        lockAccounts(Arrays.asList(accountIds));
+    }
+
+    public void lockAccounts(Collection<Long> accountIds) {
+        long[] keys = sortedKeys(accountIds);
+        if (keys.length == 0) {
+            return;
+        }
+        backend.lockAllForTransaction(keys);
+    }
+
+    /**
+     * 키마다 따로 잠그고 계좌별 대기 시간을 listener에 전달 (id 오름차순)
+     * 어느 계좌에서 기다렸는지 구분할 수 있는 대신 문장 수가 키 수만큼 -> 계좌가 적은 경로(단건 이체)용
+     */
+    public void lockAccounts(Collection<Long> accountIds, LockWaitListener listener) {
+        for (long key : sortedKeys(accountIds)) {
+            long start = System.nanoTime();
+            backend.lockForTransaction(key);
+            listener.acquired(key, System.nanoTime() - start);
+        }
+    }
+
+    private static long[] sortedKeys(Collection<Long> accountIds) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("계좌 락은 트랜잭션 안에서만 사용할 수 있습니다.");
+        }
+        return accountIds.stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    @FunctionalInterface
+    public interface LockWaitListener {
+
+        void acquired(long accountId, long waitNanos);
+    }
+}
@@ -0,0 +1,15 @@
+package com.test.learningtx.lock;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AdaptiveLockProperties.class)
+public class AdaptiveLockConfig {
+
+    @Bean
+    public ConflictRateTracker conflictRateTracker(AdaptiveLockProperties properties) {
+        return new ConflictRateTracker(properties.getSlots(), properties.getAlpha(), properties.getHigh(), properties.getLow());
+    }
+}
@@ -0,0 +1,32 @@
+package com.test.learningtx.lock;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 적응형 락 설정 (learning-tx.adaptive-lock.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.adaptive-lock")
+public class AdaptiveLockProperties {
+
+    // 충돌률 추적 슬롯 수 (2의 거듭제곱)
+    private int slots = 4096;
+
+    // EWMA 가중치: 클수록 최근 관측에 빠르게 반응
+    private double alpha = 0.2;
+
+    // 이 충돌률 이상이면 비관적 락으로 전환
+    private double high = 0.3;
+
+    // 이 충돌률 이하이면 낙관적 락으로 복귀
+    private double low = 0.05;
+
+    // 비관적 락 대기 시간이 이 값을 넘으면 "경합"으로 기록
+    private long lockWaitThresholdMillis = 5;
+
+    // 낙관적 락 최대 시도 횟수 (모두 실패하면 비관적 락으로 마지막 시도)
+    private int maxOptimisticAttempts = 3;
+}
@@ -0,0 +1,83 @@
+package com.test.learningtx.lock;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 계좌별 충돌률 추적 (고정 크기, 지수 감쇠)
+ *
+ * 구조:
+ *  - 계좌 id를 해시해서 2^n 개 슬롯 중 하나에 매핑 (계좌가 몇 개든 메모리 일정)
+ *  - 슬롯마다 충돌률 EWMA(float) + 현재 모드(0=낙관적, 1=비관적)
+ *  - 관측할 때마다 rate = rate + alpha * (관측값 - rate) -> 오래된 관측은 점점 잊힘
+ *
+ * 히스테리시스:
+ *  - rate >= high 이면 비관적 모드로 전환
+ *  - rate <= low 이면 낙관적 모드로 복귀
+ *  - 그 사이에서는 모드 유지 -> 경계값 근처에서 모드가 계속 바뀌는 것 방지
+ *
+ * 해시 충돌로 서로 다른 계좌가 슬롯을 공유할 수 있음 (핫 계좌와 같은 슬롯의 계좌는 같이 비관적 모드로 감)
+ */
+public class ConflictRateTracker {
+
+    public enum Mode {
+        OPTIMISTIC,
+        PESSIMISTIC
+    }
+
+    private final int mask;
+    private final AtomicIntegerArray rates;
+    private final AtomicIntegerArray modes;
+    private final float alpha;
+    private final float high;
+    private final float low;
+
+    public ConflictRateTracker(int slots, double alpha, double high, double low) {
+        if (Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("슬롯 수는 2의 거듭제곱이어야 합니다: " + slots);
+        }
+        if (low >= high) {
+            throw new IllegalArgumentException("low는 high보다 작아야 합니다.");
+        }
+        this.mask = slots - 1;
+        this.rates = new AtomicIntegerArray(slots);     // 0 비트 = 0.0f
+        this.modes = new AtomicIntegerArray(slots);
+        this.alpha = (float) alpha;
+        this.high = (float) high;
+        this.low = (float) low;
+    }
+
+    public Mode modeFor(long accountId) {
+        return modes.get(slot(accountId)) == 1 ? Mode.PESSIMISTIC : Mode.OPTIMISTIC;
+    }
+
+    public double rateOf(long accountId) {
+        return Float.intBitsToFloat(rates.get(slot(accountId)));
+    }
+
+    /**
+     * @param conflict 낙관적 모드: 버전 충돌 여부 / 비관적 모드: 락 대기가 임계값을 넘었는지
+     */
+    public void record(long accountId, boolean conflict) {
+        int slot = slot(accountId);
+        float observed = conflict ? 1.0f : 0.0f;
+
+        int prevBits;
+        float updated;
+        do {
+            prevBits = rates.get(slot);
+            float prev = Float.intBitsToFloat(prevBits);
+            updated = prev + alpha * (observed - prev);
+        } while (!rates.compareAndSet(slot, prevBits, Float.floatToIntBits(updated)));
+
+        if (updated >= high) {
+            modes.set(slot, 1);
+        } else if (updated <= low) {
+            modes.set(slot, 0);
+        }
+    }
+
+    private int slot(long accountId) {
+        long h = accountId * 0x9E3779B97F4A7C15L;   // 연속된 id가 인접 슬롯에 몰리지 않도록 섞기
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
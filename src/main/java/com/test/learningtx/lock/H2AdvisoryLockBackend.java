@@ -0,0 +1,99 @@
+package com.test.learningtx.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * H2용 Advisory Lock 대체 구현
+ *
+ * H2에는 advisory lock이 없으므로 전용 테이블(account_advisory_locks)의 "키 행"에 FOR UPDATE를 건다.
+ *  - accounts 행이 아니라 키 행에서 대기 -> 계좌 행은 락을 잡은 트랜잭션만 건드림
+ *  - 행 락이므로 트랜잭션 종료 시 자동 해제 (pg_advisory_xact_lock과 같은 수명)
+ *  - 키 행이 없으면 호출자 트랜잭션(같은 커넥션)에서 MERGE로 생성
+ *    > 별도 트랜잭션(REQUIRES_NEW)은 커넥션을 하나 더 빌리므로 풀이 가득 차면 서로 기다리다 멈출 수 있음
+ *    > 새로 넣은 행은 커밋 전까지 이 트랜잭션이 쥐고 있으므로 그 자체가 락 (같은 키를 MERGE하는 쪽은 대기)
+ *  - 여러 키는 IN (...) ORDER BY lock_key FOR UPDATE 한 문장으로 잠금 (처음 쓰는 키가 섞이면 키마다 오름차순)
+ *
+ * 주의: H2 기본 LOCK_TIMEOUT은 1초. 기본 URL(application.yml)은 ;LOCK_TIMEOUT=10000 으로 늘려 둠
+ */
+@Slf4j
+public class H2AdvisoryLockBackend implements AccountLockBackend {
+
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS account_advisory_locks (lock_key BIGINT PRIMARY KEY)";
+    private static final String LOCK_SQL =
+            "SELECT lock_key FROM account_advisory_locks WHERE lock_key = ? FOR UPDATE";
+    private static final String MERGE_SQL =
+            "MERGE INTO account_advisory_locks (lock_key) KEY (lock_key) VALUES (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public H2AdvisoryLockBackend(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+    }
+
+    @Override
+    public void lockForTransaction(long key) {
+        if (tryLock(key)) {
+            return;
+        }
+
+        // 처음 쓰는 키: 호출자 트랜잭션에서 키 행 생성 후 다시 락 (재진입이므로 대기 없음)
+        jdbcTemplate.update(MERGE_SQL, key);
+        log.debug("advisory lock 키 행 생성: {}", key);
+
+        if (!tryLock(key)) {
+            throw new IllegalStateException("advisory lock 키 행을 찾을 수 없음: " + key);
+        }
+    }
+
+    /**
+     * 키는 오름차순으로 들어옴 (AccountLockManager)
+     *  - 모든 키 행이 있으면 IN (...) ORDER BY lock_key FOR UPDATE 한 문장
+     *  - 처음 쓰는 키가 섞여 있으면 키마다 오름차순으로 잠그거나 생성
+     *    > 있는 키를 먼저 잠그고 없는 키를 나중에 만들면 순서가 깨져서 데드락 가능
+     *    > 커밋 안 된 다른 트랜잭션의 키 행은 보이지 않으므로 그 키의 MERGE에서 기다림 (그 전 키만 쥔 채)
+     */
+    @Override
+    public void lockAllForTransaction(long[] keys) {
+        if (keys.length == 1) {
+            lockForTransaction(keys[0]);
+            return;
+        }
+
+        String placeholders = Arrays.stream(keys).mapToObj(key -> "?").collect(Collectors.joining(","));
+        Object[] args = Arrays.stream(keys).boxed().toArray();
+        int existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_advisory_locks WHERE lock_key IN (" + placeholders + ")",
+                Integer.class, args);
+        if (existing < keys.length) {
+            for (long key : keys) {
+                lockForTransaction(key);
+            }
+            return;
+        }
+
+        List<Long> locked = jdbcTemplate.queryForList(
+                "SELECT lock_key FROM account_advisory_locks WHERE lock_key IN (" + placeholders + ") ORDER BY lock_key FOR UPDATE",
+                Long.class, args);
+        if (locked.size() != keys.length) {
+            throw new IllegalStateException("advisory lock 키 행을 찾을 수 없음: " + Arrays.toString(keys));
+        }
+    }
+
+    private boolean tryLock(long key) {
+        List<Long> locked = jdbcTemplate.queryForList(LOCK_SQL, Long.class, key);
+        return !locked.isEmpty();
+    }
+
+    @Override
+    public String name() {
+        return "h2";
+    }
+}
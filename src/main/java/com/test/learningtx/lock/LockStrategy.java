@@ -0,0 +1,13 @@
+package com.test.learningtx.lock;
+
+/**
+ * 계좌 변경 시 사용할 락 전략
+ */
+public enum LockStrategy {
+    // @Version 충돌 감지 + 재시도
+    OPTIMISTIC,
+    // SELECT ... FOR UPDATE (findByIdWithLock)
+    PESSIMISTIC,
+    // 계좌별 충돌률에 따라 위 두 가지 중 선택
+    ADAPTIVE
+}
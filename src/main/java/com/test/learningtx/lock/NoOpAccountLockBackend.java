@@ -0,0 +1,16 @@
+package com.test.learningtx.lock;
+
+/**
+ * 락 없음 (단일 인스턴스 또는 비교용)
+ */
+public class NoOpAccountLockBackend implements AccountLockBackend {
+
+    @Override
+    public void lockForTransaction(long key) {
+    }
+
+    @Override
+    public String name() {
+        return "none";
+    }
+}
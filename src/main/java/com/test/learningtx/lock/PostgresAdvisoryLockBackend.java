@@ -0,0 +1,49 @@
+package com.test.learningtx.lock;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+
+/**
+ * PostgreSQL Advisory Lock
+ *
+ * pg_advisory_xact_lock(key)
+ *  - 테이블 행과 무관한 "숫자 키" 락 -> accounts 행 락 대기열을 만들지 않음
+ *  - 트랜잭션 종료 시 자동 해제
+ *  - 같은 세션에서 재진입 가능
+ *
+ * 여러 키는 배열 하나로 넘겨 한 문장에서 오름차순으로 잠근다. (키 개수만큼 왕복하지 않음)
+ */
+@RequiredArgsConstructor
+public class PostgresAdvisoryLockBackend implements AccountLockBackend {
+
+    // 안쪽 서브쿼리에서 먼저 정렬해야 pg_advisory_xact_lock이 키 오름차순으로 호출됨
+    private static final String LOCK_ALL_SQL = """
+        SELECT pg_advisory_xact_lock(k) FROM (SELECT k FROM unnest(?::bigint[]) AS t(k) ORDER BY k) s
+    """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void lockForTransaction(long key) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> {}, key);
+    }
+
+    @Override
+    public void lockAllForTransaction(long[] keys) {
+        if (keys.length == 1) {
+            lockForTransaction(keys[0]);
+            return;
+        }
+        Long[] boxed = Arrays.stream(keys).boxed().toArray(Long[]::new);
+        jdbcTemplate.query(LOCK_ALL_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", boxed)),
+                rs -> {});
+    }
+
+    @Override
+    public String name() {
+        return "postgres";
+    }
+}
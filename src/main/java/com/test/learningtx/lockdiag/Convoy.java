@@ -0,0 +1,13 @@
+package com.test.learningtx.lockdiag;
+
+/**
+ * 한 세션(대부분 한 계좌 행의 락 보유자) 뒤에 줄 선 대기 행렬
+ *
+ * @param headSessionId 맨 앞에서 락을 쥐고 있는 세션 (자신은 아무도 기다리지 않음)
+ * @param headCall 그 세션의 서비스 호출
+ * @param waiters 직간접적으로 기다리는 세션 수
+ * @param longestWaitMillis 대기 세션 중 가장 오래 기다린 시간
+ * @param resource 직접 기다리는 대상 (알 수 없으면 대기 SQL)
+ */
+public record Convoy(long headSessionId, InFlightCall headCall, int waiters, long longestWaitMillis, String resource) {
+}
@@ -0,0 +1,11 @@
+package com.test.learningtx.lockdiag;
+
+/**
+ * DB 세션(커넥션)을 빌려 쓰고 있는 서비스 호출
+ *
+ * @param method 서비스 메서드 (클래스.메서드)
+ * @param thread 실행 스레드 이름
+ * @param heldMillis 커넥션을 빌린 뒤 지난 시간 (스냅샷 시점)
+ */
+public record InFlightCall(String method, String thread, long heldMillis) {
+}
@@ -0,0 +1,172 @@
+package com.test.learningtx.lockdiag;
+
+import com.test.learningtx.support.DatabasePlatform;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 락 대기 진단: DB 세션/락 뷰로 wait-for 그래프를 만들고 서비스 호출과 연결
+ *
+ * - H2: INFORMATION_SCHEMA.SESSIONS (BLOCKER_ID = 이 세션을 막고 있는 세션)
+ * - PostgreSQL: pg_stat_activity + pg_blocking_pids() + 대기 중인 pg_locks (무엇을 기다리는지)
+ * - 세션 id -> 서비스 호출: SessionCallRegistry (InstrumentedDataSource가 커넥션을 빌려줄 때 등록)
+ *
+ * 주기적으로 샘플링해서 순환(교착 상태)이나 convoy가 보이면 경고 로그 + 최근 스냅샷으로 보관
+ * findByIdWithLock 대기가 쌓일 때 "누가 누구를 막고 있는지"를 /actuator/lockwaits 에서 확인
+ */
+@Slf4j
+public class LockDiagnostics {
+
+    private static final String H2_SQL = """
+            SELECT SESSION_ID, BLOCKER_ID, EXECUTING_STATEMENT,
+                   DATEDIFF(MILLISECOND, EXECUTING_STATEMENT_START, CURRENT_TIMESTAMP) AS STATEMENT_MILLIS
+            FROM INFORMATION_SCHEMA.SESSIONS
+            WHERE SESSION_ID <> SESSION_ID()
+            """;
+
+    private static final String POSTGRES_SQL = """
+            SELECT DISTINCT ON (a.pid)
+                   a.pid AS session_id,
+                   pg_blocking_pids(a.pid) AS blockers,
+                   a.query AS statement,
+                   a.state,
+                   (EXTRACT(EPOCH FROM clock_timestamp() - a.query_start) * 1000)::bigint AS statement_millis,
+                   l.locktype, l.relation::regclass::text AS relation, l.page, l.tuple, l.classid, l.objid
+            FROM pg_stat_activity a
+            LEFT JOIN pg_locks l ON l.pid = a.pid AND NOT l.granted
+            WHERE a.datname = current_database() AND a.pid <> pg_backend_pid()
+            ORDER BY a.pid
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionCallRegistry registry;
+    private final LockDiagnosticsProperties properties;
+    private final Deque<LockWaitSnapshot> recent = new ArrayDeque<>();
+    private volatile DatabasePlatform platform;
+
+    public LockDiagnostics(JdbcTemplate jdbcTemplate, SessionCallRegistry registry, LockDiagnosticsProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    public LockWaitSnapshot snapshot() {
+        DatabasePlatform current = platform();
+        List<SessionWait> all = switch (current) {
+            case H2 -> jdbcTemplate.query(H2_SQL, h2Mapper());
+            case POSTGRESQL -> jdbcTemplate.query(POSTGRES_SQL, postgresMapper());
+            case OTHER -> List.of();
+        };
+
+        // 대기 중이거나 누군가를 막고 있는 세션만
+        List<Long> blockers = all.stream().flatMap(session -> session.blockedBy().stream()).toList();
+        List<SessionWait> involved = all.stream()
+                .filter(session -> session.waiting() || blockers.contains(session.sessionId()))
+                .toList();
+
+        WaitForGraph graph = new WaitForGraph(involved);
+        return new LockWaitSnapshot(LocalDateTime.now(), current.name(), involved,
+                graph.cycles(), graph.convoys(properties.getConvoyThreshold(), registry));
+    }
+
+    @Scheduled(fixedDelayString = "${learning-tx.lock-diagnostics.sample-interval-millis:1000}")
+    public void sample() {
+        LockWaitSnapshot snapshot = snapshot();
+        if (!snapshot.hasProblems()) {
+            return;
+        }
+        for (List<Long> cycle : snapshot.cycles()) {
+            log.warn("락 대기 순환 감지 (교착 상태): 세션 {}", cycle);
+        }
+        for (Convoy convoy : snapshot.convoys()) {
+            log.warn("락 convoy: 세션 {} ({}) 뒤에 {}개 대기, 최장 {}ms, 대상 {}",
+                    convoy.headSessionId(), convoy.headCall() == null ? "알 수 없음" : convoy.headCall().method(),
+                    convoy.waiters(), convoy.longestWaitMillis(), convoy.resource());
+        }
+        synchronized (recent) {
+            recent.addFirst(snapshot);
+            while (recent.size() > properties.getHistory()) {
+                recent.removeLast();
+            }
+        }
+    }
+
+    /**
+     * 최근 문제 스냅샷 (최신 순)
+     */
+    public List<LockWaitSnapshot> recent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    private DatabasePlatform platform() {
+        DatabasePlatform detected = platform;
+        if (detected == null) {
+            detected = DatabasePlatform.detect(jdbcTemplate);
+            platform = detected;
+        }
+        return detected;
+    }
+
+    private RowMapper<SessionWait> h2Mapper() {
+        return (rs, rowNum) -> {
+            long sessionId = rs.getLong("SESSION_ID");
+            Long blocker = rs.getObject("BLOCKER_ID", Long.class);
+            return new SessionWait(
+                    sessionId,
+                    blocker == null ? List.of() : List.of(blocker),
+                    rs.getString("EXECUTING_STATEMENT"),
+                    rs.getLong("STATEMENT_MILLIS"),
+                    null,
+                    registry.callOf(sessionId));
+        };
+    }
+
+    private RowMapper<SessionWait> postgresMapper() {
+        return (rs, rowNum) -> {
+            long sessionId = rs.getLong("session_id");
+            List<Long> blockedBy = new ArrayList<>();
+            Array blockers = rs.getArray("blockers");
+            if (blockers != null) {
+                for (Object pid : (Object[]) blockers.getArray()) {
+                    blockedBy.add(((Number) pid).longValue());
+                }
+            }
+            // idle in transaction: 마지막으로 실행한 SQL일 뿐 지금 실행 중인 것은 아님
+            String statement = "active".equals(rs.getString("state")) ? rs.getString("statement") : null;
+            return new SessionWait(
+                    sessionId,
+                    List.copyOf(blockedBy),
+                    statement,
+                    statement == null ? 0 : rs.getLong("statement_millis"),
+                    postgresResource(rs),
+                    registry.callOf(sessionId));
+        };
+    }
+
+    private static String postgresResource(ResultSet rs) throws SQLException {
+        String lockType = rs.getString("locktype");
+        if (lockType == null) {
+            return null;
+        }
+        return switch (lockType) {
+            // pg_advisory_xact_lock(bigint): 상위 32비트 = classid, 하위 32비트 = objid
+            case "advisory" -> "advisory:" + ((rs.getLong("classid") << 32) | (rs.getLong("objid") & 0xFFFFFFFFL));
+            case "tuple" -> rs.getString("relation") + "(" + rs.getInt("page") + "," + rs.getInt("tuple") + ")";
+            case "relation" -> rs.getString("relation");
+            default -> lockType;
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.test.learningtx.lockdiag;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(LockDiagnosticsProperties.class)
+@ConditionalOnProperty(prefix = "learning-tx.lock-diagnostics", name = "enabled", matchIfMissing = true)
+public class LockDiagnosticsConfig {
+
+    // DataSource 래핑(PoolInstrumentationConfig의 BeanPostProcessor) 시점에 필요하므로 의존성 없이 static으로
+    @Bean
+    public static SessionCallRegistry sessionCallRegistry() {
+        return new SessionCallRegistry();
+    }
+
+    @Bean
+    public LockDiagnostics lockDiagnostics(JdbcTemplate jdbcTemplate, SessionCallRegistry sessionCallRegistry,
+                                           LockDiagnosticsProperties properties) {
+        return new LockDiagnostics(jdbcTemplate, sessionCallRegistry, properties);
+    }
+
+    @Bean
+    public LockWaitsEndpoint lockWaitsEndpoint(LockDiagnostics lockDiagnostics) {
+        return new LockWaitsEndpoint(lockDiagnostics);
+    }
+}
@@ -0,0 +1,25 @@
+package com.test.learningtx.lockdiag;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 락 대기 진단 설정 (learning-tx.lock-diagnostics.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.lock-diagnostics")
+public class LockDiagnosticsProperties {
+
+    private boolean enabled = true;
+
+    // DB 세션/락 뷰 샘플링 주기
+    private long sampleIntervalMillis = 1000;
+
+    // 한 락 보유자 뒤에 이만큼 이상 줄 서면 convoy로 표시
+    private int convoyThreshold = 3;
+
+    // 문제(순환/convoy)가 보인 스냅샷을 최근 몇 개까지 보관할지
+    private int history = 20;
+}
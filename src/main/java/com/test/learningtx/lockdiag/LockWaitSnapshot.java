@@ -0,0 +1,19 @@
+package com.test.learningtx.lockdiag;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 한 시점의 wait-for 그래프
+ *
+ * @param sessions 대기 중이거나 다른 세션을 막고 있는 세션
+ * @param cycles 서로 기다리는 세션 순환 (교착 상태)
+ * @param convoys 대기 세션이 convoyThreshold 이상 줄 선 락 보유자
+ */
+public record LockWaitSnapshot(LocalDateTime capturedAt, String platform, List<SessionWait> sessions,
+                               List<List<Long>> cycles, List<Convoy> convoys) {
+
+    public boolean hasProblems() {
+        return !cycles.isEmpty() || !convoys.isEmpty();
+    }
+}
@@ -0,0 +1,28 @@
+package com.test.learningtx.lockdiag;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * 락 대기 진단 (GET /actuator/lockwaits)
+ *
+ * - current: 지금 시점의 wait-for 그래프 (조회할 때 DB 세션/락 뷰를 읽음)
+ * - recent: 샘플링 중 순환/convoy가 보였던 최근 스냅샷
+ */
+@Endpoint(id = "lockwaits")
+@RequiredArgsConstructor
+public class LockWaitsEndpoint {
+
+    private final LockDiagnostics lockDiagnostics;
+
+    @ReadOperation
+    public LockWaits lockWaits() {
+        return new LockWaits(lockDiagnostics.snapshot(), lockDiagnostics.recent());
+    }
+
+    public record LockWaits(LockWaitSnapshot current, List<LockWaitSnapshot> recent) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.test.learningtx.lockdiag;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DB 세션 id -> 그 세션을 빌려 쓰고 있는 서비스 호출
+ *
+ * InstrumentedDataSource가 서비스 호출 안에서 커넥션을 빌릴 때 bind, 반납할 때 unbind.
+ * 세션 id(H2 SESSION_ID(), PostgreSQL pg_backend_pid())는 물리 커넥션마다 한 번만 조회해서 캐시
+ * -> 락 진단 스냅샷의 세션을 "어느 서비스 호출인지"로 바꿔 보여줄 수 있음
+ *
+ * DataSource를 만드는 중에 생성되므로 다른 빈에 의존하지 않는다.
+ */
+@Slf4j
+public class SessionCallRegistry {
+
+    private final Map<Long, Binding> calls = new ConcurrentHashMap<>();
+    // 풀에서 버려진 물리 커넥션은 GC되면 자동으로 빠짐
+    private final Map<Connection, Long> sessionIds = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @param connection 풀이 준 커넥션 (물리 커넥션으로 unwrap해서 세션 id 캐시 키로 사용)
+     * @return 세션 id, 알 수 없으면 null
+     */
+    public Long bind(Connection connection, String method) {
+        Long sessionId = sessionIdOf(connection);
+        if (sessionId != null) {
+            calls.put(sessionId, new Binding(method, Thread.currentThread().getName(), System.nanoTime()));
+        }
+        return sessionId;
+    }
+
+    public void unbind(Long sessionId) {
+        if (sessionId != null) {
+            calls.remove(sessionId);
+        }
+    }
+
+    public InFlightCall callOf(long sessionId) {
+        Binding binding = calls.get(sessionId);
+        if (binding == null) {
+            return null;
+        }
+        return new InFlightCall(binding.method(), binding.thread(), (System.nanoTime() - binding.boundAtNanos()) / 1_000_000);
+    }
+
+    private Long sessionIdOf(Connection connection) {
+        Connection physical;
+        try {
+            physical = connection.unwrap(Connection.class);
+        } catch (SQLException e) {
+            physical = connection;
+        }
+        Long cached = sessionIds.get(physical);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            String sql = switch (connection.getMetaData().getDatabaseProductName()) {
+                case "H2" -> "SELECT SESSION_ID()";
+                case "PostgreSQL" -> "SELECT pg_backend_pid()";
+                default -> null;
+            };
+            if (sql == null) {
+                return null;
+            }
+            try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+                rs.next();
+                long sessionId = rs.getLong(1);
+                sessionIds.put(physical, sessionId);
+                return sessionId;
+            }
+        } catch (SQLException e) {
+            log.debug("세션 id 조회 실패, 이 커넥션은 서비스 호출과 연결하지 않음", e);
+            return null;
+        }
+    }
+
+    private record Binding(String method, String thread, long boundAtNanos) {
+    }
+}
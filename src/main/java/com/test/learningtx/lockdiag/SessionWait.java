@@ -0,0 +1,20 @@
+package com.test.learningtx.lockdiag;
+
+import java.util.List;
+
+/**
+ * 락 대기에 관련된 DB 세션 하나 (기다리는 쪽이든 막고 있는 쪽이든)
+ *
+ * @param blockedBy 이 세션이 기다리는 세션들 (비어 있으면 대기 중 아님)
+ * @param statement 실행 중인 SQL (없으면 null: 트랜잭션을 열어 둔 채 애플리케이션 코드 실행 중)
+ * @param statementMillis 현재 SQL 실행 시간
+ * @param resource 기다리는 대상 (PostgreSQL pg_locks에서 알 수 있을 때만, 예: advisory:42, accounts(0,3))
+ * @param call 이 세션을 빌려 쓰는 서비스 호출 (서비스 호출 밖이거나 다른 인스턴스면 null)
+ */
+public record SessionWait(long sessionId, List<Long> blockedBy, String statement, long statementMillis,
+                          String resource, InFlightCall call) {
+
+    public boolean waiting() {
+        return !blockedBy.isEmpty();
+    }
+}
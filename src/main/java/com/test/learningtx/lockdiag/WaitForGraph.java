@@ -0,0 +1,128 @@
+package com.test.learningtx.lockdiag;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * wait-for 그래프 분석 (대기 세션 -> 막고 있는 세션)
+ *
+ * - 순환: DFS 중 방문 중인 세션으로 돌아오면 그 구간이 순환 (교착 상태)
+ * - convoy: 아무도 기다리지 않는 세션 뒤에 직간접적으로 줄 선 세션 수가 threshold 이상
+ */
+final class WaitForGraph {
+
+    private final Map<Long, SessionWait> sessions = new HashMap<>();
+    private final Map<Long, List<Long>> waitersOf = new HashMap<>();
+
+    WaitForGraph(List<SessionWait> sessions) {
+        for (SessionWait session : sessions) {
+            this.sessions.put(session.sessionId(), session);
+            for (Long blocker : session.blockedBy()) {
+                waitersOf.computeIfAbsent(blocker, id -> new ArrayList<>()).add(session.sessionId());
+            }
+        }
+    }
+
+    /**
+     * 각 순환은 가장 작은 세션 id부터 대기 방향 순서로
+     */
+    List<List<Long>> cycles() {
+        Set<List<Long>> found = new LinkedHashSet<>();
+        Set<Long> done = new HashSet<>();
+        for (Long start : sessions.keySet()) {
+            if (!done.contains(start)) {
+                findCycles(start, new ArrayList<>(), new HashSet<>(), done, found);
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    private void findCycles(Long session, List<Long> path, Set<Long> onPath, Set<Long> done, Set<List<Long>> found) {
+        if (onPath.contains(session)) {
+            found.add(canonical(path.subList(path.indexOf(session), path.size())));
+            return;
+        }
+        if (done.contains(session)) {
+            return;
+        }
+        path.add(session);
+        onPath.add(session);
+        SessionWait wait = sessions.get(session);
+        if (wait != null) {
+            for (Long blocker : wait.blockedBy()) {
+                findCycles(blocker, path, onPath, done, found);
+            }
+        }
+        onPath.remove(session);
+        path.remove(path.size() - 1);
+        done.add(session);
+    }
+
+    private static List<Long> canonical(List<Long> cycle) {
+        List<Long> rotated = new ArrayList<>(cycle);
+        Collections.rotate(rotated, -rotated.indexOf(Collections.min(rotated)));
+        return List.copyOf(rotated);
+    }
+
+    List<Convoy> convoys(int threshold, SessionCallRegistry registry) {
+        List<Convoy> convoys = new ArrayList<>();
+        for (Map.Entry<Long, List<Long>> entry : waitersOf.entrySet()) {
+            Long head = entry.getKey();
+            SessionWait headSession = sessions.get(head);
+            if (headSession != null && headSession.waiting()) {
+                continue;   // 줄 중간: 맨 앞 세션에서 한 번만 보고
+            }
+
+            Set<Long> queued = new HashSet<>();
+            Deque<Long> pending = new ArrayDeque<>(entry.getValue());
+            long longestWait = 0;
+            while (!pending.isEmpty()) {
+                Long waiter = pending.poll();
+                if (waiter.equals(head) || !queued.add(waiter)) {
+                    continue;
+                }
+                SessionWait waiterSession = sessions.get(waiter);
+                if (waiterSession != null) {
+                    longestWait = Math.max(longestWait, waiterSession.statementMillis());
+                }
+                pending.addAll(waitersOf.getOrDefault(waiter, List.of()));
+            }
+
+            if (queued.size() >= threshold) {
+                convoys.add(new Convoy(head, registry.callOf(head), queued.size(), longestWait,
+                        resourceOf(entry.getValue())));
+            }
+        }
+        convoys.sort((a, b) -> Integer.compare(b.waiters(), a.waiters()));
+        return convoys;
+    }
+
+    // 직접 기다리는 세션들이 가장 많이 기다리는 대상, 알 수 없으면 대기 SQL
+    private String resourceOf(List<Long> directWaiters) {
+        Map<String, Integer> counts = new HashMap<>();
+        String statement = null;
+        for (Long waiter : directWaiters) {
+            SessionWait session = sessions.get(waiter);
+            if (session == null) {
+                continue;
+            }
+            if (session.resource() != null) {
+                counts.merge(session.resource(), 1, Integer::sum);
+            } else if (statement == null) {
+                statement = session.statement();
+            }
+        }
+        return counts.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(statement);
+    }
+}
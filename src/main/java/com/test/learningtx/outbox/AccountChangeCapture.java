@@ -0,0 +1,112 @@
+package com.test.learningtx.outbox;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.support.TxTimestamp;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Account 잔액 변경을 같은 트랜잭션의 아웃박스에 기록
+ *
+ * 1. flush 중 Account INSERT/UPDATE 이벤트에서 변경 내용을 세션별 목록에 모음 (잔액이 그대로면 건너뜀)
+ * 2. 커밋 직전(BeforeTransactionCompletionProcess) 모은 행을 JDBC 배치 INSERT 한 번으로 기록
+ *    > Hibernate는 마지막 flush를 끝낸 뒤 이 단계를 실행하므로 커밋 시 flush된 변경도 포함됨
+ * 3. 롤백되면 아웃박스 INSERT도 함께 롤백 (목록은 트랜잭션 종료 시 정리)
+ *
+ * 같은 계좌를 갱신하는 트랜잭션은 행 락으로 직렬화되고, 아웃박스 INSERT는 락을 쥔 채 커밋 직전에 실행
+ * -> 같은 계좌의 아웃박스 id는 커밋 순서대로 증가
+ */
+public class AccountChangeCapture implements PostInsertEventListener, PostUpdateEventListener {
+
+    static final String INSERT_SQL = """
+            INSERT INTO account_outbox (account_id, event_type, previous_balance, balance, version, occurred_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    private final Map<EventSource, List<Change>> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Account account) {
+            enqueue(event.getSession(), new Change(account.getId(), BalanceChangedEvent.CREATED, null,
+                    account.getBalance(), account.getVersion()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Account account)) {
+            return;
+        }
+        BigDecimal previous = null;
+        Object[] oldState = event.getOldState();
+        if (oldState != null) {
+            previous = (BigDecimal) oldState[event.getPersister().findAttributeMapping("balance").getStateArrayPosition()];
+            if (previous != null && previous.compareTo(account.getBalance()) == 0) {
+                return;     // 이름 변경 등 잔액과 무관한 UPDATE
+            }
+        }
+        enqueue(event.getSession(), new Change(account.getId(), BalanceChangedEvent.BALANCE_CHANGED, previous,
+                account.getBalance(), account.getVersion()));
+    }
+
+    private void enqueue(EventSource session, Change change) {
+        List<Change> changes = pending.get(session);
+        if (changes == null) {
+            List<Change> created = new ArrayList<>();
+            pending.put(session, created);
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) s -> {
+                pending.remove(session);
+                write(s, created);
+            });
+            session.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (success, s) -> pending.remove(session));
+            changes = created;
+        }
+        changes.add(change);
+    }
+
+    private static void write(SessionImplementor session, List<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(TxTimestamp.now());     // 같은 트랜잭션의 TxLog와 같은 시각
+        session.doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+                for (Change change : changes) {
+                    ps.setLong(1, change.accountId());
+                    ps.setString(2, change.eventType());
+                    ps.setBigDecimal(3, change.previousBalance());
+                    ps.setBigDecimal(4, change.balance());
+                    ps.setObject(5, change.version());
+                    ps.setTimestamp(6, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+    }
+
+    private record Change(Long accountId, String eventType, BigDecimal previousBalance, BigDecimal balance, Long version) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.test.learningtx.outbox;
+
+/**
+ * 잔액 변경 이벤트 구독자 (빈으로 등록하면 OutboxRelay/OutboxFeed가 자동으로 전달)
+ *
+ * - 같은 계좌의 이벤트는 발생 순서대로 전달
+ * - transactional() = true: relay 트랜잭션 안에서 전달 (DB에 기록하는 구독자)
+ *   > 최소 한 번(at-least-once): 재시작/실패 시 같은 이벤트가 다시 올 수 있음 -> eventId로 중복 처리
+ *   > 예외를 던지면 그 이벤트부터 다음 폴링에서 다시 전달
+ * - transactional() = false(기본): 인스턴스마다 OutboxFeed가 relay 커밋 후의 행을 읽어 전달 (메모리 구독자)
+ *   > relay를 돌리지 않는 인스턴스도 모든 변경을 받음
+ *   > 느린 구독자가 relay 락/트랜잭션을 붙잡지 않음
+ *   > 최소 한 번: 예외를 던지면 그 이벤트부터 다음 피드 폴링에서 다시 전달 (retention 동안, 다른 구독자는 막지 않음)
+ */
+public interface BalanceChangeSubscriber {
+
+    void onBalanceChanged(BalanceChangedEvent event);
+
+    default boolean transactional() {
+        return false;
+    }
+}
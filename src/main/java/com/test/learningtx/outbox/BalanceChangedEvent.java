@@ -0,0 +1,24 @@
+package com.test.learningtx.outbox;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 변경 이벤트
+ *
+ * @param eventId         아웃박스 id (계좌별로 증가 -> 구독자가 중복 전달을 걸러낼 때 사용)
+ * @param previousBalance 계좌 생성 이벤트면 null
+ */
+public record BalanceChangedEvent(
+        long eventId,
+        Long accountId,
+        String eventType,
+        BigDecimal previousBalance,
+        BigDecimal balance,
+        Long version,
+        LocalDateTime occurredAt
+) {
+
+    public static final String CREATED = "ACCOUNT_CREATED";
+    public static final String BALANCE_CHANGED = "BALANCE_CHANGED";
+}
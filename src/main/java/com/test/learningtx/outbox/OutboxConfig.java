@@ -0,0 +1,48 @@
+package com.test.learningtx.outbox;
+
+import com.test.learningtx.lock.AccountLockBackend;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "learning-tx.outbox", name = "enabled", matchIfMissing = true)
+    public AccountChangeCapture accountChangeCapture(EntityManagerFactory entityManagerFactory) {
+        AccountChangeCapture capture = new AccountChangeCapture();
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, capture);
+        registry.appendListeners(EventType.POST_UPDATE, capture);
+        return capture;
+    }
+
+    @Bean
+    @ConditionalOnExpression("${learning-tx.outbox.enabled:true} and ${learning-tx.outbox.relay-enabled:true}")
+    public OutboxRelay outboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   AccountLockBackend accountLockBackend,
+                                   ObjectProvider<BalanceChangeSubscriber> subscribers, OutboxProperties properties) {
+        return new OutboxRelay(jdbcTemplate, transactionTemplate, accountLockBackend, subscribers, properties);
+    }
+
+    // relay-enabled와 상관없이 인스턴스마다: relay한 변경을 이 인스턴스의 메모리 구독자에게
+    @Bean
+    @ConditionalOnProperty(prefix = "learning-tx.outbox", name = "enabled", matchIfMissing = true)
+    public OutboxFeed outboxFeed(JdbcTemplate jdbcTemplate, ObjectProvider<BalanceChangeSubscriber> subscribers,
+                                 OutboxProperties properties) {
+        return new OutboxFeed(jdbcTemplate, subscribers, properties);
+    }
+}
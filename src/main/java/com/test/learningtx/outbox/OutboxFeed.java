@@ -0,0 +1,154 @@
+package com.test.learningtx.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * relay한 아웃박스 행 -> 이 인스턴스의 메모리 구독자 (인스턴스마다 하나, relay-enabled와 무관)
+ *
+ * relay는 트랜잭션 구독자에게 전달한 행을 지우지 않고 relay_seq를 매겨 retention 동안 남겨 둠
+ * 여기서는 relay_seq 워터마크 이후 행을 순서대로 읽어 transactional() = false 구독자(잔액 스트림 등)에게 전달
+ *  - relay 락을 어느 인스턴스가 쥐었든 모든 인스턴스가 모든 변경을 받음
+ *  - relay_seq는 relay 락 안에서 빈틈 없이 매기고 커밋 -> 워터마크 뒤에 늦게 끼어드는 행이 없음
+ *    (아웃박스 id는 INSERT 순서라 커밋 순서와 달라서 id 워터마크로 읽으면 늦게 커밋된 행을 건너뜀)
+ *  - 시작 시 워터마크 = 현재 마지막 relay_seq (메모리 상태는 재시작하면 어차피 비어 있고, 잔액 스트림은 구독 시 스냅샷을 읽음)
+ *  - 구독자마다 워터마크를 따로 둠 -> 최소 한 번(at-least-once)
+ *    > 구독자가 예외를 던지면 그 구독자만 이번 폴링을 멈추고 워터마크를 그대로 둠 -> 다음 폴링에서 그 이벤트부터 다시 전달
+ *    > 다른 구독자는 계속 진행 (이미 받은 행은 워터마크로 건너뜀), 구독자는 eventId/version으로 중복을 걸러야 함
+ *  - retention보다 오래 밀리면(계속 실패하는 구독자 포함) 그 사이 행은 지워져 못 받음 -> relay_seq가 건너뛰면 경고
+ */
+@Slf4j
+public class OutboxFeed {
+
+    private static final String SELECT_SQL = """
+            SELECT relay_seq, id, account_id, event_type, previous_balance, balance, version, occurred_at
+            FROM account_outbox WHERE relay_seq > ? ORDER BY relay_seq LIMIT ?
+            """;
+
+    private static final RowMapper<RelayedEvent> ROW_MAPPER = (rs, rowNum) ->
+            new RelayedEvent(rs.getLong("relay_seq"), OutboxRelay.EVENT_MAPPER.mapRow(rs, rowNum));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<BalanceChangeSubscriber> subscribers;
+    private final OutboxProperties properties;
+
+    // 구독자별 마지막으로 받은 relay_seq, 처음 폴링할 때 정함 (빈 생성 시점에는 스키마가 아직 없을 수 있음)
+    private final Map<BalanceChangeSubscriber, Long> watermarks = new IdentityHashMap<>();
+
+    public OutboxFeed(JdbcTemplate jdbcTemplate, ObjectProvider<BalanceChangeSubscriber> subscribers,
+                      OutboxProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.subscribers = subscribers;
+        this.properties = properties;
+    }
+
+    /**
+     * 스케줄과 테스트의 직접 호출이 겹쳐도 같은 행을 두 번 전달하지 않도록 synchronized
+     *
+     * @return 전달한 이벤트 수
+     */
+    @Scheduled(fixedDelayString = "${learning-tx.outbox.feed-poll-interval-millis:200}")
+    public synchronized int poll() {
+        List<BalanceChangeSubscriber> targets = subscribers.orderedStream()
+                .filter(subscriber -> !subscriber.transactional())
+                .toList();
+        if (targets.isEmpty()) {
+            return 0;
+        }
+        if (targets.stream().anyMatch(target -> !watermarks.containsKey(target))) {
+            long last = lastRelaySeq();
+            targets.forEach(target -> watermarks.putIfAbsent(target, last));
+        }
+
+        // 이번 폴링에서 실패한 구독자: 다음 폴링까지 더 보내지 않음 (계좌별 순서 유지)
+        Set<BalanceChangeSubscriber> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        int delivered = 0;
+        List<RelayedEvent> batch;
+        do {
+            long from = lowestWatermark(targets, failed);
+            batch = jdbcTemplate.query(SELECT_SQL, ROW_MAPPER, from, properties.getBatchSize());
+            if (batch.isEmpty()) {
+                resetIfSequenceRestarted(targets);
+                break;
+            }
+            warnSkipped(targets, failed, batch.get(0).seq());
+            for (RelayedEvent relayed : batch) {
+                if (publish(targets, failed, relayed)) {
+                    delivered++;
+                }
+            }
+        } while (batch.size() == properties.getBatchSize() && failed.size() < targets.size());
+        return delivered;
+    }
+
+    /**
+     * @return 이번에 한 구독자라도 새로 받았는지
+     */
+    private boolean publish(List<BalanceChangeSubscriber> targets, Set<BalanceChangeSubscriber> failed, RelayedEvent relayed) {
+        boolean published = false;
+        for (BalanceChangeSubscriber subscriber : targets) {
+            if (failed.contains(subscriber) || watermarks.get(subscriber) >= relayed.seq()) {
+                continue;
+            }
+            try {
+                subscriber.onBalanceChanged(relayed.event());
+                watermarks.put(subscriber, relayed.seq());
+                published = true;
+            } catch (RuntimeException e) {
+                // 워터마크를 두고 다음 폴링에서 이 이벤트부터 다시 전달, 다른 구독자는 막지 않음
+                failed.add(subscriber);
+                log.warn("메모리 구독자 이벤트 전달 실패, 다음 폴링에서 재전달: subscriber={}, eventId={}",
+                        subscriber.getClass().getSimpleName(), relayed.event().eventId(), e);
+            }
+        }
+        return published;
+    }
+
+    private long lowestWatermark(List<BalanceChangeSubscriber> targets, Set<BalanceChangeSubscriber> failed) {
+        return targets.stream()
+                .filter(target -> !failed.contains(target))
+                .mapToLong(watermarks::get)
+                .min()
+                .orElseThrow();
+    }
+
+    private void warnSkipped(List<BalanceChangeSubscriber> targets, Set<BalanceChangeSubscriber> failed, long firstSeq) {
+        for (BalanceChangeSubscriber target : targets) {
+            long watermark = watermarks.get(target);
+            if (!failed.contains(target) && watermark + 1 < firstSeq) {
+                log.warn("⚠️ 아웃박스 피드가 retention보다 밀려 변경을 놓침: subscriber={}, relay_seq {} ~ {}",
+                        target.getClass().getSimpleName(), watermark + 1, firstSeq - 1);
+                watermarks.put(target, firstSeq - 1);
+            }
+        }
+    }
+
+    // 아웃박스를 통째로 비우면(테스트, 수동 정리) relay_seq가 1부터 다시 시작 -> 워터마크도 따라 내림
+    private void resetIfSequenceRestarted(List<BalanceChangeSubscriber> targets) {
+        long last = lastRelaySeq();
+        for (BalanceChangeSubscriber target : targets) {
+            long watermark = watermarks.get(target);
+            if (last < watermark) {
+                log.warn("⚠️ relay_seq가 워터마크보다 작아짐 (아웃박스 비움): subscriber={}, {} -> {}",
+                        target.getClass().getSimpleName(), watermark, last);
+                watermarks.put(target, last);
+            }
+        }
+    }
+
+    private long lastRelaySeq() {
+        return jdbcTemplate.queryForObject(OutboxRelay.MAX_RELAY_SEQ_SQL, Long.class);
+    }
+
+    private record RelayedEvent(long seq, BalanceChangedEvent event) {
+    }
+}
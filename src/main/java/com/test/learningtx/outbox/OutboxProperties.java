@@ -0,0 +1,32 @@
+package com.test.learningtx.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 아웃박스 설정 (learning-tx.outbox.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.outbox")
+public class OutboxProperties {
+
+    // false면 아웃박스 기록/전달 모두 하지 않음
+    private boolean enabled = true;
+
+    // false면 기록만 하고 이 인스턴스에서는 전달하지 않음 (test 프로필 기본값: 필요한 테스트만 켜고 직접 호출)
+    private boolean relayEnabled = true;
+
+    // 한 번에 읽어서 전달할 이벤트 수
+    private int batchSize = 500;
+
+    // 폴링 주기 (직전 배치가 가득 찼으면 기다리지 않고 바로 다음 배치)
+    private long pollIntervalMillis = 200;
+
+    // 인스턴스별 OutboxFeed 폴링 주기 (relay-enabled와 상관없이 모든 인스턴스에서 실행)
+    private long feedPollIntervalMillis = 200;
+
+    // relay한 행을 남겨 두는 시간: 각 인스턴스의 OutboxFeed가 이보다 오래 밀리면 그 사이 변경을 놓침
+    private long retentionMillis = 60_000;
+}
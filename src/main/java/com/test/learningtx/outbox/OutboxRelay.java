@@ -0,0 +1,135 @@
+package com.test.learningtx.outbox;
+
+import com.test.learningtx.lock.AccountLockBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 아웃박스 -> 트랜잭션 구독자 전달
+ *
+ * 1. 한 트랜잭션에서 relay 전용 락 키를 잡고 (여러 인스턴스 중 한 relay만 진행)
+ * 2. 아직 relay하지 않은 아웃박스 행을 id 순으로 batchSize만큼 읽어 트랜잭션 구독자(이력 기록 등)에게 전달
+ * 3. 전달한 행에 relay_seq(직전 최대값 + 1부터 연속)와 relayed_at을 매기고 커밋
+ * 4. retention이 지난 행은 폴링 끝에 삭제
+ *
+ * 메모리 구독자(잔액 스트림 등)는 relay가 직접 부르지 않음 -> 인스턴스마다 OutboxFeed가 relay_seq 순으로 읽어 전달
+ *  > relay 락을 쥔 인스턴스에만 이벤트가 가지 않고, 느린 메모리 구독자가 relay를 멈추게 하지도 않음
+ *
+ * - 트랜잭션 구독자는 최소 한 번: 전달 후 커밋 전에 죽으면 다음 폴링에서 다시 전달
+ * - 계좌별 순서: relay가 하나뿐이고 id 순으로 전달, 트랜잭션 구독자가 실패하면 그 이벤트부터 멈췄다가 다시 시작
+ *   (FOR UPDATE SKIP LOCKED로 relay를 여러 개 돌리면 같은 계좌 이벤트가 다른 relay로 나뉘어 순서가 깨짐)
+ * - relay_seq는 relay 락 안에서 매기므로 커밋 순서와 같음 (id는 INSERT 순서라 커밋 순서와 다를 수 있음)
+ */
+@Slf4j
+public class OutboxRelay {
+
+    // 계좌 id(양수)와 겹치지 않는 relay 전용 락 키
+    static final long RELAY_LOCK_KEY = -1L;
+
+    private static final String SELECT_SQL = """
+            SELECT id, account_id, event_type, previous_balance, balance, version, occurred_at
+            FROM account_outbox WHERE relay_seq IS NULL ORDER BY id LIMIT ?
+            """;
+    private static final String MARK_RELAYED_SQL = "UPDATE account_outbox SET relay_seq = ?, relayed_at = ? WHERE id = ?";
+    static final String MAX_RELAY_SEQ_SQL = "SELECT COALESCE(MAX(relay_seq), 0) FROM account_outbox";
+    // 마지막 relay_seq 행은 남김: 모두 지우면 다음 번호가 0부터 다시 시작해 OutboxFeed 워터마크 뒤로 감
+    private static final String PURGE_SQL = "DELETE FROM account_outbox WHERE relayed_at < ? AND relay_seq < ?";
+
+    static final RowMapper<BalanceChangedEvent> EVENT_MAPPER = (rs, rowNum) -> new BalanceChangedEvent(
+            rs.getLong("id"),
+            rs.getLong("account_id"),
+            rs.getString("event_type"),
+            rs.getBigDecimal("previous_balance"),
+            rs.getBigDecimal("balance"),
+            rs.getObject("version", Long.class),
+            rs.getTimestamp("occurred_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountLockBackend lockBackend;
+    private final ObjectProvider<BalanceChangeSubscriber> subscribers;
+    private final OutboxProperties properties;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, AccountLockBackend lockBackend,
+                       ObjectProvider<BalanceChangeSubscriber> subscribers, OutboxProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.lockBackend = lockBackend;
+        this.subscribers = subscribers;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${learning-tx.outbox.poll-interval-millis:200}")
+    public void poll() {
+        int delivered;
+        do {
+            delivered = relayBatch();
+        } while (delivered == properties.getBatchSize());   // 밀려 있으면 바로 다음 배치
+        purgeRelayed();
+    }
+
+    /**
+     * @return 전달 후 relay_seq를 매긴 이벤트 수
+     */
+    public int relayBatch() {
+        List<BalanceChangeSubscriber> inTransaction = subscribers.orderedStream()
+                .filter(BalanceChangeSubscriber::transactional)
+                .toList();
+
+        Integer delivered = transactionTemplate.execute(status -> {
+            lockBackend.lockForTransaction(RELAY_LOCK_KEY);
+
+            List<BalanceChangedEvent> events = jdbcTemplate.query(SELECT_SQL, EVENT_MAPPER, properties.getBatchSize());
+            if (events.isEmpty()) {
+                return 0;
+            }
+
+            List<BalanceChangedEvent> deliveredEvents = new ArrayList<>(events.size());
+            for (BalanceChangedEvent event : events) {
+                try {
+                    for (BalanceChangeSubscriber subscriber : inTransaction) {
+                        subscriber.onBalanceChanged(event);
+                    }
+                } catch (RuntimeException e) {
+                    // 순서 보장을 위해 여기서 멈추고 다음 폴링에서 이 이벤트부터 다시 전달
+                    log.warn("아웃박스 이벤트 전달 실패, 다음 폴링에서 재시도: eventId={}", event.eventId(), e);
+                    break;
+                }
+                deliveredEvents.add(event);
+            }
+
+            // 락 안에서 이어 붙이므로 relay_seq는 빈틈 없이 커밋 순서대로 증가 (롤백되면 같은 번호를 다시 씀)
+            long seq = jdbcTemplate.queryForObject(MAX_RELAY_SEQ_SQL, Long.class);
+            Timestamp relayedAt = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> marks = new ArrayList<>(deliveredEvents.size());
+            for (BalanceChangedEvent event : deliveredEvents) {
+                marks.add(new Object[]{++seq, relayedAt, event.eventId()});
+            }
+            jdbcTemplate.batchUpdate(MARK_RELAYED_SQL, marks);
+            return deliveredEvents.size();
+        });
+        return delivered == null ? 0 : delivered;
+    }
+
+    private void purgeRelayed() {
+        long lastSeq = jdbcTemplate.queryForObject(MAX_RELAY_SEQ_SQL, Long.class);
+        if (lastSeq == 0) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(properties.getRetentionMillis()));
+        int purged = jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(cutoff), lastSeq);
+        if (purged > 0) {
+            log.debug("relay한 아웃박스 행 정리: {}건 (relayed_at < {})", purged, cutoff);
+        }
+    }
+}
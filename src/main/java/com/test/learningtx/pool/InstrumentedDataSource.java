@@ -0,0 +1,191 @@
+package com.test.learningtx.pool;
+
+import com.test.learningtx.lockdiag.SessionCallRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 커넥션 획득 시간과 SQL 실행 시간을 분리해서 측정하는 DataSource 래퍼
+ *
+ * - getConnection(): 풀에서 커넥션을 받을 때까지 걸린 시간 (풀 포화 시 증가)
+ * - Statement.execute*(): SQL 실행 시간
+ *   > FOR UPDATE / advisory lock SQL은 "락 시간"으로 따로 집계 (행 락 대기가 여기에 포함됨)
+ * - Connection.close(): 커넥션을 점유한 시간 (Little's law의 W)
+ * - 서비스 호출 안에서 빌린 커넥션은 SessionCallRegistry에 DB 세션 id -> 서비스 메서드로 등록 (락 진단용)
+ */
+public class InstrumentedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final PoolMetrics metrics;
+    private final SessionCallRegistry sessionCallRegistry;     // 락 진단을 끄면 null
+
+    public InstrumentedDataSource(DataSource target, PoolMetrics metrics, SessionCallRegistry sessionCallRegistry) {
+        super(target);
+        this.metrics = metrics;
+        this.sessionCallRegistry = sessionCallRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        return instrument(connection, start);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        return instrument(connection, start);
+    }
+
+    /**
+     * 컨텍스트 종료 시 실제 풀(HikariDataSource)도 닫히도록 위임
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection instrument(Connection connection, long start) {
+        long acquiredAt = System.nanoTime();
+        metrics.recordAcquire(acquiredAt - start);
+
+        ServiceCallContext context = ServiceCallContext.current();
+        Long sessionId = sessionCallRegistry != null && context != null
+                ? sessionCallRegistry.bind(connection, context.method())
+                : null;
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection, acquiredAt, sessionId));
+    }
+
+    /**
+     * FOR UPDATE / advisory lock SQL 여부 (SQL 트레이싱의 lock 표시도 같은 기준)
+     */
+    public static boolean isLockStatement(String sql) {
+        return sql != null && (containsIgnoreCase(sql, "for update") || containsIgnoreCase(sql, "pg_advisory"));
+    }
+
+    private static boolean containsIgnoreCase(String text, String token) {
+        int max = text.length() - token.length();
+        for (int i = 0; i <= max; i++) {
+            if (text.regionMatches(true, i, token, 0, token.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final long acquiredAt;
+        private final Long sessionId;
+        private boolean closed;
+
+        private ConnectionHandler(Connection target, long acquiredAt, Long sessionId) {
+            this.target = target;
+            this.acquiredAt = acquiredAt;
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        metrics.recordRelease(System.nanoTime() - acquiredAt);
+                        if (sessionCallRegistry != null) {
+                            sessionCallRegistry.unbind(sessionId);
+                        }
+                    }
+                    return invokeTarget(target, method, args);
+                }
+                case "prepareStatement" -> {
+                    return wrap(invokeTarget(target, method, args), PreparedStatement.class, (String) args[0]);
+                }
+                case "prepareCall" -> {
+                    return wrap(invokeTarget(target, method, args), CallableStatement.class, (String) args[0]);
+                }
+                case "createStatement" -> {
+                    return wrap(invokeTarget(target, method, args), Statement.class, null);
+                }
+                case "unwrap" -> {
+                    Class<?> iface = (Class<?>) args[0];
+                    return iface.isInstance(proxy) ? proxy : target.unwrap(iface);
+                }
+                case "isWrapperFor" -> {
+                    Class<?> iface = (Class<?>) args[0];
+                    return iface.isInstance(proxy) || target.isWrapperFor(iface);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    return invokeTarget(target, method, args);
+                }
+            }
+        }
+
+        private Object wrap(Object statement, Class<? extends Statement> type, String sql) {
+            return Proxy.newProxyInstance(
+                    type.getClassLoader(),
+                    new Class<?>[]{type},
+                    new StatementHandler((Statement) statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                return invokeTarget(target, method, args);
+            }
+
+            // Statement.execute(sql) 처럼 SQL을 인자로 받는 경우와 PreparedStatement 모두 처리
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                boolean lock = isLockStatement(sql);
+                metrics.recordStatement(elapsed, lock);
+            }
+        }
+    }
+}
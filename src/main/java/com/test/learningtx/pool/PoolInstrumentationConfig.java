@@ -0,0 +1,51 @@
+package com.test.learningtx.pool;
+
+import com.test.learningtx.lockdiag.SessionCallRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(PoolProperties.class)
+@ConditionalOnProperty(prefix = "learning-tx.pool.instrumentation", name = "enabled")
+public class PoolInstrumentationConfig {
+
+    /**
+     * DataSource 빈을 InstrumentedDataSource로 감쌈
+     * (BeanPostProcessor는 static으로 등록해야 다른 빈보다 먼저 준비됨)
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceInstrumentationPostProcessor(ObjectProvider<PoolMetrics> poolMetrics,
+                                                                           ObjectProvider<SessionCallRegistry> sessionCallRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource, poolMetrics.getObject(),
+                            sessionCallRegistry.getIfAvailable());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public ServiceCallAspect serviceCallAspect(PoolMetrics poolMetrics) {
+        return new ServiceCallAspect(poolMetrics);
+    }
+
+    @Bean
+    public PoolSizeAdvisor poolSizeAdvisor(DataSource dataSource, PoolMetrics poolMetrics, PoolProperties properties) {
+        return new PoolSizeAdvisor(dataSource, poolMetrics, properties);
+    }
+
+    @Bean
+    public PoolSaturationEndpoint poolSaturationEndpoint(PoolMetrics poolMetrics, PoolSizeAdvisor poolSizeAdvisor) {
+        return new PoolSaturationEndpoint(poolMetrics, poolSizeAdvisor);
+    }
+}
@@ -0,0 +1,110 @@
+package com.test.learningtx.pool;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 커넥션 풀/SQL 시간 누적 통계
+ *
+ * - 메서드별: 전체 시간 = 커넥션 획득 대기 + 일반 SQL + 락 SQL + 그 외(애플리케이션 코드)
+ * - 전체: 커넥션 획득 횟수, 획득 대기 합, 커넥션 점유(hold) 시간 합 -> Little's law 계산용
+ */
+@Component
+public class PoolMetrics {
+
+    private final Map<String, MethodStats> methods = new ConcurrentHashMap<>();
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAdder holdNanos = new LongAdder();
+    private final LongAdder statementNanos = new LongAdder();
+    private final LongAdder lockNanos = new LongAdder();
+
+    void recordAcquire(long nanos) {
+        acquisitions.increment();
+        acquireNanos.add(nanos);
+        ServiceCallContext context = ServiceCallContext.current();
+        if (context != null) {
+            context.addAcquire(nanos);
+        }
+    }
+
+    void recordRelease(long heldNanos) {
+        holdNanos.add(heldNanos);
+    }
+
+    void recordStatement(long nanos, boolean lock) {
+        (lock ? lockNanos : statementNanos).add(nanos);
+        ServiceCallContext context = ServiceCallContext.current();
+        if (context != null) {
+            context.addStatement(nanos, lock);
+        }
+    }
+
+    void recordCall(ServiceCallContext context, long totalNanos) {
+        MethodStats stats = methods.computeIfAbsent(context.method(), key -> new MethodStats());
+        stats.calls.increment();
+        stats.totalNanos.add(totalNanos);
+        stats.acquireNanos.add(context.acquireNanos());
+        stats.statementNanos.add(context.statementNanos());
+        stats.lockNanos.add(context.lockNanos());
+    }
+
+    public Totals totals() {
+        return new Totals(acquisitions.sum(), acquireNanos.sum(), holdNanos.sum(), statementNanos.sum(), lockNanos.sum());
+    }
+
+    public List<MethodTiming> methodTimings() {
+        return methods.entrySet().stream()
+                .map(entry -> entry.getValue().toTiming(entry.getKey()))
+                .sorted(Comparator.comparingDouble(MethodTiming::totalMillis).reversed())
+                .toList();
+    }
+
+    private static final class MethodStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final LongAdder statementNanos = new LongAdder();
+        private final LongAdder lockNanos = new LongAdder();
+
+        private MethodTiming toTiming(String method) {
+            long count = calls.sum();
+            long total = totalNanos.sum();
+            long acquire = acquireNanos.sum();
+            long statement = statementNanos.sum();
+            long lock = lockNanos.sum();
+            return new MethodTiming(method, count,
+                    millis(total),
+                    avgMillis(total, count),
+                    avgMillis(acquire, count),
+                    avgMillis(statement, count),
+                    avgMillis(lock, count),
+                    avgMillis(Math.max(0, total - acquire - statement - lock), count));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double avgMillis(long nanos, long count) {
+        return count == 0 ? 0.0 : nanos / 1_000_000.0 / count;
+    }
+
+    /**
+     * 메서드별 평균 시간 분해 (ms)
+     */
+    public record MethodTiming(String method, long calls, double totalMillis, double avgMillis,
+                               double avgAcquireMillis, double avgStatementMillis, double avgLockMillis,
+                               double avgOtherMillis) {
+    }
+
+    public record Totals(long acquisitions, long acquireNanos, long holdNanos, long statementNanos, long lockNanos) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.test.learningtx.pool;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 커넥션 풀 계측/자동 조정 설정 (learning-tx.pool.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.pool")
+public class PoolProperties {
+
+    private final Instrumentation instrumentation = new Instrumentation();
+    private final Adaptive adaptive = new Adaptive();
+
+    @Getter
+    @Setter
+    public static class Instrumentation {
+        // DataSource 래핑 + 서비스 메서드별 시간 분해
+        private boolean enabled = true;
+    }
+
+    @Getter
+    @Setter
+    public static class Adaptive {
+        // true면 권장값을 실제 maximumPoolSize에 반영, false면 권장값만 계산
+        private boolean enabled = false;
+        private int minSize = 5;
+        private int maxSize = 50;
+        private long intervalMillis = 10_000;
+        // Little's law로 구한 평균 사용 커넥션 수에 곱하는 여유율
+        private double headroom = 1.5;
+        // 평균 커넥션 획득 대기가 이 값을 넘으면 풀 부족으로 판단
+        private double targetAcquireMillis = 5.0;
+        // 커넥션 점유 시간 중 락 대기 비율이 이 값을 넘으면 풀을 늘리지 않음 (락 대기열만 길어짐)
+        private double maxLockShareForGrowth = 0.5;
+    }
+}
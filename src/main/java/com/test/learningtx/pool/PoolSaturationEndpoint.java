@@ -0,0 +1,38 @@
+package com.test.learningtx.pool;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * 커넥션 풀 포화 분석 (GET /actuator/poolsaturation)
+ *
+ * - methods: 서비스 메서드별 평균 시간 분해 (획득 대기 / SQL / 락 SQL / 그 외)
+ * - pool: 현재 풀 상태
+ * - recommendation: 마지막 평가 구간의 Little's law 계산 결과와 권장 크기
+ * - decisions: 자동 조정 이력 (learning-tx.pool.adaptive.enabled=true 일 때)
+ */
+@Endpoint(id = "poolsaturation")
+@RequiredArgsConstructor
+public class PoolSaturationEndpoint {
+
+    private final PoolMetrics poolMetrics;
+    private final PoolSizeAdvisor poolSizeAdvisor;
+
+    @ReadOperation
+    public PoolSaturation saturation() {
+        return new PoolSaturation(
+                poolMetrics.methodTimings(),
+                poolSizeAdvisor.poolState(),
+                poolSizeAdvisor.lastRecommendation(),
+                poolSizeAdvisor.decisions());
+    }
+
+    public record PoolSaturation(List<PoolMetrics.MethodTiming> methods,
+                                 PoolSizeAdvisor.PoolState pool,
+                                 PoolSizeAdvisor.Recommendation recommendation,
+                                 List<PoolSizeAdvisor.Decision> decisions) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.test.learningtx.pool;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Little's law 기반 커넥션 풀 크기 권장/조정
+ *
+ * L = λ × W
+ *  - λ: 초당 커넥션 획득 수
+ *  - W: 커넥션 평균 점유 시간
+ *  - L: 동시에 사용 중인 평균 커넥션 수 (= 구간 동안의 점유 시간 합 / 구간 길이)
+ *
+ * 권장 크기 = ceil(L × headroom) 을 [minSize, maxSize] 범위로 제한
+ *  - 획득 대기가 목표치를 넘으면 현재 크기 + 1 이상 권장 (풀 부족)
+ *  - 단, 점유 시간 대부분이 락 대기라면 늘리지 않음 -> 커넥션을 늘려도 같은 행 락 앞에 줄만 길어짐
+ */
+@Slf4j
+public class PoolSizeAdvisor {
+
+    private static final int MAX_DECISIONS = 50;
+
+    private final DataSource dataSource;
+    private final PoolMetrics poolMetrics;
+    private final PoolProperties.Adaptive properties;
+
+    private final Deque<Decision> decisions = new ArrayDeque<>();
+    private volatile Recommendation lastRecommendation;
+    private PoolMetrics.Totals previousTotals;
+    private long previousAtNanos;
+
+    public PoolSizeAdvisor(DataSource dataSource, PoolMetrics poolMetrics, PoolProperties properties) {
+        this.dataSource = dataSource;
+        this.poolMetrics = poolMetrics;
+        this.properties = properties.getAdaptive();
+    }
+
+    @Scheduled(fixedDelayString = "${learning-tx.pool.adaptive.interval-millis:10000}")
+    public synchronized void evaluate() {
+        HikariDataSource hikari = hikari();
+        if (hikari == null || hikari.getHikariPoolMXBean() == null) {
+            return;
+        }
+
+        PoolMetrics.Totals totals = poolMetrics.totals();
+        long now = System.nanoTime();
+        if (previousTotals == null) {
+            previousTotals = totals;
+            previousAtNanos = now;
+            return;
+        }
+
+        double windowSeconds = (now - previousAtNanos) / 1_000_000_000.0;
+        long acquisitions = totals.acquisitions() - previousTotals.acquisitions();
+        long acquireNanos = totals.acquireNanos() - previousTotals.acquireNanos();
+        long holdNanos = totals.holdNanos() - previousTotals.holdNanos();
+        long lockNanos = totals.lockNanos() - previousTotals.lockNanos();
+        previousTotals = totals;
+        previousAtNanos = now;
+
+        if (acquisitions == 0 || windowSeconds <= 0) {
+            return;
+        }
+
+        double arrivalRate = acquisitions / windowSeconds;                  // λ
+        double avgHoldMillis = holdNanos / 1_000_000.0 / acquisitions;      // W
+        double inUse = holdNanos / 1_000_000_000.0 / windowSeconds;         // L = λW
+        double avgAcquireMillis = acquireNanos / 1_000_000.0 / acquisitions;
+        double lockShare = holdNanos == 0 ? 0.0 : (double) lockNanos / holdNanos;
+
+        HikariConfigMXBean config = hikari.getHikariConfigMXBean();
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        int current = config.getMaximumPoolSize();
+
+        int recommended = (int) Math.ceil(inUse * properties.getHeadroom());
+        String reason = String.format("L=λW=%.2f x headroom %.1f", inUse, properties.getHeadroom());
+        if (avgAcquireMillis > properties.getTargetAcquireMillis()) {
+            if (lockShare > properties.getMaxLockShareForGrowth()) {
+                recommended = Math.min(recommended, current);
+                reason = String.format("획득 대기 %.1fms지만 락 대기 비율 %.0f%% -> 증가 보류", avgAcquireMillis, lockShare * 100);
+            } else {
+                recommended = Math.max(recommended, current + 1);
+                reason = String.format("획득 대기 %.1fms > 목표 %.1fms", avgAcquireMillis, properties.getTargetAcquireMillis());
+            }
+        }
+        // 최소 유휴 커넥션 수보다 작게 줄일 수 없음
+        int lowerBound = Math.max(properties.getMinSize(), config.getMinimumIdle());
+        recommended = Math.max(lowerBound, Math.min(properties.getMaxSize(), recommended));
+
+        lastRecommendation = new Recommendation(LocalDateTime.now(), windowSeconds, arrivalRate, avgHoldMillis, inUse,
+                avgAcquireMillis, lockShare, pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getThreadsAwaitingConnection(), current, recommended, reason);
+
+        if (properties.isEnabled() && recommended != current) {
+            config.setMaximumPoolSize(recommended);
+            addDecision(new Decision(LocalDateTime.now(), current, recommended, reason));
+            log.info("커넥션 풀 크기 조정: {} -> {} ({})", current, recommended, reason);
+        }
+    }
+
+    public Recommendation lastRecommendation() {
+        return lastRecommendation;
+    }
+
+    public synchronized List<Decision> decisions() {
+        return List.copyOf(decisions);
+    }
+
+    public PoolState poolState() {
+        HikariDataSource hikari = hikari();
+        if (hikari == null || hikari.getHikariPoolMXBean() == null) {
+            return null;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return new PoolState(pool.getActiveConnections(), pool.getIdleConnections(), pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(), hikari.getHikariConfigMXBean().getMaximumPoolSize());
+    }
+
+    private void addDecision(Decision decision) {
+        decisions.addLast(decision);
+        if (decisions.size() > MAX_DECISIONS) {
+            decisions.removeFirst();
+        }
+    }
+
+    private HikariDataSource hikari() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    public record Recommendation(LocalDateTime at, double windowSeconds, double arrivalRatePerSecond,
+                                 double avgHoldMillis, double avgConnectionsInUse, double avgAcquireMillis,
+                                 double lockShare, int active, int idle, int waiting,
+                                 int currentMaxPoolSize, int recommendedMaxPoolSize, String reason) {
+    }
+
+    public record Decision(LocalDateTime at, int from, int to, String reason) {
+    }
+
+    public record PoolState(int active, int idle, int total, int threadsAwaiting, int maximumPoolSize) {
+    }
+}
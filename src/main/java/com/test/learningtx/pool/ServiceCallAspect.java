@@ -0,0 +1,58 @@
+package com.test.learningtx.pool;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Service 메서드 호출 단위로 시간 측정
+ *
+ * 트랜잭션 프록시보다 바깥에서 실행되어야 트랜잭션 시작 시 커넥션 획득 시간이 포함된다. (HIGHEST_PRECEDENCE)
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceCallAspect {
+
+    private final PoolMetrics poolMetrics;
+
+    // 조인포인트별 "클래스.메서드" 이름 캐시 (호출마다 문자열을 만들지 않도록, 리액티브 메서드는 빈 문자열)
+    private final Map<JoinPoint.StaticPart, String> methodNames = new ConcurrentHashMap<>();
+
+    @Around("within(@org.springframework.stereotype.Service *)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = methodNames.computeIfAbsent(joinPoint.getStaticPart(), ServiceCallAspect::methodName);
+        if (method.isEmpty()) {
+            return joinPoint.proceed();     // Mono/Flux 반환: 호출 시점엔 조립만 하므로 측정 대상 아님
+        }
+
+        ServiceCallContext context = ServiceCallContext.begin(method);
+        if (context == null) {
+            return joinPoint.proceed();     // 중첩 호출: 바깥 호출에 합산
+        }
+
+        try {
+            return joinPoint.proceed();
+        } finally {
+            context.end();
+            poolMetrics.recordCall(context, System.nanoTime() - context.startNanos());
+        }
+    }
+
+    private static String methodName(JoinPoint.StaticPart part) {
+        if (part.getSignature() instanceof MethodSignature signature
+                && Publisher.class.isAssignableFrom(signature.getReturnType())) {
+            return "";     // 리액티브 메서드는 측정하지 않음
+        }
+        return part.getSignature().getDeclaringType().getSimpleName() + "." + part.getSignature().getName();
+    }
+}
@@ -0,0 +1,82 @@
+package com.test.learningtx.pool;
+
+/**
+ * 현재 스레드에서 실행 중인 서비스 호출의 시간 누적기
+ *
+ * 가장 바깥 서비스 메서드 진입 시 begin(), 종료 시 end().
+ * 그 사이 커넥션 획득/SQL 실행 시간을 InstrumentedDataSource가 여기에 더한다.
+ * (같은 스레드에서만 접근하므로 동기화 불필요)
+ */
+public final class ServiceCallContext {
+
+    private static final ThreadLocal<ServiceCallContext> CURRENT = new ThreadLocal<>();
+
+    private final String method;
+    private final long startNanos;
+    private long acquireNanos;
+    private long statementNanos;
+    private long lockNanos;
+    private int statementCount;
+
+    private ServiceCallContext(String method) {
+        this.method = method;
+        this.startNanos = System.nanoTime();
+    }
+
+    public static ServiceCallContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return 새 컨텍스트. 이미 바깥 서비스 호출 안이면 null (중첩 호출은 바깥 호출에 합산)
+     */
+    public static ServiceCallContext begin(String method) {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        ServiceCallContext context = new ServiceCallContext(method);
+        CURRENT.set(context);
+        return context;
+    }
+
+    public void end() {
+        CURRENT.remove();
+    }
+
+    void addAcquire(long nanos) {
+        acquireNanos += nanos;
+    }
+
+    void addStatement(long nanos, boolean lock) {
+        statementCount++;
+        if (lock) {
+            lockNanos += nanos;
+        } else {
+            statementNanos += nanos;
+        }
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public long acquireNanos() {
+        return acquireNanos;
+    }
+
+    public long statementNanos() {
+        return statementNanos;
+    }
+
+    public long lockNanos() {
+        return lockNanos;
+    }
+
+    public int statementCount() {
+        return statementCount;
+    }
+}
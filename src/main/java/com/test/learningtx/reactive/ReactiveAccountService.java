@@ -0,0 +1,314 @@
+package com.test.learningtx.reactive;
+
+import com.test.learningtx.cache.SecondLevelCacheInvalidator;
+import com.test.learningtx.dto.AccountView;
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.entity.OptimisticAccount;
+import com.test.learningtx.limit.WithdrawalLimiter;
+import com.test.learningtx.limit.WithdrawalPermit;
+import com.test.learningtx.outbox.BalanceChangedEvent;
+import com.test.learningtx.outbox.OutboxProperties;
+import com.test.learningtx.service.AccountService;
+import com.test.learningtx.txlog.TxLogStore;
+import io.r2dbc.spi.Readable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 리액티브 계좌 API (R2DBC)
+ *
+ * 블로킹(JPA) 경로와 차이
+ *  - 요청마다 스레드를 잡지 않음: SQL 응답을 기다리는 동안 스레드는 다른 요청 처리
+ *  - 커넥션은 SQL/트랜잭션 동안만 R2DBC 풀에서 빌림
+ *  - 배압: transferAll은 concurrency 개수만큼만 상류에 요청, 조회 Flux는 구독자가 요청한 만큼만 행을 읽음
+ *
+ * 규칙은 엔티티와 동일
+ *  - 금액은 0보다 커야 함, 잔액보다 많이 출금 불가 (Account.withdraw / OptimisticAccount.withdraw)
+ *  - UPDATE ... WHERE version = ? 로 갱신하고 version + 1 (@Version)
+ *    > 갱신 0건이면 충돌 -> 최신 값을 다시 읽어 재시도
+ *
+ * JPA 2차 캐시(l2cache 프로필)를 거치지 않고 직접 갱신하므로 성공 시 해당 엔티티를 캐시에서 제거하고
+ * 그 테이블을 읽은 쿼리 캐시 결과도 무효화한다.
+ * Hibernate 이벤트도 거치지 않으므로 잔액 변경 아웃박스 행은 여기서 직접 기록한다.
+ * 감사 로그(TxLogStore 날짜 테이블)도 JDBC 경로와 같은 규칙으로 같은 R2DBC 트랜잭션에서 기록한다.
+ * 출금과 이체의 출금 쪽은 출금 한도(WithdrawalLimiter)를 트랜잭션 전에 차감하고, 재시도까지 실패하거나 취소되면 되돌린다.
+ */
+@Slf4j
+@Service
+public class ReactiveAccountService {
+
+    private static final String ACCOUNT_COLUMNS = "id, account_number, name, balance, version, updated_at";
+    private static final String TX_LOG_VALUES = ":operation, :accountId, :details, :amount, :timestamp";
+
+    private final DatabaseClient client;
+    private final TransactionalOperator transactionalOperator;
+    private final SecondLevelCacheInvalidator cacheInvalidator;
+    private final ReactiveProperties properties;
+    private final OutboxProperties outboxProperties;
+    private final TxLogStore txLogStore;
+    private final ObjectProvider<WithdrawalLimiter> withdrawalLimiter;    // learning-tx.withdrawal-limit.enabled=true 일 때만 존재
+
+    public ReactiveAccountService(ReactiveDatabase reactiveDatabase, SecondLevelCacheInvalidator cacheInvalidator,
+                                  ReactiveProperties properties, OutboxProperties outboxProperties,
+                                  TxLogStore txLogStore, ObjectProvider<WithdrawalLimiter> withdrawalLimiter) {
+        this.client = reactiveDatabase.client();
+        this.transactionalOperator = reactiveDatabase.transactionalOperator();
+        this.cacheInvalidator = cacheInvalidator;
+        this.properties = properties;
+        this.outboxProperties = outboxProperties;
+        this.txLogStore = txLogStore;
+        this.withdrawalLimiter = withdrawalLimiter;
+    }
+
+    public Mono<AccountView> getAccount(Long accountId) {
+        return client.sql("SELECT " + ACCOUNT_COLUMNS + " FROM accounts WHERE id = :id")
+                .bind("id", accountId)
+                .map(ReactiveAccountService::toView)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("계좌를 찾을 수 없음: " + accountId)));
+    }
+
+    /**
+     * 잔액 범위 조회 (구독자가 요청한 만큼만 행을 읽어서 전달)
+     */
+    public Flux<AccountView> getAccountsByBalanceRange(BigDecimal minBalance, BigDecimal maxBalance) {
+        return client.sql("SELECT " + ACCOUNT_COLUMNS + " FROM accounts WHERE balance BETWEEN :min AND :max ORDER BY id")
+                .bind("min", minBalance)
+                .bind("max", maxBalance)
+                .map(ReactiveAccountService::toView)
+                .all();
+    }
+
+    public Mono<AccountView> withdraw(Long accountId, BigDecimal amount) {
+        return limitDebit(accountId, amount, Mono.defer(() -> {
+                    validateAmount(amount, "출금");
+                    LocalDateTime now = LocalDateTime.now();     // 아웃박스와 감사 로그에 같은 시각 (재시도마다 새로)
+                    return readAccount(accountId)
+                            .flatMap(snapshot -> {
+                                checkBalance(snapshot.balance(), amount, "잔액이 부족합니다. 현재 잔액: ");
+                                return updateBalance(snapshot, snapshot.balance().subtract(amount), now)
+                                        .then(recordTxLog(AccountService.WITHDRAW, accountId, "출금", amount, now));
+                            })
+                            .then(getAccount(accountId));
+                })
+                .as(transactionalOperator::transactional)
+                .retryWhen(retryOnConflict()))
+                .doOnSuccess(view -> evict(Account.class, accountId));
+    }
+
+    public Mono<Void> transfer(Long fromId, Long toId, BigDecimal amount) {
+        return limitDebit(fromId, amount, Mono.defer(() -> {
+                    validateAmount(amount, "이체");
+                    if (fromId.equals(toId)) {
+                        return Mono.error(new IllegalArgumentException("같은 계좌로 이체할 수 없습니다: " + fromId));
+                    }
+                    LocalDateTime now = LocalDateTime.now();
+                    // 한 트랜잭션의 커넥션은 하나 -> 순서대로 읽음
+                    return readAccount(fromId).zipWhen(from -> readAccount(toId))
+                            .flatMap(accounts -> {
+                                Snapshot from = accounts.getT1();
+                                Snapshot to = accounts.getT2();
+                                checkBalance(from.balance(), amount, "잔액이 부족합니다. 현재 잔액: ");
+                                Mono<Void> debit = updateBalance(from, from.balance().subtract(amount), now);
+                                Mono<Void> credit = updateBalance(to, to.balance().add(amount), now);
+                                // 행 락은 id 오름차순으로 잡아서 반대 방향 이체와 데드락 방지
+                                return (fromId < toId ? debit.then(credit) : credit.then(debit))
+                                        .then(recordTxLog(AccountService.TRANSFER, fromId,
+                                                "이체 출금 -> " + toId, amount.negate(), now))
+                                        .then(recordTxLog(AccountService.TRANSFER, toId,
+                                                "이체 입금 <- " + fromId, amount, now));
+                            });
+                })
+                .as(transactionalOperator::transactional)
+                .retryWhen(retryOnConflict()))
+                .doOnSuccess(ignored -> {
+                    evict(Account.class, fromId);
+                    evict(Account.class, toId);
+                })
+                .then();
+    }
+
+    /**
+     * 여러 이체를 배압을 지키며 처리
+     *  - 동시에 최대 concurrency 건만 진행, 끝나는 만큼 상류에서 다음 명령을 받음
+     *  - 커넥션 풀이 비면 풀 대기열에서 기다림 (스레드는 블록되지 않음)
+     *  - 한 건이 실패해도 나머지는 계속 처리 (결과에 실패 사유 포함)
+     */
+    public Flux<TransferOutcome> transferAll(Flux<TransferCommand> commands) {
+        return commands.flatMap(command -> transfer(command.fromId(), command.toId(), command.amount())
+                        .thenReturn(TransferOutcome.succeeded(command))
+                        .onErrorResume(e -> Mono.just(TransferOutcome.failed(command, e))),
+                properties.getConcurrency());
+    }
+
+    /**
+     * OptimisticAccount 출금 (optimistic_accounts, 잔액/version만 있음)
+     */
+    public Mono<BigDecimal> withdrawOptimistic(Long accountId, BigDecimal amount) {
+        return Mono.defer(() -> {
+                    validateAmount(amount, "출금");
+                    return client.sql("SELECT balance, version FROM optimistic_accounts WHERE id = :id")
+                            .bind("id", accountId)
+                            .map(row -> new Snapshot(accountId, row.get("balance", BigDecimal.class), row.get("version", Long.class)))
+                            .one()
+                            .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("계좌 없음: " + accountId)))
+                            .flatMap(snapshot -> {
+                                checkBalance(snapshot.balance(), amount, "잔액 부족! 현재 잔액: ");
+                                BigDecimal newBalance = snapshot.balance().subtract(amount);
+                                return client.sql("""
+                                                UPDATE optimistic_accounts SET balance = :balance, version = version + 1
+                                                WHERE id = :id AND version = :version
+                                                """)
+                                        .bind("balance", newBalance)
+                                        .bind("id", accountId)
+                                        .bind("version", snapshot.version())
+                                        .fetch()
+                                        .rowsUpdated()
+                                        .flatMap(updated -> conflictIfNone(updated, accountId))
+                                        .thenReturn(newBalance);
+                            });
+                })
+                .as(transactionalOperator::transactional)
+                .retryWhen(retryOnConflict())
+                .doOnSuccess(balance -> evict(OptimisticAccount.class, accountId));
+    }
+
+    private Mono<Snapshot> readAccount(Long accountId) {
+        return client.sql("SELECT balance, version FROM accounts WHERE id = :id")
+                .bind("id", accountId)
+                .map(row -> new Snapshot(accountId, row.get("balance", BigDecimal.class), row.get("version", Long.class)))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("계좌를 찾을 수 없음: " + accountId)));
+    }
+
+    private Mono<Void> updateBalance(Snapshot snapshot, BigDecimal newBalance, LocalDateTime now) {
+        return client.sql("""
+                        UPDATE accounts SET balance = :balance, version = version + 1, updated_at = :updatedAt
+                        WHERE id = :id AND version = :version
+                        """)
+                .bind("balance", newBalance)
+                .bind("updatedAt", now)
+                .bind("id", snapshot.id())
+                .bind("version", snapshot.version())
+                .fetch()
+                .rowsUpdated()
+                .flatMap(updated -> conflictIfNone(updated, snapshot.id()))
+                .then(Mono.defer(() -> recordOutbox(snapshot, newBalance, now)));
+    }
+
+    // JPA 경로의 AccountChangeCapture와 같은 아웃박스 행을 같은 트랜잭션에서 기록
+    private Mono<Void> recordOutbox(Snapshot snapshot, BigDecimal newBalance, LocalDateTime now) {
+        if (!outboxProperties.isEnabled()) {
+            return Mono.empty();
+        }
+        return client.sql("""
+                        INSERT INTO account_outbox (account_id, event_type, previous_balance, balance, version, occurred_at)
+                        VALUES (:accountId, :eventType, :previousBalance, :balance, :version, :occurredAt)
+                        """)
+                .bind("accountId", snapshot.id())
+                .bind("eventType", BalanceChangedEvent.BALANCE_CHANGED)
+                .bind("previousBalance", snapshot.balance())
+                .bind("balance", newBalance)
+                .bind("version", snapshot.version() + 1)
+                .bind("occurredAt", now)
+                .then();
+    }
+
+    /**
+     * 출금 한도: 트랜잭션(재시도 포함) 전에 차감하고 최종 실패하면 되돌림
+     * 구독 취소(타임아웃, 클라이언트 끊김)도 트랜잭션은 롤백되므로 되돌림 -> 완료될 때만 차감 유지
+     */
+    private <T> Mono<T> limitDebit(Long accountId, BigDecimal amount, Mono<T> debit) {
+        return Mono.defer(() -> {
+            WithdrawalLimiter limiter = withdrawalLimiter.getIfAvailable();
+            if (limiter == null || amount == null || amount.signum() <= 0) {
+                return debit;     // 금액 검증 오류는 debit에서
+            }
+            return Mono.usingWhen(
+                    Mono.fromSupplier(() -> limiter.acquire(accountId, amount)),
+                    permit -> debit,
+                    permit -> Mono.empty(),
+                    (permit, e) -> release(limiter, permit),
+                    permit -> release(limiter, permit));
+        });
+    }
+
+    private static Mono<Void> release(WithdrawalLimiter limiter, WithdrawalPermit permit) {
+        return Mono.fromRunnable(() -> limiter.release(permit));
+    }
+
+    // JDBC 경로의 txLogStore.append와 같은 감사 로그 행 (테이블은 보통 미리 만들어져 있음)
+    private Mono<Void> recordTxLog(String operation, Long accountId, String details, BigDecimal amount,
+                                   LocalDateTime now) {
+        LocalDate day = now.toLocalDate();
+        // 테이블이 없으면 insertSql이 JDBC로 DDL을 실행(블로킹) -> 리액터 스레드가 아닌 boundedElastic에서
+        Mono<String> insertSql = txLogStore.hasTable(day)
+                ? Mono.fromSupplier(() -> txLogStore.insertSql(day, TX_LOG_VALUES))
+                : Mono.fromCallable(() -> txLogStore.insertSql(day, TX_LOG_VALUES)).subscribeOn(Schedulers.boundedElastic());
+        return insertSql.flatMap(sql -> client.sql(sql)
+                .bind("operation", operation)
+                .bind("accountId", accountId)
+                .bind("details", details)
+                .bind("amount", amount)
+                .bind("timestamp", now)
+                .then());
+    }
+
+    private static Mono<Void> conflictIfNone(Long updated, Long accountId) {
+        if (updated == 0) {
+            return Mono.error(new OptimisticLockingFailureException("version 충돌: " + accountId));
+        }
+        return Mono.empty();
+    }
+
+    // 충돌 시 짧은 지수 백오프 + 지터 (재시도끼리 다시 부딪히지 않도록)
+    private Retry retryOnConflict() {
+        return Retry.backoff(properties.getMaxRetries(), Duration.ofMillis(5))
+                .maxBackoff(Duration.ofMillis(200))
+                .jitter(0.5)
+                .filter(OptimisticLockingFailureException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private void evict(Class<?> entityClass, Long id) {
+        cacheInvalidator.evict(entityClass, id);
+    }
+
+    private static void validateAmount(BigDecimal amount, String operation) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException(operation + " 금액은 0보다 커야 합니다.");
+        }
+    }
+
+    private static void checkBalance(BigDecimal balance, BigDecimal amount, String message) {
+        if (balance.compareTo(amount) < 0) {
+            throw new IllegalArgumentException(message + balance);
+        }
+    }
+
+    private static AccountView toView(Readable row) {
+        return new AccountView(
+                row.get("id", Long.class),
+                row.get("account_number", String.class),
+                row.get("name", String.class),
+                row.get("balance", BigDecimal.class),
+                row.get("version", Long.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+
+    private record Snapshot(Long id, BigDecimal balance, Long version) {
+    }
+}
@@ -0,0 +1,35 @@
+package com.test.learningtx.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+@Configuration
+@EnableConfigurationProperties(ReactiveProperties.class)
+public class ReactiveConfig {
+
+    @Bean
+    public ReactiveDatabase reactiveDatabase(ReactiveProperties properties) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate()
+                .option(ConnectionFactoryOptions.USER, properties.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, properties.getPassword())
+                .build();
+
+        // 커넥션은 처음 사용할 때 생성 (initialSize 0)
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .initialSize(0)
+                .maxSize(properties.getPoolMaxSize())
+                .maxAcquireTime(properties.getMaxAcquireTime())
+                .build());
+
+        return new ReactiveDatabase(pool, DatabaseClient.create(pool),
+                TransactionalOperator.create(new R2dbcTransactionManager(pool)));
+    }
+}
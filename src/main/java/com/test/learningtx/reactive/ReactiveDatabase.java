@@ -0,0 +1,41 @@
+package com.test.learningtx.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * R2DBC 커넥션 풀 + DatabaseClient + 리액티브 트랜잭션
+ *
+ * ConnectionFactory / R2dbcTransactionManager를 빈으로 등록하지 않고 이 객체 안에만 둔다.
+ *  - ConnectionFactory 빈이 있으면 Boot가 JDBC DataSource 자동 설정을 건너뜀
+ *  - TransactionManager 빈이 하나 더 생기면 JPA 트랜잭션 매니저 자동 설정이 빠짐
+ * (LearningTxApplication에서 R2DBC 자동 설정도 제외)
+ */
+public class ReactiveDatabase implements DisposableBean {
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient client;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveDatabase(ConnectionPool connectionPool, DatabaseClient client,
+                            TransactionalOperator transactionalOperator) {
+        this.connectionPool = connectionPool;
+        this.client = client;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    public DatabaseClient client() {
+        return client;
+    }
+
+    public TransactionalOperator transactionalOperator() {
+        return transactionalOperator;
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
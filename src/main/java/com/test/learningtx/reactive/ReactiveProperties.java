@@ -0,0 +1,33 @@
+package com.test.learningtx.reactive;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 리액티브(R2DBC) 경로 설정 (learning-tx.reactive.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.reactive")
+public class ReactiveProperties {
+
+    // JDBC와 같은 H2 인메모리 DB (같은 JVM 안에서 이름으로 공유)
+    private String url = "r2dbc:h2:mem:///testdb";
+    private String username = "sa";
+    private String password = "password";
+
+    // R2DBC 커넥션 풀 크기: 동시에 실행되는 SQL 수의 상한
+    private int poolMaxSize = 20;
+
+    // 풀이 비어 있을 때 커넥션을 기다리는 최대 시간
+    private Duration maxAcquireTime = Duration.ofSeconds(10);
+
+    // transferAll에서 동시에 처리하는 이체 수 (상류에 요청하는 개수 = 배압 단위)
+    private int concurrency = 64;
+
+    // version 충돌 시 재시도 횟수
+    private int maxRetries = 10;
+}
@@ -0,0 +1,6 @@
+package com.test.learningtx.reactive;
+
+import java.math.BigDecimal;
+
+public record TransferCommand(Long fromId, Long toId, BigDecimal amount) {
+}
@@ -0,0 +1,15 @@
+package com.test.learningtx.reactive;
+
+/**
+ * transferAll 결과: 한 건이 실패해도 스트림은 계속 진행
+ */
+public record TransferOutcome(TransferCommand command, boolean success, String error) {
+
+    public static TransferOutcome succeeded(TransferCommand command) {
+        return new TransferOutcome(command, true, null);
+    }
+
+    public static TransferOutcome failed(TransferCommand command, Throwable error) {
+        return new TransferOutcome(command, false, error.getMessage());
+    }
+}
@@ -0,0 +1,58 @@
+package com.test.learningtx.reconcile;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 이력 흐름 <-> 감사 로그(TxLog) 대사, 구간 [from, to)
+ *
+ * 계좌 잔액과 이력의 비교(ReconciliationReport)만으로는 "이력에 적힌 대로 잔액이 바뀌었는지"만 알 수 있음
+ * -> 같은 변경을 다른 경로로 기록한 TxLog와 구간 합계를 맞춰 봄
+ *  - 이체: TRANSFER 행(구간별 부호 포함)의 합 = 0
+ *    > 사가(SAGA_TRANSFER)는 단계마다 트랜잭션이 달라 진행 중이거나 구간 경계에 걸친 사가의 합이 0이 아님
+ *      -> 0 비교에서 빼고 sagaNet으로 보고만 함 (이력 흐름 비교에는 포함)
+ *  - 이력 잔액 변화 합(계좌 생성 제외) = DEPOSIT 합 - (WITHDRAW + FEE) 합 + TRANSFER 합 + SAGA_TRANSFER 합
+ *
+ * 이력 valid_from과 TxLog timestamp는 같은 트랜잭션이면 같은 값(TxTimestamp) -> 한 변경이 두 구간으로 갈라지지 않음
+ * 한계: 시각은 커밋 전에 정해지므로 flowTo 전에 찍고 그 뒤(대사 중)에 커밋된 변경은 TxLog 쪽에만 나타날 수 있음
+ *       -> 흐름 불일치는 ReconciliationReport.balanced()에 넣지 않고 flowBalanced()로 따로 보고
+ *
+ * @param ledgerFlow  구간 안 이력의 잔액 변화 합 (계좌 생성 버전 제외)
+ * @param openings    구간 안 계좌 생성 버전의 잔액 합 (TxLog에 대응 행 없음, 보고용)
+ * @param lateFlow    지난 구간에 속하지만 이번에 처음 읽은 이력의 변화 합 (relay 지연, 비교하지 않음)
+ * @param transferNet TRANSFER 행 amount 합
+ * @param sagaNet     SAGA_TRANSFER 행 amount 합 (진행 중인 사가의 출금분만큼 음수)
+ */
+public record FlowCheck(
+        LocalDateTime from,
+        LocalDateTime to,
+        BigDecimal ledgerFlow,
+        BigDecimal openings,
+        BigDecimal lateFlow,
+        BigDecimal deposits,
+        BigDecimal withdrawals,
+        BigDecimal transferNet,
+        BigDecimal sagaNet
+) {
+
+    public boolean transfersNetToZero() {
+        return transferNet.signum() == 0;
+    }
+
+    public boolean ledgerMatchesTxLog() {
+        return ledgerFlow.compareTo(deposits.subtract(withdrawals).add(transferNet).add(sagaNet)) == 0;
+    }
+
+    public boolean balanced() {
+        return transfersNetToZero() && ledgerMatchesTxLog();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FlowCheck{%s ~ %s, balanced=%s, ledgerFlow=%s, deposits=%s, withdrawals=%s, "
+                        + "transferNet=%s, sagaNet=%s, openings=%s, lateFlow=%s}",
+                from, to, balanced(), ledgerFlow.toPlainString(), deposits.toPlainString(),
+                withdrawals.toPlainString(), transferNet.toPlainString(), sagaNet.toPlainString(),
+                openings.toPlainString(), lateFlow.toPlainString());
+    }
+}
@@ -0,0 +1,22 @@
+package com.test.learningtx.reconcile;
+
+import java.math.BigDecimal;
+
+/**
+ * 대사 불일치 한 건
+ *
+ * @param expectedBalance 잔액 이력을 다시 계산한 값 (이력이 없으면 null)
+ * @param ledgerVersion   마지막 이력 버전 (이력이 없으면 -1)
+ */
+public record Mismatch(Long accountId, Kind kind, BigDecimal actualBalance, BigDecimal expectedBalance,
+                       long accountVersion, long ledgerVersion) {
+
+    public enum Kind {
+        // 이력 재계산 결과와 accounts 잔액이 다름 (이력 밖에서 잔액이 바뀜)
+        BALANCE_MISMATCH,
+        // 어떤 버전의 직전 잔액이 앞 버전의 잔액과 다름 (이력 누락/변조)
+        CHAIN_BREAK,
+        // 잔액이 바뀐 계좌인데 이력이 하나도 없음
+        MISSING_HISTORY
+    }
+}
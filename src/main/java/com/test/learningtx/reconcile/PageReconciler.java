@@ -0,0 +1,224 @@
+package com.test.learningtx.reconcile;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 한 페이지(계좌 id 구간)의 계좌 배열과 이력 스트림 merge join
+ *
+ * 이력은 체크포인트 이후 버전만 (account_id, version) 순으로 들어오고, 계좌마다 버전 사슬을 다시 계산
+ *  - 시작 잔액: 체크포인트 잔액 (없으면 첫 이력의 previous_balance, 계좌 생성 버전이면 0)
+ *  - 각 버전: previous_balance가 앞 버전(또는 체크포인트)까지 계산한 잔액과 같아야 함 (다르면 사슬 끊김)
+ *  - 기대 잔액 = 시작 잔액 + Σ(balance - previous_balance)
+ * 버전 번호 사이의 빈틈은 정상 (잔액과 무관한 UPDATE는 아웃박스에 기록되지 않음)
+ *
+ * 흐름 대사용 합계 (사슬이 끊기지 않은 계좌만, valid_from < flowTo인 이력까지)
+ *  - 계좌 생성 버전(previous_balance null)의 잔액 -> openings (TxLog에 대응 행 없음)
+ *  - valid_from >= flowFrom -> ledgerFlow (TxLog [flowFrom, flowTo)와 비교)
+ *  - valid_from < flowFrom -> lateFlow (지난 실행 이후 늦게 반영된 이력, 비교하지 않고 보고만)
+ * 같은 구간의 마지막 버전을 새 체크포인트로 남김 (flowTo 이후 이력은 다음 실행에서 다시 읽음)
+ *
+ * 워커 하나가 페이지마다 reset()해서 재사용 (배열은 처음 한 번만 할당)
+ */
+final class PageReconciler {
+
+    private final long[] ids;
+    private final BigDecimal[] balances;
+    private final long[] versions;
+    private final long[] updatedAtMillis;
+    private final long[] checkpointVersions;
+    private final BigDecimal[] checkpointBalances;
+    private final long pendingSinceMillis;
+    private final long flowFromMillis;
+    private final long flowToMillis;
+    private final ReconciliationEngine.Totals totals;
+    private final Consumer<Mismatch> mismatches;
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+
+    private int size;
+    private int index;
+
+    // 현재 계좌(ids[index])의 재계산 상태
+    private boolean hasLedger;
+    private boolean broken;
+    private boolean pastFlowTo;
+    private BigDecimal expected;
+    private long ledgerVersion;
+    private long flowVersion;
+    private BigDecimal flowBalance;
+    private BigDecimal openings;
+    private BigDecimal ledgerFlow;
+    private BigDecimal lateFlow;
+
+    /**
+     * @param flowFromMillis 흐름 대사 구간 시작 (첫 실행이면 Long.MIN_VALUE)
+     * @param flowToMillis   흐름 대사 구간 끝 (이 시각 이후 이력은 체크포인트를 넘기지 않음)
+     */
+    PageReconciler(int pageSize, long pendingSinceMillis, long flowFromMillis, long flowToMillis,
+                   ReconciliationEngine.Totals totals, Consumer<Mismatch> mismatches) {
+        this.ids = new long[pageSize];
+        this.balances = new BigDecimal[pageSize];
+        this.versions = new long[pageSize];
+        this.updatedAtMillis = new long[pageSize];
+        this.checkpointVersions = new long[pageSize];
+        this.checkpointBalances = new BigDecimal[pageSize];
+        this.pendingSinceMillis = pendingSinceMillis;
+        this.flowFromMillis = flowFromMillis;
+        this.flowToMillis = flowToMillis;
+        this.totals = totals;
+        this.mismatches = mismatches;
+    }
+
+    void reset() {
+        size = 0;
+        index = 0;
+        checkpoints.clear();
+        resetAccount();
+    }
+
+    /**
+     * @param checkpointBalance 체크포인트 잔액 (없으면 null, 이때 checkpointVersion은 무시)
+     */
+    void account(long id, BigDecimal balance, long version, long updatedAt,
+                 long checkpointVersion, BigDecimal checkpointBalance) {
+        ids[size] = id;
+        balances[size] = balance;
+        versions[size] = version;
+        updatedAtMillis[size] = updatedAt;
+        checkpointVersions[size] = checkpointBalance == null ? -1 : checkpointVersion;
+        checkpointBalances[size] = checkpointBalance;
+        size++;
+    }
+
+    void ledger(long accountId, long version, BigDecimal previousBalance, BigDecimal balance, long validFromMillis) {
+        totals.ledgerEntries++;
+        while (index < size && ids[index] < accountId) {
+            finishAccount();
+        }
+        if (index >= size || ids[index] != accountId) {
+            return;     // 계좌 쪽에서 조인하므로 오지 않음
+        }
+
+        BigDecimal previous = previousBalance == null ? BigDecimal.ZERO : previousBalance;
+        if (!hasLedger) {
+            startLedger(previous);
+            if (checkpointBalances[index] != null
+                    && (previousBalance == null || previousBalance.compareTo(expected) != 0)) {
+                broken = true;
+            }
+        } else if (previousBalance == null || previousBalance.compareTo(expected) != 0) {
+            broken = true;
+        }
+        BigDecimal delta = balance.subtract(previous);
+        expected = expected.add(delta);
+        ledgerVersion = version;
+
+        if (!pastFlowTo && validFromMillis < flowToMillis) {
+            if (previousBalance == null) {
+                openings = openings.add(balance);
+            } else if (validFromMillis >= flowFromMillis) {
+                ledgerFlow = ledgerFlow.add(delta);
+            } else {
+                lateFlow = lateFlow.add(delta);
+            }
+            flowVersion = version;
+            flowBalance = expected;
+        } else {
+            pastFlowTo = true;
+        }
+    }
+
+    void finish() {
+        while (index < size) {
+            finishAccount();
+        }
+        // 다음 페이지까지 BigDecimal을 붙잡고 있지 않도록
+        Arrays.fill(balances, 0, size, null);
+        Arrays.fill(checkpointBalances, 0, size, null);
+    }
+
+    /**
+     * 이번 페이지에서 전진한 체크포인트 (finish() 후, 페이지 트랜잭션에서 저장)
+     */
+    List<Checkpoint> checkpoints() {
+        return checkpoints;
+    }
+
+    private void finishAccount() {
+        int i = index;
+        if (!hasLedger && checkpointBalances[i] != null) {
+            startLedger(checkpointBalances[i]);     // 체크포인트 이후 변경 없음
+        }
+        index++;
+        BigDecimal actual = balances[i];
+        boolean recent = updatedAtMillis[i] >= pendingSinceMillis;
+        totals.accounts++;
+
+        if (!hasLedger) {
+            if (versions[i] == 0) {
+                // 이력 없이 들어와서 한 번도 안 바뀐 계좌 (대량 적재 등): 현재 잔액이 기준값
+                totals.unverified++;
+                add(actual, actual);
+            } else if (recent) {
+                totals.pending++;
+            } else {
+                add(actual, BigDecimal.ZERO);
+                mismatches.accept(new Mismatch(ids[i], Mismatch.Kind.MISSING_HISTORY, actual, null, versions[i], -1));
+            }
+            resetAccount();
+            return;
+        }
+
+        if (!broken && expected.compareTo(actual) == 0) {
+            add(actual, expected);
+        } else if (!broken && (ledgerVersion > versions[i] || (ledgerVersion < versions[i] && recent))) {
+            totals.pending++;     // 대사 중 변경 / 이력 반영 대기
+        } else {
+            add(actual, expected);
+            mismatches.accept(new Mismatch(ids[i], broken ? Mismatch.Kind.CHAIN_BREAK : Mismatch.Kind.BALANCE_MISMATCH,
+                    actual, expected, versions[i], ledgerVersion));
+        }
+
+        // 사슬이 이어진 이력만 흐름 합계와 체크포인트에 반영 (끊긴 계좌는 다음 실행에서 다시 읽고 다시 보고)
+        if (!broken) {
+            totals.openings = totals.openings.add(openings);
+            totals.ledgerFlow = totals.ledgerFlow.add(ledgerFlow);
+            totals.lateFlow = totals.lateFlow.add(lateFlow);
+            if (flowBalance != null && flowVersion > checkpointVersions[i]) {
+                checkpoints.add(new Checkpoint(ids[i], flowVersion, flowBalance));
+            }
+        }
+        resetAccount();
+    }
+
+    private void startLedger(BigDecimal start) {
+        hasLedger = true;
+        BigDecimal checkpoint = checkpointBalances[index];
+        expected = checkpoint != null ? checkpoint : start;
+        ledgerVersion = checkpoint != null ? checkpointVersions[index] : -1;
+    }
+
+    private void add(BigDecimal actual, BigDecimal expectedBalance) {
+        totals.actualTotal = totals.actualTotal.add(actual);
+        totals.expectedTotal = totals.expectedTotal.add(expectedBalance);
+    }
+
+    private void resetAccount() {
+        hasLedger = false;
+        broken = false;
+        pastFlowTo = false;
+        expected = null;
+        ledgerVersion = -1;
+        flowVersion = -1;
+        flowBalance = null;
+        openings = BigDecimal.ZERO;
+        ledgerFlow = BigDecimal.ZERO;
+        lateFlow = BigDecimal.ZERO;
+    }
+
+    record Checkpoint(long accountId, long version, BigDecimal balance) {
+    }
+}
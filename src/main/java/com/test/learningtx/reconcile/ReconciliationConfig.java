@@ -0,0 +1,39 @@
+package com.test.learningtx.reconcile;
+
+import com.test.learningtx.txlog.TxLogStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * 잔액 이력을 대사하므로 이력이 쌓일 때만 등록 (balance-history와 outbox 둘 다 켜져 있어야 함)
+ * -> 이력이 없으면 엔진도, reconciliation.cron 스케줄도 없음
+ */
+@Configuration
+@ConditionalOnExpression("${learning-tx.balance-history.enabled:true} and ${learning-tx.outbox.enabled:true}")
+@EnableConfigurationProperties(ReconciliationProperties.class)
+public class ReconciliationConfig {
+
+    @Bean
+    public ReconciliationEngine reconciliationEngine(JdbcTemplate jdbcTemplate, DataSource dataSource,
+                                                     PlatformTransactionManager transactionManager,
+                                                     TxLogStore txLogStore,
+                                                     ReconciliationProperties properties) {
+        // 이력은 계좌당 행이 많을 수 있으므로 커서로 나눠 받음 (PostgreSQL은 트랜잭션 안에서만 fetchSize가 동작)
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(properties.getPageSize());
+
+        // 페이지 하나의 계좌/체크포인트/이력을 같은 스냅샷에서 읽고, 전진한 체크포인트를 같은 트랜잭션에서 저장
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        return new ReconciliationEngine(jdbcTemplate, streaming, snapshot, txLogStore, properties);
+    }
+}
@@ -0,0 +1,336 @@
+package com.test.learningtx.reconcile;
+
+import com.test.learningtx.service.AccountService;
+import com.test.learningtx.txlog.TxLogStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * accounts 잔액 <-> 잔액 이력(account_balance_history) <-> 감사 로그(TxLog) 대사
+ *
+ * 1. 계좌 id 구간 [MIN, MAX]를 pageSize 단위 페이지로 나누고 concurrency개의 워커가 공유 커서로 가져감
+ * 2. 페이지마다 REPEATABLE_READ 트랜잭션 하나 (같은 스냅샷에서 계좌, 체크포인트, 이력을 읽음)
+ *    - 계좌: id 순으로 페이지 크기 배열에 적재 (계좌별 체크포인트 포함)
+ *    - 이력: 체크포인트 이후 버전만 (account_id, version) 순으로 스트리밍하며 계좌 배열과 merge join
+ *      > 매일 전체 이력을 다시 읽지 않음 (PK (account_id, version) 범위 탐색)
+ *    - 사슬이 이어진 계좌는 흐름 구간 끝까지의 (version, balance)를 체크포인트로 저장 (같은 트랜잭션)
+ * 3. 흐름 대사: 지난 실행 이후 구간 [flowFrom, flowTo)의 이력 잔액 변화 합을 TxLog 입출금/이체 합과 비교
+ *    - flowTo = 시작 시각 - pendingGraceMillis (relay가 아직 옮기지 않은 이력이 구간에 남지 않도록)
+ *
+ * - 메모리: 워커당 페이지 배열 하나 (계좌 수와 무관)
+ * - 락 없이 읽고 체크포인트 테이블에만 쓰므로 이체를 막지 않음 (PostgreSQL/H2 모두 MVCC 읽기)
+ * - 이력은 아웃박스 relay만큼 늦으므로 최근에 바뀐 계좌의 차이는 불일치가 아니라 "반영 대기"로 분류
+ * - 체크포인트 이전 이력이 나중에 바뀌는 것은 확인하지 않음 (이력은 추가만 함)
+ */
+@Slf4j
+public class ReconciliationEngine {
+
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+
+    private static final String RANGE_SQL = "SELECT MIN(id), MAX(id) FROM accounts";
+    private static final String ACCOUNTS_SQL = """
+            SELECT a.id, a.balance, a.version, a.updated_at, c.version, c.balance FROM accounts a
+            LEFT JOIN reconciliation_checkpoints c ON c.account_id = a.id
+            WHERE a.id BETWEEN ? AND ? ORDER BY a.id
+            """;
+    private static final String LEDGER_SQL = """
+            SELECT h.account_id, h.version, h.previous_balance, h.balance, h.valid_from FROM accounts a
+            LEFT JOIN reconciliation_checkpoints c ON c.account_id = a.id
+            JOIN account_balance_history h ON h.account_id = a.id AND h.version > COALESCE(c.version, -1)
+            WHERE a.id BETWEEN ? AND ? ORDER BY h.account_id, h.version
+            """;
+    private static final String ORPHANS_SQL = """
+            SELECT COUNT(*) FROM reconciliation_checkpoints c
+            WHERE NOT EXISTS (SELECT 1 FROM accounts a WHERE a.id = c.account_id)
+            """;
+    private static final String UPDATE_CHECKPOINT_SQL =
+            "UPDATE reconciliation_checkpoints SET version = ?, balance = ?, reconciled_at = ? WHERE account_id = ?";
+    private static final String INSERT_CHECKPOINT_SQL =
+            "INSERT INTO reconciliation_checkpoints (account_id, version, balance, reconciled_at) VALUES (?, ?, ?, ?)";
+    private static final String LAST_RUN_SQL =
+            "SELECT status, flow_to FROM reconciliation_runs ORDER BY id DESC FETCH FIRST 1 ROWS ONLY";
+    private static final String INSERT_RUN_SQL =
+            "INSERT INTO reconciliation_runs (status, flow_from, flow_to, started_at) VALUES (?, ?, ?, ?)";
+    private static final String COMPLETE_RUN_SQL =
+            "UPDATE reconciliation_runs SET status = ?, finished_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;     // 이력 스트리밍용 (fetchSize 지정)
+    private final TransactionTemplate snapshotTransaction;
+    private final TxLogStore txLogStore;
+    private final ReconciliationProperties properties;
+
+    public ReconciliationEngine(JdbcTemplate jdbcTemplate, JdbcTemplate streamingJdbcTemplate,
+                                TransactionTemplate snapshotTransaction, TxLogStore txLogStore,
+                                ReconciliationProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = streamingJdbcTemplate;
+        this.snapshotTransaction = snapshotTransaction;
+        this.txLogStore = txLogStore;
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${learning-tx.reconciliation.cron:-}")
+    public void nightly() {
+        ReconciliationReport report = run();
+        if (report.balanced()) {
+            log.info("✅ 잔액 대사 일치: {}", report);
+        } else {
+            log.error("❌ 잔액 대사 불일치: {} 예: {}", report, report.mismatches());
+        }
+        if (!report.flowBalanced()) {
+            log.warn("⚠️ 잔액 이력 흐름과 TxLog 불일치: {}", report.flow());
+        }
+    }
+
+    public ReconciliationReport run() {
+        if (properties.getConcurrency() <= 0 || properties.getPageSize() <= 0) {
+            throw new IllegalArgumentException("concurrency, pageSize는 0보다 커야 합니다.");
+        }
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        long pendingSince = Timestamp.valueOf(startedAt).getTime() - properties.getPendingGraceMillis();
+        LocalDateTime flowTo = startedAt.minus(Duration.ofMillis(properties.getPendingGraceMillis()));
+        LocalDateTime flowFrom = flowFrom();
+        long runId = startRun(flowFrom, flowTo, startedAt);
+
+        long[] range = jdbcTemplate.queryForObject(RANGE_SQL, (rs, rowNum) -> {
+            long min = rs.getLong(1);
+            return rs.wasNull() ? new long[]{1, 0} : new long[]{min, rs.getLong(2)};
+        });
+        Objects.requireNonNull(range);
+        int pageSize = properties.getPageSize();
+        long pages = range[1] < range[0] ? 0 : (range[1] - range[0]) / pageSize + 1;
+        int workers = (int) Math.max(1, Math.min(properties.getConcurrency(), pages));
+        log.info("=== 잔액 대사 시작: id {} ~ {}, 페이지 {}개, 워커 {}개, 흐름 구간 {} ~ {} ===",
+                range[0], range[1], pages, workers, flowFrom, flowTo);
+
+        AtomicLong cursor = new AtomicLong();
+        AtomicLong mismatchCount = new AtomicLong();
+        AtomicInteger reported = new AtomicInteger();
+        Queue<Mismatch> mismatches = new ConcurrentLinkedQueue<>();
+        List<Totals> totals = new ArrayList<>();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        AtomicInteger threadSequence = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers,
+                runnable -> new Thread(runnable, "reconcile-" + threadSequence.incrementAndGet()));
+        for (int i = 0; i < workers; i++) {
+            Totals workerTotals = new Totals();
+            totals.add(workerTotals);
+            PageReconciler reconciler = new PageReconciler(pageSize, pendingSince,
+                    flowFrom == null ? Long.MIN_VALUE : Timestamp.valueOf(flowFrom).getTime(),
+                    Timestamp.valueOf(flowTo).getTime(), workerTotals, mismatch -> {
+                mismatchCount.incrementAndGet();
+                if (reported.getAndIncrement() < properties.getMaxReportedMismatches()) {
+                    mismatches.add(mismatch);
+                }
+            });
+            executor.execute(() -> {
+                long page;
+                while (failure.get() == null && (page = cursor.getAndIncrement()) < pages) {
+                    long fromId = range[0] + page * pageSize;
+                    long toId = Math.min(fromId + pageSize - 1, range[1]);
+                    try {
+                        reconcilePage(reconciler, fromId, toId);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            });
+        }
+        if (!awaitTermination(executor)) {
+            failure.compareAndSet(null, new IllegalStateException("잔액 대사가 제한 시간 안에 끝나지 않음"));
+            executor.shutdownNow();
+        }
+        if (failure.get() != null) {
+            // 실행 행은 RUNNING으로 남음 -> 다음 실행은 흐름 대사를 건너뛰고 구간을 새로 시작
+            log.error("❌ 잔액 대사 실패", failure.get());
+            throw failure.get();
+        }
+
+        Totals sum = new Totals();
+        totals.forEach(sum::merge);
+        FlowCheck flow = flowFrom == null ? null : flowCheck(flowFrom, flowTo, sum);
+        Long orphans = jdbcTemplate.queryForObject(ORPHANS_SQL, Long.class);
+        ReconciliationReport report = new ReconciliationReport(startedAt, sum.accounts, sum.pending, sum.unverified,
+                orphans == null ? 0 : orphans, sum.ledgerEntries, sum.actualTotal, sum.expectedTotal, flow,
+                mismatchCount.get(), List.copyOf(mismatches), Duration.ofNanos(System.nanoTime() - startNanos));
+        jdbcTemplate.update(COMPLETE_RUN_SQL, COMPLETED, Timestamp.valueOf(LocalDateTime.now()), runId);
+        log.info("=== 잔액 대사 완료: {} ===", report);
+        return report;
+    }
+
+    /**
+     * 흐름 대사 시작 시각 = 마지막 실행의 flowTo (대사할 수 없으면 null)
+     */
+    private LocalDateTime flowFrom() {
+        LastRun last = jdbcTemplate.query(LAST_RUN_SQL,
+                rs -> rs.next() ? new LastRun(rs.getString(1), rs.getTimestamp(2).toLocalDateTime()) : null);
+        if (last == null) {
+            log.info("첫 잔액 대사: 흐름 대사 없이 체크포인트만 만듦");
+            return null;
+        }
+        if (!COMPLETED.equals(last.status())) {
+            log.warn("직전 잔액 대사가 끝나지 않음 (체크포인트 일부만 전진): 이번 흐름 대사 생략");
+            return null;
+        }
+        if (txLogStore.days().isEmpty() || last.flowTo().toLocalDate().isBefore(txLogStore.days().first())) {
+            log.warn("흐름 구간 시작({})이 TxLog 보관 기간 밖: 이번 흐름 대사 생략", last.flowTo());
+            return null;
+        }
+        return last.flowTo();
+    }
+
+    private long startRun(LocalDateTime flowFrom, LocalDateTime flowTo, LocalDateTime startedAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_RUN_SQL, new String[]{"id"});
+            ps.setString(1, RUNNING);
+            ps.setTimestamp(2, flowFrom == null ? null : Timestamp.valueOf(flowFrom));
+            ps.setTimestamp(3, Timestamp.valueOf(flowTo));
+            ps.setTimestamp(4, Timestamp.valueOf(startedAt));
+            return ps;
+        }, keyHolder);
+        return Objects.requireNonNull(keyHolder.getKey()).longValue();
+    }
+
+    /**
+     * TxLog [from, to)의 입출금/이체 합계와 이력 잔액 변화 합 비교
+     */
+    private FlowCheck flowCheck(LocalDateTime from, LocalDateTime to, Totals sum) {
+        TxLogSums txLog = new TxLogSums();
+        txLogStore.scan(from, to, null, rs -> txLog.add(rs.getString(1), rs.getBigDecimal(3)));
+        FlowCheck flow = new FlowCheck(from, to, sum.ledgerFlow, sum.openings, sum.lateFlow,
+                txLog.deposits, txLog.withdrawals, txLog.transferNet, txLog.sagaNet);
+        if (!flow.balanced()) {
+            log.warn("⚠️ 잔액 이력과 TxLog 흐름 불일치 (대사 중 커밋된 변경이면 다음 실행에서 lateFlow로 나타남): {}", flow);
+        }
+        return flow;
+    }
+
+    private void reconcilePage(PageReconciler reconciler, long fromId, long toId) {
+        snapshotTransaction.executeWithoutResult(status -> {
+            reconciler.reset();
+            jdbcTemplate.query(ACCOUNTS_SQL, (RowCallbackHandler) rs -> {
+                Timestamp updatedAt = rs.getTimestamp(4);
+                reconciler.account(rs.getLong(1), rs.getBigDecimal(2), rs.getLong(3),
+                        updatedAt == null ? 0 : updatedAt.getTime(), rs.getLong(5), rs.getBigDecimal(6));
+            }, fromId, toId);
+            streamingJdbcTemplate.query(LEDGER_SQL, (RowCallbackHandler) rs -> reconciler.ledger(
+                    rs.getLong(1), rs.getLong(2), rs.getBigDecimal(3), rs.getBigDecimal(4),
+                    rs.getTimestamp(5).getTime()), fromId, toId);
+            reconciler.finish();
+            saveCheckpoints(reconciler.checkpoints());
+        });
+    }
+
+    // UPDATE 후 없는 계좌만 INSERT (MERGE / ON CONFLICT 문법 차이를 피함, 페이지는 워커 하나만 처리)
+    private void saveCheckpoints(List<PageReconciler.Checkpoint> checkpoints) {
+        if (checkpoints.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_CHECKPOINT_SQL, checkpoints.stream()
+                .map(checkpoint -> new Object[]{checkpoint.version(), checkpoint.balance(), now, checkpoint.accountId()})
+                .toList());
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                PageReconciler.Checkpoint checkpoint = checkpoints.get(i);
+                inserts.add(new Object[]{checkpoint.accountId(), checkpoint.version(), checkpoint.balance(), now});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CHECKPOINT_SQL, inserts);
+        }
+    }
+
+    /**
+     * @return 제한 시간 안에 모든 워커가 끝났으면 true
+     */
+    private static boolean awaitTermination(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(1, TimeUnit.HOURS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 워커별 합계 (워커 스레드에서만 갱신, 종료 후 합침)
+     */
+    static final class Totals {
+        long accounts;
+        long pending;
+        long unverified;
+        long ledgerEntries;
+        BigDecimal actualTotal = BigDecimal.ZERO;
+        BigDecimal expectedTotal = BigDecimal.ZERO;
+        BigDecimal openings = BigDecimal.ZERO;
+        BigDecimal ledgerFlow = BigDecimal.ZERO;
+        BigDecimal lateFlow = BigDecimal.ZERO;
+
+        void merge(Totals other) {
+            accounts += other.accounts;
+            pending += other.pending;
+            unverified += other.unverified;
+            ledgerEntries += other.ledgerEntries;
+            actualTotal = actualTotal.add(other.actualTotal);
+            expectedTotal = expectedTotal.add(other.expectedTotal);
+            openings = openings.add(other.openings);
+            ledgerFlow = ledgerFlow.add(other.ledgerFlow);
+            lateFlow = lateFlow.add(other.lateFlow);
+        }
+    }
+
+    /**
+     * TxLog 구간 합계 (입출금/배치 차감 amount는 양수, 이체 amount는 부호 포함)
+     */
+    private static final class TxLogSums {
+        BigDecimal deposits = BigDecimal.ZERO;
+        BigDecimal withdrawals = BigDecimal.ZERO;
+        BigDecimal transferNet = BigDecimal.ZERO;
+        BigDecimal sagaNet = BigDecimal.ZERO;
+
+        void add(String operation, BigDecimal amount) {
+            switch (operation) {
+                case AccountService.DEPOSIT -> deposits = deposits.add(amount);
+                case AccountService.WITHDRAW, AccountService.FEE -> withdrawals = withdrawals.add(amount);
+                case AccountService.TRANSFER -> transferNet = transferNet.add(amount);
+                case AccountService.SAGA_TRANSFER -> sagaNet = sagaNet.add(amount);
+                default -> {
+                }
+            }
+        }
+    }
+
+    private record LastRun(String status, LocalDateTime flowTo) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.test.learningtx.reconcile;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 잔액 대사 설정 (learning-tx.reconciliation.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.reconciliation")
+public class ReconciliationProperties {
+
+    // 야간 대사 cron ("-"면 스케줄 없음, ReconciliationEngine.run() 직접 호출)
+    private String cron = "-";
+
+    // 동시에 대사하는 id 파티션 수 (워커마다 커넥션 1개)
+    private int concurrency = 4;
+
+    // 한 번에 읽는 계좌 id 구간 크기 (워커 메모리 = 이 크기의 계좌 배열)
+    private int pageSize = 5_000;
+
+    // 잔액 이력은 아웃박스 relay만큼 늦음 -> 최근 이 시간 안에 바뀐 계좌의 불일치는 "반영 대기"로 분류
+    private long pendingGraceMillis = 60_000;
+
+    // 보고서에 담는 불일치 건수 상한 (건수 자체는 모두 셈)
+    private int maxReportedMismatches = 100;
+}
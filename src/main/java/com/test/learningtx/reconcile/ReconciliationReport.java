@@ -0,0 +1,58 @@
+package com.test.learningtx.reconcile;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 대사 결과
+ *
+ * 1. 계좌별: 실제 잔액 == 체크포인트 + 새 이력으로 다시 계산한 잔액 (다르면 mismatches)
+ *    - actualTotal / expectedTotal: 대사한 계좌(반영 대기 제외)의 합, 불일치 계좌만큼 차이가 남
+ * 2. 흐름: 이번 구간의 이력 잔액 변화 == TxLog 입출금/이체 합 (flow)
+ *    - 첫 실행, 직전 실행 실패, TxLog 보관 기간을 넘긴 구간이면 비교하지 않음 (flow = null)
+ *    - 대사 중 커밋된 변경 때문에 정상 운영에서도 어긋날 수 있어 balanced()와 분리 (flowBalanced(), FlowCheck 참고)
+ *
+ * @param pendingAccounts   이력 반영 대기(최근 변경/대사 중 변경)라 합계에서 뺀 계좌 수
+ * @param unverifiedAccounts 이력이 없고 잔액도 바뀐 적 없는 계좌 수 (현재 잔액을 기준값으로 사용)
+ * @param orphanLedgerAccounts 체크포인트는 있는데 계좌가 없는 계좌 수 (삭제된 계좌)
+ * @param ledgerEntries     이번 실행에서 읽은 이력 행 수 (체크포인트 이후만)
+ * @param mismatches        최대 maxReportedMismatches건
+ */
+public record ReconciliationReport(
+        LocalDateTime startedAt,
+        long accounts,
+        long pendingAccounts,
+        long unverifiedAccounts,
+        long orphanLedgerAccounts,
+        long ledgerEntries,
+        BigDecimal actualTotal,
+        BigDecimal expectedTotal,
+        FlowCheck flow,
+        long mismatchCount,
+        List<Mismatch> mismatches,
+        Duration elapsed
+) {
+
+    /**
+     * 계좌 잔액 <-> 이력 대사 결과 (흐름 대사는 포함하지 않음)
+     */
+    public boolean balanced() {
+        return mismatchCount == 0 && actualTotal.compareTo(expectedTotal) == 0;
+    }
+
+    public boolean flowBalanced() {
+        return flow == null || flow.balanced();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReconciliationReport{balanced=%s, accounts=%,d, pending=%,d, unverified=%,d, "
+                        + "orphans=%,d, ledgerEntries=%,d, actualTotal=%s, expectedTotal=%s, flow=%s, "
+                        + "mismatches=%,d, elapsed=%,dms}",
+                balanced(), accounts, pendingAccounts, unverifiedAccounts, orphanLedgerAccounts, ledgerEntries,
+                actualTotal.toPlainString(), expectedTotal.toPlainString(), flow, mismatchCount,
+                elapsed.toMillis());
+    }
+}
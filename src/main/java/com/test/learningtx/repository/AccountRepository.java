@@ -1,14 +1,19 @@
 package com.test.learningtx.repository;
 
+import com.test.learningtx.dto.AccountView;
 import com.test.learningtx.entity.Account;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,7 +33,49 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     """)
     Optional<Account> findByIdWithLock(@Param("id") Long id);
 
+    // 여러 계좌를 한 문장으로 잠금: SELECT ... WHERE id IN (...) ORDER BY id FOR UPDATE
+    //  - 계좌 수만큼 findByIdWithLock을 호출하지 않음 (왕복 1번)
+    //  - id 오름차순으로 잠가서 다른 다중 이체와 데드락 방지
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+        SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id
+    """)
+    List<Account> findAllByIdInWithLock(@Param("ids") Collection<Long> ids);
+
+    // 쿼리 캐시 힌트: hibernate.cache.use_query_cache=true 일 때만 캐싱됨 (아니면 무시)
+    //  - accounts 테이블이 수정되면 Hibernate가 timestamps 영역으로 캐시된 결과를 자동 무효화
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Account> findByName(String name);
 
+    // account_number unique 인덱스 사용
+    Optional<Account> findByAccountNumber(String accountNumber);
+
+    // 이름 -> id만 필요한 경우: 인덱스만 읽고 엔티티는 만들지 않음 (이름은 unique가 아니므로 목록)
+    @Query("""
+        SELECT a.id FROM Account a WHERE a.name = :name
+    """)
+    List<Long> findIdsByName(@Param("name") String name);
+
     List<Account> findByBalanceBetween(BigDecimal minBalance, BigDecimal maxBalance);
+
+    // 조회 전용 프로젝션: 엔티티 대신 record를 바로 생성
+    //  - 영속성 컨텍스트에 올라가지 않으므로 스냅샷/flush 비용 없음
+    @Query("""
+        SELECT new com.test.learningtx.dto.AccountView(a.id, a.accountNumber, a.name, a.balance, a.version, a.updatedAt)
+        FROM Account a WHERE a.id = :id
+    """)
+    Optional<AccountView> findViewById(@Param("id") Long id);
+
+    @Query("""
+        SELECT new com.test.learningtx.dto.AccountView(a.id, a.accountNumber, a.name, a.balance, a.version, a.updatedAt)
+        FROM Account a WHERE a.id IN :ids ORDER BY a.id
+    """)
+    List<AccountView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+        SELECT new com.test.learningtx.dto.AccountView(a.id, a.accountNumber, a.name, a.balance, a.version, a.updatedAt)
+        FROM Account a WHERE a.balance BETWEEN :minBalance AND :maxBalance ORDER BY a.id
+    """)
+    List<AccountView> findViewsByBalanceBetween(@Param("minBalance") BigDecimal minBalance,
+                                                @Param("maxBalance") BigDecimal maxBalance);
 }
@@ -0,0 +1,20 @@
+package com.test.learningtx.repository;
+
+import com.test.learningtx.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("""
+        DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before
+    """)
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
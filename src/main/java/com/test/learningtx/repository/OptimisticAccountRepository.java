@@ -1,7 +1,10 @@
 package com.test.learningtx.repository;
 
 import com.test.learningtx.entity.OptimisticAccount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -36,6 +39,8 @@ public interface OptimisticAccountRepository extends JpaRepository<OptimisticAcc
 
     /**
      * 이름으로 계좌 찾기
+     * - 쿼리 캐시가 켜져 있으면(l2cache 프로필) 결과 id 목록을 캐싱
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<OptimisticAccount> findByName(String name);
 }
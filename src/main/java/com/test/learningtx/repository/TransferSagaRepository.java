@@ -0,0 +1,20 @@
+package com.test.learningtx.repository;
+
+import com.test.learningtx.entity.SagaState;
+import com.test.learningtx.entity.TransferSaga;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TransferSagaRepository extends JpaRepository<TransferSaga, Long> {
+
+    // 재시작 시 진행 중이던 사가 복구용
+    List<TransferSaga> findByStateInOrderById(Collection<SagaState> states);
+
+    // 재시도를 다 써서 멈춘 사가 주기 재개용 (updated_at = 마지막 상태 전이 시각)
+    List<TransferSaga> findByStateInAndUpdatedAtBeforeOrderById(Collection<SagaState> states, LocalDateTime cutoff);
+}
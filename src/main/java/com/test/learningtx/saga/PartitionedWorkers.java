@@ -0,0 +1,90 @@
+package com.test.learningtx.saga;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 id 해시로 고른 단일 스레드 워커에서 작업 실행
+ *
+ * 같은 계좌의 작업은 항상 같은 워커에서 순서대로 실행 -> 계좌 행을 두고 워커끼리 경쟁하지 않음
+ * 파티션 큐는 무제한: 워커가 다른 파티션에 다음 단계를 넘길 때 막히면 워커끼리 서로 기다릴 수 있음
+ * (사가 전체 개수는 TransferSagaService에서 maxInFlight로 제한)
+ *
+ * 지연 실행(submitAfter)은 타이머 스레드 하나가 시간이 되면 파티션 큐에 넣음 -> 백오프 동안 워커를 막지 않음
+ */
+@Slf4j
+public class PartitionedWorkers implements AutoCloseable {
+
+    private final List<BlockingQueue<Runnable>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final ScheduledExecutorService timer;
+    private volatile boolean running = true;
+
+    public PartitionedWorkers(int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("파티션 수는 1 이상이어야 합니다.");
+        }
+        for (int i = 0; i < partitions; i++) {
+            BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+            Thread worker = new Thread(() -> runLoop(queue), "saga-partition-" + i);
+            worker.setDaemon(true);
+            queues.add(queue);
+            workers.add(worker);
+            worker.start();
+        }
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "saga-retry-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void submit(long accountId, Runnable task) {
+        queues.get(partitionOf(accountId)).add(task);
+    }
+
+    public void submitAfter(long accountId, long delayMillis, Runnable task) {
+        if (delayMillis <= 0) {
+            submit(accountId, task);
+            return;
+        }
+        timer.schedule(() -> submit(accountId, task), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int partitionOf(long accountId) {
+        // 연속된 id가 고르게 퍼지도록 섞은 뒤 나머지
+        long mixed = accountId * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(mixed ^ (mixed >>> 32), (long) queues.size());
+    }
+
+    public int partitions() {
+        return queues.size();
+    }
+
+    private void runLoop(BlockingQueue<Runnable> queue) {
+        while (running) {
+            try {
+                queue.take().run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("사가 단계 실행 중 예외", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        timer.shutdownNow();
+        workers.forEach(Thread::interrupt);
+    }
+}
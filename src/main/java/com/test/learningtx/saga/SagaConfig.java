@@ -0,0 +1,15 @@
+package com.test.learningtx.saga;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SagaProperties.class)
+public class SagaConfig {
+
+    @Bean
+    public PartitionedWorkers sagaWorkers(SagaProperties properties) {
+        return new PartitionedWorkers(properties.getPartitions());
+    }
+}
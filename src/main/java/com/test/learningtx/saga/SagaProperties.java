@@ -0,0 +1,32 @@
+package com.test.learningtx.saga;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 이체 사가 설정 (learning-tx.saga.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.saga")
+public class SagaProperties {
+
+    // 워커 파티션 수: 계좌 id 해시로 파티션을 고르므로 한 계좌는 항상 같은 워커가 처리
+    private int partitions = Runtime.getRuntime().availableProcessors();
+
+    // 동시에 진행 중인 사가 상한 (넘으면 시작 요청이 대기 -> 메모리 보호)
+    private int maxInFlight = 10_000;
+
+    // 일시적 실패(다른 경로와 version 충돌, 락 타임아웃) 시 단계 재시도 횟수
+    private int maxStageRetries = 5;
+
+    // 재시도 간격 기준값: attempt마다 2배, 절반은 무작위 (같은 계좌에 몰린 재시도가 동시에 다시 부딪히지 않도록)
+    private long retryBackoffMillis = 20;
+
+    // 멈춘 사가 재개 주기 (TransferSagaService.sweep)
+    private long recoveryIntervalMillis = 30_000;
+
+    // 이 시간 동안 상태가 바뀌지 않은 진행 중 사가를 멈춘 것으로 봄 (재시도 백오프 합계와 워커 큐 대기보다 충분히 길게)
+    private long stuckAfterMillis = 60_000;
+}
@@ -0,0 +1,6 @@
+package com.test.learningtx.saga;
+
+import com.test.learningtx.entity.SagaState;
+
+public record SagaResult(Long sagaId, SagaState state, String failureReason) {
+}
@@ -0,0 +1,102 @@
+package com.test.learningtx.service;
+
+import com.test.learningtx.dto.AccountView;
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.index.AccountKeyIndex;
+import com.test.learningtx.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * 읽기 전용 Fast Path
+ *
+ * AccountService의 조회 메서드는 관리(managed) 엔티티를 반환하기 때문에
+ *  - 영속성 컨텍스트 등록
+ *  - Dirty Checking 용 스냅샷 복사
+ *  - 커밋 시 flush (변경이 없어도 전체 엔티티 비교)
+ * 비용이 매 요청마다 발생한다.
+ *
+ * 여기서는
+ *  1. readOnly 트랜잭션: Spring(HibernateJpaDialect)이 FlushMode.MANUAL + 세션 read-only로 설정
+ *  2. record 프로젝션: 엔티티 자체를 만들지 않음 -> 스냅샷/flush 대상 없음
+ * 두 가지를 함께 사용한다.
+ *
+ * 주의: 반환값은 불변 record이므로 수정 후 저장하는 용도로 쓰면 안 됨 (수정은 AccountService 사용)
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AccountQueryService {
+
+    private final AccountRepository accountRepository;
+    private final ObjectProvider<AccountKeyIndex> accountKeyIndex;    // learning-tx.account-index.enabled=true 일 때만 존재
+
+    public AccountView getAccount(Long accountId) {
+        return accountRepository.findViewById(accountId)
+                .orElseThrow(() -> new IllegalArgumentException("계좌를 찾을 수 없음: " + accountId));
+    }
+
+    public List<AccountView> getAccounts(Collection<Long> accountIds) {
+        return accountRepository.findViewsByIdIn(accountIds);
+    }
+
+    public List<AccountView> getAccountsByBalanceRange(BigDecimal minBalance, BigDecimal maxBalance) {
+        return accountRepository.findViewsByBalanceBetween(minBalance, maxBalance);
+    }
+
+    /**
+     * 이름 -> 계좌 id (idx_accounts_name 인덱스 조회)
+     * 이름은 unique가 아니므로 인메모리 인덱스를 쓰지 않고, 같은 이름이 여러 개면 거절
+     */
+    public Long getAccountIdByName(String name) {
+        List<Long> ids = accountRepository.findIdsByName(name);
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("계좌를 찾을 수 없음: " + name);
+        }
+        if (ids.size() > 1) {
+            throw new IllegalArgumentException("같은 이름의 계좌가 여러 개입니다. 계좌번호로 조회하세요: " + name);
+        }
+        return ids.get(0);
+    }
+
+    /**
+     * 계좌번호 -> 계좌 id
+     * 인덱스 적중도 지문만 맞은 것이므로 getAccountByAccountNumber와 같이 실제 계좌번호를 확인한 뒤 반환
+     */
+    public Long getAccountIdByAccountNumber(String accountNumber) {
+        return getAccountByAccountNumber(accountNumber).id();
+    }
+
+    /**
+     * 계좌번호로 계좌 조회
+     * 인덱스 -> id -> findById (l2cache 프로필이면 2차 캐시에서 응답, SQL 없음)
+     * 인덱스는 키 지문만 저장하므로 읽은 엔티티의 계좌번호를 다시 비교하고, 다르면 SQL로 조회
+     * SQL 결과는 비어 있는 자리에만 채움 (커밋된 변경은 AccountKeyIndexListener만 덮어씀)
+     */
+    public AccountView getAccountByAccountNumber(String accountNumber) {
+        AccountKeyIndex index = accountKeyIndex.getIfAvailable();
+        if (index != null) {
+            OptionalLong cached = index.idByAccountNumber(accountNumber);
+            if (cached.isPresent()) {
+                Optional<Account> account = accountRepository.findById(cached.getAsLong());
+                if (account.isPresent() && accountNumber.equals(account.get().getAccountNumber())) {
+                    return AccountView.from(account.get());
+                }
+            }
+        }
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new IllegalArgumentException("계좌를 찾을 수 없음: " + accountNumber));
+        if (index != null) {
+            index.putAccountNumberIfAbsent(accountNumber, account.getId());
+        }
+        return AccountView.from(account);
+    }
+}
@@ -1,22 +1,55 @@
 package com.test.learningtx.service;
 
+import com.test.learningtx.dto.TransferLeg;
 import com.test.learningtx.entity.Account;
+import com.test.learningtx.hot.HotAccountSampler;
+import com.test.learningtx.limit.WithdrawalLimiter;
+import com.test.learningtx.lock.AccountLockManager;
 import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.support.TxCheckpoints;
+import com.test.learningtx.support.TxTimestamp;
+import com.test.learningtx.txlog.TxLogStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class AccountService {
 
+    // 테스트에서 다른 트랜잭션을 끼워 넣는 지점 (TxCheckpoints 참고)
+    public static final String AFTER_FIRST_READ = "account.afterFirstRead";
+    public static final String AFTER_FIRST_RANGE_READ = "account.afterFirstRangeRead";
+
+    // 감사 로그 operation (TxLogStore 규칙 참고)
+    // 출금: WithdrawalLimiter가 시작 시 이 로그로 한도 카운터 재구성
+    public static final String WITHDRAW = "WITHDRAW";
+    public static final String DEPOSIT = "DEPOSIT";
+    // 배치 차감(수수료 등): 고객 출금이 아니므로 출금 한도 재구성에서 제외
+    public static final String FEE = "FEE";
+    // 이체: 구간(계좌)별 한 건, 출금 구간은 음수 금액
+    public static final String TRANSFER = "TRANSFER";
+    // 사가 이체: 단계(출금 -, 입금 +, 보상 +)마다 한 건, 단계마다 트랜잭션이 달라 진행 중인 사가는 합이 0이 아님
+    public static final String SAGA_TRANSFER = "SAGA_TRANSFER";
+
     private final AccountRepository accountRepository;
+    private final AccountLockManager accountLockManager;
+    private final TxCheckpoints txCheckpoints;
+    private final TxLogStore txLogStore;
+    private final HotAccountSampler hotAccountSampler;
+    private final ObjectProvider<WithdrawalLimiter> withdrawalLimiter;    // learning-tx.withdrawal-limit.enabled=true 일 때만 존재
 
     public Account getAccountById(Long accountId) {
         return accountRepository.findById(accountId)
@@ -25,19 +58,118 @@ public class AccountService {
 
     @Transactional  // 메서드 전체가 하나의 트랜잭션
     public void transfer(Long fromId, Long toId, BigDecimal amount) {
-        log.info("=== 계좌 이체 시작: {} -> {}, 금액: {} ===", fromId, toId, amount);
+        log.debug("=== 계좌 이체 시작: {} -> {}, 금액: {} ===", fromId, toId, amount);
+        limitDebit(fromId, amount);
+
+        // 계좌 행을 읽기 전에 계좌 id 락부터 획득 (여러 인스턴스 간 이체 직렬화, id 오름차순)
+        // 키마다 따로 잠가서 대기 시간을 실제로 기다린 계좌에만 기록
+        accountLockManager.lockAccounts(List.of(fromId, toId), hotAccountSampler::recordLockWait);
 
         Account fromAccount = getAccountById(fromId);
         
         Account toAccount = getAccountById(toId);
 
+        // 이미 영속 상태인 엔티티 -> save()(merge) 불필요, 커밋 시 Dirty Checking으로 UPDATE
         fromAccount.withdraw(amount);
         toAccount.deposit(amount);
 
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
+        LocalDateTime now = TxTimestamp.now();
+        txLogStore.append(TRANSFER, fromId, "이체 출금 -> " + toId, amount.negate(), now);
+        txLogStore.append(TRANSFER, toId, "이체 입금 <- " + fromId, amount, now);
+
+        log.debug("=== 계좌 이체 완료 ===");
+    }
+
+    /**
+     * 출금 + 감사 로그(TxLog) 기록을 한 트랜잭션에서
+     * 출금 한도 확인은 트랜잭션 밖에서 (WithdrawalService, 직접 호출하면 한도를 거치지 않음)
+     */
+    @Transactional
+    public Account withdraw(Long accountId, BigDecimal amount) {
+        long lockStart = System.nanoTime();
+        accountLockManager.lockAccounts(accountId);
+        hotAccountSampler.recordLockWait(accountId, System.nanoTime() - lockStart);
 
-        log.info("=== 계좌 이체 완료 ===");
+        Account account = getAccountById(accountId);
+        account.withdraw(amount);
+        txLogStore.append(WITHDRAW, accountId, "출금", amount, TxTimestamp.now());
+        return account;
+    }
+
+    /**
+     * 다중 계좌 이체 (분할 송금, 일괄 지급 등)
+     *
+     * 1. 구간 검증: 금액 0 금지, 전체 합계 = 0
+     * 2. 같은 계좌의 구간은 순액으로 합침
+     * 3. 계좌 id 락 + 계좌 행 락을 각각 한 문장으로 획득 (id 오름차순)
+     * 4. 출금/입금 적용 + 계좌별 순액 감사 로그 -> 커밋 시 UPDATE를 JDBC 배치로 전송 (hibernate.jdbc.batch_size)
+     *
+     * 계좌가 N개여도 락 조회는 N번이 아니라 1번 -> 지연 시간이 계좌 수에 비례해서 늘지 않음
+     */
+    @Transactional
+    public void transfer(List<TransferLeg> legs) {
+        Map<Long, BigDecimal> netByAccount = netAmounts(legs);
+        log.debug("=== 다중 계좌 이체 시작: 구간 {}개, 계좌 {}개 ===", legs.size(), netByAccount.size());
+        netByAccount.forEach((accountId, net) -> {
+            if (net.signum() < 0) {
+                limitDebit(accountId, net.negate());
+            }
+        });
+
+        // 한 문장으로 잠가서 어느 계좌에서 기다렸는지 알 수 없음 -> 접근 횟수만 기록
+        accountLockManager.lockAccounts(netByAccount.keySet());
+        netByAccount.keySet().forEach(hotAccountSampler::recordAccess);
+
+        List<Account> accounts = accountRepository.findAllByIdInWithLock(netByAccount.keySet());
+        if (accounts.size() != netByAccount.size()) {
+            Set<Long> missing = new TreeSet<>(netByAccount.keySet());
+            accounts.forEach(account -> missing.remove(account.getId()));
+            throw new IllegalArgumentException("계좌를 찾을 수 없음: " + missing);
+        }
+
+        LocalDateTime now = TxTimestamp.now();
+        for (Account account : accounts) {
+            BigDecimal net = netByAccount.get(account.getId());
+            int sign = net.signum();
+            if (sign < 0) {
+                account.withdraw(net.negate());
+            } else if (sign > 0) {
+                account.deposit(net);
+            }
+            if (sign != 0) {
+                txLogStore.append(TRANSFER, account.getId(), "다중 계좌 이체", net, now);
+            }
+        }
+
+        log.debug("=== 다중 계좌 이체 완료 ===");
+    }
+
+    // 계좌에서 돈이 나가는 구간은 출금 한도에 포함 (트랜잭션이 롤백되면 되돌림)
+    private void limitDebit(Long accountId, BigDecimal amount) {
+        WithdrawalLimiter limiter = withdrawalLimiter.getIfAvailable();
+        if (limiter != null) {
+            limiter.acquireInTransaction(accountId, amount);
+        }
+    }
+
+    private Map<Long, BigDecimal> netAmounts(List<TransferLeg> legs) {
+        if (legs == null || legs.size() < 2) {
+            throw new IllegalArgumentException("이체 구간은 2개 이상이어야 합니다.");
+        }
+
+        Map<Long, BigDecimal> netByAccount = new TreeMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (TransferLeg leg : legs) {
+            if (leg.accountId() == null || leg.amount() == null || leg.amount().signum() == 0) {
+                throw new IllegalArgumentException("이체 구간에는 계좌와 0이 아닌 금액이 필요합니다: " + leg);
+            }
+            netByAccount.merge(leg.accountId(), leg.amount(), BigDecimal::add);
+            total = total.add(leg.amount());
+        }
+        if (total.signum() != 0) {
+            throw new IllegalArgumentException("이체 구간의 합계가 0이 아닙니다: " + total);
+        }
+        return netByAccount;
     }
 
     /**
@@ -78,12 +210,8 @@ public class AccountService {
         // 첫 번째 읽기
         Account first = getAccountById(accountId);
 
-        // 중간에 잠깐 대기 (다른 트랜잭션이 수정할 시간)
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        // 체크포인트: 다른 트랜잭션이 수정할 수 있는 지점
+        txCheckpoints.reach(AFTER_FIRST_READ);
 
         // 두 번째 읽기 (같은 트랜잭션 내에서)
         Account second = getAccountById(accountId);
@@ -105,11 +233,7 @@ public class AccountService {
         List<Account> firstList = accountRepository.findByBalanceBetween(minBalance, maxBalance);
         log.info("첫 번째 조회 완료: {}건, 시간: {}", firstList.size(), System.currentTimeMillis());
 
-        try {
-            Thread.sleep(2000); // 다른 트랜잭션이 삽입할 시간동안 대기
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        txCheckpoints.reach(AFTER_FIRST_RANGE_READ);   // 체크포인트: 다른 트랜잭션이 삽입할 수 있는 지점
 
         List<Account> secondList = accountRepository.findByBalanceBetween(minBalance, maxBalance);
         log.info("두 번째 조회 완료: {}건, 시간: {}", secondList.size(), System.currentTimeMillis());
@@ -127,11 +251,7 @@ public class AccountService {
         List<Account> firstList = accountRepository.findByBalanceBetween(minBalance, maxBalance);
         log.info("첫 번째 조회 완료: {}건, 시간: {}", firstList.size(), System.currentTimeMillis());
 
-        try {
-            Thread.sleep(2000); // 다른 트랜잭션이 삽입할 시간동안 대기
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        txCheckpoints.reach(AFTER_FIRST_RANGE_READ);   // 체크포인트: 다른 트랜잭션이 삽입할 수 있는 지점
 
         List<Account> secondList = accountRepository.findByBalanceBetween(minBalance, maxBalance);
         log.info("두 번째 조회 완료: {}건, 시간: {}", secondList.size(), System.currentTimeMillis());
@@ -162,11 +282,7 @@ public class AccountService {
         List<Account> firstList = accountRepository.findByBalanceBetween(minBalance, maxBalance);
         log.info("첫 번째 조회 완료: {}건, 시간: {}", firstList.size(), System.currentTimeMillis());
 
-        try {
-            Thread.sleep(2000); // 다른 트랜잭션이 삽입할 시간동안 대기
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        txCheckpoints.reach(AFTER_FIRST_RANGE_READ);   // 체크포인트: 다른 트랜잭션이 삽입할 수 있는 지점
 
         List<Account> secondList = accountRepository.findByBalanceBetween(minBalance, maxBalance);
         log.info("두 번째 조회 완료: {}건, 시간: {}", secondList.size(), System.currentTimeMillis());
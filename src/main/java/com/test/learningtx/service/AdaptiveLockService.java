@@ -0,0 +1,188 @@
+package com.test.learningtx.service;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.hot.HotAccountSampler;
+import com.test.learningtx.limit.WithdrawalLimiter;
+import com.test.learningtx.lock.AdaptiveLockProperties;
+import com.test.learningtx.lock.ConflictRateTracker;
+import com.test.learningtx.lock.LockStrategy;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.support.TxTimestamp;
+import com.test.learningtx.txlog.TxLogStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * 적응형 락 (계좌별로 낙관적/비관적 락 자동 선택)
+ *
+ * - 한가한 계좌: 낙관적 락이 유리 (락 대기 없음, 충돌이 드묾)
+ * - 핫 계좌: 비관적 락이 유리 (낙관적 락은 충돌 -> 재시도 -> 또 충돌)
+ *
+ * 동작:
+ * 1. ConflictRateTracker에서 계좌의 현재 모드 확인 (이체는 둘 중 하나라도 비관적이면 비관적)
+ * 2. 낙관적: @Version 충돌 시 짧은 랜덤 대기 후 재시도, 충돌 여부를 기록
+ *    > 재시도를 모두 실패하면 비관적 락으로 마지막 시도 (진행 보장)
+ * 3. 비관적: findByIdWithLock (id 오름차순), 락 대기 시간이 임계값을 넘었는지 기록
+ *    > 경합이 사라지면 충돌률이 내려가서 다시 낙관적 모드로 복귀
+ *
+ * 감사 로그와 출금 한도 차감은 시도마다 같은 트랜잭션에서 (충돌로 롤백되면 함께 되돌아감)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdaptiveLockService {
+
+    private final AccountRepository accountRepository;
+    private final ConflictRateTracker conflictRateTracker;
+    private final HotAccountSampler hotAccountSampler;
+    private final AdaptiveLockProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final TxLogStore txLogStore;
+    private final ObjectProvider<WithdrawalLimiter> withdrawalLimiter;    // learning-tx.withdrawal-limit.enabled=true 일 때만 존재
+
+    public void withdraw(Long accountId, BigDecimal amount) {
+        withdraw(accountId, amount, LockStrategy.ADAPTIVE);
+    }
+
+    public void withdraw(Long accountId, BigDecimal amount, LockStrategy strategy) {
+        execute(strategy, List.of(accountId), accounts -> {
+            limitDebit(accountId, amount);
+            accounts.get(0).withdraw(amount);
+            txLogStore.append(AccountService.WITHDRAW, accountId, "출금", amount, TxTimestamp.now());
+        });
+    }
+
+    public void transfer(Long fromId, Long toId, BigDecimal amount) {
+        transfer(fromId, toId, amount, LockStrategy.ADAPTIVE);
+    }
+
+    public void transfer(Long fromId, Long toId, BigDecimal amount, LockStrategy strategy) {
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("같은 계좌로 이체할 수 없습니다: " + fromId);
+        }
+        execute(strategy, List.of(fromId, toId), accounts -> {
+            limitDebit(fromId, amount);
+            accounts.get(0).withdraw(amount);
+            accounts.get(1).deposit(amount);
+            LocalDateTime now = TxTimestamp.now();
+            txLogStore.append(AccountService.TRANSFER, fromId, "이체 출금 -> " + toId, amount.negate(), now);
+            txLogStore.append(AccountService.TRANSFER, toId, "이체 입금 <- " + fromId, amount, now);
+        });
+    }
+
+    public ConflictRateTracker.Mode currentMode(Long accountId) {
+        return conflictRateTracker.modeFor(accountId);
+    }
+
+    private void execute(LockStrategy strategy, List<Long> accountIds, Consumer<List<Account>> action) {
+        if (resolve(strategy, accountIds) == ConflictRateTracker.Mode.PESSIMISTIC) {
+            runPessimistic(accountIds, action);
+            return;
+        }
+
+        int maxAttempts = properties.getMaxOptimisticAttempts();
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                runOptimistic(accountIds, action);
+                accountIds.forEach(id -> recordAttempt(id, false));
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                recordConflict(accountIds, e);
+                log.debug("낙관적 락 충돌: 계좌={}, 시도 {}/{}", accountIds, attempt, maxAttempts);
+                if (strategy == LockStrategy.OPTIMISTIC && attempt == maxAttempts) {
+                    throw e;
+                }
+                backoff(attempt);
+            }
+        }
+
+        // 적응형: 재시도를 다 써도 실패하면 비관적 락으로 마무리
+        runPessimistic(accountIds, action);
+    }
+
+    private ConflictRateTracker.Mode resolve(LockStrategy strategy, List<Long> accountIds) {
+        return switch (strategy) {
+            case OPTIMISTIC -> ConflictRateTracker.Mode.OPTIMISTIC;
+            case PESSIMISTIC -> ConflictRateTracker.Mode.PESSIMISTIC;
+            case ADAPTIVE -> accountIds.stream()
+                    .anyMatch(id -> conflictRateTracker.modeFor(id) == ConflictRateTracker.Mode.PESSIMISTIC)
+                    ? ConflictRateTracker.Mode.PESSIMISTIC
+                    : ConflictRateTracker.Mode.OPTIMISTIC;
+        };
+    }
+
+    private void runOptimistic(List<Long> accountIds, Consumer<List<Account>> action) {
+        // 커밋 시 UPDATE ... WHERE version = ? 실패하면 OptimisticLockingFailureException
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Account> accounts = accountIds.stream()
+                    .map(id -> accountRepository.findById(id)
+                            .orElseThrow(() -> new IllegalArgumentException("계좌를 찾을 수 없음: " + id)))
+                    .toList();
+            action.accept(accounts);
+        });
+    }
+
+    private void runPessimistic(List<Long> accountIds, Consumer<List<Account>> action) {
+        long thresholdNanos = properties.getLockWaitThresholdMillis() * 1_000_000L;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Account> locked = new HashMap<>();
+            // 데드락 방지: 항상 id 오름차순으로 락
+            for (Long id : accountIds.stream().sorted().toList()) {
+                long start = System.nanoTime();
+                Account account = accountRepository.findByIdWithLock(id)
+                        .orElseThrow(() -> new IllegalArgumentException("계좌를 찾을 수 없음: " + id));
+                long waitNanos = System.nanoTime() - start;
+                conflictRateTracker.record(id, waitNanos >= thresholdNanos);
+                hotAccountSampler.recordLockWait(id, waitNanos);
+                locked.put(id, account);
+            }
+            action.accept(accountIds.stream().map(locked::get).toList());
+        });
+    }
+
+    // 계좌에서 돈이 나가는 구간은 출금 한도에 포함 (트랜잭션이 롤백되면 되돌림)
+    private void limitDebit(Long accountId, BigDecimal amount) {
+        WithdrawalLimiter limiter = withdrawalLimiter.getIfAvailable();
+        if (limiter != null) {
+            limiter.acquireInTransaction(accountId, amount);
+        }
+    }
+
+    private void recordConflict(List<Long> accountIds, OptimisticLockingFailureException e) {
+        // 어느 계좌에서 충돌했는지 알 수 있으면 그 계좌만 기록
+        if (e instanceof ObjectOptimisticLockingFailureException ex && ex.getIdentifier() instanceof Long id
+                && accountIds.contains(id)) {
+            recordAttempt(id, true);
+            return;
+        }
+        accountIds.forEach(id -> recordAttempt(id, true));
+    }
+
+    private void recordAttempt(Long accountId, boolean conflict) {
+        conflictRateTracker.record(accountId, conflict);
+        hotAccountSampler.recordAttempt(accountId, conflict);
+    }
+
+    private void backoff(int attempt) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(1, 5 * attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재시도 대기 중 인터럽트", e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.test.learningtx.service;
+
+import com.test.learningtx.dto.IdempotentResult;
+import com.test.learningtx.idempotency.IdempotencyExecutor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 멱등성 키를 받는 이체/출금
+ *
+ * 클라이언트가 타임아웃 후 같은 키로 재시도해도 한 번만 처리되고, 재시도에는 처음 결과가 그대로 반환된다.
+ * 실제 업무 로직은 AccountService.transfer / OptimisticLockService.withdrawOnce 를 그대로 사용
+ * (IdempotencyExecutor가 연 트랜잭션에 참여)
+ *
+ * 출금의 낙관적 락 충돌 재시도는 IdempotencyExecutor 바깥에서
+ *  - 안에서 재시도하면 첫 충돌에 그 트랜잭션이 rollback-only가 되어 재시도가 성공해도 커밋 시 UnexpectedRollbackException
+ *  - 시도마다 새 트랜잭션 = 출금과 키 INSERT가 함께 커밋되거나 함께 롤백 (재시도 사이에 다른 요청이 같은 키를 커밋했으면 replay)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotentAccountService {
+
+    public static final String TRANSFER = "TRANSFER";
+    public static final String WITHDRAW = "WITHDRAW";
+
+    private static final int MAX_WITHDRAW_ATTEMPTS = 5;
+
+    private final AccountService accountService;
+    private final OptimisticLockService optimisticLockService;
+    private final IdempotencyExecutor idempotencyExecutor;
+
+    public IdempotentResult transfer(String idempotencyKey, Long fromId, Long toId, BigDecimal amount) {
+        String fingerprint = fromId + ":" + toId + ":" + amount.stripTrailingZeros().toPlainString();
+        return idempotencyExecutor.execute(idempotencyKey, TRANSFER, fingerprint, () -> {
+            accountService.transfer(fromId, toId, amount);
+            // 같은 트랜잭션의 1차 캐시에서 조회 (추가 SQL 없음)
+            return accountService.getAccountById(fromId).getBalance();
+        });
+    }
+
+    public IdempotentResult withdraw(String idempotencyKey, Long accountId, BigDecimal amount) {
+        String fingerprint = accountId + ":" + amount.stripTrailingZeros().toPlainString();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return idempotencyExecutor.execute(idempotencyKey, WITHDRAW, fingerprint,
+                        () -> optimisticLockService.withdrawOnce(accountId, amount).getBalance());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_WITHDRAW_ATTEMPTS) {
+                    log.error("❌ 최대 재시도 횟수 초과! 출금 실패: key={}", idempotencyKey);
+                    throw new RuntimeException("출금 처리 실패: 너무 많은 동시 접근", e);
+                }
+                log.debug("낙관적 락 충돌, 새 트랜잭션으로 재시도 {}/{}: key={}", attempt, MAX_WITHDRAW_ATTEMPTS, idempotencyKey);
+                backoff();
+            }
+        }
+    }
+
+    // OptimisticLockService와 같은 랜덤 지연 (100~399ms)
+    private static void backoff() {
+        try {
+            Thread.sleep(100 + ThreadLocalRandom.current().nextInt(300));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("대기 중 인터럽트: " + Thread.currentThread().getName(), e);
+        }
+    }
+}
@@ -42,14 +42,14 @@ public class OptimisticLockService {
         while (attempt < maxRetries) {
             try {
                 attempt++;
-                log.info("🔄 출금 시도 {}/{}: 계좌={}, 금액={}", attempt, maxRetries, accountId, amount);
+                log.debug("🔄 출금 시도 {}/{}: 계좌={}, 금액={}", attempt, maxRetries, accountId, amount);
 
                 // 1. 계좌 조회 (version 포함)
                 OptimisticAccount account = repository.findById(accountId)
                         .orElseThrow(() -> new IllegalArgumentException("계좌 없음: " + accountId));
 
                 entityManager.refresh(account);  // 강제로 최신 DB 데이터 조회 -> 1차 캐싱으로 인한 재시도 실패 방지
-                log.info("📖 조회된 계좌: 잔액={}, version={}", account.getBalance(), account.getVersion());
+                log.debug("📖 조회된 계좌: 잔액={}, version={}", account.getBalance(), account.getVersion());
 
                 // 2. 비즈니스 로직 실행
                 account.withdraw(amount);
@@ -57,7 +57,7 @@ public class OptimisticLockService {
                 // 3. 저장 (여기서 OptimisticLockingFailureException 발생 가능)
                 OptimisticAccount saved = repository.saveAndFlush(account);
 
-                log.info("✅ 출금 성공! 최종 잔액={}, version={}", saved.getBalance(), saved.getVersion());
+                log.debug("✅ 출금 성공! 최종 잔액={}, version={}", saved.getBalance(), saved.getVersion());
                 return; // 성공하면 메서드 종료
 
             } catch (OptimisticLockingFailureException e) {
@@ -73,7 +73,7 @@ public class OptimisticLockService {
                 // 🔑 핵심 2: 재시도할 때도 랜덤 지연으로 분산
                 try {
                     int retryDelay = 100 + new Random().nextInt(300); // 100~399ms 랜덤
-                    System.out.printf("⏰ [%s] %dms 랜덤 대기%n", Thread.currentThread().getName(), retryDelay);
+                    log.debug("⏰ {}ms 랜덤 대기", retryDelay);
                     Thread.sleep(retryDelay);
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
@@ -83,12 +83,26 @@ public class OptimisticLockService {
         }
     }
 
+    /**
+     * 한 번만 시도하는 출금 (호출자 트랜잭션에 참여, 충돌은 saveAndFlush에서 바로 예외)
+     *
+     * 재시도는 호출자가 트랜잭션 밖에서: 같은 트랜잭션 안에서 재시도하면 첫 충돌에 rollback-only가 되어
+     * 결국 UnexpectedRollbackException으로 끝남 (IdempotentAccountService.withdraw 참고)
+     */
+    @Transactional
+    public OptimisticAccount withdrawOnce(Long accountId, BigDecimal amount) {
+        OptimisticAccount account = repository.findById(accountId)
+                .orElseThrow(() -> new IllegalArgumentException("계좌 없음: " + accountId));
+        account.withdraw(amount);
+        return repository.saveAndFlush(account);
+    }
+
     /**
      * 재시도 없는 출금 (비교용)
      */
     @Transactional
     public void withdrawNoRetry(Long accountId, BigDecimal amount) {
-        log.info("🚫 재시도 없는 출금: 계좌={}, 금액={}", accountId, amount);
+        log.debug("🚫 재시도 없는 출금: 계좌={}, 금액={}", accountId, amount);
 
         OptimisticAccount account = repository.findById(accountId)
                 .orElseThrow(() -> new IllegalArgumentException("계좌 없음: " + accountId));
@@ -96,6 +110,6 @@ public class OptimisticLockService {
         account.withdraw(amount);
         repository.save(account); // 실패하면 그냥 예외 발생
 
-        log.info("✅ 출금 성공 (재시도 없음)");
+        log.debug("✅ 출금 성공 (재시도 없음)");
     }
 }
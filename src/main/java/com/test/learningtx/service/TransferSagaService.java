@@ -0,0 +1,375 @@
+package com.test.learningtx.service;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.entity.SagaState;
+import com.test.learningtx.entity.TransferSaga;
+import com.test.learningtx.limit.WithdrawalLimiter;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.repository.TransferSagaRepository;
+import com.test.learningtx.saga.PartitionedWorkers;
+import com.test.learningtx.saga.SagaProperties;
+import com.test.learningtx.saga.SagaResult;
+import com.test.learningtx.support.TxTimestamp;
+import com.test.learningtx.txlog.TxLogStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 사가 방식 이체 (출금 단계 -> 입금 단계)
+ *
+ * AccountService.transfer는 한 트랜잭션에서 두 계좌 행을 함께 잠근다.
+ *  - 핫 계좌가 끼면 다른 계좌까지 핫 계좌 락 대기에 묶임
+ *
+ * 사가 방식
+ *  1. 출금 단계: 출금 계좌 파티션 워커에서 (출금 + 상태 DEBITED) 한 트랜잭션
+ *  2. 입금 단계: 입금 계좌 파티션 워커에서 (입금 + 상태 COMPLETED) 한 트랜잭션
+ *  3. 입금 실패 시 보상: 출금 계좌 파티션에서 (환불 + 상태 COMPENSATED)
+ *
+ *  - 어떤 트랜잭션도 계좌 행을 두 개 이상 건드리지 않음
+ *  - 한 계좌는 항상 같은 워커가 순서대로 처리 -> 계좌 행 락 경쟁 없음, 파티션 수만큼 병렬
+ *  - 출금과 입금 사이에는 돈이 "이동 중" 상태 (잠깐 동안 두 계좌 합계가 줄어 보임)
+ *
+ * 각 단계는 상태를 확인하고 실행하므로 같은 단계를 다시 실행해도 안전 (recover, sweep)
+ * 감사 로그(SAGA_TRANSFER)는 단계마다 그 단계의 계좌 한 건씩 같은 트랜잭션에서 기록
+ *  - 출금 -금액, 입금 +금액, 보상 +금액 -> 끝난 사가의 합계는 0, 이동 중인 사가만 -금액
+ *
+ * 실패 구분
+ *  - 일시적 실패(TransientDataAccessException: version 충돌, 락 타임아웃): 지터 백오프 후 같은 단계 재시도
+ *  - 업무 실패(잔액 부족, 계좌 없음, 출금 한도 초과): 출금 단계면 FAILED, 입금 단계면 보상
+ *  - 출금 한도는 출금 단계 트랜잭션 안에서 차감, 보상으로 환불해도 되돌리지 않음 (재구성 결과와 같게)
+ *  - 입금/보상 단계가 재시도를 다 쓰면 상태를 그대로 두고 멈춤(parked) -> 주기 sweep이 stuck-after-millis 뒤에 다시 실행
+ *    > 호출자 future는 사가가 끝날 때까지 기다림 (DEBITED 상태로 완료하지 않음, inFlight 허가도 그때까지 유지)
+ */
+@Slf4j
+@Service
+public class TransferSagaService {
+
+    private static final EnumSet<SagaState> IN_PROGRESS =
+            EnumSet.of(SagaState.PENDING, SagaState.DEBITED, SagaState.COMPENSATING);
+
+    private final TransferSagaRepository sagaRepository;
+    private final AccountRepository accountRepository;
+    private final PartitionedWorkers workers;
+    private final TransactionTemplate transactionTemplate;
+    private final SagaProperties properties;
+    private final TxLogStore txLogStore;
+    private final ObjectProvider<WithdrawalLimiter> withdrawalLimiter;    // learning-tx.withdrawal-limit.enabled=true 일 때만 존재
+
+    private final Map<Long, CompletableFuture<SagaResult>> waiting = new ConcurrentHashMap<>();
+    // 이 인스턴스에서 워커 큐에 있거나 실행 중인 사가 (sweep이 같은 사가를 두 번 넣지 않도록)
+    private final Set<Long> active = ConcurrentHashMap.newKeySet();
+    private final Semaphore inFlight;
+
+    public TransferSagaService(TransferSagaRepository sagaRepository, AccountRepository accountRepository,
+                               PartitionedWorkers workers, TransactionTemplate transactionTemplate,
+                               SagaProperties properties, TxLogStore txLogStore,
+                               ObjectProvider<WithdrawalLimiter> withdrawalLimiter) {
+        this.sagaRepository = sagaRepository;
+        this.accountRepository = accountRepository;
+        this.workers = workers;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.txLogStore = txLogStore;
+        this.withdrawalLimiter = withdrawalLimiter;
+        this.inFlight = new Semaphore(properties.getMaxInFlight());
+    }
+
+    /**
+     * 사가 시작: 상태 PENDING으로 저장 후 출금 단계를 출금 계좌 파티션에 넘김
+     * 반환된 future는 사가가 COMPLETED / FAILED / COMPENSATED 가 되면 완료
+     */
+    public CompletableFuture<SagaResult> transfer(Long fromId, Long toId, BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("이체 금액은 0보다 커야 합니다.");
+        }
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("같은 계좌로 이체할 수 없습니다: " + fromId);
+        }
+
+        inFlight.acquireUninterruptibly();
+        TransferSaga saga;
+        try {
+            saga = transactionTemplate.execute(status -> sagaRepository.save(new TransferSaga(fromId, toId, amount)));
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+
+        CompletableFuture<SagaResult> future = new CompletableFuture<>();
+        waiting.put(saga.getId(), future);
+        active.add(saga.getId());
+        dispatch(saga.getId(), fromId, toId, SagaState.PENDING, 1);
+        return future;
+    }
+
+    public TransferSaga getSaga(Long sagaId) {
+        return sagaRepository.findById(sagaId)
+                .orElseThrow(() -> new IllegalArgumentException("사가를 찾을 수 없음: " + sagaId));
+    }
+
+    /**
+     * 재시작 시 진행 중이던 사가를 이어서 실행
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        int resumed = resume(sagaRepository.findByStateInOrderById(IN_PROGRESS));
+        if (resumed > 0) {
+            log.info("진행 중이던 사가 {}건 재개", resumed);
+        }
+    }
+
+    /**
+     * 재시도를 다 써서 멈춘 사가(또는 다른 인스턴스가 멈춘 사가)를 주기적으로 다시 실행
+     *
+     * stuck-after-millis 동안 상태가 바뀌지 않은 진행 중 사가만 대상, 이 인스턴스가 이미 처리 중인 사가는 건너뜀
+     * 다른 인스턴스와 겹쳐 실행돼도 단계마다 상태 확인 + 사가 @Version으로 한 번만 반영
+     *
+     * @return 다시 넣은 사가 수
+     */
+    @Scheduled(fixedDelayString = "${learning-tx.saga.recovery-interval-millis:30000}",
+            initialDelayString = "${learning-tx.saga.recovery-interval-millis:30000}")
+    public int sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(properties.getStuckAfterMillis() * 1_000_000L);
+        int resumed = resume(sagaRepository.findByStateInAndUpdatedAtBeforeOrderById(IN_PROGRESS, cutoff));
+        if (resumed > 0) {
+            log.warn("멈춘 사가 {}건 재개 (stuck-after-millis={})", resumed, properties.getStuckAfterMillis());
+        }
+        return resumed;
+    }
+
+    private int resume(List<TransferSaga> sagas) {
+        int resumed = 0;
+        for (TransferSaga saga : sagas) {
+            if (active.add(saga.getId())) {
+                dispatch(saga.getId(), saga.getFromId(), saga.getToId(), saga.getState(), 1);
+                resumed++;
+            }
+        }
+        return resumed;
+    }
+
+    private void dispatch(Long sagaId, Long fromId, Long toId, SagaState state, int attempt) {
+        dispatchAfter(sagaId, fromId, toId, state, attempt, 0);
+    }
+
+    // 일시적 실패 재시도: 워커에서 sleep하지 않고 지연 후 다시 큐에 넣음
+    private void retryLater(Long sagaId, Long fromId, Long toId, SagaState state, int attempt) {
+        dispatchAfter(sagaId, fromId, toId, state, attempt, backoffMillis(attempt));
+    }
+
+    private void dispatchAfter(Long sagaId, Long fromId, Long toId, SagaState state, int attempt, long delayMillis) {
+        if (!IN_PROGRESS.contains(state)) {
+            finish(sagaId);
+            return;
+        }
+        long partitionKey = state == SagaState.DEBITED ? toId : fromId;
+        workers.submitAfter(partitionKey, delayMillis, () -> runStage(sagaId, fromId, toId, state, attempt));
+    }
+
+    /**
+     * 단계 실행 + 단계 밖으로 나온 예외 처리
+     *
+     * 업무 트랜잭션의 실패는 각 단계가 처리하고, 여기로 오는 것은 실패 상태 저장(fail / startCompensation)이 실패한 경우
+     *  - 재시도 횟수가 남았으면 같은 단계를 다시 실행 (단계마다 상태를 확인하므로 다시 실행해도 안전)
+     *  - 다 쓰면 상태를 그대로 두고(sweep에서 재개) 호출자 future를 예외로 완료
+     * 어느 쪽이든 예외가 워커 루프로 새어 나가 future와 inFlight 허가가 남는 일은 없음
+     */
+    private void runStage(Long sagaId, Long fromId, Long toId, SagaState state, int attempt) {
+        try {
+            switch (state) {
+                case PENDING -> debit(sagaId, fromId, toId, attempt);
+                case DEBITED -> credit(sagaId, fromId, toId, attempt);
+                case COMPENSATING -> compensate(sagaId, fromId, toId, attempt);
+                default -> finish(sagaId);
+            }
+        } catch (RuntimeException e) {
+            if (attempt < properties.getMaxStageRetries()) {
+                log.warn("사가 상태 저장 실패, 재시도 {}/{}: sagaId={}, 단계={}", attempt, properties.getMaxStageRetries(), sagaId, state, e);
+                retryLater(sagaId, fromId, toId, state, attempt + 1);
+                return;
+            }
+            log.error("사가 상태 저장 실패, {} 상태로 두고 sweep에서 재개: sagaId={}", state, sagaId, e);
+            abort(sagaId, e);
+        }
+    }
+
+    // 1. 출금 단계 (출금 계좌 파티션)
+    private void debit(Long sagaId, Long fromId, Long toId, int attempt) {
+        SagaState next;
+        try {
+            next = transactionTemplate.execute(status -> {
+                TransferSaga saga = getSaga(sagaId);
+                if (saga.getState() != SagaState.PENDING) {
+                    return saga.getState();     // 이미 처리된 단계
+                }
+                limitDebit(fromId, saga.getAmount());     // 한도 초과는 업무 실패 -> FAILED
+                Account from = findAccount(fromId);
+                from.withdraw(saga.getAmount());
+                txLogStore.append(AccountService.SAGA_TRANSFER, fromId, "사가 " + sagaId + " 출금",
+                        saga.getAmount().negate(), TxTimestamp.now());
+                saga.markDebited();
+                return saga.getState();
+            });
+        } catch (TransientDataAccessException e) {
+            if (attempt < properties.getMaxStageRetries()) {
+                retryLater(sagaId, fromId, toId, SagaState.PENDING, attempt + 1);
+                return;
+            }
+            next = fail(sagaId, e.getMessage());     // 아직 돈이 움직이지 않았으므로 실패로 끝내도 됨
+        } catch (RuntimeException e) {
+            next = fail(sagaId, e.getMessage());
+        }
+        dispatch(sagaId, fromId, toId, next, 1);
+    }
+
+    // 2. 입금 단계 (입금 계좌 파티션)
+    private void credit(Long sagaId, Long fromId, Long toId, int attempt) {
+        SagaState next;
+        try {
+            next = transactionTemplate.execute(status -> {
+                TransferSaga saga = getSaga(sagaId);
+                if (saga.getState() != SagaState.DEBITED) {
+                    return saga.getState();
+                }
+                Account to = findAccount(toId);
+                to.deposit(saga.getAmount());
+                txLogStore.append(AccountService.SAGA_TRANSFER, toId, "사가 " + sagaId + " 입금",
+                        saga.getAmount(), TxTimestamp.now());
+                saga.markCompleted();
+                return saga.getState();
+            });
+        } catch (TransientDataAccessException e) {
+            // 일시적 실패는 보상 사유가 아님 (입금 계좌에는 문제가 없음) -> 백오프 후 재시도
+            if (attempt < properties.getMaxStageRetries()) {
+                retryLater(sagaId, fromId, toId, SagaState.DEBITED, attempt + 1);
+                return;
+            }
+            // 돈은 이동 중 -> 호출자에게 DEBITED로 응답하지 않고 멈춰 두었다가 sweep에서 다시 입금
+            log.error("사가 입금 재시도 소진, DEBITED 상태로 두고 sweep에서 재개: sagaId={}", sagaId, e);
+            park(sagaId);
+            return;
+        } catch (RuntimeException e) {
+            // 업무 실패(입금 계좌 없음, 금액 오류 등)만 보상
+            next = startCompensation(sagaId, e.getMessage());
+        }
+        dispatch(sagaId, fromId, toId, next, 1);
+    }
+
+    // 3. 보상 단계 (출금 계좌 파티션): 출금한 금액 환불
+    private void compensate(Long sagaId, Long fromId, Long toId, int attempt) {
+        SagaState next;
+        try {
+            next = transactionTemplate.execute(status -> {
+                TransferSaga saga = getSaga(sagaId);
+                if (saga.getState() != SagaState.COMPENSATING) {
+                    return saga.getState();
+                }
+                Account from = findAccount(fromId);
+                from.deposit(saga.getAmount());
+                txLogStore.append(AccountService.SAGA_TRANSFER, fromId, "사가 " + sagaId + " 보상",
+                        saga.getAmount(), TxTimestamp.now());
+                saga.markCompensated();
+                return saga.getState();
+            });
+        } catch (RuntimeException e) {
+            if (attempt < properties.getMaxStageRetries()) {
+                retryLater(sagaId, fromId, toId, SagaState.COMPENSATING, attempt + 1);
+                return;
+            }
+            // COMPENSATING 상태로 남겨 두고 sweep에서 다시 시도
+            log.error("사가 보상 실패, sweep에서 재시도: sagaId={}", sagaId, e);
+            park(sagaId);
+            return;
+        }
+        dispatch(sagaId, fromId, toId, next, 1);
+    }
+
+    // 계좌에서 돈이 나가는 구간은 출금 한도에 포함 (트랜잭션이 롤백되면 되돌림)
+    private void limitDebit(Long accountId, BigDecimal amount) {
+        WithdrawalLimiter limiter = withdrawalLimiter.getIfAvailable();
+        if (limiter != null) {
+            limiter.acquireInTransaction(accountId, amount);
+        }
+    }
+
+    private SagaState fail(Long sagaId, String reason) {
+        log.warn("사가 출금 실패: sagaId={}, 사유={}", sagaId, reason);
+        return transactionTemplate.execute(status -> {
+            TransferSaga saga = getSaga(sagaId);
+            saga.markFailed(reason);
+            return saga.getState();
+        });
+    }
+
+    private SagaState startCompensation(Long sagaId, String reason) {
+        log.warn("사가 입금 실패, 보상 시작: sagaId={}, 사유={}", sagaId, reason);
+        return transactionTemplate.execute(status -> {
+            TransferSaga saga = getSaga(sagaId);
+            saga.markCompensating(reason);
+            return saga.getState();
+        });
+    }
+
+    // 워커에서 내려놓음: 기다리는 호출자는 그대로 두고 sweep이 다시 넣을 수 있게만 함
+    private void park(Long sagaId) {
+        active.remove(sagaId);
+    }
+
+    /**
+     * 기다리는 호출자에게 현재 상태로 응답 (허가 반환은 결과 조회가 실패해도 반드시)
+     */
+    private void finish(Long sagaId) {
+        active.remove(sagaId);
+        CompletableFuture<SagaResult> future = waiting.remove(sagaId);
+        if (future == null) {
+            return;     // recover/sweep으로 재개된 사가 (기다리는 호출자 없음)
+        }
+        try {
+            TransferSaga saga = getSaga(sagaId);
+            future.complete(new SagaResult(sagaId, saga.getState(), saga.getFailureReason()));
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private void abort(Long sagaId, Throwable cause) {
+        active.remove(sagaId);
+        CompletableFuture<SagaResult> future = waiting.remove(sagaId);
+        if (future == null) {
+            return;
+        }
+        inFlight.release();
+        future.completeExceptionally(cause);
+    }
+
+    // 지터 있는 지수 백오프: [base x 2^(attempt-2), base x 2^(attempt-1)] 구간에서 무작위
+    private long backoffMillis(int attempt) {
+        long ceiling = properties.getRetryBackoffMillis() << Math.min(Math.max(attempt - 1, 0), 10);
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(ceiling - half + 1);
+    }
+
+    private Account findAccount(Long accountId) {
+        return accountRepository.findById(accountId)
+                .orElseThrow(() -> new IllegalArgumentException("계좌를 찾을 수 없음: " + accountId));
+    }
+}
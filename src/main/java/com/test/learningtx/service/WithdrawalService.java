@@ -0,0 +1,42 @@
+package com.test.learningtx.service;
+
+import com.test.learningtx.limit.WithdrawalLimiter;
+import com.test.learningtx.limit.WithdrawalPermit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+
+/**
+ * 한도 확인 후 출금
+ *
+ * 1. WithdrawalLimiter로 1분/일 한도 확인 (메모리, DB 작업 전) -> 넘으면 트랜잭션을 열지 않고 거절
+ * 2. AccountService.withdraw (출금 + 감사 로그)
+ * 3. 출금이 실패하면 한도에서 차감한 금액을 되돌림
+ */
+@Service
+@RequiredArgsConstructor
+public class WithdrawalService {
+
+    private final AccountService accountService;
+    private final ObjectProvider<WithdrawalLimiter> withdrawalLimiter;    // learning-tx.withdrawal-limit.enabled=true 일 때만 존재
+
+    /**
+     * @return 출금 후 잔액
+     */
+    public BigDecimal withdraw(Long accountId, BigDecimal amount) {
+        WithdrawalLimiter limiter = withdrawalLimiter.getIfAvailable();
+        if (limiter == null) {
+            return accountService.withdraw(accountId, amount).getBalance();
+        }
+
+        WithdrawalPermit permit = limiter.acquire(accountId, amount);
+        try {
+            return accountService.withdraw(accountId, amount).getBalance();
+        } catch (RuntimeException e) {
+            limiter.release(permit);
+            throw e;
+        }
+    }
+}
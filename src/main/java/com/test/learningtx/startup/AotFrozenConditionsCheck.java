@@ -0,0 +1,84 @@
+package com.test.learningtx.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * AOT 실행 시 빌드 때 확정된 조건과 다른 설정 경고
+ *
+ * processAot는 fast-startup 프로필로 @ConditionalOnProperty / @ConditionalOnExpression / @Profile을 평가해
+ * 등록할 빈 목록을 코드로 고정한다. -Dspring.aot.enabled=true로 실행하면 아래 설정을 바꿔도 빈이 생기거나 사라지지 않음
+ *  -> application-fast-startup.yml에 고정한 값과 실행 시 값이 다르면 기동 시 경고
+ *
+ * AOT 없이 실행하면(기본) 조건을 매번 평가하므로 확인하지 않는다.
+ */
+@Slf4j
+public class AotFrozenConditionsCheck {
+
+    static final String BUILD_PROFILE_RESOURCE = "application-fast-startup.yml";
+
+    // 빈 등록 여부를 정하는 설정 (조건이 붙은 설정 클래스/빈)
+    static final List<String> FROZEN_PROPERTIES = List.of(
+            "learning-tx.trace.enabled",
+            "learning-tx.withdrawal-limit.enabled",
+            "learning-tx.account-index.enabled",
+            "learning-tx.balance-history.enabled",
+            "learning-tx.outbox.enabled",
+            "learning-tx.outbox.relay-enabled",
+            "learning-tx.lock-diagnostics.enabled",
+            "learning-tx.pool.instrumentation.enabled");
+
+    // 빌드 시 꺼져 있던 프로필 (켜도 @Profile 빈이 생기지 않음)
+    static final List<String> FROZEN_INACTIVE_PROFILES = List.of("l2cache");
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check(ApplicationReadyEvent event) {
+        if (!AotDetector.useGeneratedArtifacts()) {
+            return;
+        }
+        List<String> differences = differences(event.getApplicationContext().getEnvironment(), loadBuildProfile());
+        if (!differences.isEmpty()) {
+            log.warn("⚠️ AOT 빌드 시점과 다른 설정은 적용되지 않음 (AOT 없이 실행하거나 다시 빌드): {}", differences);
+        }
+    }
+
+    static List<String> differences(Environment environment, PropertySource<?> buildProfile) {
+        List<String> differences = new ArrayList<>();
+        for (String property : FROZEN_PROPERTIES) {
+            Object built = buildProfile.getProperty(property);
+            String runtime = environment.getProperty(property);
+            if (built != null && !Objects.equals(String.valueOf(built), runtime)) {
+                differences.add(property + "=" + runtime + " (빌드 시 " + built + ")");
+            }
+        }
+        for (String profile : FROZEN_INACTIVE_PROFILES) {
+            if (environment.acceptsProfiles(Profiles.of(profile))) {
+                differences.add("프로필 " + profile + " (빌드 시 비활성)");
+            }
+        }
+        return differences;
+    }
+
+    static PropertySource<?> loadBuildProfile() {
+        try {
+            return new YamlPropertySourceLoader()
+                    .load("aot-build-profile", new ClassPathResource(BUILD_PROFILE_RESOURCE))
+                    .get(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(BUILD_PROFILE_RESOURCE + " 읽기 실패", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.test.learningtx.startup;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * 지연 초기화(spring.main.lazy-initialization=true)에서도 기동 시 바로 만들어야 하는 빈
+ *
+ * - @Scheduled 메서드가 있는 빈: 빈이 만들어질 때 스케줄이 등록됨 -> 지연되면 아무도 주입받지 않는 relay/집계/정리 작업이 영영 안 돎
+ * - Hibernate 이벤트 리스너 빈: @Bean 메서드에서 Hibernate에 등록됨 -> 지연되면 아웃박스/인메모리 인덱스가 변경을 놓침
+ */
+public class EagerBeansExcludeFilter implements LazyInitializationExcludeFilter {
+
+    private static final String HIBERNATE_EVENT_PACKAGE = "org.hibernate.event.spi";
+
+    @Override
+    public boolean isExcluded(String beanName, BeanDefinition beanDefinition, Class<?> beanType) {
+        if (beanType == null) {
+            return false;
+        }
+        return hasScheduledMethods(beanType) || isHibernateEventListener(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Scheduled>) (Method method) ->
+                        AnnotatedElementUtils.findMergedAnnotation(method, Scheduled.class)).isEmpty();
+    }
+
+    private static boolean isHibernateEventListener(Class<?> beanType) {
+        return ClassUtils.getAllInterfacesForClassAsSet(beanType).stream()
+                .anyMatch(type -> type.getPackageName().equals(HIBERNATE_EVENT_PACKAGE));
+    }
+}
@@ -0,0 +1,54 @@
+package com.test.learningtx.startup;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+
+/**
+ * 첫 이체 성공까지 걸린 시간 측정 (JVM 시작 기준)
+ *
+ * ApplicationReadyEvent 직후 계좌 두 개를 만들고 AccountService.transfer를 실행
+ *  - ready: JVM 시작 ~ 컨텍스트 준비 완료
+ *  - firstTransfer: JVM 시작 ~ 첫 이체 커밋 (지연 초기화로 미룬 빈 생성, 첫 쿼리 준비까지 포함)
+ * 로그 한 줄("STARTUP_PROBE ...")을 scripts/startup/measure-first-transfer.sh가 모아서 비교
+ *
+ * AOT는 빌드 시점에 조건(@ConditionalOn...)을 확정하므로 빈은 항상 등록하고 실행 여부만 설정으로 판단
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FirstTransferProbe {
+
+    private final AccountService accountService;
+    private final AccountRepository accountRepository;
+    private final StartupProbeProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void probe(ApplicationReadyEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        Long fromId = accountRepository.save(new Account("STARTUP_PROBE_FROM", BigDecimal.valueOf(1_000))).getId();
+        Long toId = accountRepository.save(new Account("STARTUP_PROBE_TO", BigDecimal.ZERO)).getId();
+        accountService.transfer(fromId, toId, BigDecimal.ONE);
+        long firstTransferMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        log.info("STARTUP_PROBE ready={}ms firstTransfer={}ms", readyMillis, firstTransferMillis);
+
+        if (properties.isExitAfterProbe()) {
+            System.exit(SpringApplication.exit(event.getApplicationContext(), () -> 0));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.test.learningtx.startup;
+
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StartupProbeProperties.class)
+public class StartupConfig {
+
+    // 지연 초기화 여부와 관계없이 등록 (꺼져 있으면 아무 영향 없음)
+    @Bean
+    public static LazyInitializationExcludeFilter eagerBeansExcludeFilter() {
+        return new EagerBeansExcludeFilter();
+    }
+
+    // AOT 실행 시에만 동작 (AotDetector), 빈은 항상 등록
+    @Bean
+    public AotFrozenConditionsCheck aotFrozenConditionsCheck() {
+        return new AotFrozenConditionsCheck();
+    }
+
+    @Bean
+    public FirstTransferProbe firstTransferProbe(AccountService accountService, AccountRepository accountRepository,
+                                                 StartupProbeProperties properties) {
+        return new FirstTransferProbe(accountService, accountRepository, properties);
+    }
+}
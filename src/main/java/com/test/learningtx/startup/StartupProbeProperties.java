@@ -0,0 +1,20 @@
+package com.test.learningtx.startup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 기동 시간 측정 설정 (learning-tx.startup-probe.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.startup-probe")
+public class StartupProbeProperties {
+
+    // 기동 직후 이체 한 번을 실행하고 JVM 시작부터의 시간을 로그로 남김
+    private boolean enabled = false;
+
+    // 측정 후 종료 (측정 스크립트에서 반복 실행용)
+    private boolean exitAfterProbe = false;
+}
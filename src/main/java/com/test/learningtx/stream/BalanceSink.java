@@ -0,0 +1,13 @@
+package com.test.learningtx.stream;
+
+import java.io.IOException;
+
+/**
+ * 구독자 한 명에게 잔액을 보내는 통로 (SSE에서는 SseEmitter)
+ * 예외를 던지면 구독이 종료된다.
+ */
+@FunctionalInterface
+public interface BalanceSink {
+
+    void send(BalanceUpdate update) throws IOException;
+}
@@ -0,0 +1,16 @@
+package com.test.learningtx.stream;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(BalanceStreamProperties.class)
+public class BalanceStreamConfig {
+
+    // BalanceChangeSubscriber 빈 -> 이 인스턴스의 OutboxFeed가 relay된 잔액 변경을 전달
+    @Bean
+    public BalanceStreamHub balanceStreamHub(BalanceStreamProperties properties) {
+        return new BalanceStreamHub(properties);
+    }
+}
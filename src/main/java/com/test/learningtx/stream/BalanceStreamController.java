@@ -0,0 +1,53 @@
+package com.test.learningtx.stream;
+
+import com.test.learningtx.service.AccountQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 잔액 변경 구독 (Server-Sent Events)
+ *
+ * GET /accounts/balance-stream?ids=1,2,3
+ *  - 구독 등록 직후 현재 잔액을 보내고, 이후 커밋된 변경을 "balance" 이벤트로 전송
+ *  - 매초 getAccountById를 폴링하는 대신 변경이 있을 때만 전송
+ */
+@RestController
+@RequiredArgsConstructor
+public class BalanceStreamController {
+
+    private final BalanceStreamHub balanceStreamHub;
+    private final AccountQueryService accountQueryService;
+    private final BalanceStreamProperties properties;
+
+    @GetMapping(value = "/accounts/balance-stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam("ids") List<Long> ids) {
+        Set<Long> accountIds = new LinkedHashSet<>(ids);
+        if (accountIds.isEmpty() || accountIds.size() > properties.getMaxAccountsPerSubscription()) {
+            throw new IllegalArgumentException("구독 계좌 수는 1~" + properties.getMaxAccountsPerSubscription() + "개여야 합니다.");
+        }
+
+        SseEmitter emitter = new SseEmitter(properties.getEmitterTimeout().toMillis());
+        BalanceStreamHub.Subscription subscription = balanceStreamHub.subscribe(accountIds,
+                update -> emitter.send(SseEmitter.event()
+                        .name("balance")
+                        .id(update.accountId() + ":" + update.version())
+                        .data(update, MediaType.APPLICATION_JSON)));
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        // 구독 등록 후에 스냅샷을 읽음: 그 사이 변경은 이미 구독으로 들어오고, 겹치는 값은 version 비교로 정리됨
+        subscription.offerSnapshot(accountQueryService.getAccounts(accountIds).stream()
+                .map(view -> new BalanceUpdate(view.id(), view.balance(), view.version()))
+                .toList());
+        return emitter;
+    }
+}
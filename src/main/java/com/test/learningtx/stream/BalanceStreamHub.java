@@ -0,0 +1,169 @@
+package com.test.learningtx.stream;
+
+import com.test.learningtx.outbox.BalanceChangeSubscriber;
+import com.test.learningtx.outbox.BalanceChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 잔액 변경 팬아웃 + 구독자별 합치기(coalescing)
+ *
+ * 1. 이 인스턴스의 OutboxFeed가 relay된 변경을 한 번 전달 (BalanceChangeSubscriber)
+ *    > relay 락을 쥔 인스턴스가 아니어도 모든 변경을 받음 -> SSE는 어느 인스턴스에 붙어도 됨
+ * 2. 계좌 id -> 구독자 목록에서 해당 계좌 구독자만 찾아 각자의 pending 맵에 최신 값만 기록
+ * 3. 구독자마다 coalesceMillis 후 pending을 비우며 전송 (한 구독자는 동시에 하나의 전송 작업만)
+ *
+ * - 느린 구독자: 전송 중에 들어온 변경은 pending에서 덮어써짐 -> 밀린 목록 없이 항상 최신 값만 받음
+ *   (구독자당 메모리 상한 = 구독한 계좌 수)
+ * - 계좌별 마지막 전송 version보다 새 값만 전송: 전송 후에 늦게 들어온 오래된 값(스냅샷 등)으로 되돌아가지 않음
+ * - 피드 스레드는 맵 갱신만 하고 전송을 기다리지 않음
+ */
+@Slf4j
+public class BalanceStreamHub implements BalanceChangeSubscriber, AutoCloseable {
+
+    private final Map<Long, Set<Subscription>> subscribersByAccount = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sender;
+    private final long coalesceMillis;
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+
+    public BalanceStreamHub(BalanceStreamProperties properties) {
+        this.coalesceMillis = properties.getCoalesceMillis();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.sender = Executors.newScheduledThreadPool(properties.getSenderThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "balance-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 구독 등록 후 현재 잔액은 {@link Subscription#offerSnapshot}으로 넘김
+     * (등록 전에 스냅샷을 읽으면 그 사이 변경이 유실됨)
+     */
+    public Subscription subscribe(Set<Long> accountIds, BalanceSink sink) {
+        Subscription subscription = new Subscription(Set.copyOf(accountIds), sink);
+        for (Long accountId : subscription.accountIds) {
+            // 추가도 compute 안에서: close()가 빈 목록을 지우는 것과 겹쳐도 구독이 유실되지 않음
+            subscribersByAccount.compute(accountId, (id, subscriptions) -> {
+                Set<Subscription> target = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+                target.add(subscription);
+                return target;
+            });
+        }
+        subscriptionCount.incrementAndGet();
+        return subscription;
+    }
+
+    @Override
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        Set<Subscription> subscriptions = subscribersByAccount.get(event.accountId());
+        if (subscriptions == null || subscriptions.isEmpty()) {
+            return;
+        }
+        BalanceUpdate update = new BalanceUpdate(event.accountId(), event.balance(), event.version());
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(update);
+        }
+    }
+
+    public int subscriptionCount() {
+        return subscriptionCount.get();
+    }
+
+    @Override
+    public void close() {
+        sender.shutdownNow();
+    }
+
+    public final class Subscription implements AutoCloseable {
+
+        private final Set<Long> accountIds;
+        private final BalanceSink sink;
+        private final Map<Long, BalanceUpdate> pending = new ConcurrentHashMap<>();
+        private final Map<Long, Long> lastSentVersion = new ConcurrentHashMap<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(Set<Long> accountIds, BalanceSink sink) {
+            this.accountIds = accountIds;
+            this.sink = sink;
+        }
+
+        /**
+         * 구독 직후 읽은 현재 잔액 (이미 들어온 변경보다 오래됐으면 version 비교로 버려짐)
+         */
+        public void offerSnapshot(Collection<BalanceUpdate> snapshot) {
+            snapshot.forEach(this::offer);
+        }
+
+        private void offer(BalanceUpdate update) {
+            if (closed.get()) {
+                return;
+            }
+            pending.merge(update.accountId(), update, (current, next) -> next.isNewerThan(current) ? next : current);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (scheduled.compareAndSet(false, true)) {
+                sender.schedule(this::drain, coalesceMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void drain() {
+            try {
+                for (Long accountId : pending.keySet()) {
+                    BalanceUpdate update = pending.remove(accountId);
+                    if (update != null && !closed.get() && isUnsent(update)) {
+                        sink.send(update);
+                        lastSentVersion.put(accountId, version(update));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("잔액 구독 전송 실패, 구독 종료: {}", e.getMessage());
+                close();
+            } finally {
+                scheduled.set(false);
+                // 전송 중에 들어온 변경이 있으면 다시 예약
+                if (!pending.isEmpty() && !closed.get()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private boolean isUnsent(BalanceUpdate update) {
+            Long sent = lastSentVersion.get(update.accountId());
+            return sent == null || version(update) > sent;
+        }
+
+        private static long version(BalanceUpdate update) {
+            return update.version() == null ? -1 : update.version();
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            for (Long accountId : accountIds) {
+                subscribersByAccount.computeIfPresent(accountId, (id, subscriptions) -> {
+                    subscriptions.remove(this);
+                    return subscriptions.isEmpty() ? null : subscriptions;
+                });
+            }
+            pending.clear();
+            lastSentVersion.clear();
+            subscriptionCount.decrementAndGet();
+        }
+    }
+}
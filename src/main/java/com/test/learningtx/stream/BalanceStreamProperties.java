@@ -0,0 +1,28 @@
+package com.test.learningtx.stream;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 잔액 변경 구독 설정 (learning-tx.balance-stream.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.balance-stream")
+public class BalanceStreamProperties {
+
+    // 구독자별 전송 간격: 이 시간 동안 같은 계좌의 변경은 마지막 값 하나로 합쳐짐
+    private long coalesceMillis = 100;
+
+    // 전송 스레드 수 (구독자 한 명은 동시에 한 스레드만 사용)
+    private int senderThreads = 4;
+
+    // 구독 하나에 넣을 수 있는 계좌 수
+    private int maxAccountsPerSubscription = 1_000;
+
+    // SSE 연결 유지 시간 (지나면 클라이언트가 다시 연결)
+    private Duration emitterTimeout = Duration.ofMinutes(30);
+}
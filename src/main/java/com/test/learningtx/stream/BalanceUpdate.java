@@ -0,0 +1,16 @@
+package com.test.learningtx.stream;
+
+import java.math.BigDecimal;
+
+/**
+ * 구독자에게 보내는 잔액 (SSE data)
+ * version이 큰 값이 최신 -> 합칠 때 version으로 비교
+ */
+public record BalanceUpdate(Long accountId, BigDecimal balance, Long version) {
+
+    boolean isNewerThan(BalanceUpdate other) {
+        long mine = version == null ? -1 : version;
+        long theirs = other.version == null ? -1 : other.version;
+        return mine >= theirs;
+    }
+}
@@ -0,0 +1,25 @@
+package com.test.learningtx.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+
+/**
+ * 연결된 DB 종류 (DB 전용 SQL 분기용)
+ */
+public enum DatabasePlatform {
+    H2,
+    POSTGRESQL,
+    OTHER;
+
+    public static DatabasePlatform detect(JdbcTemplate jdbcTemplate) {
+        String product = jdbcTemplate.execute((Connection connection) -> connection.getMetaData().getDatabaseProductName());
+        if ("H2".equalsIgnoreCase(product)) {
+            return H2;
+        }
+        if ("PostgreSQL".equalsIgnoreCase(product)) {
+            return POSTGRESQL;
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,25 @@
+package com.test.learningtx.support;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 문자열 키용 64bit 해시 (인메모리 자료구조 공용)
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    // FNV-1a 64bit + 최종 믹싱 (하위 비트만 써도 고르게 분포하도록)
+    public static long hash64(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,38 @@
+package com.test.learningtx.support;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이름 있는 체크포인트
+ *
+ * 서비스 메서드가 "다른 트랜잭션이 끼어들 수 있는 지점"에서 reach(name)를 호출한다.
+ *  - 운영: 등록된 훅이 없으므로 바로 반환 (빈 맵 확인 한 번)
+ *  - 테스트: 훅을 등록해서 해당 지점에서 스레드를 멈추고, 다른 트랜잭션 실행 후 재개
+ *    > Thread.sleep으로 타이밍을 맞추지 않아도 항상 같은 순서로 실행됨
+ */
+@Component
+public class TxCheckpoints {
+
+    private final Map<String, Runnable> hooks = new ConcurrentHashMap<>();
+
+    public void reach(String name) {
+        if (hooks.isEmpty()) {
+            return;
+        }
+        Runnable hook = hooks.get(name);
+        if (hook != null) {
+            hook.run();
+        }
+    }
+
+    public void register(String name, Runnable hook) {
+        hooks.put(name, hook);
+    }
+
+    public void unregister(String name) {
+        hooks.remove(name);
+    }
+}
@@ -0,0 +1,38 @@
+package com.test.learningtx.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * 트랜잭션 하나에 시각 하나
+ *
+ * 감사 로그(TxLog) timestamp와 아웃박스 occurred_at(-> 잔액 이력 valid_from)을 같은 값으로 찍어서
+ * 흐름 대사 구간 경계에서 한 변경이 TxLog와 이력의 서로 다른 구간으로 갈라지지 않게 함
+ *  - 트랜잭션 동기화가 켜져 있으면 처음 호출한 시각을 그 트랜잭션의 동기화 객체로 등록하고 이후 같은 값을 반환
+ *    > REQUIRES_NEW는 바깥 동기화가 보류되므로 새 시각
+ *  - 트랜잭션 밖이면 LocalDateTime.now()
+ */
+public final class TxTimestamp {
+
+    private TxTimestamp() {
+    }
+
+    public static LocalDateTime now() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return LocalDateTime.now();
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Stamp stamp) {
+                return stamp.at();
+            }
+        }
+        Stamp stamp = new Stamp(LocalDateTime.now());
+        TransactionSynchronizationManager.registerSynchronization(stamp);
+        return stamp.at();
+    }
+
+    private record Stamp(LocalDateTime at) implements TransactionSynchronization {
+    }
+}
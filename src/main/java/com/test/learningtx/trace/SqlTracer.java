@@ -0,0 +1,73 @@
+package com.test.learningtx.trace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 서비스 호출 단위 샘플링 트레이서
+ *
+ * - 바깥 서비스 호출 시작 시 sample()로 한 번만 결정 -> trace id (0이면 샘플 제외, TraceInterceptor)
+ * - 샘플된 호출 안의 SQL마다 statement()(TracingDataSource), 호출 종료 시 call() 레코드를 남김
+ * - 레코드는 "learning-tx.trace" 로거의 key-value 쌍으로 기록 (logback-spring.xml에서 비동기 appender로 전달)
+ *
+ * 샘플 제외 경로는 trace id == 0 비교만 하므로 객체를 만들지 않는다.
+ */
+public class SqlTracer {
+
+    public static final String LOGGER_NAME = "learning-tx.trace";
+
+    private static final Logger TRACE_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final double sampleRate;
+    private final int maxSqlLength;
+    private final AtomicLong traceIds = new AtomicLong();
+
+    public SqlTracer(TraceProperties properties) {
+        this.sampleRate = properties.getSampleRate();
+        this.maxSqlLength = properties.getMaxSqlLength();
+    }
+
+    /**
+     * @return 새 trace id, 샘플 제외면 0
+     */
+    public long sample() {
+        if (sampleRate <= 0.0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return 0L;
+        }
+        return traceIds.incrementAndGet();
+    }
+
+    void statement(TraceContext context, String sql, int bindCount, long nanos, boolean lock) {
+        TRACE_LOG.atInfo()
+                .addKeyValue("trace", context.traceId())
+                .addKeyValue("method", context.method())
+                .addKeyValue("sql", abbreviate(sql))
+                .addKeyValue("binds", bindCount)
+                .addKeyValue("micros", nanos / 1_000)
+                .addKeyValue("lock", lock)
+                .log("sql");
+    }
+
+    void call(TraceContext context, long totalNanos, boolean failed) {
+        TRACE_LOG.atInfo()
+                .addKeyValue("trace", context.traceId())
+                .addKeyValue("method", context.method())
+                .addKeyValue("statements", context.statementCount())
+                .addKeyValue("micros", totalNanos / 1_000)
+                .addKeyValue("acquireMicros", context.acquireNanos() / 1_000)
+                .addKeyValue("statementMicros", context.statementNanos() / 1_000)
+                .addKeyValue("lockMicros", context.lockNanos() / 1_000)
+                .addKeyValue("failed", failed)
+                .log("call");
+    }
+
+    private String abbreviate(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        return sql.length() <= maxSqlLength ? sql : sql.substring(0, maxSqlLength) + "...";
+    }
+}
@@ -0,0 +1,65 @@
+package com.test.learningtx.trace;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+
+/**
+ * 샘플링 트레이싱 (풀 계측 learning-tx.pool.instrumentation과 독립)
+ *
+ * - TraceInterceptor: @Service 바깥 호출마다 샘플 여부 결정
+ * - TracingDataSource: 샘플된 호출 안에서 빌린 커넥션만 감쌈
+ * 둘 다 켜면 DataSource는 두 래퍼를 모두 거친다. (순서 무관)
+ */
+@Configuration
+@EnableConfigurationProperties(TraceProperties.class)
+@ConditionalOnProperty(prefix = "learning-tx.trace", name = "enabled", havingValue = "true")
+public class TraceConfig {
+
+    @Bean
+    public SqlTracer sqlTracer(TraceProperties properties) {
+        return new SqlTracer(properties);
+    }
+
+    /**
+     * DataSource 빈을 TracingDataSource로 감쌈
+     * (BeanPostProcessor는 static으로 등록해야 다른 빈보다 먼저 준비됨)
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceTracingPostProcessor(ObjectProvider<SqlTracer> sqlTracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TracingDataSource)) {
+                    return new TracingDataSource(dataSource, sqlTracer.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * 트랜잭션 인터셉터보다 바깥에서 실행되도록 HIGHEST_PRECEDENCE
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public Advisor serviceTraceAdvisor(SqlTracer sqlTracer) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(Service.class, true),
+                new TraceInterceptor(sqlTracer));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,90 @@
+package com.test.learningtx.trace;
+
+/**
+ * 현재 스레드에서 실행 중인 바깥 서비스 호출의 트레이싱 상태
+ *
+ * - 샘플 제외 호출은 공유 인스턴스 UNSAMPLED를 걸어 둠 (호출마다 객체를 만들지 않고, 중첩 호출이 다시 샘플링하지 않도록)
+ * - 샘플된 호출만 새 인스턴스를 만들고, 그 안의 커넥션 획득/SQL 시간을 TracingDataSource가 여기에 더한다.
+ * - 호출이 끝나면 remove() 대신 set(null): 스레드마다 ThreadLocalMap 엔트리를 한 번만 만들고 재사용
+ * (같은 스레드에서만 접근하므로 동기화 불필요)
+ */
+final class TraceContext {
+
+    static final TraceContext UNSAMPLED = new TraceContext(0L, "");
+
+    private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+
+    private final long traceId;
+    private final String method;
+    private final long startNanos;
+    private long acquireNanos;
+    private long statementNanos;
+    private long lockNanos;
+    private int statementCount;
+
+    TraceContext(long traceId, String method) {
+        this.traceId = traceId;
+        this.method = method;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * @return 현재 바깥 서비스 호출의 상태, 서비스 호출 밖이면 null
+     */
+    static TraceContext current() {
+        return CURRENT.get();
+    }
+
+    static void enter(TraceContext context) {
+        CURRENT.set(context);
+    }
+
+    static void exit() {
+        CURRENT.set(null);
+    }
+
+    void addAcquire(long nanos) {
+        acquireNanos += nanos;
+    }
+
+    void addStatement(long nanos, boolean lock) {
+        statementCount++;
+        if (lock) {
+            lockNanos += nanos;
+        } else {
+            statementNanos += nanos;
+        }
+    }
+
+    boolean sampled() {
+        return traceId != 0;
+    }
+
+    long traceId() {
+        return traceId;
+    }
+
+    String method() {
+        return method;
+    }
+
+    long startNanos() {
+        return startNanos;
+    }
+
+    long acquireNanos() {
+        return acquireNanos;
+    }
+
+    long statementNanos() {
+        return statementNanos;
+    }
+
+    long lockNanos() {
+        return lockNanos;
+    }
+
+    int statementCount() {
+        return statementCount;
+    }
+}
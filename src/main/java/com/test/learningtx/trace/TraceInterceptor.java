@@ -0,0 +1,71 @@
+package com.test.learningtx.trace;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.reactivestreams.Publisher;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Service 메서드 호출 단위로 샘플 여부를 정하고, 샘플된 호출만 종료 레코드를 남김
+ *
+ * - 가장 바깥 호출에서 한 번만 sample(), 중첩 호출은 바깥 호출의 결정을 따름
+ * - 샘플 제외 경로: 이름 캐시 조회 + sample() + ThreadLocal set 두 번 (객체를 만들지 않음)
+ *   > @Aspect의 @Around는 호출마다 ProceedingJoinPoint를 만들기 때문에 MethodInterceptor로 등록 (TraceConfig)
+ * - 트랜잭션 인터셉터보다 바깥(HIGHEST_PRECEDENCE)이어야 트랜잭션 시작 시 커넥션 획득이 샘플된 호출 안에 들어감
+ */
+@RequiredArgsConstructor
+public class TraceInterceptor implements MethodInterceptor {
+
+    private final SqlTracer sqlTracer;
+
+    // 메서드별 "클래스.메서드" 이름 캐시 (호출마다 문자열을 만들지 않도록, 리액티브 메서드는 빈 문자열)
+    private final Map<Method, String> methodNames = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (TraceContext.current() != null) {
+            return invocation.proceed();     // 중첩 호출: 바깥 호출의 샘플 결정을 따름
+        }
+        String method = methodName(invocation.getMethod());
+        if (method.isEmpty()) {
+            return invocation.proceed();     // Mono/Flux 반환: 호출 시점엔 조립만 하므로 대상 아님
+        }
+
+        long traceId = sqlTracer.sample();
+        if (traceId == 0) {
+            TraceContext.enter(TraceContext.UNSAMPLED);
+            try {
+                return invocation.proceed();
+            } finally {
+                TraceContext.exit();
+            }
+        }
+
+        TraceContext context = new TraceContext(traceId, method);
+        TraceContext.enter(context);
+        boolean failed = true;
+        try {
+            Object result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            TraceContext.exit();
+            sqlTracer.call(context, System.nanoTime() - context.startNanos(), failed);
+        }
+    }
+
+    private String methodName(Method method) {
+        String name = methodNames.get(method);
+        if (name == null) {
+            name = Publisher.class.isAssignableFrom(method.getReturnType())
+                    ? ""
+                    : method.getDeclaringClass().getSimpleName() + "." + method.getName();
+            methodNames.putIfAbsent(method, name);
+        }
+        return name;
+    }
+}
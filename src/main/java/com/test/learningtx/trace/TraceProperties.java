@@ -0,0 +1,23 @@
+package com.test.learningtx.trace;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 샘플링 SQL/서비스 트레이싱 설정 (learning-tx.trace.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.trace")
+public class TraceProperties {
+
+    // false면 트레이서/인터셉터/DataSource 래퍼 빈이 모두 없음
+    private boolean enabled = false;
+
+    // 바깥 서비스 호출 중 트레이싱할 비율 (0.0 ~ 1.0), 호출 안의 SQL은 모두 같은 결정을 따름
+    private double sampleRate = 0.01;
+
+    // 기록할 SQL 최대 길이 (IN 절이 긴 쿼리가 로그 큐를 채우지 않도록)
+    private int maxSqlLength = 500;
+}
@@ -0,0 +1,162 @@
+package com.test.learningtx.trace;
+
+import com.test.learningtx.pool.InstrumentedDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 샘플된 서비스 호출 안에서 빌린 커넥션만 감싸는 DataSource 래퍼 (풀 계측 InstrumentedDataSource와 독립)
+ *
+ * - 샘플 제외 호출/서비스 호출 밖: 풀의 커넥션을 그대로 반환 (프록시, 바인드 카운터, 락 SQL 판별 없음)
+ * - 샘플된 호출: 커넥션 획득 시간, SQL마다 문자열/바인드 수/실행 시간을 TraceContext에 더하고 SqlTracer로 기록
+ *   > 바인드 수는 PreparedStatement.setXxx 호출 수 (execute 시 초기화, 배치는 addBatch 분까지 누적)
+ *   > 샘플 여부는 커넥션을 빌릴 때 정해짐: 서비스 호출 전에 이미 빌린 커넥션(바깥 트랜잭션)의 SQL은 기록되지 않음
+ */
+public class TracingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final SqlTracer sqlTracer;
+
+    public TracingDataSource(DataSource target, SqlTracer sqlTracer) {
+        super(target);
+        this.sqlTracer = sqlTracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        TraceContext context = TraceContext.current();
+        if (context == null || !context.sampled()) {
+            return super.getConnection();
+        }
+        long start = System.nanoTime();
+        Connection connection = super.getConnection();
+        context.addAcquire(System.nanoTime() - start);
+        return trace(connection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        TraceContext context = TraceContext.current();
+        if (context == null || !context.sampled()) {
+            return super.getConnection(username, password);
+        }
+        long start = System.nanoTime();
+        Connection connection = super.getConnection(username, password);
+        context.addAcquire(System.nanoTime() - start);
+        return trace(connection);
+    }
+
+    /**
+     * 컨텍스트 종료 시 실제 풀(HikariDataSource)도 닫히도록 위임
+     */
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection trace(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement" -> {
+                    return wrap(invokeTarget(target, method, args), PreparedStatement.class, (String) args[0]);
+                }
+                case "prepareCall" -> {
+                    return wrap(invokeTarget(target, method, args), CallableStatement.class, (String) args[0]);
+                }
+                case "createStatement" -> {
+                    return wrap(invokeTarget(target, method, args), Statement.class, null);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                    // unwrap/isWrapperFor도 풀 커넥션에 위임 (락 진단이 물리 커넥션 기준으로 세션 id를 캐시함)
+                    return invokeTarget(target, method, args);
+                }
+            }
+        }
+
+        private Object wrap(Object statement, Class<? extends Statement> type, String sql) {
+            return Proxy.newProxyInstance(
+                    type.getClassLoader(),
+                    new Class<?>[]{type},
+                    new StatementHandler((Statement) statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private int bindCount;
+
+        private StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                // PreparedStatement/CallableStatement의 파라미터 setter만 (Statement.setFetchSize 같은 설정 메서드 제외)
+                if (method.getDeclaringClass() != Statement.class && method.getName().startsWith("set")) {
+                    bindCount++;
+                }
+                return invokeTarget(target, method, args);
+            }
+
+            // Statement.execute(sql) 처럼 SQL을 인자로 받는 경우와 PreparedStatement 모두 처리
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                TraceContext context = TraceContext.current();
+                if (context != null && context.sampled()) {     // 호출이 끝난 뒤 커넥션을 계속 쓰면 기록하지 않음
+                    boolean lock = InstrumentedDataSource.isLockStatement(sql);
+                    context.addStatement(elapsed, lock);
+                    sqlTracer.statement(context, sql, bindCount, elapsed, lock);
+                }
+                bindCount = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.test.learningtx.txlog;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 집계 단위
+ */
+public enum Granularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    Granularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public LocalDateTime bucketOf(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    /**
+     * 구간 끝을 버킷 경계로 올림 (이미 경계면 그대로)
+     */
+    public LocalDateTime ceil(LocalDateTime timestamp) {
+        LocalDateTime bucket = bucketOf(timestamp);
+        return bucket.equals(timestamp) ? bucket : bucket.plus(1, unit);
+    }
+}
@@ -0,0 +1,26 @@
+package com.test.learningtx.txlog;
+
+import com.test.learningtx.lock.AccountLockBackend;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableConfigurationProperties(TxLogProperties.class)
+public class TxLogConfig {
+
+    @Bean
+    public TxLogStore txLogStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 TxLogProperties properties) {
+        return new TxLogStore(jdbcTemplate, transactionManager, properties);
+    }
+
+    @Bean
+    public TxLogRollups txLogRollups(TxLogStore txLogStore, JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     AccountLockBackend accountLockBackend, TxLogProperties properties) {
+        return new TxLogRollups(txLogStore, jdbcTemplate, transactionManager, accountLockBackend, properties);
+    }
+}
@@ -0,0 +1,40 @@
+package com.test.learningtx.txlog;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 일 단위 TxLog 설정 (learning-tx.tx-log.*)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "learning-tx.tx-log")
+public class TxLogProperties {
+
+    // 보관 일수: 이보다 오래된 일 단위 테이블은 통째로 DROP
+    private int retentionDays = 30;
+
+    // 오늘부터 며칠 뒤까지 날짜 테이블을 미리 만들어 둘지 (append가 DDL을 실행하지 않도록)
+    private int createAheadDays = 2;
+
+    // 단일 tx_logs 테이블 보관 기간 정리 시 한 트랜잭션에서 지울 행 수
+    private int legacyPurgeBatchSize = 1000;
+
+    // 보관 기간 정리 + 날짜 테이블 미리 생성 (매시간 05분, 실패해도 다음 시간에 다시)
+    private String maintenanceCron = "0 5 * * * *";
+
+    private Rollup rollup = new Rollup();
+
+    @Getter
+    @Setter
+    public static class Rollup {
+
+        // 집계 주기
+        private long intervalMillis = 1000;
+
+        // 현재 시각에서 이만큼 지난 구간까지만 집계 (커밋이 늦게 보이는 로그를 놓치지 않도록)
+        // 로그 시각은 커밋 전에 찍히므로 LOCK_TIMEOUT(10초) + 가장 긴 트랜잭션보다 길어야 함
+        private long lagMillis = 60_000;
+    }
+}
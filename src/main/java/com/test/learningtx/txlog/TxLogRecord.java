@@ -0,0 +1,13 @@
+package com.test.learningtx.txlog;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 일 단위 테이블에 저장된 로그 한 건
+ * id는 테이블(day)마다 따로 증가하므로 (day, id)가 식별자
+ */
+public record TxLogRecord(LocalDate day, Long id, String operation, Long accountId, String details,
+                          BigDecimal amount, LocalDateTime timestamp) {
+}
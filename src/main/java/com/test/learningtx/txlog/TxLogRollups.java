@@ -0,0 +1,266 @@
+package com.test.learningtx.txlog;
+
+import com.test.learningtx.lock.AccountLockBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TxLog 사전 집계 (분/시/일 x operation별 건수, 거래량 = 금액 절댓값 합)
+ *
+ * 원본 로그에 GROUP BY를 하면 로그가 쌓일수록 대시보드 조회가 느려짐
+ *  -> 백그라운드에서 워터마크 이후의 원본 로그만 읽어 집계 테이블에 누적
+ *
+ * 집계 (aggregate)
+ *  - 워터마크: 여기까지는 집계 테이블에 반영됨 (분 경계)
+ *  - [워터마크, now - lag) 구간을 날짜 테이블 단위로 읽어 분/시/일 버킷에 더하고
+ *    같은 트랜잭션에서 워터마크 전진 -> 중복/누락 없이 한 번만 반영
+ *  - 전용 락 키로 여러 인스턴스 중 하나만 집계
+ *  - lag: 커밋이 늦게 보이는 로그를 놓치지 않기 위한 여유. 워터마크 이전 시각으로 나중에 기록한 로그는 집계되지 않음
+ *    > 로그 시각은 커밋이 아니라 트랜잭션 시작 시각(TxTimestamp) -> 락 대기(LOCK_TIMEOUT 10초)와 트랜잭션 실행 시간만큼 늦게 보일 수 있음
+ *    > 그래서 lag는 LOCK_TIMEOUT + 가장 긴 트랜잭션보다 길게 (기본 60초)
+ *
+ * 조회 (stats)
+ *  - 워터마크 이전: 집계 테이블 (버킷 수만큼만 읽음)
+ *  - 워터마크 이후: 아직 집계 안 된 원본 로그 (최대 lag + 집계 주기 분량)를 읽어 같은 버킷에 합산
+ *  -> 조회 비용이 로그 전체 크기와 무관
+ *
+ * 집계 버킷에는 워터마크 이전 분량만 들어 있으므로, 워터마크가 걸친 버킷도 원본 꼬리와 합치면 정확한 값이 된다.
+ */
+@Slf4j
+public class TxLogRollups {
+
+    // 계좌 id(양수), 아웃박스 relay(-1)와 겹치지 않는 집계 전용 락 키
+    static final long ROLLUP_LOCK_KEY = -2L;
+
+    private static final String UPDATE_SQL = """
+            UPDATE tx_log_rollups SET cnt = cnt + ?, volume = volume + ?
+            WHERE granularity = ? AND bucket_start = ? AND operation = ?
+            """;
+    private static final String INSERT_SQL = """
+            INSERT INTO tx_log_rollups (cnt, volume, granularity, bucket_start, operation) VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private final TxLogStore store;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNew;
+    private final AccountLockBackend lockBackend;
+    private final TxLogProperties properties;
+
+    // 테이블/워터마크 준비 전에는 스케줄 집계를 건너뜀 (스케줄러가 ApplicationReadyEvent보다 먼저 시작)
+    private volatile boolean ready;
+
+    public TxLogRollups(TxLogStore store, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                        AccountLockBackend lockBackend, TxLogProperties properties) {
+        this.store = store;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lockBackend = lockBackend;
+        this.properties = properties;
+    }
+
+    // TxLogStore.init 이후 실행: 첫 워터마크를 가장 오래된 날짜 테이블에서 시작
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void init() {
+        requiresNew.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS tx_log_rollups ("
+                    + "granularity VARCHAR(8) NOT NULL, "
+                    + "bucket_start TIMESTAMP NOT NULL, "
+                    + "operation VARCHAR(255) NOT NULL, "
+                    + "cnt BIGINT NOT NULL, "
+                    + "volume DECIMAL(19, 2) NOT NULL, "
+                    + "PRIMARY KEY (granularity, bucket_start, operation))");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS tx_log_rollup_watermark ("
+                    + "id INT PRIMARY KEY, "
+                    + "watermark TIMESTAMP NOT NULL)");
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            lockBackend.lockForTransaction(ROLLUP_LOCK_KEY);
+            Integer exists = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tx_log_rollup_watermark", Integer.class);
+            if (exists == null || exists == 0) {
+                LocalDate first = store.days().isEmpty() ? LocalDate.now() : store.days().first();
+                jdbcTemplate.update("INSERT INTO tx_log_rollup_watermark (id, watermark) VALUES (1, ?)",
+                        Timestamp.valueOf(first.atStartOfDay()));
+            }
+        });
+        ready = true;
+    }
+
+    @Scheduled(fixedDelayString = "${learning-tx.tx-log.rollup.interval-millis:1000}")
+    public void aggregate() {
+        if (!ready) {
+            return;
+        }
+        aggregateUntil(LocalDateTime.now().minus(Duration.ofMillis(properties.getRollup().getLagMillis())));
+    }
+
+    /**
+     * 워터마크를 target(분 경계로 내림)까지 전진시키며 집계
+     * 날짜 테이블 하나씩 별도 트랜잭션 -> 밀린 분량이 많아도 트랜잭션이 짧음
+     * @return 집계에 반영한 로그 수
+     */
+    public long aggregateUntil(LocalDateTime target) {
+        LocalDateTime until = Granularity.MINUTE.bucketOf(target);
+        long total = 0;
+        while (true) {
+            Long applied = transactionTemplate.execute(status -> aggregateStep(until));
+            if (applied == null || applied < 0) {
+                return total;
+            }
+            total += applied;
+        }
+    }
+
+    /**
+     * @return 반영한 로그 수, 워터마크가 이미 until 이상이면 -1
+     */
+    private long aggregateStep(LocalDateTime until) {
+        lockBackend.lockForTransaction(ROLLUP_LOCK_KEY);
+        LocalDateTime from = watermark();
+        if (!from.isBefore(until)) {
+            return -1;
+        }
+
+        // 로그가 없는 날은 건너뜀 (다음 날짜 테이블 또는 until로 바로 이동)
+        LocalDate day = store.days().ceiling(from.toLocalDate());
+        if (day == null || !day.atStartOfDay().isBefore(until)) {
+            updateWatermark(until);
+            return 0;
+        }
+        if (day.isAfter(from.toLocalDate())) {
+            from = day.atStartOfDay();
+        }
+        LocalDateTime dayEnd = day.plusDays(1).atStartOfDay();
+        LocalDateTime to = dayEnd.isBefore(until) ? dayEnd : until;
+
+        Map<BucketKey, Accumulator> buckets = new HashMap<>();
+        long[] rows = {0};
+        store.scan(from, to, null, rs -> {
+            accumulate(buckets, rs.getString("operation"), rs.getTimestamp("timestamp").toLocalDateTime(),
+                    rs.getBigDecimal("amount"));
+            rows[0]++;
+        });
+        upsert(buckets);
+        updateWatermark(to);
+        if (rows[0] > 0) {
+            log.debug("TxLog 집계: {} ~ {}, 로그 {}건, 버킷 {}개", from, to, rows[0], buckets.size());
+        }
+        return rows[0];
+    }
+
+    /**
+     * [from, to) 구간 granularity 단위 집계 (구간은 버킷 경계로 넓힘), operation이 null이면 전체
+     * 결과는 bucketStart, operation 순
+     */
+    public List<TxLogStat> stats(Granularity granularity, LocalDateTime from, LocalDateTime to, String operation) {
+        LocalDateTime start = granularity.bucketOf(from);
+        LocalDateTime end = granularity.ceil(to);
+        if (!start.isBefore(end)) {
+            return List.of();
+        }
+        LocalDateTime watermark = watermark();
+
+        Map<BucketKey, Accumulator> buckets = new HashMap<>();
+        String sql = "SELECT bucket_start, operation, cnt, volume FROM tx_log_rollups"
+                + " WHERE granularity = ? AND bucket_start >= ? AND bucket_start < ?"
+                + (operation != null ? " AND operation = ?" : "");
+        Object[] args = operation != null
+                ? new Object[]{granularity.name(), Timestamp.valueOf(start), Timestamp.valueOf(end), operation}
+                : new Object[]{granularity.name(), Timestamp.valueOf(start), Timestamp.valueOf(end)};
+        jdbcTemplate.query(sql, rs -> {
+            BucketKey key = new BucketKey(granularity, rs.getTimestamp("bucket_start").toLocalDateTime(),
+                    rs.getString("operation"));
+            buckets.computeIfAbsent(key, k -> new Accumulator()).add(rs.getLong("cnt"), rs.getBigDecimal("volume"));
+        }, args);
+
+        // 아직 집계 안 된 꼬리 구간은 원본 로그에서
+        LocalDateTime tailFrom = watermark.isAfter(start) ? watermark : start;
+        if (tailFrom.isBefore(end)) {
+            store.scan(tailFrom, end, operation, rs -> {
+                BucketKey key = new BucketKey(granularity,
+                        granularity.bucketOf(rs.getTimestamp("timestamp").toLocalDateTime()), rs.getString("operation"));
+                buckets.computeIfAbsent(key, k -> new Accumulator()).add(1, rs.getBigDecimal("amount"));
+            });
+        }
+
+        List<TxLogStat> result = new ArrayList<>(buckets.size());
+        buckets.forEach((key, acc) -> result.add(new TxLogStat(key.bucketStart(), key.operation(), acc.count, acc.volume)));
+        result.sort(Comparator.comparing(TxLogStat::bucketStart).thenComparing(TxLogStat::operation));
+        return result;
+    }
+
+    public LocalDateTime watermark() {
+        return jdbcTemplate.queryForObject("SELECT watermark FROM tx_log_rollup_watermark WHERE id = 1",
+                Timestamp.class).toLocalDateTime();
+    }
+
+    private void updateWatermark(LocalDateTime watermark) {
+        jdbcTemplate.update("UPDATE tx_log_rollup_watermark SET watermark = ? WHERE id = 1", Timestamp.valueOf(watermark));
+    }
+
+    private static void accumulate(Map<BucketKey, Accumulator> buckets, String operation, LocalDateTime timestamp,
+                                   BigDecimal amount) {
+        for (Granularity granularity : Granularity.values()) {
+            buckets.computeIfAbsent(new BucketKey(granularity, granularity.bucketOf(timestamp), operation),
+                    k -> new Accumulator()).add(1, amount);
+        }
+    }
+
+    // 있으면 더하고 없으면 INSERT (집계는 락으로 하나만 돌므로 UPDATE 후 INSERT 사이 경합 없음)
+    private void upsert(Map<BucketKey, Accumulator> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(buckets.size());
+        buckets.forEach((key, acc) -> args.add(new Object[]{
+                acc.count, acc.volume, key.granularity().name(), Timestamp.valueOf(key.bucketStart()), key.operation()}));
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                inserts.add(args.get(i));
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+    }
+
+    private record BucketKey(Granularity granularity, LocalDateTime bucketStart, String operation) {
+    }
+
+    private static final class Accumulator {
+        private long count;
+        private BigDecimal volume = BigDecimal.ZERO;
+
+        void add(long count, BigDecimal volume) {
+            this.count += count;
+            if (volume != null) {
+                this.volume = this.volume.add(volume.abs());     // 이체 구간은 부호 포함 -> 거래량은 절댓값 합
+            }
+        }
+    }
+}
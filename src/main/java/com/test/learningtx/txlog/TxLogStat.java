@@ -0,0 +1,10 @@
+package com.test.learningtx.txlog;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 집계 버킷 하나: bucketStart부터 granularity 길이 동안 operation별 건수/거래량
+ */
+public record TxLogStat(LocalDateTime bucketStart, String operation, long count, BigDecimal volume) {
+}
@@ -0,0 +1,281 @@
+package com.test.learningtx.txlog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 일 단위 테이블에 나눠 저장하는 트랜잭션 로그 (tx_logs_yyyyMMdd)
+ *
+ * 단일 tx_logs 테이블의 문제
+ *  - "최근 1시간 출금" 조회도 전체 스캔
+ *  - 보관 기간 정리 = 수백만 행 DELETE (언두/WAL 폭증, 긴 락)
+ *
+ * 일 단위 테이블
+ *  - 각 테이블에 (timestamp, operation) 인덱스
+ *  - 기간 조회는 기간에 걸친 날짜의 테이블만 조회 (나머지 날짜는 아예 건드리지 않음)
+ *  - 보관 기간 정리는 DROP TABLE 한 번 (행 수와 무관)
+ *
+ * H2/PostgreSQL 공통 SQL로 만들기 위해 DB 파티셔닝 대신 날짜별 테이블을 사용한다.
+ * 테이블 생성(DDL)은 별도 트랜잭션에서 실행: H2는 DDL 실행 시 진행 중인 트랜잭션을 커밋해 버림
+ *  - 시작 시와 maintain()에서 오늘부터 createAheadDays일 뒤까지 미리 생성
+ *    > append는 호출자 트랜잭션 안에서 INSERT만 함 (날짜가 바뀌어도 두 번째 커넥션을 잡지 않음)
+ *  - 미리 만든 테이블이 없을 때만(정리 작업이 계속 실패한 경우) 경고 후 그 자리에서 생성
+ *
+ * 감사 로그 규칙 (accounts 잔액을 바꾸는 모든 경로가 같은 트랜잭션에서 기록)
+ *  - WITHDRAW / DEPOSIT: 계좌별 한 건, amount는 양수
+ *  - FEE: 배치 차감(수수료 등), 계좌별 한 건, amount는 양수 (출금 한도와 무관)
+ *  - TRANSFER: 이체 구간(계좌)별 한 건, amount는 부호 포함 (출금 -, 입금 +) -> 이체 합계는 0
+ *  - SAGA_TRANSFER: 사가 단계별 한 건, amount는 부호 포함 (출금 -, 입금/보상 +) -> 끝난 사가만 합계 0
+ *  - timestamp는 TxTimestamp (같은 트랜잭션의 아웃박스 occurred_at = 잔액 이력 valid_from과 같은 값)
+ *
+ * 단일 tx_logs 테이블(예전 로그)도 같은 보관 일수로 maintain()에서 나눠서 DELETE
+ */
+@Slf4j
+public class TxLogStore {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd", Locale.ROOT);
+    private static final Pattern TABLE_NAME = Pattern.compile("tx_logs_(\\d{8})");
+    private static final String PURGE_LEGACY_SQL = """
+            DELETE FROM tx_logs WHERE id IN (
+                SELECT id FROM tx_logs WHERE timestamp < ? ORDER BY id FETCH FIRST ? ROWS ONLY)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final TxLogProperties properties;
+
+    // 존재하는 날짜 테이블 (정렬: 기간 조회 시 해당 범위만 잘라서 사용)
+    private final NavigableSet<LocalDate> days = new ConcurrentSkipListSet<>();
+
+    public TxLogStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, TxLogProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+    }
+
+    // 집계(TxLogRollups.init)보다 먼저 날짜 테이블 목록을 읽어 둠
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void init() {
+        refreshDays();
+        createAhead(LocalDate.now());
+    }
+
+    public void append(String operation, String details) {
+        append(operation, details, LocalDateTime.now());
+    }
+
+    public void append(String operation, String details, LocalDateTime timestamp) {
+        append(operation, null, details, BigDecimal.ZERO, timestamp);
+    }
+
+    /**
+     * @param accountId 대상 계좌 (없으면 null, 출금 한도 재구성 등 계좌별 조회에 사용)
+     * @param amount 거래 금액 (집계 테이블의 거래량 합계에 사용)
+     */
+    public void append(String operation, Long accountId, String details, BigDecimal amount, LocalDateTime timestamp) {
+        jdbcTemplate.update(insertSql(timestamp.toLocalDate(), "?, ?, ?, ?, ?"),
+                operation, accountId, details, amount, Timestamp.valueOf(timestamp));
+    }
+
+    /**
+     * 날짜 테이블이 이미 있는지 (없으면 insertSql이 블로킹 DDL을 실행함)
+     */
+    public boolean hasTable(LocalDate day) {
+        return days.contains(day);
+    }
+
+    /**
+     * JDBC가 아닌 경로(R2DBC)에서 호출자 트랜잭션으로 기록할 INSERT 문
+     * 컬럼 순서: operation, account_id, details, amount, timestamp
+     * 테이블이 없으면 JDBC로 만들고 돌려주므로 블로킹 (리액티브 호출자는 hasTable로 먼저 확인)
+     *
+     * @param values VALUES 괄호 안 (예: ":operation, :accountId, :details, :amount, :timestamp")
+     */
+    public String insertSql(LocalDate day, String values) {
+        if (!days.contains(day)) {
+            log.warn("미리 생성되지 않은 TxLog 테이블, 별도 트랜잭션으로 생성: {}", tableName(day));
+            ensureTable(day);
+        }
+        return "INSERT INTO " + tableName(day) + " (operation, account_id, details, amount, timestamp) VALUES ("
+                + values + ")";
+    }
+
+    /**
+     * 기간 조회 [from, to), operation이 null이면 전체
+     * 기간에 걸친 날짜 테이블만 차례로 조회 -> 결과는 timestamp 순
+     */
+    public List<TxLogRecord> findRange(LocalDateTime from, LocalDateTime to, String operation) {
+        List<TxLogRecord> result = new ArrayList<>();
+        for (LocalDate day : partitionsFor(from, to)) {
+            String sql = "SELECT id, operation, account_id, details, amount, timestamp FROM " + tableName(day)
+                    + " WHERE timestamp >= ? AND timestamp < ?"
+                    + (operation != null ? " AND operation = ?" : "")
+                    + " ORDER BY timestamp, id";
+            Object[] args = operation != null
+                    ? new Object[]{Timestamp.valueOf(from), Timestamp.valueOf(to), operation}
+                    : new Object[]{Timestamp.valueOf(from), Timestamp.valueOf(to)};
+            RowMapper<TxLogRecord> mapper = (rs, rowNum) -> new TxLogRecord(
+                    day,
+                    rs.getLong("id"),
+                    rs.getString("operation"),
+                    rs.getObject("account_id", Long.class),
+                    rs.getString("details"),
+                    rs.getBigDecimal("amount"),
+                    rs.getTimestamp("timestamp").toLocalDateTime());
+            result.addAll(jdbcTemplate.query(sql, mapper, args));
+        }
+        return result;
+    }
+
+    /**
+     * 집계/재구성용 조회: [from, to)의 operation, account_id, amount, timestamp만 읽어 handler에 전달
+     * (details는 읽지 않고 결과를 모으지도 않음), operation이 null이면 전체
+     */
+    public void scan(LocalDateTime from, LocalDateTime to, String operation, RowCallbackHandler handler) {
+        for (LocalDate day : partitionsFor(from, to)) {
+            String sql = "SELECT operation, account_id, amount, timestamp FROM " + tableName(day)
+                    + " WHERE timestamp >= ? AND timestamp < ?"
+                    + (operation != null ? " AND operation = ?" : "");
+            Object[] args = operation != null
+                    ? new Object[]{Timestamp.valueOf(from), Timestamp.valueOf(to), operation}
+                    : new Object[]{Timestamp.valueOf(from), Timestamp.valueOf(to)};
+            jdbcTemplate.query(sql, handler, args);
+        }
+    }
+
+    /**
+     * [from, to) 조회 시 읽게 되는 날짜 테이블
+     */
+    public Set<LocalDate> partitionsFor(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return Set.of();
+        }
+        // to가 자정이면 그날 테이블은 필요 없음
+        LocalDate lastDay = to.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? to.toLocalDate().minusDays(1)
+                : to.toLocalDate();
+        return days.subSet(from.toLocalDate(), true, lastDay, true);
+    }
+
+    /**
+     * cutoff 이전 날짜 테이블을 DROP
+     * @return 삭제한 테이블 수
+     */
+    public int dropBefore(LocalDate cutoff) {
+        int dropped = 0;
+        for (LocalDate day : new ArrayList<>(days.headSet(cutoff, false))) {
+            requiresNew.executeWithoutResult(status -> jdbcTemplate.execute("DROP TABLE IF EXISTS " + tableName(day)));
+            days.remove(day);
+            dropped++;
+        }
+        if (dropped > 0) {
+            log.info("보관 기간 지난 TxLog 테이블 {}개 삭제 (기준일 {})", dropped, cutoff);
+        }
+        return dropped;
+    }
+
+    /**
+     * 단일 tx_logs 테이블에서 cutoff 이전 행을 batchSize씩 별도 트랜잭션으로 DELETE
+     * (한 번에 지우면 긴 락과 큰 언두/WAL)
+     *
+     * @return 삭제한 행 수
+     */
+    public long purgeLegacyBefore(LocalDateTime cutoff) {
+        int batchSize = properties.getLegacyPurgeBatchSize();
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = requiresNew.execute(status ->
+                    jdbcTemplate.update(PURGE_LEGACY_SQL, Timestamp.valueOf(cutoff), batchSize));
+            purged += deleted;
+        } while (deleted >= batchSize);
+        if (purged > 0) {
+            log.info("보관 기간 지난 tx_logs 행 {}건 삭제 (기준 {})", purged, cutoff);
+        }
+        return purged;
+    }
+
+    // 실패해도 다음 실행에서 다시 시도하도록 매시간 (생성/삭제 모두 여러 번 실행해도 같은 결과)
+    @Scheduled(cron = "${learning-tx.tx-log.maintenance-cron:0 5 * * * *}")
+    public void maintain() {
+        LocalDate today = LocalDate.now();
+        createAhead(today);
+        LocalDate cutoff = today.minusDays(properties.getRetentionDays());
+        dropBefore(cutoff);
+        purgeLegacyBefore(cutoff.atStartOfDay());
+    }
+
+    public NavigableSet<LocalDate> days() {
+        return Collections.unmodifiableNavigableSet(days);
+    }
+
+    private void createAhead(LocalDate today) {
+        for (int i = 0; i <= properties.getCreateAheadDays(); i++) {
+            ensureTable(today.plusDays(i));
+        }
+    }
+
+    private void ensureTable(LocalDate day) {
+        if (days.contains(day)) {
+            return;
+        }
+        String table = tableName(day);
+        requiresNew.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+                    + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "operation VARCHAR(255) NOT NULL, "
+                    + "account_id BIGINT, "
+                    + "details VARCHAR(255) NOT NULL, "
+                    + "amount DECIMAL(19, 2) DEFAULT 0 NOT NULL, "
+                    + "timestamp TIMESTAMP NOT NULL)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_timestamp_operation ON "
+                    + table + " (timestamp, operation)");
+        });
+        days.add(day);
+    }
+
+    private void refreshDays() {
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE LOWER(table_name) LIKE 'tx_logs_%'",
+                String.class);
+        for (String table : tables) {
+            Matcher matcher = TABLE_NAME.matcher(table.toLowerCase(Locale.ROOT));
+            if (matcher.matches()) {
+                days.add(LocalDate.parse(matcher.group(1), SUFFIX));
+            }
+        }
+    }
+
+    // 날짜 포맷으로만 만들어지므로 SQL에 그대로 넣어도 안전
+    private static String tableName(LocalDate day) {
+        return "tx_logs_" + day.format(SUFFIX);
+    }
+}
@@ -0,0 +1,115 @@
+-- 빠른 기동 프로필(fast-startup)용 스키마: ddl-auto 대신 기동 시 그대로 실행
+-- 엔티티 매핑을 바꾸면 여기도 같이 바꿀 것 (컬럼 이름/타입/제약은 엔티티 매핑과 맞춤)
+-- 일 단위 TxLog 테이블, 집계 테이블, H2 advisory 락 테이블은 각 컴포넌트가 직접 생성
+
+CREATE TABLE IF NOT EXISTS accounts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_number VARCHAR(255) UNIQUE,
+    name VARCHAR(255) NOT NULL,
+    balance NUMERIC(15, 0) NOT NULL,
+    version BIGINT,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+CREATE INDEX IF NOT EXISTS idx_accounts_name ON accounts (name);
+
+CREATE TABLE IF NOT EXISTS optimistic_accounts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    balance NUMERIC(15, 0) NOT NULL,
+    version BIGINT
+);
+CREATE INDEX IF NOT EXISTS idx_optimistic_accounts_name ON optimistic_accounts (name);
+
+CREATE TABLE IF NOT EXISTS tx_logs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    operation VARCHAR(255) NOT NULL,
+    details VARCHAR(255) NOT NULL,
+    timestamp TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_tx_logs_timestamp_operation ON tx_logs (timestamp, operation);
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(100) PRIMARY KEY,
+    operation VARCHAR(30) NOT NULL,
+    request_fingerprint VARCHAR(255) NOT NULL,
+    result_balance NUMERIC(15, 0),
+    created_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
+
+CREATE TABLE IF NOT EXISTS transfer_sagas (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    from_id BIGINT NOT NULL,
+    to_id BIGINT NOT NULL,
+    amount NUMERIC(15, 0) NOT NULL,
+    state VARCHAR(20) NOT NULL,
+    failure_reason VARCHAR(255),
+    version BIGINT,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_transfer_sagas_state ON transfer_sagas (state);
+
+CREATE TABLE IF NOT EXISTS account_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    account_id BIGINT NOT NULL,
+    event_type VARCHAR(30) NOT NULL,
+    previous_balance NUMERIC(15, 0),
+    balance NUMERIC(15, 0) NOT NULL,
+    version BIGINT,
+    occurred_at TIMESTAMP(6) NOT NULL,
+    relay_seq BIGINT,
+    relayed_at TIMESTAMP(6)
+);
+CREATE INDEX IF NOT EXISTS idx_account_outbox_account_id ON account_outbox (account_id);
+CREATE INDEX IF NOT EXISTS idx_account_outbox_relay_seq ON account_outbox (relay_seq);
+CREATE INDEX IF NOT EXISTS idx_account_outbox_relayed_at ON account_outbox (relayed_at);
+
+CREATE TABLE IF NOT EXISTS account_balance_history (
+    account_id BIGINT NOT NULL,
+    version BIGINT NOT NULL,
+    previous_balance NUMERIC(15, 0),
+    balance NUMERIC(15, 0) NOT NULL,
+    valid_from TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (account_id, version)
+);
+CREATE INDEX IF NOT EXISTS idx_balance_history_as_of ON account_balance_history (account_id, valid_from, version);
+
+CREATE TABLE IF NOT EXISTS batch_runs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    job_name VARCHAR(100) NOT NULL,
+    run_key VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    min_id BIGINT NOT NULL,
+    max_id BIGINT NOT NULL,
+    chunk_size INTEGER NOT NULL,
+    chunk_count BIGINT NOT NULL,
+    started_at TIMESTAMP(6) NOT NULL,
+    finished_at TIMESTAMP(6),
+    CONSTRAINT uk_batch_runs_job_run_key UNIQUE (job_name, run_key)
+);
+
+CREATE TABLE IF NOT EXISTS batch_chunks (
+    run_id BIGINT NOT NULL,
+    chunk_index BIGINT NOT NULL,
+    processed INTEGER NOT NULL,
+    finished_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (run_id, chunk_index)
+);
+
+CREATE TABLE IF NOT EXISTS reconciliation_checkpoints (
+    account_id BIGINT PRIMARY KEY,
+    version BIGINT NOT NULL,
+    balance NUMERIC(15, 0) NOT NULL,
+    reconciled_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS reconciliation_runs (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    flow_from TIMESTAMP(6),
+    flow_to TIMESTAMP(6) NOT NULL,
+    started_at TIMESTAMP(6) NOT NULL,
+    finished_at TIMESTAMP(6)
+);
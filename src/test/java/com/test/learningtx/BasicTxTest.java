@@ -1,8 +1,12 @@
 package com.test.learningtx;
 
 import com.test.learningtx.entity.Account;
+import com.test.learningtx.lockdiag.LockDiagnostics;
+import com.test.learningtx.lockdiag.SessionWait;
 import com.test.learningtx.repository.AccountRepository;
 import com.test.learningtx.service.AccountService;
+import com.test.learningtx.support.Interleaving;
+import com.test.learningtx.support.TxCheckpoints;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,14 +15,16 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
-import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 @SpringBootTest
@@ -34,6 +40,12 @@ public class BasicTxTest {
     @Autowired
     private TestTxService testTxService;
 
+    @Autowired
+    private TxCheckpoints txCheckpoints;
+
+    @Autowired
+    private LockDiagnostics lockDiagnostics;
+
     private Account account1;
     private Account account2;
 
@@ -72,24 +84,11 @@ public class BasicTxTest {
     @DisplayName("[2] READ_UNCOMMITTED: Dirty Read 테스트")
     void testDirtyRead() throws Exception {
         Long accountId = account1.getId();
-        boolean dirtyReadExists = false;
 
-        // 10번 반복할 동안 Dirty Read 발생여부 확인
-        // when - 동시에 두 작업 실행
-        for (int i=0; i<10; i++) {
-            System.out.println("=== 시도 " + (i+1) + " ===");
+        try (Interleaving interleaving = new Interleaving(txCheckpoints)) {
+            Interleaving.Pause uncommitted = interleaving.pauseAt(TestTxService.AFTER_UNCOMMITTED_UPDATE);
 
-            // CompletableFuture: Java에서 비동기 작업을 쉽게 처리할 수 있게 해주는 클래스
-            //  - supplyAsync: 값을 반환하는 비동기 작업
-            CompletableFuture<Account> readTask = CompletableFuture.supplyAsync(() -> {
-                try {
-                    Thread.sleep(50);  // 변경 작업이 시작될 시간 주기
-                    return accountService.readUncommitted(accountId);   // 별도 스레드에서 실행
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            });
-    
+            // 트랜잭션B: 잔액 변경 후 flush, 롤백 직전 체크포인트에서 멈춤
             //  - runAsync: 반환값이 없는 비동기 작업
             CompletableFuture<Void> updateTask = CompletableFuture.runAsync(() -> {
                 try {
@@ -99,26 +98,24 @@ public class BasicTxTest {
                     System.out.println("예상된 롤백 발생: " + e.getMessage());
                 }
             });
-    
+
+            // when - 트랜잭션B가 커밋/롤백하기 전에 READ_UNCOMMITTED로 읽기
+            uncommitted.awaitArrival();
+            Account readResult = accountService.readUncommitted(accountId);
+
+            // 트랜잭션B 롤백
+            uncommitted.resume();
+            updateTask.get(5, TimeUnit.SECONDS);
+
             // then
-            Account readResult = readTask.get();    // 결과가 나올 때까지 기다림
-            updateTask.get();
-    
+            BigDecimal finalBalance = accountRepository.findById(accountId).get().getBalance();
             System.out.println("READ_UNCOMMITTED로 읽은 잔액: " + readResult.getBalance());
-            System.out.println("실제 최종 잔액: " + accountRepository.findById(accountId).get().getBalance());
+            System.out.println("실제 최종 잔액: " + finalBalance);
 
-            if (!Objects.equals(readResult.getBalance(), accountRepository.findById(accountId).get().getBalance())) {
-                dirtyReadExists = true;
-                System.out.println("Dirty Read 발견!");
-                break;
-            }
-        }
-
-        // 루프 밖에서 검증
-        if (dirtyReadExists) {
-            System.out.println("Dirty Read 테스트 종료");
-        } else {
-            System.out.println("Dirty Read 발생하지 않음 (타이밍 이슈 또는 H2 제한)");
+            // H2(MVStore)는 READ_UNCOMMITTED에서 커밋 안 된 값을 그대로 보여줌
+            assertThat(readResult.getBalance()).isEqualByComparingTo(BigDecimal.valueOf(5000L));   // 롤백될 값
+            assertThat(finalBalance).isEqualByComparingTo(BigDecimal.valueOf(10000L));              // 롤백 후 원래 값
+            System.out.println("Dirty Read 발견!");
         }
     }
 
@@ -143,21 +140,10 @@ public class BasicTxTest {
         Account account = new Account("DIRTY_READ_TEST", BigDecimal.valueOf(1000L));
         accountRepository.saveAndFlush(account);
 
-        // 10번 반복할 동안 Dirty Read 발생여부 확인
-        for (int i=0; i<10; i++) {
-            System.out.println("=== 시도 " + (i+1) + " ===");
+        try (Interleaving interleaving = new Interleaving(txCheckpoints)) {
+            Interleaving.Pause uncommitted = interleaving.pauseAt(TestTxService.AFTER_UNCOMMITTED_UPDATE);
 
-            // when - 별도 스레드에서 READ_COMMITTED로 읽기
-            CompletableFuture<Account> readFuture = CompletableFuture.supplyAsync(() -> {
-                try {
-                    Thread.sleep(500); // 수정 트랜잭션이 시작된 후 읽기
-                    return accountService.readCommitted(account.getId());
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            });
-
-            // 메인 스레드에서 데이터 수정 후 롤백
+            // 별도 스레드에서 데이터 수정 후 롤백 (롤백 직전에 멈춤)
             CompletableFuture<Void> writeFuture = CompletableFuture.runAsync(() -> {
                 try {
                     testTxService.updateBalanceAndRollback(account.getId(), BigDecimal.valueOf(5000L));
@@ -166,12 +152,14 @@ public class BasicTxTest {
                 }
             });
 
-            // 모든 작업 완료 대기
-            //  - get: 타임아웃 지정 가능
-            CompletableFuture.allOf(readFuture, writeFuture).get(5, TimeUnit.SECONDS);
+            // when - 수정 트랜잭션이 아직 끝나지 않은 상태에서 READ_COMMITTED로 읽기
+            uncommitted.awaitArrival();
+            Account result = accountService.readCommitted(account.getId());
+
+            uncommitted.resume();
+            writeFuture.get(5, TimeUnit.SECONDS);
 
             // then - uncommitted 데이터(5000)가 아닌 원래 값(1000)을 읽어야 함
-            Account result = readFuture.get();
             assertThat(result).isNotNull();
             assertThat(result.getBalance()).isEqualTo(BigDecimal.valueOf(1000L)); // Dirty Read 방지
         }
@@ -217,78 +205,45 @@ public class BasicTxTest {
 
     @Test
     @DisplayName("[3-4] READ_COMMITTED: Phantom Read 발생 테스트")
-    void testReadCommittedPhantomRead() throws ExecutionException, InterruptedException, TimeoutException {
+    void testReadCommittedPhantomRead() throws Exception {
         Account account1 = new Account("PHANTOM_TEST_1", BigDecimal.valueOf(1500L));
         Account account2 = new Account("PHANTOM_TEST_2", BigDecimal.valueOf(2500L));
         accountRepository.saveAndFlush(account1);
         accountRepository.saveAndFlush(account2);
 
-        boolean phantomReadExists = false;
-        
-        for (int i=0; i<10; i++) {
-            System.out.println("=== 시도 " + (i+1) + " ===");
-
-            // READ_COMMITTED로 범위 조회
-            CompletableFuture<List<List<Account>>> firstQuery = CompletableFuture.supplyAsync(() -> {
-                return accountService.getAccountsByBalanceRangeReadCommitted(
-                        BigDecimal.valueOf(1000L),
-                        BigDecimal.valueOf(3000L));
-            });
-
-            // 첫 번째 조회 후 새로운 데이터 삽입 (트랜잭션B)
-            CompletableFuture<Void> insertTask = CompletableFuture.runAsync(() -> {
-                try {
-                    Thread.sleep(1000); // 첫번째 조회 후 삽입
-                    testTxService.insertAccountAndCommit("PHANTOM_NEW", BigDecimal.valueOf(2000L));
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            });
-
-            // 모든 작업이 종료될 때까지 대기
-            CompletableFuture.allOf(firstQuery, insertTask).get(5, TimeUnit.SECONDS);
-
-            // Then: 첫 번째와 두 번째 조회 결과가 다를 수 있음 (Phantom Read)
-            List<List<Account>> firstQueryResult = firstQuery.get();
-            List<Account> firstList = firstQueryResult.get(0);
-            List<Account> secondList = firstQueryResult.get(1);
-
-            System.out.println("첫 번째 조회 결과 수: " + firstList.size());
-            System.out.println("두 번째 조회 결과 수: " + secondList.size());
+        List<List<Account>> result = rangeQueryWithInsertBetween(() ->
+                accountService.getAccountsByBalanceRangeReadCommitted(BigDecimal.valueOf(1000L), BigDecimal.valueOf(3000L)));
 
-            if (firstList.size() != secondList.size()) {
-                System.out.println("Phantom Read 발생!");
-                phantomReadExists = true;
-                break;
-            }
-        }
-        
-        // Phantom Read 발생 확인
-        assertThat(phantomReadExists).isTrue();
+        // Then: 두 번째 조회에 새로 삽입된 행이 보임 (Phantom Read)
+        assertThat(result.get(1)).hasSize(result.get(0).size() + 1);
+        System.out.println("Phantom Read 발생!");
     }
 
     @Test
     @DisplayName("[4-1] REPEATABLE_READ: Non-Repeatable Read 방지 테스트")
-    void testRepeatableReadPreventsNonRepeatableRead() throws ExecutionException, InterruptedException, TimeoutException {
+    void testRepeatableReadPreventsNonRepeatableRead() throws Exception {
         Account account = new Account("NON_REPEATABLE_TEST", BigDecimal.valueOf(2000L));
         accountRepository.saveAndFlush(account);
 
-        // 읽기 (트랜잭션A)
-        CompletableFuture<List<Account>> readTask = CompletableFuture.supplyAsync(() -> {
-            return accountService.readTwiceInSameTransaction(account.getId());
-        });
+        List<Account> accounts;
+        try (Interleaving interleaving = new Interleaving(txCheckpoints)) {
+            Interleaving.Pause firstRead = interleaving.pauseAt(AccountService.AFTER_FIRST_READ);
 
-        // 새 트랜잭션B에서 수정
-        CompletableFuture<Void> updateTask = CompletableFuture.runAsync(() -> {
+            // 읽기 (트랜잭션A) - 첫 번째 읽기 후 멈춤
+            CompletableFuture<List<Account>> readTask = CompletableFuture.supplyAsync(() -> {
+                return accountService.readTwiceInSameTransaction(account.getId());
+            });
+            firstRead.awaitArrival();
+
+            // 트랜잭션B에서 수정 후 커밋
             testTxService.updateBalanceAndCommit(account.getId(), BigDecimal.valueOf(5000L));
-        });
 
-        // 모든 작업 완료 대기
-        CompletableFuture.allOf(readTask, updateTask).get(5, TimeUnit.SECONDS);
-        
-        // 첫번째와 두번째 읽기 결과가 동일한지 확인
-        List<Account> accounts = readTask.get();
+            // 트랜잭션A 재개 -> 두 번째 읽기
+            firstRead.resume();
+            accounts = readTask.get(5, TimeUnit.SECONDS);
+        }
 
+        // 첫번째와 두번째 읽기 결과가 동일한지 확인
         assertThat(accounts.get(0).getBalance()).isEqualTo(BigDecimal.valueOf(2000L));      // 원래 값
         assertThat(accounts.get(1).getBalance()).isEqualTo(BigDecimal.valueOf(2000L));      // 같은 값 유지!
 
@@ -299,55 +254,18 @@ public class BasicTxTest {
     // 실제: 많은 DB(MySQL InnoDB, H2 등)가 REPEATABLE_READ에서도 Phantom Read를 방지
     @Test
     @DisplayName("[4-2] REPEATABLE_READ: Phantom Read 방지 테스트")
-    void testRepeatableReadPreventsPhantomRead() throws ExecutionException, InterruptedException, TimeoutException {
+    void testRepeatableReadPreventsPhantomRead() throws Exception {
         Account account1 = new Account("PHANTOM_TEST_1", BigDecimal.valueOf(1500L));
         Account account2 = new Account("PHANTOM_TEST_2", BigDecimal.valueOf(2500L));
         accountRepository.saveAndFlush(account1);
         accountRepository.saveAndFlush(account2);
 
-        boolean phantomReadExists = false;
-        
-        for (int i=0; i<5; i++) {
-            System.out.println("=== 시도 " + (i+1) + " ===");
-
-            // REPEATABLE_READ로 범위 조회
-            CompletableFuture<List<List<Account>>> firstQuery = CompletableFuture.supplyAsync(() -> {
-                return accountService.getAccountsByBalanceRangeRepeatableRead(
-                        BigDecimal.valueOf(1000L),
-                        BigDecimal.valueOf(3000L));
-            });
-
-            // 첫 번째 조회 후 새로운 데이터 삽입 (트랜잭션B)
-            CompletableFuture<Void> insertTask = CompletableFuture.runAsync(() -> {
-                try {
-                    Thread.sleep(1000); // 첫번째 조회 후 삽입
-                    testTxService.insertAccountAndCommit("PHANTOM_NEW", BigDecimal.valueOf(2000L));
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            });
-
-            // 모든 작업이 종료될 때까지 대기
-            CompletableFuture.allOf(firstQuery, insertTask).get(5, TimeUnit.SECONDS);
-
-            // Then: 첫 번째와 두 번째 조회 결과가 다를 수 있음 (Phantom Read)
-            List<List<Account>> firstQueryResult = firstQuery.get();
-            List<Account> firstList = firstQueryResult.get(0);
-            List<Account> secondList = firstQueryResult.get(1);
-
-            System.out.println("첫 번째 조회 결과 수: " + firstList.size());
-            System.out.println("두 번째 조회 결과 수: " + secondList.size());
-
-            if (firstList.size() != secondList.size()) {
-                System.out.println("Phantom Read 발생!");
-                phantomReadExists = true;
-                break;
-            }
-        }
+        List<List<Account>> result = rangeQueryWithInsertBetween(() ->
+                accountService.getAccountsByBalanceRangeRepeatableRead(BigDecimal.valueOf(1000L), BigDecimal.valueOf(3000L)));
 
         // 실제 많은 DB(MySQL InnoDB, H2 등)가 REPEATABLE_READ에서도 Phantom Read를 방지해 보다 안전하게 구현되어있음
+        assertThat(result.get(1)).hasSameSizeAs(result.get(0));
         System.out.println("Phantom Read 미발생");
-        assertThat(phantomReadExists).isFalse();
     }
 
     @Test
@@ -365,57 +283,50 @@ public class BasicTxTest {
 
     @Test
     @DisplayName("[5-2] SERIALIZABLE: Phantom Read 방지 테스트")
-    void testSerializablePreventsPhantomRead() throws ExecutionException, InterruptedException, TimeoutException {
+    void testSerializablePreventsPhantomRead() throws Exception {
         Account account1 = new Account("PHANTOM_TEST_1", BigDecimal.valueOf(1500L));
         Account account2 = new Account("PHANTOM_TEST_2", BigDecimal.valueOf(2500L));
         accountRepository.saveAndFlush(account1);
         accountRepository.saveAndFlush(account2);
 
-        boolean phantomReadExists = false;
-
-        for (int i=0; i<5; i++) {
-            System.out.println("=== 시도 " + (i+1) + " ===");
-
-            // SERIALIZABLE 범위 조회
-            CompletableFuture<List<List<Account>>> firstQuery = CompletableFuture.supplyAsync(() -> {
-                return accountService.getAccountsByBalanceRangeSerializable(
-                        BigDecimal.valueOf(1000L),
-                        BigDecimal.valueOf(3000L));
-            });
-
-            // 첫 번째 조회 후 새로운 데이터 삽입 (트랜잭션B)
-            CompletableFuture<Void> insertTask = CompletableFuture.runAsync(() -> {
-                try {
-                    Thread.sleep(1000); // 첫번째 조회 후 삽입
-                    testTxService.insertAccountAndCommit("PHANTOM_NEW", BigDecimal.valueOf(2000L));
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            });
+        List<List<Account>> result = rangeQueryWithInsertBetween(() ->
+                accountService.getAccountsByBalanceRangeSerializable(BigDecimal.valueOf(1000L), BigDecimal.valueOf(3000L)));
 
-            // 모든 작업이 종료될 때까지 대기
-            CompletableFuture.allOf(firstQuery, insertTask).get(5, TimeUnit.SECONDS);
+        assertThat(result.get(1)).hasSameSizeAs(result.get(0));
+        System.out.println("Phantom Read 미발생");
+    }
 
-            // Then: 첫 번째와 두 번째 조회 결과가 다를 수 있음 (Phantom Read)
-            List<List<Account>> firstQueryResult = firstQuery.get();
-            List<Account> firstList = firstQueryResult.get(0);
-            List<Account> secondList = firstQueryResult.get(1);
+    /**
+     * 범위 조회(트랜잭션A)의 첫 번째 조회와 두 번째 조회 사이에 새 계좌 삽입(트랜잭션B)을 끼워 넣음
+     *
+     * 격리 수준에 따라 삽입이 A가 끝날 때까지 대기하는 DB도 있으므로,
+     * 삽입은 별도 스레드에서 실행하고 완료 또는 락 대기(LockDiagnostics의 대기 세션)를 확인한 뒤 A를 재개한다.
+     */
+    private List<List<Account>> rangeQueryWithInsertBetween(Supplier<List<List<Account>>> rangeQuery) throws Exception {
+        try (Interleaving interleaving = new Interleaving(txCheckpoints)) {
+            Interleaving.Pause firstRead = interleaving.pauseAt(AccountService.AFTER_FIRST_RANGE_READ);
+
+            CompletableFuture<List<List<Account>>> queryTask = CompletableFuture.supplyAsync(rangeQuery);
+            firstRead.awaitArrival();
+
+            CompletableFuture<Void> insertTask = CompletableFuture.runAsync(() ->
+                    testTxService.insertAccountAndCommit("PHANTOM_NEW", BigDecimal.valueOf(2000L)));
+            await().atMost(Duration.ofSeconds(5)).until(() -> insertTask.isDone() || insertWaitingForLock());
+            if (!insertTask.isDone()) {
+                System.out.println("삽입이 트랜잭션A 종료를 기다리는 중 (범위 락)");
+            }
 
-            System.out.println("첫 번째 조회 결과 수: " + firstList.size());
-            System.out.println("두 번째 조회 결과 수: " + secondList.size());
+            firstRead.resume();
+            CompletableFuture.allOf(queryTask, insertTask).get(5, TimeUnit.SECONDS);
 
-            if (firstList.size() != secondList.size()) {
-                System.out.println("Phantom Read 발생!");
-                phantomReadExists = true;
-                break;
-            }
+            List<List<Account>> result = queryTask.get();
+            System.out.println("첫 번째 조회 결과 수: " + result.get(0).size());
+            System.out.println("두 번째 조회 결과 수: " + result.get(1).size());
+            return result;
         }
-
-        // 실제 많은 DB(MySQL InnoDB, H2 등)가 REPEATABLE_READ에서도 Phantom Read를 방지해 보다 안전하게 구현되어있음
-        System.out.println("Phantom Read 미발생");
-        assertThat(phantomReadExists).isFalse();
     }
 
-
-
-}
\ No newline at end of file
+    private boolean insertWaitingForLock() {
+        return lockDiagnostics.snapshot().sessions().stream().anyMatch(SessionWait::waiting);
+    }
+}
@@ -2,6 +2,7 @@ package com.test.learningtx;
 
 import com.test.learningtx.entity.Account;
 import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.support.TxCheckpoints;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,9 +12,15 @@ import java.math.BigDecimal;
 @Service
 public class TestTxService {
 
+    // 변경을 flush 했지만 아직 커밋/롤백하지 않은 지점
+    static final String AFTER_UNCOMMITTED_UPDATE = "test.afterUncommittedUpdate";
+
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private TxCheckpoints txCheckpoints;
+
     @Transactional
     void updateBalanceAndRollback(Long accountId, BigDecimal newBalance) {
         System.out.println("=== updateAndRollback 시작 ===");
@@ -25,11 +32,7 @@ public class TestTxService {
         accountRepository.saveAndFlush(beforeAccount);  // JPA 1차 캐시 우회하여 DB에 즉시 반영 (아직 커밋 안됨, 롤백 가능)
         System.out.println("변경 후 잔액: " + beforeAccount.getBalance());
 
-        try {
-            Thread.sleep(500);  // READ_UNCOMMITTED가 읽을 시간 주기
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        txCheckpoints.reach(AFTER_UNCOMMITTED_UPDATE);  // 다른 트랜잭션이 커밋 안 된 값을 읽을 수 있는 지점
 
         System.out.println("롤백 시작!");
         throw new RuntimeException("의도적 롤백");
@@ -0,0 +1,278 @@
+package com.test.learningtx.batch;
+
+import com.test.learningtx.bulk.AccountBulkLoader;
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.limit.WithdrawalLimitProperties;
+import com.test.learningtx.limit.WithdrawalLimiter;
+import com.test.learningtx.lock.AccountLockManager;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import com.test.learningtx.txlog.TxLogRecord;
+import com.test.learningtx.txlog.TxLogStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 계좌 전체를 대상으로 하므로 다른 테스트와 DB를 나눔
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batchdb;LOCK_TIMEOUT=10000",
+        "learning-tx.batch.concurrency=4",
+        "learning-tx.batch.chunk-size=50"
+})
+@ActiveProfiles("test")
+public class AccountBatchEngineTest {
+
+    private static final int ACCOUNTS = 1_000;
+
+    @Autowired
+    private AccountBatchEngine batchEngine;
+
+    @Autowired
+    private AccountBulkLoader bulkLoader;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountLockManager accountLockManager;
+
+    @Autowired
+    private TxLogStore txLogStore;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM accounts");
+        StringBuilder csv = new StringBuilder("account_number,name,balance\n");
+        for (int i = 0; i < ACCOUNTS; i++) {
+            csv.append(',').append("배치 ").append(i).append(",10000\n");
+        }
+        bulkLoader.importCsv(new StringReader(csv.toString()), 200, 2);
+    }
+
+    @Test
+    @DisplayName("[1] 모든 계좌에 이자가 한 번 지급되고, 같은 키로 다시 실행하면 아무것도 하지 않음")
+    void testRunOnce() {
+        MonthlyInterestJob job = new MonthlyInterestJob(new BigDecimal("0.01"));
+
+        BatchRunResult first = batchEngine.run(job, "2026-09");
+        System.out.println(first);
+        assertThat(first.accounts()).isEqualTo(ACCOUNTS);
+        assertThat(first.processedChunks()).isEqualTo(first.chunks());
+        assertThat(balances()).containsOnly(new BigDecimal("10100"));
+
+        BatchRunResult second = batchEngine.run(job, "2026-09");
+        assertThat(second.processedChunks()).isZero();
+        assertThat(second.resumedChunks()).isEqualTo(first.chunks());
+        assertThat(balances()).containsOnly(new BigDecimal("10100"));
+    }
+
+    @Test
+    @DisplayName("[2] 중간에 실패한 실행은 체크포인트 이후 청크만 다시 처리 (계좌마다 정확히 한 번)")
+    void testResumeAfterFailure() {
+        Long failingId = jdbcTemplate.queryForObject("SELECT MIN(id) + 600 FROM accounts", Long.class);
+        AtomicBoolean crashed = new AtomicBoolean();
+        MonthlyInterestJob interest = new MonthlyInterestJob(new BigDecimal("0.01"));
+        AccountBatchJob crashingOnce = new AccountBatchJob() {
+            @Override
+            public String name() {
+                return interest.name();
+            }
+
+            @Override
+            public void apply(Account account) {
+                if (account.getId().equals(failingId) && crashed.compareAndSet(false, true)) {
+                    throw new IllegalStateException("배치 장애");
+                }
+                interest.apply(account);
+            }
+        };
+
+        assertThatThrownBy(() -> batchEngine.run(crashingOnce, "2026-10"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("배치 장애");
+        List<BigDecimal> afterCrash = balances();
+        assertThat(afterCrash).contains(new BigDecimal("10000"));     // 실패한 청크는 롤백
+
+        BatchRunResult resumed = batchEngine.run(crashingOnce, "2026-10");
+        System.out.println(resumed);
+        assertThat(resumed.resumedChunks()).isPositive();
+        assertThat(resumed.resumedChunks() + resumed.processedChunks()).isEqualTo(resumed.chunks());
+        assertThat(balances()).containsOnly(new BigDecimal("10100"));
+    }
+
+    @Test
+    @DisplayName("[3] 락 타임아웃 같은 일시적 실패는 청크 재시도로 흡수 (배치 중단 없이 계좌마다 한 번)")
+    void testTransientFailureIsRetried() {
+        Long contendedId = jdbcTemplate.queryForObject("SELECT MIN(id) + 300 FROM accounts", Long.class);
+        AtomicInteger attempts = new AtomicInteger();
+        MonthlyInterestJob interest = new MonthlyInterestJob(new BigDecimal("0.01"));
+        AccountBatchJob contended = new AccountBatchJob() {
+            @Override
+            public String name() {
+                return interest.name();
+            }
+
+            @Override
+            public void apply(Account account) {
+                if (account.getId().equals(contendedId) && attempts.incrementAndGet() <= 2) {
+                    throw new CannotAcquireLockException("온라인 이체와 락 경합");
+                }
+                interest.apply(account);
+            }
+        };
+
+        BatchRunResult result = batchEngine.run(contended, "2026-11");
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(result.processedChunks()).isEqualTo(result.chunks());
+        assertThat(balances()).containsOnly(new BigDecimal("10100"));
+    }
+
+    @Test
+    @DisplayName("[4] 제한 시간을 넘긴 실행은 정상 결과가 아니라 실패 (다시 실행하면 남은 청크만)")
+    void testRunTimeoutIsFailure() {
+        BatchProperties properties = new BatchProperties();
+        properties.setConcurrency(2);
+        properties.setChunkSize(50);
+        properties.setRunTimeout(Duration.ofMillis(300));
+        AccountBatchEngine engine = new AccountBatchEngine(jdbcTemplate, transactionTemplate, accountRepository,
+                accountLockManager, txLogStore, properties);
+        MonthlyInterestJob interest = new MonthlyInterestJob(new BigDecimal("0.01"));
+        AccountBatchJob slow = new AccountBatchJob() {
+            @Override
+            public String name() {
+                return interest.name();
+            }
+
+            @Override
+            public void apply(Account account) {
+                try {
+                    Thread.sleep(2);     // 1,000 계좌 / 워커 2개 -> 1초 이상
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("중단", e);
+                }
+                interest.apply(account);
+            }
+        };
+
+        assertThatThrownBy(() -> engine.run(slow, "2026-12"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("제한 시간");
+
+        BatchRunResult resumed = batchEngine.run(interest, "2026-12");
+        assertThat(resumed.resumedChunks() + resumed.processedChunks()).isEqualTo(resumed.chunks());
+        assertThat(balances()).containsOnly(new BigDecimal("10100"));
+    }
+
+    @Test
+    @DisplayName("[5] 배치 차감은 FEE로 기록 -> 재시작 후 출금 한도 카운터에 들어가지 않음")
+    void testBatchDebitIsNotReplayedAsWithdrawal() {
+        AccountBatchJob fee = new AccountBatchJob() {
+            @Override
+            public String name() {
+                return "monthly-fee";
+            }
+
+            @Override
+            public void apply(Account account) {
+                account.withdraw(BigDecimal.valueOf(500));
+            }
+        };
+        LocalDateTime from = LocalDateTime.now().minusSeconds(1);
+        BatchRunResult result = batchEngine.run(fee, "2027-01");
+        assertThat(result.accounts()).isEqualTo(ACCOUNTS);
+        assertThat(balances()).containsOnly(new BigDecimal("9500"));
+
+        List<TxLogRecord> logs = txLogStore.findRange(from, LocalDateTime.now().plusSeconds(1), null).stream()
+                .filter(log -> log.details().equals("배치 monthly-fee"))
+                .toList();
+        assertThat(logs).hasSize(ACCOUNTS)
+                .allSatisfy(log -> assertThat(log.operation()).isEqualTo(AccountService.FEE));
+
+        // 재시작: 최근 24시간 감사 로그로 재구성해도 배치 차감은 고객 출금으로 세지 않음
+        WithdrawalLimitProperties limits = new WithdrawalLimitProperties();
+        limits.setDaily(BigDecimal.valueOf(1_000));
+        WithdrawalLimiter restarted = new WithdrawalLimiter(txLogStore, limits, Clock.systemDefaultZone());
+        restarted.rebuild();
+
+        Long accountId = logs.get(0).accountId();
+        assertThat(restarted.trackedAccounts()).isZero();
+        assertThat(restarted.usedToday(accountId)).isEqualByComparingTo("0");
+        restarted.acquire(accountId, BigDecimal.valueOf(1_000));     // 한도 전부 사용 가능
+    }
+
+    @Test
+    @DisplayName("[6] 제한 시간 초과 후 진행 중인 청크는 롤백, run()이 반환된 뒤에는 커밋되는 청크 없음")
+    void testTimeoutStopsWorkersBeforeReturn() throws Exception {
+        BatchProperties properties = new BatchProperties();
+        properties.setConcurrency(2);
+        properties.setChunkSize(50);
+        properties.setRunTimeout(Duration.ofMillis(300));
+        properties.setShutdownGrace(Duration.ofSeconds(10));
+        AccountBatchEngine engine = new AccountBatchEngine(jdbcTemplate, transactionTemplate, accountRepository,
+                accountLockManager, txLogStore, properties);
+        MonthlyInterestJob interest = new MonthlyInterestJob(new BigDecimal("0.01"));
+        // 인터럽트를 무시하는 작업 (JDBC 락 대기처럼 shutdownNow로 멈추지 않음): 계좌당 2ms, 청크당 100ms
+        AccountBatchJob uninterruptible = new AccountBatchJob() {
+            @Override
+            public String name() {
+                return interest.name();
+            }
+
+            @Override
+            public void apply(Account account) {
+                long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2);
+                while (System.nanoTime() < end) {
+                    Thread.onSpinWait();
+                }
+                interest.apply(account);
+            }
+        };
+
+        assertThatThrownBy(() -> engine.run(uninterruptible, "2027-02"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("제한 시간");
+
+        String chunkSql = "SELECT COALESCE(SUM(c.processed), 0) FROM batch_chunks c JOIN batch_runs r ON r.id = c.run_id"
+                + " WHERE r.run_key = '2027-02'";
+        Long committed = jdbcTemplate.queryForObject(chunkSql, Long.class);
+        Thread.sleep(300);
+        assertThat(jdbcTemplate.queryForObject(chunkSql, Long.class)).isEqualTo(committed);
+        // 이자가 들어간 계좌 = 체크포인트가 커밋된 청크의 계좌 (중단 뒤 커밋된 청크 없음)
+        assertThat(balances().stream().filter(balance -> balance.compareTo(new BigDecimal("10100")) == 0).count())
+                .isEqualTo(committed);
+        assertThat(committed).isLessThan(ACCOUNTS);
+
+        batchEngine.run(interest, "2027-02");
+        assertThat(balances()).containsOnly(new BigDecimal("10100"));
+    }
+
+    private List<BigDecimal> balances() {
+        return jdbcTemplate.queryForList("SELECT balance FROM accounts", BigDecimal.class);
+    }
+}
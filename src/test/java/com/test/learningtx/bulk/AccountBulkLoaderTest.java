@@ -0,0 +1,100 @@
+package com.test.learningtx.bulk;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AccountBulkLoaderTest {
+
+    @Autowired
+    private AccountBulkLoader bulkLoader;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("[1] CSV 병렬 청크 적재 후 추출")
+    void testImportAndExport() {
+        int rows = 20_000;
+        StringBuilder csv = new StringBuilder("account_number,name,balance\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append("BULK-").append(i).append(',')
+                    .append("\"대량, 적재 ").append(i).append("\",")
+                    .append(1000).append('\n');
+        }
+
+        BulkResult imported = bulkLoader.importCsv(new StringReader(csv.toString()), 1_000, 4);
+        System.out.printf("적재 결과: %s%n", imported);
+
+        assertThat(imported.rows()).isEqualTo(rows);
+        assertThat(imported.chunks()).isEqualTo(20);
+        assertThat(accountRepository.count()).isEqualTo(rows);
+
+        // 적재 후에도 IDENTITY로 생성되는 id는 적재된 id와 겹치지 않아야 함
+        Account created = accountRepository.saveAndFlush(new Account("적재 후 신규", BigDecimal.valueOf(1000L)));
+        assertThat(accountRepository.findById(created.getId())).isPresent();
+        assertThat(accountRepository.count()).isEqualTo(rows + 1);
+
+        StringWriter out = new StringWriter();
+        BulkResult exported = bulkLoader.exportCsv(out, 3_000, 4);
+        System.out.printf("추출 결과: %s%n", exported);
+
+        assertThat(exported.rows()).isEqualTo(rows + 1);
+        String[] lines = out.toString().split("\n");
+        assertThat(lines).hasSize(rows + 2);    // 헤더 포함
+        // 구간별 병렬 조회여도 id 순서대로 기록
+        assertThat(lines[1]).isEqualTo("BULK-0,\"대량, 적재 0\",1000");
+        assertThat(lines[rows]).isEqualTo("BULK-" + (rows - 1) + ",\"대량, 적재 " + (rows - 1) + "\",1000");
+    }
+
+    @Test
+    @DisplayName("[2] 파일 중간에 읽기 실패해도 커밋된 청크는 남고 IDENTITY는 할당한 구간 다음으로 이동")
+    void testReadFailureStillRestartsIdentity() {
+        StringBuilder csv = new StringBuilder("account_number,name,balance\n");
+        for (int i = 0; i < 2_500; i++) {
+            csv.append("FAIL-").append(i).append(",실패 적재,1000\n");
+        }
+        // 2,500행을 넘겨준 뒤 읽기 오류 -> 1,000행 청크 2개는 제출, 나머지 500행은 버림
+        Reader failing = new FilterReader(new StringReader(csv.toString())) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                if (read < 0) {
+                    throw new IOException("연결 끊김");
+                }
+                return read;
+            }
+        };
+
+        assertThatThrownBy(() -> bulkLoader.importCsv(failing, 1_000, 2))
+                .isInstanceOf(UncheckedIOException.class);
+        assertThat(accountRepository.count()).isEqualTo(2_000);
+
+        Account created = accountRepository.saveAndFlush(new Account("실패 후 신규", BigDecimal.valueOf(1000L)));
+        assertThat(accountRepository.count()).isEqualTo(2_001);
+        assertThat(accountRepository.findById(created.getId()).orElseThrow().getName()).isEqualTo("실패 후 신규");
+    }
+}
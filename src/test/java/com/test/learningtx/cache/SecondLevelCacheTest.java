@@ -0,0 +1,82 @@
+package com.test.learningtx.cache;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.reactive.ReactiveAccountService;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 캐시 영역 통계가 다른 테스트와 섞이지 않도록 별도 DB (R2DBC도 같은 DB를 보도록)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2cachedb;LOCK_TIMEOUT=10000",
+        "learning-tx.reactive.url=r2dbc:h2:mem:///l2cachedb"
+})
+@ActiveProfiles({"test", "l2cache"})
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private ReactiveAccountService reactiveAccountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long fromId;
+    private Long toId;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+        fromId = accountRepository.save(new Account("L2_FROM", BigDecimal.valueOf(1_000))).getId();
+        toId = accountRepository.save(new Account("L2_TO", BigDecimal.ZERO)).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("[1] 같은 계좌를 다시 조회하면 2차 캐시에서 읽고, JPA 이체 후에는 새 잔액을 읽음")
+    void testEntityCacheHitAndTransfer() {
+        accountRepository.findById(fromId).orElseThrow();
+        accountRepository.findById(fromId).orElseThrow();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+
+        accountService.transfer(fromId, toId, BigDecimal.valueOf(300));
+
+        assertThat(accountRepository.findById(fromId).orElseThrow().getBalance()).isEqualByComparingTo("700");
+        assertThat(accountRepository.findById(toId).orElseThrow().getBalance()).isEqualByComparingTo("300");
+    }
+
+    @Test
+    @DisplayName("[2] R2DBC 출금은 Hibernate를 거치지 않지만 엔티티 캐시와 쿼리 캐시가 함께 무효화됨")
+    void testReactiveWriteInvalidatesEntityAndQueryCache() {
+        accountRepository.findById(fromId).orElseThrow();
+        accountRepository.findByName("L2_FROM").orElseThrow();
+        assertThat(accountRepository.findByName("L2_FROM").orElseThrow().getBalance()).isEqualByComparingTo("1000");
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        reactiveAccountService.withdraw(fromId, BigDecimal.valueOf(100)).block();
+
+        long queryMissesBefore = statistics.getQueryCacheMissCount();
+        assertThat(accountRepository.findByName("L2_FROM").orElseThrow().getBalance()).isEqualByComparingTo("900");
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(queryMissesBefore + 1);
+        assertThat(accountRepository.findById(fromId).orElseThrow().getBalance()).isEqualByComparingTo("900");
+    }
+}
@@ -0,0 +1,105 @@
+package com.test.learningtx.history;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.outbox.OutboxRelay;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// test 프로필은 relay가 꺼져 있으므로 이 컨텍스트에서만 켜고 직접 호출
+@SpringBootTest(properties = {
+        "learning-tx.outbox.relay-enabled=true",
+        "learning-tx.outbox.poll-interval-millis=3600000"
+})
+@ActiveProfiles("test")
+public class BalanceHistoryTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private BalanceHistoryStore historyStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long fromId;
+    private Long toId;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay.poll();
+        fromId = accountRepository.save(new Account("HISTORY_FROM", BigDecimal.valueOf(1_000))).getId();
+        toId = accountRepository.save(new Account("HISTORY_TO", BigDecimal.ZERO)).getId();
+    }
+
+    @Test
+    @DisplayName("[1] 이체 트랜잭션은 이력을 쓰지 않고, relay 후 시점별 잔액을 조회할 수 있음")
+    void testBalanceAsOf() throws InterruptedException {
+        LocalDateTime beforeCreate = LocalDateTime.now().minusDays(1);
+        List<LocalDateTime> checkpoints = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(5);
+            checkpoints.add(LocalDateTime.now());
+            accountService.transfer(fromId, toId, BigDecimal.valueOf(100));
+        }
+        Thread.sleep(5);
+        checkpoints.add(LocalDateTime.now());
+
+        assertThat(countRows(fromId)).isZero();     // relay 전: 이력 없음
+
+        outboxRelay.poll();
+        assertThat(countRows(fromId)).isEqualTo(4);     // 생성 + 이체 3번
+
+        assertThat(historyStore.asOf(fromId, beforeCreate)).isEmpty();
+        for (int i = 0; i < checkpoints.size(); i++) {
+            BalanceVersion version = historyStore.asOf(fromId, checkpoints.get(i)).orElseThrow();
+            assertThat(version.balance()).isEqualByComparingTo(BigDecimal.valueOf(1_000 - 100L * i));
+            assertThat(version.version()).isEqualTo(i);
+            assertThat(historyStore.asOf(toId, checkpoints.get(i)).orElseThrow().balance())
+                    .isEqualByComparingTo(BigDecimal.valueOf(100L * i));
+        }
+
+        assertThat(historyStore.versions(fromId, checkpoints.get(0), checkpoints.get(3)))
+                .extracting(BalanceVersion::version)
+                .containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("[2] 같은 (계좌, 버전)이 다시 전달돼도 이력은 한 번만 남음")
+    void testAppendIsIdempotent() {
+        BalanceVersion version = new BalanceVersion(fromId, 99, null, BigDecimal.TEN, LocalDateTime.now());
+
+        historyStore.appendAll(List.of(version));
+        historyStore.appendAll(List.of(version, new BalanceVersion(fromId, 100, BigDecimal.TEN, BigDecimal.ONE, LocalDateTime.now())));
+
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_balance_history WHERE account_id = ? AND version >= 99", Integer.class, fromId);
+        assertThat(count).isEqualTo(2);
+    }
+
+    private int countRows(Long accountId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account_balance_history WHERE account_id = ?", Integer.class, accountId);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,75 @@
+package com.test.learningtx.hot;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.lock.AccountLockManager;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "learning-tx.hot-accounts.sample-rate=1")    // 전부 기록
+@ActiveProfiles("test")
+public class HotAccountLockWaitTest {
+
+    @Autowired
+    private HotAccountSampler hotAccountSampler;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountLockManager accountLockManager;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("[1] 이체의 락 대기 시간은 실제로 기다린 계좌에만 기록")
+    void testLockWaitIsRecordedPerAccount() throws Exception {
+        Long fromId = accountRepository.save(new Account("HOT_WAIT_FROM", BigDecimal.valueOf(1_000))).getId();
+        Long toId = accountRepository.save(new Account("HOT_WAIT_TO", BigDecimal.ZERO)).getId();
+
+        // 다른 트랜잭션이 입금 계좌 락을 300ms 동안 쥐고 있음
+        CountDownLatch locked = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    accountLockManager.lockAccounts(toId);
+                    locked.countDown();
+                    sleep(300);
+                }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        accountService.transfer(fromId, toId, BigDecimal.valueOf(100));
+        holder.get(5, TimeUnit.SECONDS);
+
+        Map<Long, HotAccountSampler.HotAccount> byId = hotAccountSampler.top(1_000).stream()
+                .collect(Collectors.toMap(HotAccountSampler.HotAccount::accountId, Function.identity()));
+        assertThat(byId.get(toId).avgLockWaitMillis()).isGreaterThan(200.0);
+        assertThat(byId.get(fromId).avgLockWaitMillis()).isLessThan(100.0);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.test.learningtx.hot;
+
+import com.test.learningtx.lock.AdaptiveLockProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HotAccountSamplerTest {
+
+    private HotAccountSampler sampler;
+
+    @BeforeEach
+    void setUp() {
+        HotAccountProperties properties = new HotAccountProperties();
+        properties.setSampleRate(1);    // 전부 기록
+        properties.setStripes(2);
+        properties.setCapacity(16);
+        sampler = new HotAccountSampler(properties, new AdaptiveLockProperties());
+    }
+
+    @Test
+    @DisplayName("[1] 드문 계좌가 많아도 핫 계좌는 상위에 남고 충돌률/락 대기가 집계됨")
+    void testTopAccounts() {
+        for (int i = 0; i < 1_000; i++) {
+            sampler.recordAttempt(1L, i % 4 == 0);
+            if (i % 5 == 0) {
+                sampler.recordLockWait(2L, 10_000_000L);    // 10ms (임계값 5ms 이상 -> 충돌)
+            }
+            sampler.recordAttempt(1_000L + i, false);         // 한 번씩만 나오는 계좌
+        }
+
+        List<HotAccountSampler.HotAccount> top = sampler.top(2);
+
+        assertThat(top).extracting(HotAccountSampler.HotAccount::accountId).containsExactly(1L, 2L);
+        HotAccountSampler.HotAccount first = top.get(0);
+        assertThat(first.estimatedCount()).isGreaterThanOrEqualTo(1_000);
+        assertThat(first.conflictRate()).isBetween(0.2, 0.3);
+        HotAccountSampler.HotAccount second = top.get(1);
+        assertThat(second.avgLockWaitMillis()).isEqualTo(10.0);
+        assertThat(second.conflictRate()).isGreaterThan(0.9);
+    }
+
+    @Test
+    @DisplayName("[2] 감쇠: 관측이 멈춘 계좌는 점점 사라짐")
+    void testDecay() {
+        for (int i = 0; i < 100; i++) {
+            sampler.recordAttempt(7L, false);
+        }
+
+        sampler.decay();
+        assertThat(sampler.top(1).get(0).estimatedCount()).isBetween(49L, 50L);
+
+        for (int i = 0; i < 10; i++) {
+            sampler.decay();
+        }
+        assertThat(sampler.top(10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("[3] 기록 경로는 객체를 만들지 않음")
+    void testRecordingIsAllocationFree() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < 200_000; i++) {     // JIT 워밍업
+            sampler.recordAttempt(i & 63, (i & 7) == 0);
+            sampler.recordLockWait(i & 31, i);
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1_000_000; i++) {
+            sampler.recordAttempt(i & 63, (i & 7) == 0);
+            sampler.recordLockWait(i & 31, i);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // 호출당 객체 하나만 만들어도 수십 MB
+        assertThat(allocated).isLessThan(64 * 1024);
+    }
+}
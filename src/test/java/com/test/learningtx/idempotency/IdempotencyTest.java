@@ -0,0 +1,185 @@
+package com.test.learningtx.idempotency;
+
+import com.test.learningtx.dto.IdempotentResult;
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.entity.OptimisticAccount;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.repository.IdempotencyRecordRepository;
+import com.test.learningtx.repository.OptimisticAccountRepository;
+import com.test.learningtx.service.IdempotentAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class IdempotencyTest {
+
+    @Autowired
+    private IdempotentAccountService idempotentAccountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private OptimisticAccountRepository optimisticAccountRepository;
+
+    private Long fromId;
+    private Long toId;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyRecordRepository.deleteAll();
+        accountRepository.deleteAll();
+        fromId = accountRepository.save(new Account("IDEM_FROM", BigDecimal.valueOf(10_000))).getId();
+        toId = accountRepository.save(new Account("IDEM_TO", BigDecimal.valueOf(0))).getId();
+    }
+
+    @Test
+    @DisplayName("[1] 같은 키로 재시도하면 한 번만 이체되고 처음 결과를 반환")
+    void testReplay() {
+        String key = UUID.randomUUID().toString();
+
+        IdempotentResult first = idempotentAccountService.transfer(key, fromId, toId, BigDecimal.valueOf(1_000));
+        IdempotentResult retry = idempotentAccountService.transfer(key, fromId, toId, BigDecimal.valueOf(1_000));
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.resultBalance()).isEqualByComparingTo(first.resultBalance());
+        assertThat(balanceOf(fromId)).isEqualByComparingTo("9000");
+        assertThat(balanceOf(toId)).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    @DisplayName("[2] 같은 키로 다른 요청을 보내면 거부")
+    void testKeyReuseWithDifferentRequest() {
+        String key = UUID.randomUUID().toString();
+        idempotentAccountService.transfer(key, fromId, toId, BigDecimal.valueOf(1_000));
+
+        assertThatThrownBy(() -> idempotentAccountService.transfer(key, fromId, toId, BigDecimal.valueOf(2_000)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(balanceOf(fromId)).isEqualByComparingTo("9000");
+    }
+
+    @Test
+    @DisplayName("[3] 실패한 요청은 키가 남지 않아 같은 키로 다시 시도 가능")
+    void testFailedRequestIsNotRecorded() {
+        String key = UUID.randomUUID().toString();
+
+        assertThatThrownBy(() -> idempotentAccountService.transfer(key, fromId, toId, BigDecimal.valueOf(20_000)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(idempotencyRecordRepository.existsById(key)).isFalse();
+
+        accountRepository.findById(fromId).ifPresent(account -> {
+            account.deposit(BigDecimal.valueOf(10_000));
+            accountRepository.save(account);
+        });
+        IdempotentResult result = idempotentAccountService.transfer(key, fromId, toId, BigDecimal.valueOf(20_000));
+        assertThat(result.replayed()).isFalse();
+        assertThat(balanceOf(toId)).isEqualByComparingTo("20000");
+    }
+
+    @Test
+    @DisplayName("[4] 동시에 같은 키로 8번 요청해도 이체는 한 번")
+    void testConcurrentDuplicates() throws Exception {
+        String key = UUID.randomUUID().toString();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<CompletableFuture<IdempotentResult>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return idempotentAccountService.transfer(key, fromId, toId, BigDecimal.valueOf(1_000));
+            }, executor));
+        }
+        start.countDown();
+        List<IdempotentResult> results = futures.stream().map(CompletableFuture::join).toList();
+        executor.shutdown();
+
+        assertThat(results).filteredOn(result -> !result.replayed()).hasSize(1);
+        assertThat(results).allSatisfy(result -> assertThat(result.resultBalance()).isEqualByComparingTo("9000"));
+        assertThat(balanceOf(fromId)).isEqualByComparingTo("9000");
+        assertThat(balanceOf(toId)).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    @DisplayName("[5] Bloom filter: 넣은 키는 항상 있음, 처음 보는 키의 오탐률은 설정값 근처")
+    void testBloomFilter() {
+        ExpiringBloomFilter filter = new ExpiringBloomFilter(100_000, 0.01, Long.MAX_VALUE);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("key-" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain("key-" + i)).isTrue();
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        System.out.printf("bits=%d, hashes=%d, 오탐률=%.4f%n", filter.bitCount(), filter.hashCount(), falsePositives / 100_000.0);
+        assertThat(falsePositives / 100_000.0).isLessThan(0.03);
+    }
+
+    @Test
+    @DisplayName("[6] 다른 키로 같은 계좌에 동시 출금: 낙관적 락 충돌은 새 트랜잭션에서 재시도되어 모두 성공")
+    void testConcurrentWithdrawRetriesOutsideTransaction() {
+        Long accountId = optimisticAccountRepository.save(OptimisticAccount.builder()
+                .name("IDEM_OPTIMISTIC")
+                .balance(BigDecimal.valueOf(10_000))
+                .build()).getId();
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<CompletableFuture<IdempotentResult>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return idempotentAccountService.withdraw(UUID.randomUUID().toString(), accountId, BigDecimal.valueOf(1_000));
+            }, executor));
+        }
+        start.countDown();
+        List<IdempotentResult> results = futures.stream().map(CompletableFuture::join).toList();
+        executor.shutdown();
+
+        assertThat(results).allSatisfy(result -> assertThat(result.replayed()).isFalse());
+        assertThat(results).extracting(IdempotentResult::idempotencyKey).doesNotHaveDuplicates();
+        assertThat(optimisticAccountRepository.findById(accountId).orElseThrow().getBalance()).isEqualByComparingTo("6000");
+        assertThat(idempotencyRecordRepository.count()).isEqualTo(threads);
+    }
+
+    private BigDecimal balanceOf(Long id) {
+        return accountRepository.findById(id).orElseThrow().getBalance();
+    }
+}
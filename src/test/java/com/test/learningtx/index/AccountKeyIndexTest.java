@@ -0,0 +1,145 @@
+package com.test.learningtx.index;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountQueryService;
+import com.test.learningtx.update.CapturingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "learning-tx.account-index.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.test.learningtx.update.CapturingStatementInspector"
+})
+@ActiveProfiles("test")
+public class AccountKeyIndexTest {
+
+    @Autowired
+    private AccountQueryService accountQueryService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountKeyIndex accountKeyIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("[1] 커밋된 계좌는 계좌번호 조건 SQL 없이 id 조회 (PK 조회로 계좌번호만 확인)")
+    void testHotLookupSkipsSql() {
+        Long id = accountRepository.save(account("INDEX_A", "110-100-000001")).getId();
+
+        CapturingStatementInspector.clear();
+        assertThat(accountQueryService.getAccountIdByAccountNumber("110-100-000001")).isEqualTo(id);
+        assertThat(CapturingStatementInspector.statementsContaining("select"))
+                .noneMatch(sql -> sql.toLowerCase().contains("account_number=?"));
+    }
+
+    @Test
+    @DisplayName("[2] 계좌번호 변경/삭제는 커밋 후 반영, 롤백된 변경은 반영 안 됨")
+    void testConsistentOnCommit() {
+        Long id = accountRepository.save(account("INDEX_B", "110-100-000002")).getId();
+
+        transactionTemplate.executeWithoutResult(status ->
+                accountRepository.findById(id).orElseThrow().setAccountNumber("110-100-000020"));
+        assertThat(accountKeyIndex.idByAccountNumber("110-100-000002")).isEmpty();
+        assertThat(accountKeyIndex.idByAccountNumber("110-100-000020")).hasValue(id);
+        accountRepository.findById(id).ifPresent(account -> {
+            account.setAccountNumber("110-100-000002");
+            accountRepository.save(account);
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            accountRepository.save(account("INDEX_ROLLBACK", "110-100-000003"));
+            status.setRollbackOnly();
+        });
+        assertThat(accountKeyIndex.idByAccountNumber("110-100-000003")).isEmpty();
+
+        accountRepository.deleteById(id);
+        assertThat(accountKeyIndex.idByAccountNumber("110-100-000002")).isEmpty();
+        assertThatThrownBy(() -> accountQueryService.getAccountByAccountNumber("110-100-000002"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("[3] 인덱스 항목이 다른 계좌를 가리켜도(지문 충돌/오래된 값) 계좌번호를 확인해 올바른 id 반환")
+    void testIndexHitIsVerified() {
+        Long id = accountRepository.save(account("INDEX_C", "110-100-000004")).getId();
+        Long otherId = accountRepository.save(account("INDEX_D", "110-100-000005")).getId();
+        accountKeyIndex.put(otherId, "110-100-000004");
+
+        assertThat(accountQueryService.getAccountIdByAccountNumber("110-100-000004")).isEqualTo(id);
+
+        // read-through는 이미 있는 값을 덮어쓰지 않음 (커밋 리스너만 덮어씀)
+        accountKeyIndex.putAccountNumberIfAbsent("110-100-000005", id);
+        assertThat(accountKeyIndex.idByAccountNumber("110-100-000005")).hasValue(otherId);
+    }
+
+    @Test
+    @DisplayName("[4] 이름은 unique가 아니므로 같은 이름이 여러 개면 id 조회 거절")
+    void testAmbiguousNameRejected() {
+        Long id = accountRepository.save(account("INDEX_SAME", "110-100-000006")).getId();
+        assertThat(accountQueryService.getAccountIdByName("INDEX_SAME")).isEqualTo(id);
+
+        accountRepository.save(account("INDEX_SAME", "110-100-000007"));
+        assertThatThrownBy(() -> accountQueryService.getAccountIdByName("INDEX_SAME"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("여러 개");
+    }
+
+    @Test
+    @DisplayName("[5] 오픈 어드레싱 인덱스: 100만 건 적재/조회/삭제 후 재해시")
+    void testOpenAddressingIndex() {
+        int count = 1_000_000;
+        OpenAddressingKeyIndex index = new OpenAddressingKeyIndex(1_000);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            index.put("110-" + i, i);
+        }
+        long putNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            assertThat(index.get("110-" + i)).isEqualTo(i);
+        }
+        long getNanos = System.nanoTime() - start;
+
+        for (int i = 0; i < count; i += 2) {
+            index.remove("110-" + i, i);
+        }
+        for (int i = 0; i < count; i++) {
+            index.put("220-" + i, i);     // 툼스톤 재사용 + 확장
+        }
+
+        System.out.printf("용량=%d, put %.0fns/건, get %.0fns/건%n",
+                index.capacity(), (double) putNanos / count, (double) getNanos / count);
+        assertThat(index.size()).isEqualTo(count / 2 + count);
+        assertThat(index.get("110-0")).isEqualTo(OpenAddressingKeyIndex.NOT_FOUND);
+        assertThat(index.get("110-1")).isEqualTo(1);
+        assertThat(index.get("220-" + (count - 1))).isEqualTo(count - 1);
+    }
+
+    private static Account account(String name, String accountNumber) {
+        Account account = new Account(name, BigDecimal.valueOf(1_000));
+        account.setAccountNumber(accountNumber);
+        return account;
+    }
+}
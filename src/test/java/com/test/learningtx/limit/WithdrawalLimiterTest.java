@@ -0,0 +1,222 @@
+package com.test.learningtx.limit;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.entity.SagaState;
+import com.test.learningtx.reactive.ReactiveAccountService;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import com.test.learningtx.service.TransferSagaService;
+import com.test.learningtx.service.WithdrawalService;
+import com.test.learningtx.txlog.TxLogStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "learning-tx.withdrawal-limit.enabled=true",
+        "learning-tx.withdrawal-limit.per-minute=500",
+        "learning-tx.withdrawal-limit.daily=1000"
+})
+@ActiveProfiles("test")
+public class WithdrawalLimiterTest {
+
+    @Autowired
+    private WithdrawalLimiter withdrawalLimiter;
+
+    @Autowired
+    private WithdrawalService withdrawalService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TxLogStore txLogStore;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private ReactiveAccountService reactiveAccountService;
+
+    @Autowired
+    private TransferSagaService transferSagaService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("[1] 슬라이딩 윈도우: 버킷이 윈도우 밖으로 밀려나면 합계에서 빠짐")
+    void testSlidingWindow() {
+        SlidingWindowCounter counter = new SlidingWindowCounter(60, 1_000);
+
+        counter.add(0, 0, 100);
+        counter.add(30_000, 30_000, 50);
+
+        assertThat(counter.sum(59_000)).isEqualTo(150);
+        assertThat(counter.sum(61_000)).isEqualTo(50);
+        assertThat(counter.sum(91_000)).isZero();
+
+        // 한 바퀴 돈 칸은 새 epoch으로 재사용
+        assertThat(counter.add(120_000, 120_000, 70)).isEqualTo(70);
+    }
+
+    @Test
+    @DisplayName("[2] 한도 초과 출금은 DB 작업 전에 거절, 실패한 출금은 한도에서 되돌림")
+    void testWithdrawWithinLimit() {
+        Long accountId = accountRepository.save(new Account("LIMIT_1", BigDecimal.valueOf(10_000))).getId();
+
+        assertThat(withdrawalService.withdraw(accountId, BigDecimal.valueOf(400))).isEqualByComparingTo("9600");
+
+        assertThatThrownBy(() -> withdrawalService.withdraw(accountId, BigDecimal.valueOf(200)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1분 출금 한도 초과");
+        assertThat(accountRepository.findById(accountId).orElseThrow().getBalance()).isEqualByComparingTo("9600");
+
+        // 잔액 부족으로 실패 -> 차감했던 한도 복구
+        Long poorId = accountRepository.save(new Account("LIMIT_2", BigDecimal.valueOf(50))).getId();
+        assertThatThrownBy(() -> withdrawalService.withdraw(poorId, BigDecimal.valueOf(100)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(withdrawalLimiter.usedLastMinute(poorId)).isEqualByComparingTo("0");
+        assertThat(withdrawalLimiter.usedLastMinute(accountId)).isEqualByComparingTo("400");
+    }
+
+    @Test
+    @DisplayName("[3] 동시 출금도 한도를 넘겨 통과하지 않음")
+    void testConcurrentAcquireNeverExceedsLimit() throws Exception {
+        Long accountId = 900_002L;
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    withdrawalLimiter.acquire(accountId, BigDecimal.valueOf(100));
+                    return true;
+                } catch (IllegalStateException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int accepted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(10, TimeUnit.SECONDS)) {
+                accepted++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(accepted).isLessThanOrEqualTo(5);
+        assertThat(withdrawalLimiter.usedLastMinute(accountId)).isEqualByComparingTo(BigDecimal.valueOf(accepted * 100L));
+    }
+
+    @Test
+    @DisplayName("[4] 재시작 시 최근 24시간 출금 감사 로그로 카운터 재구성")
+    void testRebuildFromAuditLog() {
+        Long accountId = 900_004L;
+        LocalDateTime now = LocalDateTime.now();
+        txLogStore.append(AccountService.WITHDRAW, accountId, "출금", BigDecimal.valueOf(800), now.minusHours(2));
+        txLogStore.append(AccountService.WITHDRAW, accountId, "출금", BigDecimal.valueOf(5_000), now.minusDays(2));
+
+        withdrawalLimiter.rebuild();
+
+        assertThat(withdrawalLimiter.usedToday(accountId)).isEqualByComparingTo("800");
+        assertThat(withdrawalLimiter.usedLastMinute(accountId)).isEqualByComparingTo("0");
+        assertThatThrownBy(() -> withdrawalLimiter.acquire(accountId, BigDecimal.valueOf(300)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("일 출금 한도 초과");
+        withdrawalLimiter.acquire(accountId, BigDecimal.valueOf(200));
+        assertThat(withdrawalLimiter.usedToday(accountId)).isEqualByComparingTo("1000");
+    }
+
+    @Test
+    @DisplayName("[5] 리액티브 출금, 이체, 사가 출금 단계도 한도를 거치고 재구성에 포함")
+    void testEveryDebitPathIsLimited() throws Exception {
+        Long fromId = accountRepository.save(new Account("LIMIT_5", BigDecimal.valueOf(10_000))).getId();
+        Long toId = accountRepository.save(new Account("LIMIT_6", BigDecimal.ZERO)).getId();
+
+        reactiveAccountService.withdraw(fromId, BigDecimal.valueOf(100)).block();
+        accountService.transfer(fromId, toId, BigDecimal.valueOf(150));
+        assertThat(transferSagaService.transfer(fromId, toId, BigDecimal.valueOf(200)).get(10, TimeUnit.SECONDS).state())
+                .isEqualTo(SagaState.COMPLETED);
+        assertThat(withdrawalLimiter.usedLastMinute(fromId)).isEqualByComparingTo("450");
+
+        // 한도 초과: 트랜잭션 안에서 거절되어 롤백, 차감도 되돌아감
+        assertThatThrownBy(() -> accountService.transfer(fromId, toId, BigDecimal.valueOf(100)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("1분 출금 한도 초과");
+        StepVerifier.create(reactiveAccountService.transfer(fromId, toId, BigDecimal.valueOf(100)))
+                .expectError(IllegalStateException.class)
+                .verify();
+        assertThat(accountRepository.findById(fromId).orElseThrow().getBalance()).isEqualByComparingTo("9550");
+        assertThat(withdrawalLimiter.usedLastMinute(fromId)).isEqualByComparingTo("450");
+
+        // 감사 로그(WITHDRAW + 음수 TRANSFER 구간)로 재구성해도 같은 값, 입금 계좌는 0
+        withdrawalLimiter.rebuild();
+        assertThat(withdrawalLimiter.usedToday(fromId)).isEqualByComparingTo("450");
+        assertThat(withdrawalLimiter.usedToday(toId)).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("[6] 리액티브 출금이 락 대기 중 취소되면 한도 차감을 되돌림")
+    void testCancelledReactiveDebitReleasesLimit() throws Exception {
+        Long accountId = accountRepository.save(new Account("LIMIT_7", BigDecimal.valueOf(10_000))).getId();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // 다른 트랜잭션이 계좌 행을 잡고 있는 동안 리액티브 UPDATE는 락 대기
+            Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ? FOR UPDATE", BigDecimal.class, accountId);
+                locked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Disposable withdrawal = reactiveAccountService.withdraw(accountId, BigDecimal.valueOf(300))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .subscribe(view -> { }, error -> { });
+            Thread.sleep(300);
+            assertThat(withdrawalLimiter.usedLastMinute(accountId)).isEqualByComparingTo("300");
+
+            withdrawal.dispose();
+            assertThat(withdrawalLimiter.usedLastMinute(accountId)).isEqualByComparingTo("0");
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.test.learningtx.lock.adaptive;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.hot.HotAccountSampler;
+import com.test.learningtx.limit.WithdrawalLimitProperties;
+import com.test.learningtx.limit.WithdrawalLimiter;
+import com.test.learningtx.limit.WithdrawalPermit;
+import com.test.learningtx.lock.AdaptiveLockProperties;
+import com.test.learningtx.lock.ConflictRateTracker;
+import com.test.learningtx.lock.LockStrategy;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AdaptiveLockService;
+import com.test.learningtx.txlog.TxLogStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AdaptiveLockWorkloadTest {
+
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 100;
+    private static final int COLD_ACCOUNTS = 40;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1_000_000L);
+    private static final int ROUNDS = 2;                 // 전략마다 여러 번 돌려 가장 좋은 값 (JIT/커넥션 워밍업 영향 제거)
+
+    @Autowired
+    private AdaptiveLockService adaptiveLockService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private HotAccountSampler hotAccountSampler;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TxLogStore txLogStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long hotId;
+    private List<Long> coldIds;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+        hotId = accountRepository.save(new Account("HOT", INITIAL_BALANCE)).getId();
+        coldIds = new ArrayList<>();
+        for (int i = 0; i < COLD_ACCOUNTS; i++) {
+            coldIds.add(accountRepository.save(new Account("COLD_" + i, INITIAL_BALANCE)).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("[1] 충돌률 히스테리시스: high 이상에서 비관적, low 이하에서 낙관적 복귀")
+    void testHysteresis() {
+        ConflictRateTracker tracker = new ConflictRateTracker(16, 0.5, 0.3, 0.05);
+
+        tracker.record(1L, true);   // 0.5
+        assertThat(tracker.modeFor(1L)).isEqualTo(ConflictRateTracker.Mode.PESSIMISTIC);
+
+        tracker.record(1L, false);  // 0.25 -> 경계 사이: 모드 유지
+        assertThat(tracker.modeFor(1L)).isEqualTo(ConflictRateTracker.Mode.PESSIMISTIC);
+
+        tracker.record(1L, false);  // 0.125
+        tracker.record(1L, false);  // 0.0625
+        tracker.record(1L, false);  // 0.03125 -> low 이하
+        assertThat(tracker.modeFor(1L)).isEqualTo(ConflictRateTracker.Mode.OPTIMISTIC);
+    }
+
+    @Test
+    @DisplayName("[2] 핫/콜드 혼합 워크로드: 적응형/비관적은 실패 없이 전부 성공, 전략별 시간은 출력만")
+    void testMixedWorkload() throws Exception {
+        List<String> report = new ArrayList<>();
+        // 전략별 성공 1건당 시간 (낙관적은 실패한 출금이 있으므로 경과 시간만으로 비교하지 않음)
+        Map<LockStrategy, Double> microsPerSuccess = new EnumMap<>(LockStrategy.class);
+        for (int round = 0; round < ROUNDS; round++) {
+            for (LockStrategy strategy : List.of(LockStrategy.OPTIMISTIC, LockStrategy.PESSIMISTIC, LockStrategy.ADAPTIVE)) {
+                resetBalances();
+                Result result = run(strategy);
+                report.add(String.format("%-11s: %,6d ms, 성공 %d, 실패 %d", strategy, result.elapsedMillis(), result.successes(), result.failures()));
+
+                // 성공한 출금 수만큼 정확히 잔액이 줄어야 함 (Lost Update 없음)
+                BigDecimal total = accountRepository.findAll().stream()
+                        .map(Account::getBalance)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add);
+                BigDecimal expected = INITIAL_BALANCE.multiply(BigDecimal.valueOf(COLD_ACCOUNTS + 1))
+                        .subtract(BigDecimal.valueOf(result.successes()));
+                assertThat(total).isEqualByComparingTo(expected);
+
+                assertThat(result.successes() + result.failures()).isEqualTo(THREADS * OPS_PER_THREAD);
+                if (strategy != LockStrategy.OPTIMISTIC) {
+                    assertThat(result.failures()).isZero();
+                }
+                assertThat(result.successes()).isPositive();
+                microsPerSuccess.merge(strategy, result.elapsedMillis() * 1000.0 / result.successes(), Math::min);
+            }
+        }
+
+        System.out.printf("%n=== 혼합 워크로드 (%d 스레드 x %d 출금, 50%% 핫 계좌) ===%n", THREADS, OPS_PER_THREAD);
+        report.forEach(System.out::println);
+        microsPerSuccess.forEach((strategy, micros) -> System.out.printf("%-11s: 성공 1건당 %,.0f us%n", strategy, micros));
+        System.out.printf("핫 계좌 최종 모드: %s%n", adaptiveLockService.currentMode(hotId));
+        // 시간 비교는 실행 환경(코어 수, 부하)에 따라 달라서 검증하지 않음 -> 전략 전환은 [3]에서 결정적으로 확인
+    }
+
+    @Test
+    @DisplayName("[3] 충돌 한 번 -> 비관적 전환, 경합 없는 락 획득이 이어지면 낙관적 복귀 (시도 순서로 확인)")
+    void testStrategySwitchOnInjectedConflict() throws Exception {
+        List<String> steps = new CopyOnWriteArrayList<>();
+        ConflictRateTracker tracker = new ConflictRateTracker(16, 0.5, 0.3, 0.05) {
+            @Override
+            public void record(long accountId, boolean conflict) {
+                steps.add(conflict ? "conflict" : "ok");
+                super.record(accountId, conflict);
+            }
+        };
+        CountDownLatch reached = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean armed = new AtomicBoolean(true);
+        // 잔액 변경 직전에 불리는 한도 차감을 훅으로 사용: 첫 시도만 멈춰 두고 그 사이 다른 커밋으로 version을 올림
+        WithdrawalLimiter hook = new WithdrawalLimiter(txLogStore, new WithdrawalLimitProperties(), Clock.systemDefaultZone()) {
+            @Override
+            public WithdrawalPermit acquireInTransaction(Long accountId, BigDecimal amount) {
+                steps.add("action");
+                if (armed.compareAndSet(true, false)) {
+                    reached.countDown();
+                    awaitQuietly(release);
+                }
+                return null;
+            }
+        };
+        AdaptiveLockProperties properties = new AdaptiveLockProperties();
+        properties.setLockWaitThresholdMillis(60_000);     // 단일 스레드 락 대기가 경합으로 기록되지 않도록
+        AdaptiveLockService service = new AdaptiveLockService(accountRepository, tracker, hotAccountSampler, properties,
+                transactionTemplate, txLogStore,
+                new StaticListableBeanFactory(Map.of("hook", hook)).getBeanProvider(WithdrawalLimiter.class));
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> service.withdraw(hotId, BigDecimal.ONE));
+        assertThat(reached.await(5, TimeUnit.SECONDS)).isTrue();
+        jdbcTemplate.update("UPDATE accounts SET balance = balance - 1, version = version + 1 WHERE id = ?", hotId);
+        release.countDown();
+        first.get(10, TimeUnit.SECONDS);
+
+        // 낙관적: 충돌 기록(0.5 >= high) 후 재시도 성공(0.25, 경계 사이라 비관적 유지)
+        assertThat(steps).containsExactly("action", "conflict", "action", "ok");
+        assertThat(tracker.modeFor(hotId)).isEqualTo(ConflictRateTracker.Mode.PESSIMISTIC);
+
+        // 비관적: 락 획득 기록이 잔액 변경보다 먼저, 경합 없는 획득 3번이면 0.03125 <= low -> 낙관적 복귀
+        for (int i = 0; i < 3; i++) {
+            steps.clear();
+            service.withdraw(hotId, BigDecimal.ONE);
+            assertThat(steps).containsExactly("ok", "action");
+        }
+        assertThat(tracker.modeFor(hotId)).isEqualTo(ConflictRateTracker.Mode.OPTIMISTIC);
+
+        steps.clear();
+        service.withdraw(hotId, BigDecimal.ONE);
+        assertThat(steps).containsExactly("action", "ok");
+
+        // 충돌로 롤백된 시도는 반영되지 않음: 서비스 성공 5건 + 직접 차감 1건
+        assertThat(accountRepository.findById(hotId).orElseThrow().getBalance())
+                .isEqualByComparingTo(INITIAL_BALANCE.subtract(BigDecimal.valueOf(6)));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Result run(LockStrategy strategy) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    Long target = random.nextBoolean() ? hotId : coldIds.get(random.nextInt(coldIds.size()));
+                    try {
+                        adaptiveLockService.withdraw(target, BigDecimal.ONE, strategy);
+                        successes.incrementAndGet();
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        executor.shutdown();
+
+        return new Result(elapsedMillis, successes.get(), failures.get());
+    }
+
+    private void resetBalances() {
+        List<Account> accounts = accountRepository.findAll();
+        accounts.forEach(account -> account.setBalance(INITIAL_BALANCE));
+        accountRepository.saveAll(accounts);
+    }
+
+    private record Result(long elapsedMillis, int successes, int failures) {
+    }
+}
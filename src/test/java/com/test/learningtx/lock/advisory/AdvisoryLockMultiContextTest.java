@@ -0,0 +1,192 @@
+package com.test.learningtx.lock.advisory;
+
+import com.test.learningtx.LearningTxApplication;
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.lock.AccountLockManager;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 여러 인스턴스(= SpringApplication 컨텍스트 2개)가 같은 DB를 공유할 때
+ * 계좌 락이 인스턴스 간에 동작하는지 확인
+ */
+public class AdvisoryLockMultiContextTest {
+
+    private static ConfigurableApplicationContext node1;
+    private static ConfigurableApplicationContext node2;
+
+    @BeforeAll
+    static void startNodes() {
+        node1 = startNode();
+        node2 = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        node2.close();
+        node1.close();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(LearningTxApplication.class)
+                .profiles("test")
+                .properties(
+                        "spring.main.web-application-type=none",
+                        // 두 컨텍스트가 같은 인메모리 DB를 보도록 (다른 테스트 DB와 분리)
+                        "spring.datasource.url=jdbc:h2:mem:advisorydb;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                        "spring.jpa.hibernate.ddl-auto=update",
+                        "learning-tx.lock.backend=h2")
+                .run();
+    }
+
+    @Test
+    @DisplayName("[1] 다른 인스턴스가 잡은 계좌 락은 커밋 전까지 대기")
+    void testLockBlocksOtherNode() throws Exception {
+        long key = 9_000_001L;
+        CountDownLatch node1Locked = new CountDownLatch(1);
+        CountDownLatch node1Release = new CountDownLatch(1);
+        CountDownLatch node2Acquired = new CountDownLatch(1);
+
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                node1.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+                    node1.getBean(AccountLockManager.class).lockAccounts(key);
+                    node1Locked.countDown();
+                    await(node1Release);
+                }));
+
+        assertThat(node1Locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() ->
+                node2.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+                    node2.getBean(AccountLockManager.class).lockAccounts(key);
+                    node2Acquired.countDown();
+                }));
+
+        // node1이 잡고 있는 동안에는 node2가 락을 얻으면 안 됨
+        assertThat(node2Acquired.await(300, TimeUnit.MILLISECONDS)).isFalse();
+
+        node1Release.countDown();
+        assertThat(node2Acquired.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture.allOf(holder, waiter).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("[2] 두 인스턴스에서 같은 계좌로 동시 이체 - 낙관적 락 충돌 없이 모두 성공")
+    void testConcurrentTransfersAcrossNodes() throws Exception {
+        AccountRepository repository = node1.getBean(AccountRepository.class);
+        Account a = repository.save(new Account("ADVISORY_A", BigDecimal.valueOf(100_000L)));
+        Account b = repository.save(new Account("ADVISORY_B", BigDecimal.valueOf(100_000L)));
+
+        int transfersPerWorker = 20;
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        for (ConfigurableApplicationContext node : List.of(node1, node2)) {
+            AccountService service = node.getBean(AccountService.class);
+            for (int worker = 0; worker < 4; worker++) {
+                boolean forward = worker % 2 == 0;
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < transfersPerWorker; i++) {
+                        try {
+                            if (forward) {
+                                service.transfer(a.getId(), b.getId(), BigDecimal.valueOf(10L));
+                            } else {
+                                service.transfer(b.getId(), a.getId(), BigDecimal.valueOf(10L));
+                            }
+                        } catch (Exception e) {
+                            System.out.printf("이체 실패: %s%n", e.getMessage());
+                            failures.incrementAndGet();
+                        }
+                    }
+                }, executor));
+            }
+        }
+
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        Account finalA = repository.findById(a.getId()).orElseThrow();
+        Account finalB = repository.findById(b.getId()).orElseThrow();
+        System.out.printf("최종 잔액: A=%s, B=%s, 실패=%d%n", finalA.getBalance(), finalB.getBalance(), failures.get());
+
+        // 양방향 이체 횟수가 같으므로 원래 잔액으로 돌아와야 함
+        assertThat(failures.get()).isZero();
+        assertThat(finalA.getBalance()).isEqualByComparingTo(BigDecimal.valueOf(100_000L));
+        assertThat(finalB.getBalance()).isEqualByComparingTo(BigDecimal.valueOf(100_000L));
+    }
+
+    @Test
+    @DisplayName("[3] 처음 쓰는 키가 섞여도 오름차순으로 잠금 - 낮은 키에서 기다리는 동안 높은 키를 쥐지 않음")
+    void testMissingKeysKeepAscendingOrder() throws Exception {
+        long low = 9_000_101L;
+        long high = 9_000_201L;
+        // high만 미리 만들어 둠 (커밋)
+        node1.getBean(TransactionTemplate.class).executeWithoutResult(status ->
+                node1.getBean(AccountLockManager.class).lockAccounts(high));
+
+        CountDownLatch node1Locked = new CountDownLatch(1);
+        CountDownLatch node2Started = new CountDownLatch(1);
+        CountDownLatch node2Acquired = new CountDownLatch(1);
+
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+                node1.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+                    AccountLockManager lockManager = node1.getBean(AccountLockManager.class);
+                    lockManager.lockAccounts(low);      // 처음 쓰는 키 -> 이 트랜잭션이 만들고 쥠
+                    node1Locked.countDown();
+                    await(node2Started);
+                    sleepQuietly(300);
+                    lockManager.lockAccounts(high);     // node2가 high를 먼저 쥐었다면 여기서 교착
+                }));
+
+        assertThat(node1Locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() ->
+                node2.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+                    node2Started.countDown();
+                    node2.getBean(AccountLockManager.class).lockAccounts(List.of(low, high));
+                    node2Acquired.countDown();
+                }));
+
+        // node1이 low와 high를 모두 잡고 커밋한 뒤에야 node2가 통과 (LOCK_TIMEOUT보다 훨씬 짧게)
+        holder.get(5, TimeUnit.SECONDS);
+        assertThat(node2Acquired.await(5, TimeUnit.SECONDS)).isTrue();
+        waiter.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
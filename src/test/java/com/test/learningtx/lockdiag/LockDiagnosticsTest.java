@@ -0,0 +1,123 @@
+package com.test.learningtx.lockdiag;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.pool.ServiceCallContext;
+import com.test.learningtx.repository.AccountRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// 다른 테스트의 세션이 그래프에 섞이지 않도록 별도 DB (LOCK_TIMEOUT은 기본 URL과 같게)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:lockdiagdb;LOCK_TIMEOUT=10000",
+        "learning-tx.lock-diagnostics.sample-interval-millis=3600000"
+})
+@ActiveProfiles("test")
+public class LockDiagnosticsTest {
+
+    @Autowired
+    private LockDiagnostics lockDiagnostics;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("[1] wait-for 그래프: 순환과 convoy(맨 앞 세션 기준) 구분")
+    void testGraphAnalysis() {
+        List<SessionWait> sessions = List.of(
+                // 1 <-> 2 교착
+                new SessionWait(1, List.of(2L), "select", 100, null, null),
+                new SessionWait(2, List.of(1L), "select", 90, null, null),
+                // 10이 쥔 락 뒤에 11, 12 직접 대기, 13은 12 뒤에 대기
+                new SessionWait(10, List.of(), null, 0, null, null),
+                new SessionWait(11, List.of(10L), "select ... for update", 300, "accounts(0,1)", null),
+                new SessionWait(12, List.of(10L), "select ... for update", 200, "accounts(0,1)", null),
+                new SessionWait(13, List.of(12L), "select ... for update", 50, "accounts(0,1)", null));
+
+        WaitForGraph graph = new WaitForGraph(sessions);
+
+        assertThat(graph.cycles()).containsExactly(List.of(1L, 2L));
+        List<Convoy> convoys = graph.convoys(3, new SessionCallRegistry());
+        assertThat(convoys).hasSize(1);
+        assertThat(convoys.get(0).headSessionId()).isEqualTo(10L);
+        assertThat(convoys.get(0).waiters()).isEqualTo(3);
+        assertThat(convoys.get(0).longestWaitMillis()).isEqualTo(300);
+        assertThat(convoys.get(0).resource()).isEqualTo("accounts(0,1)");
+        assertThat(graph.convoys(4, new SessionCallRegistry())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("[2] H2: 한 계좌 행 락 뒤에 줄 선 세션을 convoy로 보고, 락 보유 세션을 서비스 호출과 연결")
+    void testConvoyOnSingleAccountRow() throws Exception {
+        Long accountId = accountRepository.save(new Account("CONVOY", BigDecimal.valueOf(1_000))).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        futures.add(executor.submit(() -> {
+            ServiceCallContext context = ServiceCallContext.begin("LockHolder.hold");
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    accountRepository.findByIdWithLock(accountId);
+                    locked.countDown();
+                    awaitQuietly(release);
+                });
+            } finally {
+                context.end();
+            }
+        }));
+        assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 3; i++) {
+            futures.add(executor.submit(() ->
+                    transactionTemplate.executeWithoutResult(status -> accountRepository.findByIdWithLock(accountId))));
+        }
+
+        try {
+            await().atMost(Duration.ofSeconds(5)).until(() -> !lockDiagnostics.snapshot().convoys().isEmpty());
+
+            LockWaitSnapshot snapshot = lockDiagnostics.snapshot();
+            assertThat(snapshot.platform()).isEqualTo("H2");
+            assertThat(snapshot.cycles()).isEmpty();
+            Convoy convoy = snapshot.convoys().get(0);
+            assertThat(convoy.waiters()).isEqualTo(3);
+            assertThat(convoy.headCall()).isNotNull();
+            assertThat(convoy.headCall().method()).isEqualTo("LockHolder.hold");
+            assertThat(snapshot.sessions()).filteredOn(SessionWait::waiting).hasSize(3);
+        } finally {
+            release.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.test.learningtx.outbox;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// test 프로필은 relay가 꺼져 있으므로 이 컨텍스트에서만 켬 (스케줄 대신 relayBatch / 피드 poll 직접 호출)
+@SpringBootTest(properties = {
+        "learning-tx.outbox.relay-enabled=true",
+        "learning-tx.outbox.poll-interval-millis=3600000",
+        "learning-tx.outbox.feed-poll-interval-millis=3600000"
+})
+@ActiveProfiles("test")
+public class OutboxRelayTest {
+
+    @TestConfiguration
+    static class SubscriberConfig {
+
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+
+        @Bean
+        AfterCommitSubscriber afterCommitSubscriber() {
+            return new AfterCommitSubscriber();
+        }
+    }
+
+    // 트랜잭션 구독자: 실패하면 그 이벤트부터 재전달
+    static class RecordingSubscriber implements BalanceChangeSubscriber {
+
+        final List<BalanceChangedEvent> events = new CopyOnWriteArrayList<>();
+        final AtomicInteger failuresToInject = new AtomicInteger();
+
+        @Override
+        public boolean transactional() {
+            return true;
+        }
+
+        @Override
+        public void onBalanceChanged(BalanceChangedEvent event) {
+            if (failuresToInject.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new IllegalStateException("구독자 장애");
+            }
+            events.add(event);
+        }
+    }
+
+    // 메모리 구독자: relay 커밋 후 OutboxFeed가 트랜잭션 밖에서 전달
+    static class AfterCommitSubscriber implements BalanceChangeSubscriber {
+
+        final List<BalanceChangedEvent> events = new CopyOnWriteArrayList<>();
+        final List<Boolean> insideTransaction = new CopyOnWriteArrayList<>();
+        volatile boolean failing;
+
+        @Override
+        public void onBalanceChanged(BalanceChangedEvent event) {
+            insideTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            if (failing) {
+                throw new IllegalStateException("메모리 구독자 장애");
+            }
+            events.add(event);
+        }
+    }
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxFeed outboxFeed;
+
+    @Autowired
+    private OutboxProperties outboxProperties;
+
+    @Autowired
+    private RecordingSubscriber subscriber;
+
+    @Autowired
+    private AfterCommitSubscriber afterCommitSubscriber;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long fromId;
+    private Long toId;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+        fromId = accountRepository.save(new Account("OUTBOX_FROM", BigDecimal.valueOf(10_000))).getId();
+        toId = accountRepository.save(new Account("OUTBOX_TO", BigDecimal.valueOf(0))).getId();
+        afterCommitSubscriber.failing = false;
+        drain();
+        subscriber.events.clear();
+        afterCommitSubscriber.events.clear();
+        afterCommitSubscriber.insideTransaction.clear();
+    }
+
+    @Test
+    @DisplayName("[1] 이체 커밋 -> 계좌별 순서대로 전달, 전달한 행에 빈틈 없는 relay_seq")
+    void testOrderedDelivery() {
+        for (int i = 0; i < 5; i++) {
+            accountService.transfer(fromId, toId, BigDecimal.valueOf(100));
+        }
+        drain();
+
+        List<BigDecimal> fromBalances = subscriber.events.stream()
+                .filter(event -> event.accountId().equals(fromId))
+                .map(BalanceChangedEvent::balance)
+                .toList();
+        assertThat(fromBalances).extracting(BigDecimal::intValue).containsExactly(9_900, 9_800, 9_700, 9_600, 9_500);
+        assertThat(subscriber.events).filteredOn(event -> event.accountId().equals(toId)).hasSize(5);
+        assertThat(unrelayedCount()).isZero();
+
+        // relay 순서(relay_seq)가 전달 순서(id)와 같고 빈틈 없음
+        List<Long> seqs = jdbcTemplate.queryForList(
+                "SELECT relay_seq FROM account_outbox WHERE id >= ? ORDER BY id", Long.class,
+                subscriber.events.get(0).eventId());
+        assertThat(seqs).hasSize(10).isSorted();
+        assertThat(seqs.get(9) - seqs.get(0)).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("[2] 롤백된 변경은 이벤트 없음")
+    void testRollback() {
+        transactionTemplate.executeWithoutResult(status -> {
+            accountRepository.findById(fromId).orElseThrow().withdraw(BigDecimal.valueOf(1_000));
+            accountRepository.flush();
+            status.setRollbackOnly();
+        });
+        drain();
+
+        assertThat(subscriber.events).isEmpty();
+    }
+
+    @Test
+    @DisplayName("[3] 구독자 실패 시 같은 이벤트부터 재전달 (at-least-once)")
+    void testRedeliveryAfterFailure() {
+        accountService.transfer(fromId, toId, BigDecimal.valueOf(100));
+        subscriber.failuresToInject.set(1);
+
+        assertThat(outboxRelay.relayBatch()).isZero();    // 첫 이벤트에서 실패 -> 아무것도 삭제 안 함
+        drain();
+
+        assertThat(subscriber.events).hasSize(2);
+        assertThat(subscriber.events.get(0).eventId()).isLessThan(subscriber.events.get(1).eventId());
+    }
+
+    @Test
+    @DisplayName("[4] 메모리 구독자는 relay 커밋 후 피드에서 트랜잭션 밖으로 전달받고, 실패해도 relay를 막지 않음")
+    void testAfterCommitDelivery() {
+        accountService.transfer(fromId, toId, BigDecimal.valueOf(100));
+        assertThat(outboxRelay.relayBatch()).isEqualTo(2);
+        assertThat(afterCommitSubscriber.events).isEmpty();     // relay는 메모리 구독자를 부르지 않음
+        assertThat(outboxFeed.poll()).isEqualTo(2);
+
+        assertThat(afterCommitSubscriber.events).hasSize(2);
+        assertThat(afterCommitSubscriber.insideTransaction).containsOnly(false);
+
+        afterCommitSubscriber.failing = true;
+        accountService.transfer(fromId, toId, BigDecimal.valueOf(100));
+        assertThat(outboxRelay.relayBatch()).isEqualTo(2);
+        outboxFeed.poll();
+        assertThat(subscriber.events).hasSize(4);     // 트랜잭션 구독자는 정상 전달
+        assertThat(unrelayedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("[5] relay를 돌리지 않는 인스턴스의 피드도 모든 변경을 받고, retention이 지난 행은 마지막 행만 남기고 정리")
+    void testFeedOnNonRelayingNode() {
+        // 다른 인스턴스: relay 없이 피드와 메모리 구독자만
+        AfterCommitSubscriber otherNodeSubscriber = new AfterCommitSubscriber();
+        StaticListableBeanFactory otherNode = new StaticListableBeanFactory(Map.of("subscriber", otherNodeSubscriber));
+        OutboxFeed otherNodeFeed = new OutboxFeed(jdbcTemplate, otherNode.getBeanProvider(BalanceChangeSubscriber.class),
+                outboxProperties);
+        assertThat(otherNodeFeed.poll()).isZero();     // 시작 워터마크 = 현재 마지막 relay_seq
+
+        accountService.transfer(fromId, toId, BigDecimal.valueOf(100));
+        accountService.transfer(fromId, toId, BigDecimal.valueOf(200));
+        drain();
+
+        assertThat(otherNodeFeed.poll()).isEqualTo(4);
+        assertThat(otherNodeSubscriber.events)
+                .extracting(BalanceChangedEvent::eventId)
+                .containsExactlyElementsOf(afterCommitSubscriber.events.stream().map(BalanceChangedEvent::eventId).toList());
+
+        long previousRetention = outboxProperties.getRetentionMillis();
+        outboxProperties.setRetentionMillis(0);
+        try {
+            outboxRelay.poll();
+        } finally {
+            outboxProperties.setRetentionMillis(previousRetention);
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_outbox", Long.class)).isEqualTo(1);
+
+        // 번호는 남긴 마지막 행 다음부터 이어짐 -> 워터마크가 그대로 유효
+        accountService.transfer(fromId, toId, BigDecimal.valueOf(300));
+        drain();
+        assertThat(otherNodeFeed.poll()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("[6] 메모리 구독자가 실패하면 그 이벤트부터 다음 폴링에서 재전달, 다른 구독자는 중복 없이 진행 (at-least-once)")
+    void testFeedRedeliversToFailedSubscriber() {
+        AfterCommitSubscriber flaky = new AfterCommitSubscriber();
+        AfterCommitSubscriber healthy = new AfterCommitSubscriber();
+        StaticListableBeanFactory node = new StaticListableBeanFactory(Map.of("flaky", flaky, "healthy", healthy));
+        OutboxFeed feed = new OutboxFeed(jdbcTemplate, node.getBeanProvider(BalanceChangeSubscriber.class), outboxProperties);
+        feed.poll();
+
+        flaky.failing = true;
+        accountService.transfer(fromId, toId, BigDecimal.valueOf(100));
+        drain();
+        feed.poll();
+
+        assertThat(flaky.events).isEmpty();
+        assertThat(healthy.events).hasSize(2);
+
+        flaky.failing = false;
+        feed.poll();
+
+        assertThat(flaky.events).extracting(BalanceChangedEvent::eventId)
+                .containsExactlyElementsOf(healthy.events.stream().map(BalanceChangedEvent::eventId).toList());
+        assertThat(healthy.events).hasSize(2);
+    }
+
+    private long unrelayedCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_outbox WHERE relay_seq IS NULL", Long.class);
+    }
+
+    private void drain() {
+        while (outboxRelay.relayBatch() > 0) {
+            // 비울 때까지
+        }
+        outboxFeed.poll();
+    }
+}
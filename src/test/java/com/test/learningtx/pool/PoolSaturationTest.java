@@ -0,0 +1,134 @@
+package com.test.learningtx.pool;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 테스트 스레드가 풀 전체를 쥘 수 있도록 풀을 작게 (풀 크기가 다른 컨텍스트이므로 별도 DB)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pooldb;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.maximum-pool-size=" + PoolSaturationTest.POOL_SIZE,
+        "spring.datasource.hikari.minimum-idle=" + PoolSaturationTest.POOL_SIZE
+})
+@ActiveProfiles("test")
+public class PoolSaturationTest {
+
+    static final int POOL_SIZE = 4;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PoolMetrics poolMetrics;
+
+    @Autowired
+    private PoolSizeAdvisor poolSizeAdvisor;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Long fromId;
+    private Long toId;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+        fromId = accountRepository.save(new Account("FROM", BigDecimal.valueOf(100_000))).getId();
+        toId = accountRepository.save(new Account("TO", BigDecimal.valueOf(0))).getId();
+    }
+
+    @Test
+    @DisplayName("[1] 서비스 메서드별로 커넥션 획득 / SQL / 락 SQL 시간이 분리 집계됨")
+    void testMethodBreakdown() {
+        assertThat(dataSource).isInstanceOf(InstrumentedDataSource.class);
+
+        for (int i = 0; i < 20; i++) {
+            accountService.transfer(fromId, toId, BigDecimal.ONE);
+        }
+
+        PoolMetrics.MethodTiming transfer = poolMetrics.methodTimings().stream()
+                .filter(timing -> timing.method().equals("AccountService.transfer"))
+                .findFirst()
+                .orElseThrow();
+
+        System.out.println("transfer 시간 분해: " + transfer);
+        assertThat(transfer.calls()).isGreaterThanOrEqualTo(20);
+        assertThat(transfer.avgStatementMillis()).isPositive();
+        assertThat(transfer.avgLockMillis()).isPositive();     // 계좌 id 락 (H2 백엔드: 키 행 SELECT ... FOR UPDATE)
+        assertThat(transfer.avgAcquireMillis()).isGreaterThanOrEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("[2] Little's law 권장 크기는 설정 범위 안에 있음")
+    void testRecommendation() {
+        poolSizeAdvisor.evaluate();     // 기준점
+        for (int i = 0; i < 20; i++) {
+            accountService.transfer(fromId, toId, BigDecimal.ONE);
+        }
+        poolSizeAdvisor.evaluate();
+
+        PoolSizeAdvisor.Recommendation recommendation = poolSizeAdvisor.lastRecommendation();
+        System.out.println("권장: " + recommendation);
+        assertThat(recommendation).isNotNull();
+        assertThat(recommendation.avgConnectionsInUse()).isPositive();
+        assertThat(recommendation.recommendedMaxPoolSize()).isBetween(5, 50);
+        assertThat(poolSizeAdvisor.decisions()).isEmpty();     // adaptive.enabled=false -> 권장만
+    }
+
+    @Test
+    @DisplayName("[3] 풀을 모두 점유하면 다음 요청은 대기 스레드로 잡히고, 커넥션 획득 대기 시간이 기록됨")
+    void testAcquireWaitRecordedWhenPoolExhausted() throws Exception {
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            held.add(dataSource.getConnection());
+        }
+
+        PoolMetrics.Totals before = poolMetrics.totals();
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() ->
+                accountService.transfer(fromId, toId, BigDecimal.ONE));
+        try {
+            // 시간이 아니라 풀 상태로 확인: 이체 스레드가 Hikari 대기열에 들어갈 때까지
+            awaitThreadsAwaiting(1);
+            assertThat(poolSizeAdvisor.poolState().threadsAwaiting()).isGreaterThanOrEqualTo(1);
+            assertThat(waiter).isNotDone();
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+        waiter.get(10, TimeUnit.SECONDS);
+        PoolMetrics.Totals after = poolMetrics.totals();
+
+        System.out.printf("풀 고갈 구간: 획득 %d회, 획득 대기 합 %.2f ms%n",
+                after.acquisitions() - before.acquisitions(),
+                (after.acquireNanos() - before.acquireNanos()) / 1_000_000.0);
+        assertThat(after.acquisitions() - before.acquisitions()).isGreaterThanOrEqualTo(1);
+        assertThat(after.acquireNanos() - before.acquireNanos()).isPositive();
+    }
+
+    private void awaitThreadsAwaiting(int threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (poolSizeAdvisor.poolState().threadsAwaiting() < threads && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
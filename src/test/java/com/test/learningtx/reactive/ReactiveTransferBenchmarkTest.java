@@ -0,0 +1,192 @@
+package com.test.learningtx.reactive;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.entity.OptimisticAccount;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.repository.OptimisticAccountRepository;
+import com.test.learningtx.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 리액티브(R2DBC) 경로 규칙 확인 + 블로킹(JPA) 경로와 고동시성 비교
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ReactiveTransferBenchmarkTest {
+
+    private static final int ACCOUNTS = 200;
+    private static final int TRANSFERS = 2_000;
+    private static final int CONCURRENCY = 200;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1_000_000L);
+
+    @Autowired
+    private ReactiveAccountService reactiveAccountService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private OptimisticAccountRepository optimisticAccountRepository;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+        ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids.add(accountRepository.save(new Account("REACTIVE_" + i, INITIAL_BALANCE)).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("[1] 잔액 부족/금액 검증/version 증가는 엔티티와 동일")
+    void testRules() {
+        Long id = ids.get(0);
+
+        StepVerifier.create(reactiveAccountService.withdraw(id, BigDecimal.valueOf(2_000_000L)))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException && e.getMessage().contains("잔액이 부족"))
+                .verify();
+        StepVerifier.create(reactiveAccountService.withdraw(id, BigDecimal.ZERO))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        Long versionBefore = accountRepository.findById(id).orElseThrow().getVersion();
+        StepVerifier.create(reactiveAccountService.withdraw(id, BigDecimal.valueOf(1_000)))
+                .assertNext(view -> {
+                    assertThat(view.balance()).isEqualByComparingTo("999000");
+                    assertThat(view.version()).isEqualTo(versionBefore + 1);
+                })
+                .verifyComplete();
+
+        // JPA 쪽에서도 같은 값과 version이 보여야 함
+        Account account = accountRepository.findById(id).orElseThrow();
+        assertThat(account.getBalance()).isEqualByComparingTo("999000");
+        assertThat(account.getVersion()).isEqualTo(versionBefore + 1);
+
+        OptimisticAccount optimistic = optimisticAccountRepository.save(
+                OptimisticAccount.builder().name("REACTIVE_OPT").balance(BigDecimal.valueOf(100)).build());
+        StepVerifier.create(reactiveAccountService.withdrawOptimistic(optimistic.getId(), BigDecimal.valueOf(101)))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(reactiveAccountService.withdrawOptimistic(optimistic.getId(), BigDecimal.valueOf(40)))
+                .assertNext(balance -> assertThat(balance).isEqualByComparingTo("60"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("[2] 배압: 구독자가 요청한 만큼만 전달")
+    void testBackpressure() {
+        StepVerifier.create(reactiveAccountService.getAccountsByBalanceRange(BigDecimal.ZERO, INITIAL_BALANCE), 5)
+                .expectNextCount(5)
+                .expectNoEvent(Duration.ofMillis(200))
+                .thenRequest(ACCOUNTS - 5)
+                .expectNextCount(ACCOUNTS - 5)
+                .verifyComplete();
+
+        // transferAll은 concurrency 개수만큼만 상류에 요청
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        Flux<TransferCommand> commands = Flux.range(0, 500)
+                .map(i -> randomCommand())
+                .doOnNext(command -> maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max));
+
+        List<TransferOutcome> outcomes = reactiveAccountService.transferAll(commands)
+                .doOnNext(outcome -> inFlight.decrementAndGet())
+                .collectList()
+                .block(Duration.ofMinutes(1));
+
+        System.out.println("최대 동시 처리 수: " + maxInFlight.get());
+        assertThat(outcomes).hasSize(500);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(64);
+        assertThat(totalBalance()).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)));
+    }
+
+    @Test
+    @DisplayName("[3] 고동시성 비교: 블로킹(JPA, 스레드 200개) vs 리액티브(R2DBC)")
+    void testCompareWithBlocking() throws Exception {
+        List<TransferCommand> commands = new ArrayList<>();
+        for (int i = 0; i < TRANSFERS; i++) {
+            commands.add(randomCommand());
+        }
+
+        // 1. 블로킹: 동시 요청 수 = 스레드 수
+        threadMXBean.resetPeakThreadCount();
+        int threadsBefore = threadMXBean.getThreadCount();
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        AtomicInteger blockingFailures = new AtomicInteger();
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> futures = commands.stream()
+                .map(command -> CompletableFuture.runAsync(() -> {
+                    try {
+                        accountService.transfer(command.fromId(), command.toId(), command.amount());
+                    } catch (RuntimeException e) {
+                        blockingFailures.incrementAndGet();
+                    }
+                }, executor))
+                .toList();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        long blockingMillis = (System.nanoTime() - start) / 1_000_000;
+        int blockingPeakThreads = threadMXBean.getPeakThreadCount() - threadsBefore;
+        executor.shutdown();
+
+        // 2. 리액티브: 같은 동시성, 스레드는 늘리지 않음
+        threadMXBean.resetPeakThreadCount();
+        threadsBefore = threadMXBean.getThreadCount();
+        start = System.nanoTime();
+        List<TransferOutcome> outcomes = reactiveAccountService.transferAll(Flux.fromIterable(commands))
+                .collectList()
+                .block(Duration.ofMinutes(2));
+        long reactiveMillis = (System.nanoTime() - start) / 1_000_000;
+        int reactivePeakThreads = threadMXBean.getPeakThreadCount() - threadsBefore;
+        long reactiveFailures = outcomes.stream().filter(outcome -> !outcome.success()).count();
+
+        System.out.printf("블로킹: %dms (%.0f건/s), 추가 스레드 최대 %d, 실패 %d%n",
+                blockingMillis, TRANSFERS * 1000.0 / blockingMillis, blockingPeakThreads, blockingFailures.get());
+        System.out.printf("리액티브: %dms (%.0f건/s), 추가 스레드 최대 %d, 실패 %d%n",
+                reactiveMillis, TRANSFERS * 1000.0 / reactiveMillis, reactivePeakThreads, reactiveFailures);
+
+        assertThat(outcomes).hasSize(TRANSFERS);
+        assertThat(reactivePeakThreads).isLessThan(blockingPeakThreads);
+        assertThat(totalBalance()).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)));
+    }
+
+    private TransferCommand randomCommand() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(ACCOUNTS);
+        int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+        return new TransferCommand(ids.get(from), ids.get(to), BigDecimal.valueOf(1 + random.nextInt(100)));
+    }
+
+    private BigDecimal totalBalance() {
+        return accountRepository.findAll().stream()
+                .map(Account::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,127 @@
+package com.test.learningtx.read;
+
+import com.test.learningtx.dto.AccountView;
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountQueryService;
+import com.test.learningtx.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 읽기 Fast Path 벤치마크
+ *
+ * 요청 1건당 CPU 시간과 할당 바이트를 현재 스레드 기준으로 측정해서 비교한다.
+ *  - 기준(managed): 일반 트랜잭션 + 엔티티 조회 (영속성 컨텍스트, 스냅샷, 커밋 시 flush)
+ *  - fast path: readOnly 트랜잭션 + record 프로젝션
+ *
+ * 결과는 콘솔에 출력 (SQL 로그가 켜져 있으면 로그 I/O 비용이 함께 측정되므로 절대값보다 비율을 볼 것)
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ReadFastPathBenchmarkTest {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1000;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountQueryService accountQueryService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            accounts.add(new Account("READ_BENCH_" + i, BigDecimal.valueOf(1000L + i * 100L)));
+        }
+        accountId = accountRepository.saveAll(accounts).get(0).getId();
+    }
+
+    @Test
+    @DisplayName("[1] 단건 조회: managed 엔티티 vs readOnly 프로젝션")
+    void benchmarkLookup() {
+        AccountView view = accountQueryService.getAccount(accountId);
+        Account entity = accountService.getAccountById(accountId);
+        assertThat(view.balance()).isEqualByComparingTo(entity.getBalance());
+        assertThat(view.version()).isEqualTo(entity.getVersion());
+
+        Measurement managed = measure(() -> transactionTemplate.execute(status -> accountService.getAccountById(accountId)));
+        Measurement fast = measure(() -> accountQueryService.getAccount(accountId));
+
+        print("단건 조회", managed, fast);
+    }
+
+    @Test
+    @DisplayName("[2] 범위 조회: managed 엔티티 vs readOnly 프로젝션")
+    void benchmarkRange() {
+        BigDecimal min = BigDecimal.valueOf(1000L);
+        BigDecimal max = BigDecimal.valueOf(4000L);
+
+        List<AccountView> views = accountQueryService.getAccountsByBalanceRange(min, max);
+        List<Account> entities = accountRepository.findByBalanceBetween(min, max);
+        assertThat(views).hasSameSizeAs(entities);
+
+        Measurement managed = measure(() -> transactionTemplate.execute(status -> accountRepository.findByBalanceBetween(min, max)));
+        Measurement fast = measure(() -> accountQueryService.getAccountsByBalanceRange(min, max));
+
+        print("범위 조회", managed, fast);
+    }
+
+    private Measurement measure(Runnable request) {
+        for (int i = 0; i < WARMUP; i++) {
+            request.run();
+        }
+
+        long cpuBefore = threadMXBean.getCurrentThreadCpuTime();
+        long allocBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            request.run();
+        }
+        long cpu = threadMXBean.getCurrentThreadCpuTime() - cpuBefore;
+        long alloc = threadMXBean.getCurrentThreadAllocatedBytes() - allocBefore;
+
+        return new Measurement(cpu / ITERATIONS, alloc / ITERATIONS);
+    }
+
+    private void print(String title, Measurement managed, Measurement fast) {
+        System.out.printf("%n=== %s (%d회 평균) ===%n", title, ITERATIONS);
+        System.out.printf("managed  : CPU %,d ns/req, 할당 %,d bytes/req%n", managed.cpuNanos(), managed.allocatedBytes());
+        System.out.printf("fast path: CPU %,d ns/req, 할당 %,d bytes/req%n", fast.cpuNanos(), fast.allocatedBytes());
+        System.out.printf("절감     : CPU %.1f%%, 할당 %.1f%%%n",
+                saving(managed.cpuNanos(), fast.cpuNanos()),
+                saving(managed.allocatedBytes(), fast.allocatedBytes()));
+    }
+
+    private double saving(long before, long after) {
+        return before == 0 ? 0 : (before - after) * 100.0 / before;
+    }
+
+    private record Measurement(long cpuNanos, long allocatedBytes) {
+    }
+}
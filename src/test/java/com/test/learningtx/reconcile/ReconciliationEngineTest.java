@@ -0,0 +1,245 @@
+package com.test.learningtx.reconcile;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.outbox.OutboxRelay;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import com.test.learningtx.support.TxTimestamp;
+import com.test.learningtx.txlog.TxLogStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// 계좌 전체를 대사하므로 별도 DB, relay는 이 컨텍스트에서만 켜고 직접 호출 / 페이지를 작게 해서 페이지 경계와 병렬 합산을 확인
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reconciledb;LOCK_TIMEOUT=10000",
+        "learning-tx.outbox.relay-enabled=true",
+        "learning-tx.outbox.poll-interval-millis=3600000",
+        "learning-tx.reconciliation.cron=-",
+        "learning-tx.reconciliation.concurrency=3",
+        "learning-tx.reconciliation.page-size=7"
+})
+@ActiveProfiles("test")
+public class ReconciliationEngineTest {
+
+    private static final int ACCOUNTS = 30;
+    private static final BigDecimal INITIAL = BigDecimal.valueOf(1_000);
+
+    @Autowired
+    private ReconciliationEngine reconciliationEngine;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TxLogStore txLogStore;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM accounts");
+        jdbcTemplate.update("DELETE FROM account_outbox");
+        jdbcTemplate.update("DELETE FROM account_balance_history");
+        jdbcTemplate.update("DELETE FROM reconciliation_checkpoints");
+        jdbcTemplate.update("DELETE FROM reconciliation_runs");
+
+        ids.clear();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids.add(accountRepository.save(new Account("RECON-" + i, INITIAL)).getId());
+        }
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountService.transfer(ids.get(i), ids.get((i + 1) % ACCOUNTS), BigDecimal.valueOf(10 + i));
+        }
+        outboxRelay.poll();
+    }
+
+    @Test
+    @DisplayName("[1] 이력 재계산 잔액과 실제 잔액이 모두 맞고, 합계 불변식이 성립")
+    void testBalanced() {
+        // 이력 없이 들어온 계좌 (대량 적재와 같은 경로)
+        jdbcTemplate.update("INSERT INTO accounts (name, balance, version, created_at, updated_at) "
+                + "VALUES ('RECON-BULK', 500, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+
+        ReconciliationReport report = reconciliationEngine.run();
+        System.out.println(report);
+
+        assertThat(report.balanced()).isTrue();
+        assertThat(report.accounts()).isEqualTo(ACCOUNTS + 1);
+        assertThat(report.unverifiedAccounts()).isEqualTo(1);
+        assertThat(report.pendingAccounts()).isZero();
+        assertThat(report.ledgerEntries()).isEqualTo(ACCOUNTS * 3L);     // 생성 + 출금 + 입금
+        assertThat(report.flow()).isNull();     // 첫 실행은 흐름 구간 기준점만 남김
+
+        BigDecimal created = INITIAL.multiply(BigDecimal.valueOf(ACCOUNTS));
+        assertThat(report.actualTotal()).isEqualByComparingTo(created.add(BigDecimal.valueOf(500)));
+        assertThat(report.expectedTotal()).isEqualByComparingTo(report.actualTotal());
+    }
+
+    @Test
+    @DisplayName("[2] 이력 밖에서 바뀐 잔액과 끊긴 버전 사슬을 불일치로 보고")
+    void testMismatches() {
+        Long tampered = ids.get(3);
+        Long gapped = ids.get(17);
+        jdbcTemplate.update("UPDATE accounts SET balance = balance + 1 WHERE id = ?", tampered);
+        jdbcTemplate.update("DELETE FROM account_balance_history WHERE account_id = ? AND version = 1", gapped);
+
+        ReconciliationReport report = reconciliationEngine.run();
+        System.out.println(report + " " + report.mismatches());
+
+        assertThat(report.balanced()).isFalse();
+        assertThat(report.mismatchCount()).isEqualTo(2);
+        assertThat(report.mismatches())
+                .extracting(Mismatch::accountId, Mismatch::kind)
+                .containsExactlyInAnyOrder(
+                        tuple(tampered, Mismatch.Kind.BALANCE_MISMATCH),
+                        tuple(gapped, Mismatch.Kind.CHAIN_BREAK));
+        assertThat(report.actualTotal().subtract(report.expectedTotal())).isNotZero();
+    }
+
+    @Test
+    @DisplayName("[3] relay 전의 최근 변경은 불일치가 아니라 반영 대기")
+    void testPendingChanges() {
+        accountService.transfer(ids.get(0), ids.get(1), BigDecimal.ONE);
+
+        ReconciliationReport report = reconciliationEngine.run();
+
+        assertThat(report.pendingAccounts()).isEqualTo(2);
+        assertThat(report.mismatchCount()).isZero();
+        assertThat(report.balanced()).isTrue();
+    }
+
+    @Test
+    @DisplayName("[4] 두 번째 실행은 체크포인트 이후 이력만 읽고, 구간 흐름이 TxLog 입출금/이체 합과 일치")
+    void testIncrementalRunMatchesTxLog() {
+        ReconciliationEngine engine = engineWithoutGrace();
+        assertThat(engine.run().flow()).isNull();
+
+        accountService.transfer(ids.get(0), ids.get(1), BigDecimal.valueOf(100));
+        accountService.withdraw(ids.get(2), BigDecimal.valueOf(30));
+        outboxRelay.poll();
+
+        ReconciliationReport report = engine.run();
+        System.out.println(report);
+
+        assertThat(report.balanced()).isTrue();
+        assertThat(report.ledgerEntries()).isEqualTo(3);     // 이체 2 + 출금 1
+        FlowCheck flow = report.flow();
+        assertThat(flow).isNotNull();
+        assertThat(flow.transferNet()).isZero();
+        assertThat(flow.withdrawals()).isEqualByComparingTo("30");
+        assertThat(flow.ledgerFlow()).isEqualByComparingTo("-30");
+        assertThat(flow.balanced()).isTrue();
+        assertThat(report.flowBalanced()).isTrue();
+    }
+
+    @Test
+    @DisplayName("[5] TxLog 없이 바뀐 잔액은 이력과 계좌가 맞아도 흐름 대사에서 불일치")
+    void testUnauditedChangeFailsFlowCheck() {
+        ReconciliationEngine engine = engineWithoutGrace();
+        engine.run();
+
+        // 이력(아웃박스)에는 남지만 감사 로그를 쓰지 않는 경로
+        Account account = accountRepository.findById(ids.get(5)).orElseThrow();
+        account.deposit(BigDecimal.valueOf(777));
+        accountRepository.save(account);
+        outboxRelay.poll();
+
+        ReconciliationReport report = engine.run();
+        System.out.println(report);
+
+        assertThat(report.mismatchCount()).isZero();
+        assertThat(report.flow().ledgerFlow()).isEqualByComparingTo("777");
+        assertThat(report.flow().ledgerMatchesTxLog()).isFalse();
+        assertThat(report.flowBalanced()).isFalse();
+        assertThat(report.balanced()).isTrue();     // 계좌 <-> 이력 대사는 흐름과 별개
+    }
+
+    @Test
+    @DisplayName("[6] 진행 중인 사가(출금만 끝남)는 TRANSFER 합을 깨지 않고 sagaNet으로 흐름에 포함")
+    void testInFlightSagaKeepsFlowBalanced() {
+        ReconciliationEngine engine = engineWithoutGrace();
+        engine.run();
+
+        // TransferSagaService.debit과 같은 단계: 출금 + SAGA_TRANSFER -금액, 입금 단계는 아직
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Account account = accountRepository.findById(ids.get(7)).orElseThrow();
+            account.withdraw(BigDecimal.valueOf(250));
+            txLogStore.append(AccountService.SAGA_TRANSFER, account.getId(), "사가 테스트 출금",
+                    BigDecimal.valueOf(-250), TxTimestamp.now());
+        });
+        outboxRelay.poll();
+
+        ReconciliationReport report = engine.run();
+        System.out.println(report);
+
+        FlowCheck flow = report.flow();
+        assertThat(flow.transfersNetToZero()).isTrue();
+        assertThat(flow.sagaNet()).isEqualByComparingTo("-250");
+        assertThat(flow.ledgerFlow()).isEqualByComparingTo("-250");
+        assertThat(flow.balanced()).isTrue();
+        assertThat(report.balanced()).isTrue();
+    }
+
+    @Test
+    @DisplayName("[7] 같은 트랜잭션의 TxLog 시각과 이력 valid_from은 같은 값 (구간 경계에서 갈라지지 않음)")
+    void testTxLogAndHistoryShareTimestamp() {
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+        accountService.withdraw(ids.get(3), BigDecimal.valueOf(40));
+        outboxRelay.poll();
+
+        LocalDateTime logged = txLogStore.findRange(before, LocalDateTime.now().plusSeconds(1), AccountService.WITHDRAW)
+                .stream()
+                .filter(record -> ids.get(3).equals(record.accountId()))
+                .findFirst()
+                .orElseThrow()
+                .timestamp();
+        LocalDateTime validFrom = jdbcTemplate.queryForObject(
+                "SELECT MAX(valid_from) FROM account_balance_history WHERE account_id = ?",
+                LocalDateTime.class, ids.get(3));
+
+        assertThat(validFrom).isEqualTo(logged);
+    }
+
+    // 흐름 구간 끝 = 실행 시각 (방금 relay한 이력까지 구간에 넣음)
+    private ReconciliationEngine engineWithoutGrace() {
+        ReconciliationProperties properties = new ReconciliationProperties();
+        properties.setConcurrency(3);
+        properties.setPageSize(7);
+        properties.setPendingGraceMillis(0);
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        return new ReconciliationEngine(jdbcTemplate, new JdbcTemplate(dataSource), snapshot, txLogStore, properties);
+    }
+}
@@ -0,0 +1,214 @@
+package com.test.learningtx.saga;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.entity.SagaState;
+import com.test.learningtx.limit.WithdrawalLimiter;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.repository.TransferSagaRepository;
+import com.test.learningtx.service.TransferSagaService;
+import com.test.learningtx.txlog.TxLogProperties;
+import com.test.learningtx.txlog.TxLogStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TransferSagaTest {
+
+    private static final int ACCOUNTS = 100;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1_000_000L);
+
+    @Autowired
+    private TransferSagaService transferSagaService;
+
+    @Autowired
+    private TransferSagaRepository transferSagaRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SagaProperties sagaProperties;
+
+    @Autowired
+    private TxLogStore txLogStore;
+
+    @Autowired
+    private ObjectProvider<WithdrawalLimiter> withdrawalLimiter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TxLogProperties txLogProperties;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        transferSagaRepository.deleteAll();
+        accountRepository.deleteAll();
+        ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids.add(accountRepository.save(new Account("SAGA_" + i, INITIAL_BALANCE)).getId());
+        }
+    }
+
+    @Test
+    @DisplayName("[1] 출금 -> 입금 완료")
+    void testCompleted() throws Exception {
+        SagaResult result = transferSagaService.transfer(ids.get(0), ids.get(1), BigDecimal.valueOf(1_000))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(result.state()).isEqualTo(SagaState.COMPLETED);
+        assertThat(balanceOf(ids.get(0))).isEqualByComparingTo("999000");
+        assertThat(balanceOf(ids.get(1))).isEqualByComparingTo("1001000");
+    }
+
+    @Test
+    @DisplayName("[2] 잔액 부족이면 FAILED, 잔액 변화 없음")
+    void testDebitFailure() throws Exception {
+        SagaResult result = transferSagaService.transfer(ids.get(0), ids.get(1), BigDecimal.valueOf(2_000_000L))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(result.state()).isEqualTo(SagaState.FAILED);
+        assertThat(result.failureReason()).contains("잔액이 부족");
+        assertThat(balanceOf(ids.get(0))).isEqualByComparingTo(INITIAL_BALANCE);
+    }
+
+    @Test
+    @DisplayName("[3] 입금 계좌가 없으면 보상(환불) 후 COMPENSATED")
+    void testCompensation() throws Exception {
+        SagaResult result = transferSagaService.transfer(ids.get(0), Long.MAX_VALUE, BigDecimal.valueOf(1_000))
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(result.state()).isEqualTo(SagaState.COMPENSATED);
+        assertThat(result.failureReason()).contains("계좌를 찾을 수 없음");
+        assertThat(balanceOf(ids.get(0))).isEqualByComparingTo(INITIAL_BALANCE);
+    }
+
+    @Test
+    @DisplayName("[4] 무작위 이체: 전부 완료, 합계 보존 (파티션별 처리량은 출력만)")
+    void testThroughput() {
+        int partitions = Math.min(4, Runtime.getRuntime().availableProcessors());
+        double single = throughput(1, 2_000);
+        double partitioned = throughput(partitions, 2_000);
+
+        System.out.printf("파티션 1개: %.0f건/s, 파티션 %d개: %.0f건/s (%.2f배)%n",
+                single, partitions, partitioned, partitioned / single);
+        // 처리량 비율은 CI 코어 수와 부하에 따라 흔들리므로 단언하지 않음
+        assertThat(accountRepository.findAll().stream().map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)));
+    }
+
+    @Test
+    @DisplayName("[5] 입금 재시도 소진: DEBITED로 응답하지 않고 멈춰 있다가 sweep에서 입금 후 COMPLETED")
+    void testParkedCreditResumedBySweep() throws Exception {
+        SagaProperties properties = new SagaProperties();
+        properties.setMaxStageRetries(2);
+        properties.setRetryBackoffMillis(1);
+        properties.setStuckAfterMillis(0);
+        AtomicInteger creditFailures = new AtomicInteger();
+        AtomicBoolean failCredit = new AtomicBoolean(true);
+        // 입금 단계 감사 로그 기록에서 락 타임아웃을 흉내냄 (입금 트랜잭션 전체가 롤백)
+        TxLogStore flakyTxLog = new TxLogStore(jdbcTemplate, transactionManager, txLogProperties) {
+            @Override
+            public void append(String operation, Long accountId, String details, BigDecimal amount, LocalDateTime timestamp) {
+                if (details.endsWith("입금") && failCredit.get()) {
+                    creditFailures.incrementAndGet();
+                    throw new CannotAcquireLockException("테스트용 락 타임아웃");
+                }
+                super.append(operation, accountId, details, amount, timestamp);
+            }
+        };
+
+        try (PartitionedWorkers workers = new PartitionedWorkers(2)) {
+            TransferSagaService service = new TransferSagaService(transferSagaRepository, accountRepository,
+                    workers, transactionTemplate, properties, flakyTxLog, withdrawalLimiter);
+            CompletableFuture<SagaResult> future = service.transfer(ids.get(0), ids.get(1), BigDecimal.valueOf(1_000));
+
+            // 재시도 2번을 다 써도 호출자는 계속 기다림 (돈은 이동 중)
+            assertThatThrownBy(() -> future.get(500, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+            assertThat(creditFailures.get()).isEqualTo(2);
+            Long sagaId = transferSagaRepository.findAll().stream()
+                    .filter(saga -> saga.getState() == SagaState.DEBITED)
+                    .findFirst().orElseThrow().getId();
+            assertThat(balanceOf(ids.get(1))).isEqualByComparingTo(INITIAL_BALANCE);
+
+            failCredit.set(false);
+            assertThat(service.sweep()).isEqualTo(1);
+
+            SagaResult result = future.get(10, TimeUnit.SECONDS);
+            assertThat(result.sagaId()).isEqualTo(sagaId);
+            assertThat(result.state()).isEqualTo(SagaState.COMPLETED);
+            assertThat(balanceOf(ids.get(0))).isEqualByComparingTo("999000");
+            assertThat(balanceOf(ids.get(1))).isEqualByComparingTo("1001000");
+            // 끝난 사가는 다시 넣지 않음
+            assertThat(service.sweep()).isZero();
+        }
+    }
+
+    /**
+     * 파티션 수만 다른 사가 서비스로 같은 부하 실행 (앞 실행의 JIT 워밍업 이점을 줄이려고 각자 짧게 워밍업)
+     *
+     * @return 초당 완료 건수
+     */
+    private double throughput(int partitions, int transfers) {
+        try (PartitionedWorkers workers = new PartitionedWorkers(partitions)) {
+            TransferSagaService service = new TransferSagaService(transferSagaRepository, accountRepository,
+                    workers, transactionTemplate, sagaProperties, txLogStore,
+                    withdrawalLimiter);
+            runRandomTransfers(service, 200);
+            long start = System.nanoTime();
+            List<SagaResult> results = runRandomTransfers(service, transfers);
+            long elapsedNanos = System.nanoTime() - start;
+
+            assertThat(results).allMatch(result -> result.state() == SagaState.COMPLETED);
+            return transfers * 1e9 / elapsedNanos;
+        }
+    }
+
+    private List<SagaResult> runRandomTransfers(TransferSagaService service, int transfers) {
+        List<CompletableFuture<SagaResult>> futures = new ArrayList<>();
+        for (int i = 0; i < transfers; i++) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int from = random.nextInt(ACCOUNTS);
+            int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+            futures.add(service.transfer(ids.get(from), ids.get(to), BigDecimal.valueOf(1 + random.nextInt(100))));
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private BigDecimal balanceOf(Long id) {
+        return accountRepository.findById(id).orElseThrow().getBalance();
+    }
+}
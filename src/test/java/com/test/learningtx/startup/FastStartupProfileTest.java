@@ -0,0 +1,87 @@
+package com.test.learningtx.startup;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.outbox.AccountChangeCapture;
+import com.test.learningtx.outbox.OutboxFeed;
+import com.test.learningtx.outbox.OutboxRelay;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 미리 만든 스키마로 빈 DB에서 시작하도록 별도 DB 사용, relay 빈의 즉시 생성을 확인하려고 relay 켬
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:faststartupdb;LOCK_TIMEOUT=10000",
+        "learning-tx.outbox.relay-enabled=true",
+        "learning-tx.startup-probe.enabled=true"
+})
+@ActiveProfiles({"test", "fast-startup"})
+public class FastStartupProfileTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Test
+    @DisplayName("[1] 지연 초기화: 스케줄/Hibernate 리스너 빈만 즉시 생성, 서비스 빈은 첫 사용 시")
+    void testLazyInitializationKeepsBackgroundBeansEager() {
+        var beanFactory = context.getBeanFactory();
+        String[] relays = beanFactory.getBeanNamesForType(OutboxRelay.class, false, false);
+        String[] captures = beanFactory.getBeanNamesForType(AccountChangeCapture.class, false, false);
+        String[] feeds = beanFactory.getBeanNamesForType(OutboxFeed.class, false, false);
+
+        assertThat(relays).isNotEmpty().allMatch(beanFactory::containsSingleton);
+        assertThat(feeds).isNotEmpty().allMatch(beanFactory::containsSingleton);
+        assertThat(captures).allMatch(beanFactory::containsSingleton);
+        assertThat(beanFactory.getBeanDefinition("withdrawalService").isLazyInit()).isTrue();
+    }
+
+    @Test
+    @DisplayName("[2] DDL 생성 없이 미리 만든 스키마로 첫 이체 성공 (기동 측정 프로브)")
+    void testProbeTransferOnPrebuiltSchema() {
+        Account probeTarget = accountRepository.findAll().stream()
+                .filter(account -> account.getName().equals("STARTUP_PROBE_TO"))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(probeTarget.getBalance()).isEqualByComparingTo("1");
+        assertThat(context.getBean(AccountService.class)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("[3] AOT로 고정된 빈 등록 조건: 빌드 프로필과 다른 스위치/프로필만 경고 대상")
+    void testFrozenConditionDifferences() {
+        var buildProfile = AotFrozenConditionsCheck.loadBuildProfile();
+
+        // 현재 컨텍스트(test + fast-startup)는 빌드 프로필 값 그대로
+        assertThat(AotFrozenConditionsCheck.differences(context.getEnvironment(), buildProfile)).isEmpty();
+
+        MockEnvironment changed = new MockEnvironment()
+                .withProperty("learning-tx.trace.enabled", "true")
+                .withProperty("learning-tx.withdrawal-limit.enabled", "false")
+                .withProperty("learning-tx.account-index.enabled", "false")
+                .withProperty("learning-tx.balance-history.enabled", "true")
+                .withProperty("learning-tx.outbox.enabled", "true")
+                .withProperty("learning-tx.outbox.relay-enabled", "true")
+                .withProperty("learning-tx.lock-diagnostics.enabled", "true")
+                .withProperty("learning-tx.pool.instrumentation.enabled", "false");
+        changed.setActiveProfiles("l2cache");
+
+        List<String> differences = AotFrozenConditionsCheck.differences(changed, buildProfile);
+        assertThat(differences).hasSize(2);
+        assertThat(differences.get(0)).startsWith("learning-tx.trace.enabled=true");
+        assertThat(differences.get(1)).contains("l2cache");
+    }
+}
@@ -0,0 +1,115 @@
+package com.test.learningtx.stream;
+
+import com.test.learningtx.outbox.BalanceChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+public class BalanceStreamHubTest {
+
+    private final BalanceStreamHub hub = new BalanceStreamHub(new BalanceStreamProperties());
+
+    @AfterEach
+    void tearDown() {
+        hub.close();
+    }
+
+    @Test
+    @DisplayName("[1] 느린 구독자는 밀린 목록 대신 최신 값만 받음")
+    void testCoalescingForSlowSubscriber() {
+        List<BalanceUpdate> received = new CopyOnWriteArrayList<>();
+        hub.subscribe(Set.of(1L), update -> {
+            received.add(update);
+            sleep(200);     // 느린 클라이언트
+        });
+
+        for (long version = 1; version <= 100; version++) {
+            hub.onBalanceChanged(event(1L, version));
+            sleep(5);
+        }
+
+        await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> !received.isEmpty() && received.get(received.size() - 1).version() == 100L);
+        System.out.println("변경 100번 -> 전송 " + received.size() + "번");
+        assertThat(received.size()).isLessThan(20);
+        assertThat(received).extracting(BalanceUpdate::version).isSorted();
+    }
+
+    @Test
+    @DisplayName("[2] 변경 한 번을 같은 계좌 구독자 1,000명에게 팬아웃, 다른 계좌 구독자는 받지 않음")
+    void testFanOut() {
+        List<List<BalanceUpdate>> inboxes = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            List<BalanceUpdate> inbox = new CopyOnWriteArrayList<>();
+            inboxes.add(inbox);
+            hub.subscribe(Set.of(7L), inbox::add);
+        }
+        List<BalanceUpdate> other = new CopyOnWriteArrayList<>();
+        hub.subscribe(Set.of(8L), other::add);
+
+        hub.onBalanceChanged(event(7L, 3));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> inboxes.stream().allMatch(inbox -> inbox.size() == 1));
+        assertThat(other).isEmpty();
+    }
+
+    @Test
+    @DisplayName("[3] 이미 보낸 version보다 오래된 값은 보내지 않음, 전송 실패 시 구독 종료")
+    void testStaleUpdatesAndClose() {
+        List<BalanceUpdate> received = new CopyOnWriteArrayList<>();
+        BalanceStreamHub.Subscription subscription = hub.subscribe(Set.of(9L), received::add);
+        hub.onBalanceChanged(event(9L, 5));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() == 1);
+
+        // 전송이 끝난 뒤 도착한 오래된 값: pending이 비어 있어도 마지막 전송 version으로 걸러짐
+        subscription.offerSnapshot(List.of(new BalanceUpdate(9L, BigDecimal.valueOf(40), 4L)));
+        hub.onBalanceChanged(event(9L, 5));
+        hub.onBalanceChanged(event(9L, 6));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> received.get(received.size() - 1).version() == 6L);
+        assertThat(received).extracting(BalanceUpdate::version).containsExactly(5L, 6L);
+
+        hub.subscribe(Set.of(9L), update -> {
+            throw new IOException("연결 끊김");
+        });
+        assertThat(hub.subscriptionCount()).isEqualTo(2);
+        hub.onBalanceChanged(event(9L, 7));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> hub.subscriptionCount() == 1);
+    }
+
+    @Test
+    @DisplayName("[4] 구독 후 읽은 스냅샷이 그 사이 변경보다 오래됐으면 변경만 전송")
+    void testSnapshotAfterSubscribe() {
+        List<BalanceUpdate> received = new CopyOnWriteArrayList<>();
+        BalanceStreamHub.Subscription subscription = hub.subscribe(Set.of(10L), received::add);
+        hub.onBalanceChanged(event(10L, 8));     // 스냅샷을 읽는 동안 커밋된 변경
+        subscription.offerSnapshot(List.of(new BalanceUpdate(10L, BigDecimal.valueOf(70), 7L)));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> !received.isEmpty());
+        assertThat(received).extracting(BalanceUpdate::version).containsExactly(8L);
+    }
+
+    private static BalanceChangedEvent event(Long accountId, long version) {
+        return new BalanceChangedEvent(version, accountId, BalanceChangedEvent.BALANCE_CHANGED,
+                null, BigDecimal.valueOf(version * 10), version, LocalDateTime.now());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.test.learningtx.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 체크포인트 기반 트랜잭션 끼워 넣기 도구 (테스트용)
+ *
+ * 사용 순서:
+ * 1. pauseAt(이름): 해당 체크포인트에 도달한 스레드를 멈추도록 등록
+ * 2. 트랜잭션A를 별도 스레드에서 시작
+ * 3. awaitArrival(): A가 체크포인트에 도착할 때까지 대기
+ * 4. 테스트 스레드에서 트랜잭션B 실행 (커밋/flush 등)
+ * 5. resume(): A 재개
+ *
+ * sleep 없이 항상 같은 순서로 실행되므로 결과가 매번 같고 밀리초 단위로 끝난다.
+ */
+public class Interleaving implements AutoCloseable {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final TxCheckpoints checkpoints;
+    private final List<String> names = new ArrayList<>();
+    private final List<Pause> pauses = new ArrayList<>();
+
+    public Interleaving(TxCheckpoints checkpoints) {
+        this.checkpoints = checkpoints;
+    }
+
+    public Pause pauseAt(String name) {
+        Pause pause = new Pause(name);
+        checkpoints.register(name, pause::arriveAndWait);
+        names.add(name);
+        pauses.add(pause);
+        return pause;
+    }
+
+    @Override
+    public void close() {
+        // 테스트가 실패해도 멈춘 스레드가 남지 않도록 모두 재개
+        pauses.forEach(Pause::resume);
+        names.forEach(checkpoints::unregister);
+    }
+
+    public static class Pause {
+
+        private final String name;
+        private final CountDownLatch arrived = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        private Pause(String name) {
+            this.name = name;
+        }
+
+        private void arriveAndWait() {
+            arrived.countDown();
+            try {
+                if (!released.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("체크포인트 재개 대기 시간 초과: " + name);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("체크포인트 대기 중 인터럽트: " + name, e);
+            }
+        }
+
+        public void awaitArrival() throws InterruptedException {
+            if (!arrived.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new AssertionError("체크포인트에 도착하지 않음: " + name);
+            }
+        }
+
+        public void resume() {
+            released.countDown();
+        }
+    }
+}
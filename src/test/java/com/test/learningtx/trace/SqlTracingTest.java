@@ -0,0 +1,226 @@
+package com.test.learningtx.trace;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.test.learningtx.LearningTxApplication;
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountQueryService;
+import com.test.learningtx.service.AccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 풀 계측을 끄고도 트레이싱이 단독으로 기록하는지 확인
+@SpringBootTest(properties = {
+        "learning-tx.trace.enabled=true",
+        "learning-tx.trace.sample-rate=1.0",
+        "learning-tx.pool.instrumentation.enabled=false"
+})
+@ActiveProfiles("test")
+public class SqlTracingTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    // 비동기 appender를 거치지 않고 로거에 직접 붙여서 바로 확인
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Logger traceLogger;
+
+    private Long fromId;
+    private Long toId;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+        fromId = accountRepository.save(new Account("FROM", BigDecimal.valueOf(1_000))).getId();
+        toId = accountRepository.save(new Account("TO", BigDecimal.ZERO)).getId();
+
+        traceLogger = (Logger) LoggerFactory.getLogger(SqlTracer.LOGGER_NAME);
+        appender.start();
+        traceLogger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        traceLogger.detachAppender(appender);
+    }
+
+    @Test
+    @DisplayName("[1] 샘플된 호출은 SQL마다 문자열/바인드 수/시간, 종료 시 호출 레코드를 남김")
+    void testSampledCallRecords() {
+        accountService.transfer(fromId, toId, BigDecimal.TEN);
+
+        List<ILoggingEvent> events = List.copyOf(appender.list);
+        List<Map<String, Object>> statements = events.stream()
+                .filter(event -> event.getMessage().equals("sql"))
+                .map(SqlTracingTest::keyValues)
+                .toList();
+        List<Map<String, Object>> calls = events.stream()
+                .filter(event -> event.getMessage().equals("call"))
+                .map(SqlTracingTest::keyValues)
+                .toList();
+
+        statements.forEach(record -> System.out.println("sql " + record));
+        assertThat(calls).hasSize(1);
+        Map<String, Object> call = calls.get(0);
+        assertThat(call.get("method")).isEqualTo("AccountService.transfer");
+        assertThat(call.get("failed")).isEqualTo(false);
+
+        // 같은 호출의 SQL은 모두 같은 trace id
+        assertThat(statements).isNotEmpty();
+        assertThat(statements).allSatisfy(record -> assertThat(record.get("trace")).isEqualTo(call.get("trace")));
+        assertThat(statements).hasSize((Integer) call.get("statements"));
+
+        // 계좌 id 락: 두 키를 IN (?, ?)로 한 번에 잠그는 락 SQL
+        assertThat(statements)
+                .anySatisfy(record -> {
+                    assertThat((String) record.get("sql")).containsIgnoringCase("for update");
+                    assertThat(record.get("binds")).isEqualTo(2);
+                    assertThat(record.get("lock")).isEqualTo(true);
+                });
+        // 계좌 조회: id 하나 바인딩
+        assertThat(statements)
+                .anySatisfy(record -> {
+                    assertThat((String) record.get("sql")).containsIgnoringCase("from accounts");
+                    assertThat(record.get("binds")).isEqualTo(1);
+                    assertThat(record.get("lock")).isEqualTo(false);
+                });
+        assertThat(statements).allSatisfy(record -> assertThat((Long) record.get("micros")).isNotNegative());
+    }
+
+    @Test
+    @DisplayName("[2] 샘플링 결정은 객체를 만들지 않고, 비율 0이면 항상 제외")
+    void testSampleDecisionIsAllocationFree() {
+        TraceProperties properties = new TraceProperties();
+        properties.setSampleRate(0.01);
+        SqlTracer tracer = new SqlTracer(properties);
+
+        properties.setSampleRate(0.0);
+        SqlTracer disabled = new SqlTracer(properties);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long sink = 0;
+        for (int i = 0; i < 200_000; i++) {     // JIT 워밍업
+            sink += tracer.sample() + disabled.sample();
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        long sampled = 0;
+        long disabledSampled = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            if (tracer.sample() != 0) {
+                sampled++;
+            }
+            if (disabled.sample() != 0) {
+                disabledSampled++;
+            }
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertThat(sink).isNotNegative();
+        assertThat(disabledSampled).isZero();
+        assertThat(sampled).isBetween(5_000L, 15_000L);     // 1% 근처
+        assertThat(allocated).isLessThan(64 * 1024);
+    }
+
+    @Test
+    @DisplayName("[3] 샘플 제외 서비스 호출은 트레이싱을 끈 것과 같은 만큼만 할당 (인터셉터 + DataSource 래퍼 포함)")
+    void testUnsampledServiceCallAllocatesNothingExtra() {
+        // 트레이싱만 다른 두 인스턴스: 켬(샘플 비율 0) / 끔, 둘 다 풀 계측 끔
+        try (ConfigurableApplicationContext traced = startNode("traceallocon", true);
+             ConfigurableApplicationContext untraced = startNode("traceallocoff", false)) {
+            assertThat(traced.getBean(DataSource.class)).isInstanceOf(TracingDataSource.class);
+            assertThat(untraced.getBean(DataSource.class)).isNotInstanceOf(TracingDataSource.class);
+
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().getId();
+            int calls = 5_000;
+
+            ServiceCall tracedCall = serviceCall(traced);
+            ServiceCall untracedCall = serviceCall(untraced);
+            for (int i = 0; i < 20_000; i++) {     // JIT 워밍업 (두 인스턴스가 같은 클래스를 공유)
+                tracedCall.run();
+                untracedCall.run();
+            }
+
+            // 번갈아 여러 번 재고 최솟값 비교 (GC/JIT 시점 차이 제거)
+            long tracedBytes = Long.MAX_VALUE;
+            long untracedBytes = Long.MAX_VALUE;
+            for (int round = 0; round < 3; round++) {
+                tracedBytes = Math.min(tracedBytes, allocatedPerCall(threads, threadId, tracedCall, calls));
+                untracedBytes = Math.min(untracedBytes, allocatedPerCall(threads, threadId, untracedCall, calls));
+            }
+            System.out.printf("호출당 할당: 트레이싱 켬(샘플 제외)=%d bytes, 끔=%d bytes%n", tracedBytes, untracedBytes);
+
+            assertThat(appender.list).isEmpty();
+            // 조인포인트/컨텍스트/커넥션·Statement 프록시/setter 인자 배열 중 하나만 생겨도 호출당 수십 바이트 이상
+            assertThat(tracedBytes - untracedBytes).isLessThan(32);
+        }
+    }
+
+    private static ServiceCall serviceCall(ConfigurableApplicationContext node) {
+        // 로그 없는 읽기 전용 트랜잭션 + SQL 한 번 (트랜잭션 인터셉터가 있어 프록시 호출 체인은 두 인스턴스가 같음)
+        AccountQueryService service = node.getBean(AccountQueryService.class);
+        Long id = node.getBean(AccountRepository.class).save(new Account("ALLOC", BigDecimal.ONE)).getId();
+        return () -> service.getAccount(id);
+    }
+
+    private static long allocatedPerCall(com.sun.management.ThreadMXBean threads, long threadId,
+                                         ServiceCall call, int calls) {
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < calls; i++) {
+            call.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / calls;
+    }
+
+    private static ConfigurableApplicationContext startNode(String database, boolean traceEnabled) {
+        return new SpringApplicationBuilder(LearningTxApplication.class)
+                .profiles("test")
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";LOCK_TIMEOUT=10000",
+                        "learning-tx.trace.enabled=" + traceEnabled,
+                        "learning-tx.trace.sample-rate=0.0",
+                        "learning-tx.pool.instrumentation.enabled=false")
+                .run();
+    }
+
+    @FunctionalInterface
+    private interface ServiceCall {
+        void run();
+    }
+
+    private static Map<String, Object> keyValues(ILoggingEvent event) {
+        Map<String, Object> values = new HashMap<>();
+        for (KeyValuePair pair : event.getKeyValuePairs()) {
+            values.put(pair.key, pair.value);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,175 @@
+package com.test.learningtx.transfer;
+
+import com.test.learningtx.dto.TransferLeg;
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import com.test.learningtx.update.CapturingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.test.learningtx.update.CapturingStatementInspector")
+@ActiveProfiles("test")
+public class MultiLegTransferTest {
+
+    private static final int ACCOUNTS = 50;
+    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(100_000L);
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+        ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids.add(accountRepository.save(new Account("LEG_" + i, INITIAL_BALANCE)).getId());
+        }
+        CapturingStatementInspector.clear();
+    }
+
+    @Test
+    @DisplayName("[1] 일괄 지급: 계좌 10개를 락 조회 1번으로 잠그고 합계 보존")
+    void testFanOutPayout() {
+        List<TransferLeg> legs = new ArrayList<>();
+        legs.add(TransferLeg.debit(ids.get(0), BigDecimal.valueOf(9_000)));
+        for (int i = 1; i < 10; i++) {
+            legs.add(TransferLeg.credit(ids.get(i), BigDecimal.valueOf(1_000)));
+        }
+
+        accountService.transfer(legs);
+
+        List<String> lockSelects = accountLockSelects();
+        System.out.println("락 조회 SQL: " + lockSelects);
+        assertThat(lockSelects).hasSize(1);
+        assertThat(CapturingStatementInspector.updatesOf("accounts")).isNotEmpty();
+
+        assertThat(balanceOf(ids.get(0))).isEqualByComparingTo("91000");
+        for (int i = 1; i < 10; i++) {
+            assertThat(balanceOf(ids.get(i))).isEqualByComparingTo("101000");
+        }
+        assertThat(totalBalance()).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)));
+    }
+
+    @Test
+    @DisplayName("[2] 합계가 0이 아니거나 잔액 부족이면 전체 롤백")
+    void testValidationAndRollback() {
+        assertThatThrownBy(() -> accountService.transfer(List.of(
+                TransferLeg.debit(ids.get(0), BigDecimal.valueOf(1_000)),
+                TransferLeg.credit(ids.get(1), BigDecimal.valueOf(999)))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // 앞 계좌는 입금, 마지막 계좌에서 잔액 부족 -> 입금도 롤백되어야 함
+        assertThatThrownBy(() -> accountService.transfer(List.of(
+                TransferLeg.credit(ids.get(0), BigDecimal.valueOf(200_001)),
+                TransferLeg.debit(ids.get(1), BigDecimal.valueOf(100_000)),
+                TransferLeg.debit(ids.get(2), BigDecimal.valueOf(100_001)))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("잔액이 부족");
+
+        assertThat(balanceOf(ids.get(0))).isEqualByComparingTo(INITIAL_BALANCE);
+        assertThat(totalBalance()).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)));
+    }
+
+    @Test
+    @DisplayName("[3] 구간 수와 상관없이 계좌 락 조회 1번 + UPDATE 배치 1번 (단건 이체로 나누면 이체마다), 지연 시간은 출력만")
+    void testStatementsPerLegCount() {
+        // 락 조회 1번 + UPDATE 배치 1번 -> 계좌 수에 비례하지 않음 (batch_size 50 이하)
+        for (int legCount : List.of(3, 10, ACCOUNTS)) {
+            CapturingStatementInspector.clear();
+            accountService.transfer(payout(legCount));
+            assertThat(accountLockSelects()).as("%d개 구간 락 조회", legCount).hasSize(1);
+            // 배치로 묶인 UPDATE는 한 번만 준비(prepare)되므로 검사기에도 한 번만 보임
+            assertThat(CapturingStatementInspector.updatesOf("accounts")).as("%d개 구간 UPDATE", legCount).hasSize(1);
+        }
+
+        // 같은 지급을 단건 이체로 나누면 이체(트랜잭션)마다 계좌 조회 2번 + UPDATE 배치 1번
+        CapturingStatementInspector.clear();
+        for (int i = 1; i < ACCOUNTS; i++) {
+            accountService.transfer(ids.get(0), ids.get(i), BigDecimal.ONE);
+        }
+        int singleStatements = CapturingStatementInspector.statementsContaining("accounts").size();
+        assertThat(CapturingStatementInspector.updatesOf("accounts")).hasSize(ACCOUNTS - 1);
+        assertThat(singleStatements).isGreaterThanOrEqualTo(3 * (ACCOUNTS - 1));
+
+        int iterations = 50;
+        long small = measure(3, iterations);
+        long large = measure(ACCOUNTS, iterations);
+        long singles = measureSingles(ACCOUNTS, iterations);
+        System.out.printf("accounts SQL: %d개 구간 1건은 락 조회 + UPDATE 배치 1번씩, 단건 이체 %d번은 %d개%n", ACCOUNTS, ACCOUNTS - 1, singleStatements);
+        System.out.printf("3개 구간: %.2fms/건, %d개 구간: %.2fms/건, 단건 이체 %d번: %.2fms/건%n",
+                small / iterations / 1e6, ACCOUNTS, large / iterations / 1e6, ACCOUNTS - 1, singles / iterations / 1e6);
+
+        assertThat(totalBalance()).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)));
+    }
+
+    private List<TransferLeg> payout(int legCount) {
+        List<TransferLeg> legs = new ArrayList<>();
+        legs.add(TransferLeg.debit(ids.get(0), BigDecimal.valueOf(legCount - 1)));
+        for (int i = 1; i < legCount; i++) {
+            legs.add(TransferLeg.credit(ids.get(i), BigDecimal.ONE));
+        }
+        return legs;
+    }
+
+    private static List<String> accountLockSelects() {
+        return CapturingStatementInspector.statementsContaining("for update").stream()
+                .filter(sql -> sql.toLowerCase().contains("accounts"))
+                .toList();
+    }
+
+    private long measure(int legCount, int iterations) {
+        List<TransferLeg> legs = payout(legCount);
+        for (int i = 0; i < 20; i++) {
+            accountService.transfer(legs);     // 워밍업
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            accountService.transfer(legs);
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * measure(legCount)와 같은 지급을 단건 이체 (legCount - 1)번으로
+     */
+    private long measureSingles(int legCount, int iterations) {
+        for (int i = 1; i < legCount; i++) {
+            accountService.transfer(ids.get(0), ids.get(i), BigDecimal.ONE);     // 워밍업
+        }
+        long start = System.nanoTime();
+        for (int n = 0; n < iterations; n++) {
+            for (int i = 1; i < legCount; i++) {
+                accountService.transfer(ids.get(0), ids.get(i), BigDecimal.ONE);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private BigDecimal balanceOf(Long id) {
+        return accountRepository.findById(id).orElseThrow().getBalance();
+    }
+
+    private BigDecimal totalBalance() {
+        return accountRepository.findAll().stream()
+                .map(Account::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,75 @@
+package com.test.learningtx.txlog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 다른 테스트 컨텍스트의 집계가 워터마크를 옮기지 않도록 별도 DB 사용
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rollupdb;LOCK_TIMEOUT=10000",
+        "learning-tx.tx-log.rollup.interval-millis=3600000"   // 스케줄 대신 aggregateUntil 직접 호출
+})
+@ActiveProfiles("test")
+public class TxLogRollupsTest {
+
+    @Autowired
+    private TxLogStore txLogStore;
+
+    @Autowired
+    private TxLogRollups txLogRollups;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("[1] 집계 테이블 + 미집계 꼬리 합산, 원본 로그를 지워도 집계분은 유지")
+    void testRollupsCombineWithTail() {
+        // 워터마크(오늘 0시)보다 뒤인 내일 날짜로 기록
+        LocalDate day = LocalDate.now().plusDays(1);
+        LocalDateTime dayStart = day.atStartOfDay();
+        txLogStore.append("WITHDRAW", null, "출금", new BigDecimal("100"), dayStart.plusHours(1).plusSeconds(10));
+        txLogStore.append("WITHDRAW", null, "출금", new BigDecimal("200"), dayStart.plusHours(1).plusSeconds(50));
+        txLogStore.append("DEPOSIT", null, "입금", new BigDecimal("300"), dayStart.plusHours(1).plusMinutes(30));
+        txLogStore.append("WITHDRAW", null, "출금", new BigDecimal("400"), dayStart.plusHours(1).plusMinutes(59));
+        txLogStore.append("WITHDRAW", null, "출금", new BigDecimal("500"), dayStart.plusHours(2).plusMinutes(10));
+
+        assertThat(txLogRollups.aggregateUntil(dayStart.plusHours(2))).isEqualTo(4);
+        assertThat(txLogRollups.watermark()).isEqualTo(dayStart.plusHours(2));
+
+        // 집계된 구간의 원본을 지워도 결과가 같아야 집계 테이블에서 읽은 것
+        jdbcTemplate.update("DELETE FROM tx_logs_" + day.format(DateTimeFormatter.BASIC_ISO_DATE) + " WHERE timestamp < ?",
+                Timestamp.valueOf(dayStart.plusHours(2)));
+
+        List<TxLogStat> minutes = txLogRollups.stats(Granularity.MINUTE,
+                dayStart.plusHours(1), dayStart.plusHours(1).plusMinutes(1), "WITHDRAW");
+        assertThat(minutes).containsExactly(
+                new TxLogStat(dayStart.plusHours(1), "WITHDRAW", 2, new BigDecimal("300.00")));
+
+        // 02시 버킷은 아직 집계 안 된 꼬리(원본)에서
+        List<TxLogStat> hours = txLogRollups.stats(Granularity.HOUR, dayStart, dayStart.plusDays(1), "WITHDRAW");
+        assertThat(hours).containsExactly(
+                new TxLogStat(dayStart.plusHours(1), "WITHDRAW", 3, new BigDecimal("700.00")),
+                new TxLogStat(dayStart.plusHours(2), "WITHDRAW", 1, new BigDecimal("500.00")));
+
+        List<TxLogStat> days = txLogRollups.stats(Granularity.DAY, dayStart, dayStart.plusDays(1), null);
+        assertThat(days).containsExactly(
+                new TxLogStat(dayStart, "DEPOSIT", 1, new BigDecimal("300.00")),
+                new TxLogStat(dayStart, "WITHDRAW", 4, new BigDecimal("1200.00")));
+
+        // 꼬리까지 집계해도 중복 없이 같은 결과
+        assertThat(txLogRollups.aggregateUntil(dayStart.plusHours(3))).isEqualTo(1);
+        assertThat(txLogRollups.stats(Granularity.DAY, dayStart, dayStart.plusDays(1), null)).isEqualTo(days);
+    }
+}
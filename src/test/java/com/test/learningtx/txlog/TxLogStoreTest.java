@@ -0,0 +1,142 @@
+package com.test.learningtx.txlog;
+
+import com.test.learningtx.dto.TransferLeg;
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.reactive.ReactiveAccountService;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class TxLogStoreTest {
+
+    // 실제 날짜 테이블과 겹치지 않도록 과거 날짜 사용
+    private static final LocalDate DAY1 = LocalDate.of(2001, 1, 1);
+    private static final LocalDate DAY2 = DAY1.plusDays(1);
+    private static final LocalDate DAY3 = DAY1.plusDays(2);
+
+    @Autowired
+    private TxLogStore txLogStore;
+
+    @Autowired
+    private TxLogProperties properties;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private ReactiveAccountService reactiveAccountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        txLogStore.dropBefore(DAY1.plusDays(10));
+        for (LocalDate day : List.of(DAY1, DAY2, DAY3)) {
+            for (int hour = 0; hour < 24; hour++) {
+                txLogStore.append("WITHDRAW", "출금 " + hour, day.atTime(hour, 0));
+                txLogStore.append("DEPOSIT", "입금 " + hour, day.atTime(hour, 30));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("[1] 기간 조회는 걸친 날짜 테이블만 읽음")
+    void testRangeQueryPrunesPartitions() {
+        LocalDateTime from = DAY2.atTime(10, 0);
+        LocalDateTime to = DAY2.atTime(11, 0);
+
+        assertThat(txLogStore.partitionsFor(from, to)).containsExactly(DAY2);
+        assertThat(txLogStore.partitionsFor(DAY1.atTime(23, 0), DAY3.atStartOfDay())).containsExactly(DAY1, DAY2);
+
+        List<TxLogRecord> withdrawals = txLogStore.findRange(from, to, "WITHDRAW");
+        assertThat(withdrawals).hasSize(1);
+        assertThat(withdrawals.get(0).details()).isEqualTo("출금 10");
+        assertThat(withdrawals.get(0).day()).isEqualTo(DAY2);
+
+        List<TxLogRecord> all = txLogStore.findRange(DAY1.atTime(23, 0), DAY2.atTime(1, 0), null);
+        assertThat(all).extracting(TxLogRecord::timestamp).isSorted().hasSize(4);
+    }
+
+    @Test
+    @DisplayName("[2] 보관 기간 정리는 날짜 테이블 DROP")
+    void testRetentionDropsPartitions() {
+        assertThat(txLogStore.dropBefore(DAY3)).isEqualTo(2);
+
+        assertThat(txLogStore.days()).doesNotContain(DAY1, DAY2).contains(DAY3);
+        assertThat(txLogStore.findRange(DAY1.atStartOfDay(), DAY3.plusDays(1).atStartOfDay(), null)).hasSize(48);
+    }
+
+    @Test
+    @DisplayName("[3] 이체/다중 이체/리액티브 경로도 감사 로그를 남기고, 이체 구간 합계는 0")
+    void testEveryBalanceChangeIsAudited() {
+        Long a = accountRepository.save(new Account("AUDIT_A", BigDecimal.valueOf(10_000))).getId();
+        Long b = accountRepository.save(new Account("AUDIT_B", BigDecimal.valueOf(10_000))).getId();
+        Long c = accountRepository.save(new Account("AUDIT_C", BigDecimal.valueOf(10_000))).getId();
+        LocalDateTime from = LocalDateTime.now().minusSeconds(1);
+
+        accountService.transfer(a, b, BigDecimal.valueOf(100));
+        accountService.transfer(List.of(TransferLeg.debit(a, BigDecimal.valueOf(300)),
+                TransferLeg.credit(b, BigDecimal.valueOf(200)), TransferLeg.credit(c, BigDecimal.valueOf(100))));
+        reactiveAccountService.transfer(c, a, BigDecimal.valueOf(50)).block();
+        reactiveAccountService.withdraw(c, BigDecimal.valueOf(70)).block();
+
+        List<TxLogRecord> logs = txLogStore.findRange(from, LocalDateTime.now().plusSeconds(1), null).stream()
+                .filter(log -> List.of(a, b, c).contains(log.accountId()))
+                .toList();
+        List<TxLogRecord> transfers = logs.stream().filter(log -> AccountService.TRANSFER.equals(log.operation())).toList();
+        assertThat(transfers).hasSize(7);
+        assertThat(transfers.stream().map(TxLogRecord::amount).reduce(BigDecimal.ZERO, BigDecimal::add)).isZero();
+        assertThat(logs).filteredOn(log -> AccountService.WITHDRAW.equals(log.operation()))
+                .extracting(TxLogRecord::accountId).containsExactly(c);
+
+        // 계좌별 감사 로그 합계 = 잔액 변화
+        for (Long id : List.of(a, b, c)) {
+            BigDecimal audited = logs.stream().filter(log -> log.accountId().equals(id))
+                    .map(log -> AccountService.WITHDRAW.equals(log.operation()) ? log.amount().negate() : log.amount())
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            BigDecimal balance = accountRepository.findById(id).orElseThrow().getBalance();
+            assertThat(balance.subtract(BigDecimal.valueOf(10_000))).isEqualByComparingTo(audited);
+        }
+    }
+
+    @Test
+    @DisplayName("[4] 날짜 테이블은 미리 만들어 두고, 단일 tx_logs는 보관 기간 지난 행만 삭제")
+    void testCreateAheadAndLegacyRetention() {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i <= properties.getCreateAheadDays(); i++) {
+            assertThat(txLogStore.days()).contains(today.plusDays(i));
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(properties.getRetentionDays());
+        jdbcTemplate.update("DELETE FROM tx_logs");
+        for (int i = 1; i <= 5; i++) {
+            jdbcTemplate.update("INSERT INTO tx_logs (operation, details, timestamp) VALUES (?, ?, ?)",
+                    "WITHDRAW", "예전 로그 " + i, Timestamp.valueOf(cutoff.minusDays(i)));
+        }
+        jdbcTemplate.update("INSERT INTO tx_logs (operation, details, timestamp) VALUES (?, ?, ?)",
+                "WITHDRAW", "최근 로그", Timestamp.valueOf(LocalDateTime.now()));
+
+        assertThat(txLogStore.purgeLegacyBefore(cutoff)).isEqualTo(5);
+        assertThat(jdbcTemplate.queryForList("SELECT details FROM tx_logs", String.class)).containsExactly("최근 로그");
+    }
+}
@@ -0,0 +1,38 @@
+package com.test.learningtx.update;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Hibernate가 실행하는 SQL을 가로채서 저장 (테스트용)
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static List<String> updatesOf(String table) {
+        String prefix = "update " + table + " ";
+        return STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().startsWith(prefix))
+                .toList();
+    }
+
+    public static List<String> statementsContaining(String fragment) {
+        String lower = fragment.toLowerCase();
+        return STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().contains(lower))
+                .toList();
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+}
@@ -0,0 +1,153 @@
+package com.test.learningtx.update;
+
+import com.test.learningtx.entity.Account;
+import com.test.learningtx.repository.AccountRepository;
+import com.test.learningtx.service.AccountService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Minimal-UPDATE 모드 확인 + 벤치마크
+ *
+ * 1. @DynamicUpdate: 이체 UPDATE에 balance, version, updated_at만 포함되는지 (전체 컬럼 UPDATE와 크기 비교)
+ * 2. 불필요한 save() 제거: 영속 엔티티에 save()(merge)를 호출할 때와 안 할 때의 flush 구간 CPU 비교
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.test.learningtx.update.CapturingStatementInspector")
+@ActiveProfiles("test")
+public class MinimalUpdateBenchmarkTest {
+
+    private static final int ITERATIONS = 500;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Account from;
+    private Account to;
+
+    @BeforeEach
+    void setUp() {
+        accountRepository.deleteAll();
+        Account a = new Account("MIN_UPDATE_FROM", BigDecimal.valueOf(1_000_000L));
+        a.setAccountNumber("110-000-000001");
+        Account b = new Account("MIN_UPDATE_TO", BigDecimal.valueOf(1_000_000L));
+        b.setAccountNumber("110-000-000002");
+        from = accountRepository.save(a);
+        to = accountRepository.save(b);
+        CapturingStatementInspector.clear();
+    }
+
+    @Test
+    @DisplayName("[1] 이체 UPDATE에는 변경된 컬럼만 포함")
+    void testOnlyChangedColumnsAreUpdated() {
+        accountService.transfer(from.getId(), to.getId(), BigDecimal.valueOf(1000L));
+
+        List<String> updates = CapturingStatementInspector.updatesOf("accounts");
+        assertThat(updates).hasSize(2);
+
+        String update = updates.get(0);
+        String setClause = update.substring(0, update.toLowerCase().indexOf(" where "));
+        System.out.printf("실행된 UPDATE: %s%n", update);
+
+        assertThat(setClause).contains("balance", "version", "updated_at");
+        assertThat(setClause).doesNotContain("account_number", "created_at", "name");
+
+        // 비교 기준: @DynamicUpdate가 없을 때 id를 제외한 갱신 가능한 모든 컬럼이 SET에 포함됨
+        // (JPA 속성 이름이 아니라 Hibernate 매핑의 실제 컬럼 이름, updatable = false 컬럼 제외)
+        List<String> allColumns = updatableColumns(Account.class);
+        assertThat(allColumns).contains("balance", "version", "updated_at", "account_number")
+                .doesNotContain("created_at");
+        String fullUpdate = "update accounts set " + String.join("=?,", allColumns) + "=? where id=? and version=?";
+        int dynamicColumns = setClause.split("=\\?").length - 1;
+
+        System.out.printf("%n=== UPDATE 크기 비교 ===%n");
+        System.out.printf("전체 컬럼 UPDATE: SET 컬럼 %d개, SQL %d bytes%n",
+                allColumns.size(), fullUpdate.getBytes(StandardCharsets.UTF_8).length);
+        System.out.printf("DynamicUpdate  : SET 컬럼 %d개, SQL %d bytes%n",
+                dynamicColumns, update.getBytes(StandardCharsets.UTF_8).length);
+        System.out.printf("(바인드 값도 SET 컬럼 수에 비례해서 줄어듦: account_number, name, created_at 제외)%n");
+
+        assertThat(dynamicColumns).isLessThan(allColumns.size());
+    }
+
+    private List<String> updatableColumns(Class<?> entityClass) {
+        EntityPersister persister = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(entityClass);
+        List<String> columns = new ArrayList<>();
+        for (int i = 0; i < persister.getNumberOfAttributeMappings(); i++) {
+            persister.getAttributeMapping(i).forEachSelectable((index, selectable) -> {
+                if (selectable.isUpdateable()) {
+                    columns.add(selectable.getSelectionExpression());
+                }
+            });
+        }
+        return columns;
+    }
+
+    @Test
+    @DisplayName("[2] 영속 엔티티에 대한 불필요한 save() 제거 효과 (flush 구간 CPU)")
+    void benchmarkRedundantSave() {
+        long withSave = measure(true);
+        long withoutSave = measure(false);
+
+        System.out.printf("%n=== 이체 1건당 CPU (%d회 평균) ===%n", ITERATIONS);
+        System.out.printf("save() 호출  : %,d ns%n", withSave);
+        System.out.printf("Dirty Checking: %,d ns%n", withoutSave);
+        System.out.printf("절감         : %.1f%%%n", withSave == 0 ? 0 : (withSave - withoutSave) * 100.0 / withSave);
+
+        Account finalFrom = accountRepository.findById(from.getId()).orElseThrow();
+        assertThat(finalFrom.getBalance()).isEqualByComparingTo(BigDecimal.valueOf(1_000_000L - 2L * 2 * ITERATIONS));
+    }
+
+    private long measure(boolean redundantSave) {
+        Runnable unitOfWork = () -> transactionTemplate.executeWithoutResult(status -> {
+            Account source = accountRepository.findById(from.getId()).orElseThrow();
+            Account target = accountRepository.findById(to.getId()).orElseThrow();
+            source.withdraw(BigDecimal.ONE);
+            target.deposit(BigDecimal.ONE);
+            if (redundantSave) {
+                accountRepository.save(source);
+                accountRepository.save(target);
+            }
+        });
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            unitOfWork.run();   // warm-up
+        }
+        long cpuBefore = threadMXBean.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            unitOfWork.run();
+        }
+        return (threadMXBean.getCurrentThreadCpuTime() - cpuBefore) / ITERATIONS;
+    }
+}